@@ -1,6 +1,10 @@
 package com.evento.backend.config;
 
 import com.evento.backend.domain.Sesion;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -14,6 +18,17 @@ public class ApplicationProperties {
     private final Liquibase liquibase = new Liquibase();
     private final Proxy proxy = new Proxy();
     private final Sesion sesion = new Sesion();
+    private final Disponibilidad disponibilidad = new Disponibilidad();
+    private final Confirmacion confirmacion = new Confirmacion();
+    private final Idempotencia idempotencia = new Idempotencia();
+    private final Reconciliacion reconciliacion = new Reconciliacion();
+    private final RedisCodec redisCodec = new RedisCodec();
+    private final CacheLocal cacheLocal = new CacheLocal();
+    private final ReservaAsientos reservaAsientos = new ReservaAsientos();
+    private final SalaEspera salaEspera = new SalaEspera();
+    private final LimiteTasa limiteTasa = new LimiteTasa();
+    private final HttpCliente httpCliente = new HttpCliente();
+    private final Resiliencia resiliencia = new Resiliencia();
 
     // jhipster-needle-application-properties-property
     public Liquibase getLiquibase() {
@@ -25,6 +40,39 @@ public class ApplicationProperties {
     public Sesion getSesion() {
         return sesion;
     }
+    public Disponibilidad getDisponibilidad() {
+        return disponibilidad;
+    }
+    public Confirmacion getConfirmacion() {
+        return confirmacion;
+    }
+    public Idempotencia getIdempotencia() {
+        return idempotencia;
+    }
+    public Reconciliacion getReconciliacion() {
+        return reconciliacion;
+    }
+    public RedisCodec getRedisCodec() {
+        return redisCodec;
+    }
+    public CacheLocal getCacheLocal() {
+        return cacheLocal;
+    }
+    public ReservaAsientos getReservaAsientos() {
+        return reservaAsientos;
+    }
+    public SalaEspera getSalaEspera() {
+        return salaEspera;
+    }
+    public LimiteTasa getLimiteTasa() {
+        return limiteTasa;
+    }
+    public HttpCliente getHttpCliente() {
+        return httpCliente;
+    }
+    public Resiliencia getResiliencia() {
+        return resiliencia;
+    }
 
     // jhipster-needle-application-properties-property-getter
     public static class Liquibase {
@@ -42,6 +90,9 @@ public class ApplicationProperties {
     public static class Proxy {
 
         private String baseUrl = "http://localhost:8082";
+        /**
+         * Timeout de lectura (ms) de las llamadas al Proxy, salvo que se configure http-cliente.proxy.read-timeout-ms.
+         */
         private Integer timeout = 5000;
         public String getBaseUrl() {
             return baseUrl;
@@ -82,5 +133,665 @@ public class ApplicationProperties {
             return ttlMinutos * 60L;
         }
     }
+    /**
+     * Configuración de la consulta de disponibilidad de asientos
+     */
+    public static class Disponibilidad {
+        /**
+         * TTL (ms) de la cache de asientos por evento. 0 desactiva la cache.
+         */
+        private Long cacheTtlMs = 1000L;
+        public Long getCacheTtlMs() {
+            return cacheTtlMs;
+        }
+        public void setCacheTtlMs(Long cacheTtlMs) {
+            this.cacheTtlMs = cacheTtlMs;
+        }
+        /**
+         * Cantidad de versiones (cambios) que se conservan por evento para responder deltas.
+         */
+        private Integer historialVersiones = 100;
+        public Integer getHistorialVersiones() {
+            return historialVersiones;
+        }
+        public void setHistorialVersiones(Integer historialVersiones) {
+            this.historialVersiones = historialVersiones;
+        }
+        /**
+         * Intervalo (ms) entre consultas al Proxy del poller de cada evento con suscriptores SSE.
+         */
+        private Long streamIntervaloMs = 1000L;
+        /**
+         * Intervalo (ms) máximo sin enviar datos antes de mandar un heartbeat.
+         */
+        private Long streamHeartbeatMs = 15000L;
+        /**
+         * Máximo de suscriptores SSE por nodo (todos los eventos).
+         */
+        private Integer streamMaxSuscriptores = 1000;
+        /**
+         * Eventos pendientes por suscriptor; si se llena, el suscriptor se desconecta.
+         */
+        private Integer streamBufferEventos = 32;
+        public Long getStreamIntervaloMs() {
+            return streamIntervaloMs;
+        }
+        public void setStreamIntervaloMs(Long streamIntervaloMs) {
+            this.streamIntervaloMs = streamIntervaloMs;
+        }
+        public Long getStreamHeartbeatMs() {
+            return streamHeartbeatMs;
+        }
+        public void setStreamHeartbeatMs(Long streamHeartbeatMs) {
+            this.streamHeartbeatMs = streamHeartbeatMs;
+        }
+        public Integer getStreamMaxSuscriptores() {
+            return streamMaxSuscriptores;
+        }
+        public void setStreamMaxSuscriptores(Integer streamMaxSuscriptores) {
+            this.streamMaxSuscriptores = streamMaxSuscriptores;
+        }
+        public Integer getStreamBufferEventos() {
+            return streamBufferEventos;
+        }
+        public void setStreamBufferEventos(Integer streamBufferEventos) {
+            this.streamBufferEventos = streamBufferEventos;
+        }
+    }
+    /**
+     * Configuración de las confirmaciones de venta asíncronas
+     */
+    public static class Confirmacion {
+        /**
+         * Workers que confirman ventas en paralelo (llamadas concurrentes a cátedra por nodo).
+         */
+        private Integer workers = 4;
+        /**
+         * Confirmaciones en espera por nodo; con la cola llena se responde 503.
+         */
+        private Integer capacidadCola = 100;
+        /**
+         * Tiempo de vida (minutos) del ticket en Redis.
+         */
+        private Integer ttlMinutos = 30;
+        /**
+         * Vida (segundos) de la marca de confirmación en curso del usuario. El nodo que la procesa la
+         * renueva cada 30 segundos; si el nodo cae, vence y el ticket pasa a ERROR.
+         */
+        private Integer enCursoTtlSegundos = 90;
+        /**
+         * Tiempo máximo (ms) de un stream de confirmación; al vencer el cliente vuelve a consultar.
+         */
+        private Long streamTimeoutMs = 60000L;
+        public Integer getWorkers() {
+            return workers;
+        }
+        public void setWorkers(Integer workers) {
+            this.workers = workers;
+        }
+        public Integer getCapacidadCola() {
+            return capacidadCola;
+        }
+        public void setCapacidadCola(Integer capacidadCola) {
+            this.capacidadCola = capacidadCola;
+        }
+        public Integer getTtlMinutos() {
+            return ttlMinutos;
+        }
+        public void setTtlMinutos(Integer ttlMinutos) {
+            this.ttlMinutos = ttlMinutos;
+        }
+        public Integer getEnCursoTtlSegundos() {
+            return enCursoTtlSegundos;
+        }
+        public void setEnCursoTtlSegundos(Integer enCursoTtlSegundos) {
+            this.enCursoTtlSegundos = enCursoTtlSegundos;
+        }
+        public Long getStreamTimeoutMs() {
+            return streamTimeoutMs;
+        }
+        public void setStreamTimeoutMs(Long streamTimeoutMs) {
+            this.streamTimeoutMs = streamTimeoutMs;
+        }
+    }
+    /**
+     * Configuración de Idempotency-Key en los endpoints de compra
+     */
+    public static class Idempotencia {
+        /**
+         * Tiempo de vida (minutos) de la respuesta guardada para cada key.
+         */
+        private Integer ttlMinutos = 60;
+        /**
+         * Tiempo (segundos) que una key queda reservada mientras el primer request se ejecuta.
+         * Debe superar la duración máxima de una confirmación; si el nodo cae, la key se libera al vencer.
+         */
+        private Integer enCursoTtlSegundos = 120;
+        /**
+         * Espera máxima (ms) de un re-intento por el resultado del primer request antes de responder 409.
+         */
+        private Long esperaMaxMs = 10000L;
+        public Integer getTtlMinutos() {
+            return ttlMinutos;
+        }
+        public void setTtlMinutos(Integer ttlMinutos) {
+            this.ttlMinutos = ttlMinutos;
+        }
+        public Integer getEnCursoTtlSegundos() {
+            return enCursoTtlSegundos;
+        }
+        public void setEnCursoTtlSegundos(Integer enCursoTtlSegundos) {
+            this.enCursoTtlSegundos = enCursoTtlSegundos;
+        }
+        public Long getEsperaMaxMs() {
+            return esperaMaxMs;
+        }
+        public void setEsperaMaxMs(Long esperaMaxMs) {
+            this.esperaMaxMs = esperaMaxMs;
+        }
+    }
+    /**
+     * Configuración del re-intento automático de ventas PENDIENTE
+     */
+    public static class Reconciliacion {
+        private Boolean habilitada = true;
+        /**
+         * Intervalo (ms) entre rondas de reconciliación.
+         */
+        private Long intervaloMs = 30000L;
+        /**
+         * Ventas reclamadas por ronda y nodo.
+         */
+        private Integer lote = 20;
+        /**
+         * Ventas re-intentadas en paralelo por nodo (llamadas concurrentes a cátedra).
+         */
+        private Integer concurrencia = 2;
+        /**
+         * Espera (ms) antes del primer re-intento; debe superar la duración de la confirmación
+         * del usuario para no competir con ella.
+         */
+        private Long retrasoInicialMs = 120000L;
+        /**
+         * Backoff exponencial (ms) entre re-intentos: base * 2^(intentos-1), hasta el máximo, con jitter.
+         */
+        private Long backoffBaseMs = 30000L;
+        private Long backoffMaxMs = 1800000L;
+        /**
+         * Re-intentos antes de marcar la venta como ERROR.
+         */
+        private Integer maxIntentos = 12;
+        /**
+         * Duración (ms) del reclamo de una venta; si el nodo cae, otro la retoma al vencer.
+         */
+        private Long reclamoMs = 300000L;
+        public Boolean getHabilitada() {
+            return habilitada;
+        }
+        public void setHabilitada(Boolean habilitada) {
+            this.habilitada = habilitada;
+        }
+        public Long getIntervaloMs() {
+            return intervaloMs;
+        }
+        public void setIntervaloMs(Long intervaloMs) {
+            this.intervaloMs = intervaloMs;
+        }
+        public Integer getLote() {
+            return lote;
+        }
+        public void setLote(Integer lote) {
+            this.lote = lote;
+        }
+        public Integer getConcurrencia() {
+            return concurrencia;
+        }
+        public void setConcurrencia(Integer concurrencia) {
+            this.concurrencia = concurrencia;
+        }
+        public Long getRetrasoInicialMs() {
+            return retrasoInicialMs;
+        }
+        public void setRetrasoInicialMs(Long retrasoInicialMs) {
+            this.retrasoInicialMs = retrasoInicialMs;
+        }
+        public Long getBackoffBaseMs() {
+            return backoffBaseMs;
+        }
+        public void setBackoffBaseMs(Long backoffBaseMs) {
+            this.backoffBaseMs = backoffBaseMs;
+        }
+        public Long getBackoffMaxMs() {
+            return backoffMaxMs;
+        }
+        public void setBackoffMaxMs(Long backoffMaxMs) {
+            this.backoffMaxMs = backoffMaxMs;
+        }
+        public Integer getMaxIntentos() {
+            return maxIntentos;
+        }
+        public void setMaxIntentos(Integer maxIntentos) {
+            this.maxIntentos = maxIntentos;
+        }
+        public Long getReclamoMs() {
+            return reclamoMs;
+        }
+        public void setReclamoMs(Long reclamoMs) {
+            this.reclamoMs = reclamoMs;
+        }
+    }
+    /**
+     * Codecs de Redisson: kryo (binario), java (serialización JDK) o json (Jackson). Ver RedisCodecs.
+     */
+    public static class RedisCodec {
+        /**
+         * Cache L2 de Hibernate y caches JCache (usuarios).
+         */
+        private String cache = "kryo";
+        /**
+         * Cliente Redisson de sesiones, confirmaciones e idempotencia. Queda en json: sus valores y
+         * mensajes de topic se comparten entre nodos de versiones distintas durante un despliegue.
+         */
+        private String cliente = "json";
+        public String getCache() {
+            return cache;
+        }
+        public void setCache(String cache) {
+            this.cache = cache;
+        }
+        public String getCliente() {
+            return cliente;
+        }
+        public void setCliente(String cliente) {
+            this.cliente = cliente;
+        }
+    }
+    /**
+     * Cache local (L1) delante de las regiones de la cache L2 de Hibernate en Redis. Ver NearCacheManager.
+     */
+    public static class CacheLocal {
+        private Boolean habilitada = true;
+        /**
+         * Regiones con cache local: entidades de lectura frecuente y pocas escrituras.
+         */
+        private List<String> regiones = new ArrayList<>(
+            List.of(
+                "com.evento.backend.domain.Evento",
+                "com.evento.backend.domain.EventoTipo",
+                "com.evento.backend.domain.User",
+                "com.evento.backend.domain.User.authorities",
+                "com.evento.backend.domain.Authority"
+            )
+        );
+        /**
+         * Entradas por región y nodo.
+         */
+        private Integer maxEntradas = 10000;
+        /**
+         * Vida máxima de una entrada local; acota la inconsistencia si se pierde una invalidación.
+         */
+        private Long ttlSegundos = 300L;
+        /**
+         * Topic de Redis con las invalidaciones entre nodos.
+         */
+        private String topic = "cache:invalidaciones";
+        public Boolean getHabilitada() {
+            return habilitada;
+        }
+        public void setHabilitada(Boolean habilitada) {
+            this.habilitada = habilitada;
+        }
+        public List<String> getRegiones() {
+            return regiones;
+        }
+        public void setRegiones(List<String> regiones) {
+            this.regiones = regiones;
+        }
+        public Integer getMaxEntradas() {
+            return maxEntradas;
+        }
+        public void setMaxEntradas(Integer maxEntradas) {
+            this.maxEntradas = maxEntradas;
+        }
+        public Long getTtlSegundos() {
+            return ttlSegundos;
+        }
+        public void setTtlSegundos(Long ttlSegundos) {
+            this.ttlSegundos = ttlSegundos;
+        }
+        public String getTopic() {
+            return topic;
+        }
+        public void setTopic(String topic) {
+            this.topic = topic;
+        }
+    }
+    /**
+     * Reservas locales de asientos (Redis) previas al bloqueo en cátedra. Ver ReservaAsientosService.
+     */
+    public static class ReservaAsientos {
+        private Boolean habilitada = true;
+        /**
+         * Vida de la reserva; igual al bloqueo de cátedra (5 minutos). Pasado ese tiempo cátedra libera
+         * el asiento y la reserva solo rechazaría a usuarios que sí podrían bloquearlo.
+         */
+        private Integer ttlSegundos = 300;
+        private String keyPrefix = "reserva:asiento:";
+        public Boolean getHabilitada() {
+            return habilitada;
+        }
+        public void setHabilitada(Boolean habilitada) {
+            this.habilitada = habilitada;
+        }
+        public Integer getTtlSegundos() {
+            return ttlSegundos;
+        }
+        public void setTtlSegundos(Integer ttlSegundos) {
+            this.ttlSegundos = ttlSegundos;
+        }
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+        public void setKeyPrefix(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+    }
+    /**
+     * Sala de espera (control de admisión) para eventos de alta demanda. Ver SalaEsperaService.
+     */
+    public static class SalaEspera {
+        /**
+         * IDs locales de los eventos con sala de espera; vacío = ningún evento.
+         */
+        private List<Long> eventos = new ArrayList<>();
+        /**
+         * Usuarios admitidos por segundo y evento (entre todos los nodos).
+         */
+        private Double admisionesPorSegundo = 5.0;
+        /**
+         * Admisiones acumulables mientras la cola está vacía.
+         */
+        private Integer rafaga = 20;
+        /**
+         * Vida del token de admisión para iniciar la sesión de compra.
+         */
+        private Integer tokenTtlSegundos = 300;
+        /**
+         * Un usuario en cola que no consulta su posición en este tiempo pierde el lugar.
+         */
+        private Integer abandonoSegundos = 30;
+        /**
+         * Intervalo de consulta sugerido al cliente.
+         */
+        private Long consultaIntervaloMs = 2000L;
+        private String keyPrefix = "sala-espera:";
+        public List<Long> getEventos() {
+            return eventos;
+        }
+        public void setEventos(List<Long> eventos) {
+            this.eventos = eventos;
+        }
+        public Double getAdmisionesPorSegundo() {
+            return admisionesPorSegundo;
+        }
+        public void setAdmisionesPorSegundo(Double admisionesPorSegundo) {
+            this.admisionesPorSegundo = admisionesPorSegundo;
+        }
+        public Integer getRafaga() {
+            return rafaga;
+        }
+        public void setRafaga(Integer rafaga) {
+            this.rafaga = rafaga;
+        }
+        public Integer getTokenTtlSegundos() {
+            return tokenTtlSegundos;
+        }
+        public void setTokenTtlSegundos(Integer tokenTtlSegundos) {
+            this.tokenTtlSegundos = tokenTtlSegundos;
+        }
+        public Integer getAbandonoSegundos() {
+            return abandonoSegundos;
+        }
+        public void setAbandonoSegundos(Integer abandonoSegundos) {
+            this.abandonoSegundos = abandonoSegundos;
+        }
+        public Long getConsultaIntervaloMs() {
+            return consultaIntervaloMs;
+        }
+        public void setConsultaIntervaloMs(Long consultaIntervaloMs) {
+            this.consultaIntervaloMs = consultaIntervaloMs;
+        }
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+        public void setKeyPrefix(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+    }
+    /**
+     * Límites de solicitudes (token bucket en Redis) de los endpoints de compra. Ver LimiteTasaService.
+     */
+    public static class LimiteTasa {
+        private Boolean habilitada = true;
+        /**
+         * Límites por endpoint (iniciar, seleccionar-asientos, confirmar); un endpoint sin entrada no se limita.
+         */
+        private Map<String, Limite> endpoints = new LinkedHashMap<>();
+        private String keyPrefix = "limite:";
+        public LimiteTasa() {
+            endpoints.put("iniciar", new Limite(5L, 1000L));
+            endpoints.put("seleccionar-asientos", new Limite(10L, 500L));
+            endpoints.put("confirmar", new Limite(3L, 200L));
+        }
+        public Boolean getHabilitada() {
+            return habilitada;
+        }
+        public void setHabilitada(Boolean habilitada) {
+            this.habilitada = habilitada;
+        }
+        public Map<String, Limite> getEndpoints() {
+            return endpoints;
+        }
+        public void setEndpoints(Map<String, Limite> endpoints) {
+            this.endpoints = endpoints;
+        }
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+        public void setKeyPrefix(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+    }
+    /**
+     * Solicitudes permitidas por intervalo (ráfaga máxima) a un endpoint; null = sin límite en ese ámbito.
+     */
+    public static class Limite {
+        /**
+         * Por usuario.
+         */
+        private Long porUsuario;
+        /**
+         * Por evento, sumando todos los usuarios y nodos.
+         */
+        private Long porEvento;
+        private Long intervaloSegundos = 10L;
+        public Limite() {}
+        public Limite(Long porUsuario, Long porEvento) {
+            this.porUsuario = porUsuario;
+            this.porEvento = porEvento;
+        }
+        public Long getPorUsuario() {
+            return porUsuario;
+        }
+        public void setPorUsuario(Long porUsuario) {
+            this.porUsuario = porUsuario;
+        }
+        public Long getPorEvento() {
+            return porEvento;
+        }
+        public void setPorEvento(Long porEvento) {
+            this.porEvento = porEvento;
+        }
+        public Long getIntervaloSegundos() {
+            return intervaloSegundos;
+        }
+        public void setIntervaloSegundos(Long intervaloSegundos) {
+            this.intervaloSegundos = intervaloSegundos;
+        }
+    }
+    /**
+     * Cliente HTTP saliente compartido (cátedra y Proxy): pool de conexiones persistentes y timeouts
+     * por destino. Ver HttpClienteConfiguration.
+     */
+    public static class HttpCliente {
+        /**
+         * Conexiones abiertas en total, entre todos los destinos.
+         */
+        private Integer maxConexiones = 200;
+        /**
+         * Conexiones sin uso por más de este tiempo se cierran.
+         */
+        private Integer inactividadSegundos = 30;
+        private final Destino catedra = new Destino();
+        private final Destino proxy = new Destino();
+        public Integer getMaxConexiones() {
+            return maxConexiones;
+        }
+        public void setMaxConexiones(Integer maxConexiones) {
+            this.maxConexiones = maxConexiones;
+        }
+        public Integer getInactividadSegundos() {
+            return inactividadSegundos;
+        }
+        public void setInactividadSegundos(Integer inactividadSegundos) {
+            this.inactividadSegundos = inactividadSegundos;
+        }
+        public Destino getCatedra() {
+            return catedra;
+        }
+        public Destino getProxy() {
+            return proxy;
+        }
+    }
+    /**
+     * Pool y timeouts de un destino HTTP (host).
+     */
+    public static class Destino {
+        private Integer maxConexiones = 50;
+        private Integer connectTimeoutMs = 2000;
+        /**
+         * Tiempo máximo de espera de la respuesta; null = cátedra 10000, Proxy application.proxy.timeout.
+         */
+        private Integer readTimeoutMs;
+        /**
+         * Espera máxima por una conexión libre del pool.
+         */
+        private Integer poolTimeoutMs = 1000;
+        public Integer getMaxConexiones() {
+            return maxConexiones;
+        }
+        public void setMaxConexiones(Integer maxConexiones) {
+            this.maxConexiones = maxConexiones;
+        }
+        public Integer getConnectTimeoutMs() {
+            return connectTimeoutMs;
+        }
+        public void setConnectTimeoutMs(Integer connectTimeoutMs) {
+            this.connectTimeoutMs = connectTimeoutMs;
+        }
+        public Integer getReadTimeoutMs() {
+            return readTimeoutMs;
+        }
+        public void setReadTimeoutMs(Integer readTimeoutMs) {
+            this.readTimeoutMs = readTimeoutMs;
+        }
+        public Integer getPoolTimeoutMs() {
+            return poolTimeoutMs;
+        }
+        public void setPoolTimeoutMs(Integer poolTimeoutMs) {
+            this.poolTimeoutMs = poolTimeoutMs;
+        }
+    }
+    /**
+     * Circuit breakers y bulkheads de las llamadas remotas (cátedra y Proxy). Ver ResilienciaService.
+     */
+    public static class Resiliencia {
+        /**
+         * Configuración por operación (bloquear, vender, eventos, proxy-asientos); las demás usan los valores por defecto.
+         */
+        private Map<String, Operacion> operaciones = new LinkedHashMap<>();
+        public Map<String, Operacion> getOperaciones() {
+            return operaciones;
+        }
+        public void setOperaciones(Map<String, Operacion> operaciones) {
+            this.operaciones = operaciones;
+        }
+    }
+    /**
+     * Circuit breaker y bulkhead de una operación remota.
+     */
+    public static class Operacion {
+        /**
+         * Porcentaje de fallas (timeouts, conexión, 5xx) que abre el circuito.
+         */
+        private Integer umbralFallas = 50;
+        /**
+         * Últimas llamadas consideradas para el porcentaje.
+         */
+        private Integer ventanaLlamadas = 20;
+        private Integer minimoLlamadas = 10;
+        /**
+         * Tiempo con el circuito abierto (fast-fail) antes de probar de nuevo.
+         */
+        private Integer abiertoSegundos = 30;
+        private Integer llamadasSemiAbierto = 3;
+        /**
+         * Llamadas simultáneas permitidas (bulkhead); las demás esperan hasta esperaBulkheadMs y se rechazan.
+         */
+        private Integer maxConcurrentes = 20;
+        private Long esperaBulkheadMs = 100L;
+        public Integer getUmbralFallas() {
+            return umbralFallas;
+        }
+        public void setUmbralFallas(Integer umbralFallas) {
+            this.umbralFallas = umbralFallas;
+        }
+        public Integer getVentanaLlamadas() {
+            return ventanaLlamadas;
+        }
+        public void setVentanaLlamadas(Integer ventanaLlamadas) {
+            this.ventanaLlamadas = ventanaLlamadas;
+        }
+        public Integer getMinimoLlamadas() {
+            return minimoLlamadas;
+        }
+        public void setMinimoLlamadas(Integer minimoLlamadas) {
+            this.minimoLlamadas = minimoLlamadas;
+        }
+        public Integer getAbiertoSegundos() {
+            return abiertoSegundos;
+        }
+        public void setAbiertoSegundos(Integer abiertoSegundos) {
+            this.abiertoSegundos = abiertoSegundos;
+        }
+        public Integer getLlamadasSemiAbierto() {
+            return llamadasSemiAbierto;
+        }
+        public void setLlamadasSemiAbierto(Integer llamadasSemiAbierto) {
+            this.llamadasSemiAbierto = llamadasSemiAbierto;
+        }
+        public Integer getMaxConcurrentes() {
+            return maxConcurrentes;
+        }
+        public void setMaxConcurrentes(Integer maxConcurrentes) {
+            this.maxConcurrentes = maxConcurrentes;
+        }
+        public Long getEsperaBulkheadMs() {
+            return esperaBulkheadMs;
+        }
+        public void setEsperaBulkheadMs(Long esperaBulkheadMs) {
+            this.esperaBulkheadMs = esperaBulkheadMs;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -1,5 +1,7 @@
 package com.evento.backend.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.net.URI;
 import java.util.concurrent.TimeUnit;
 import javax.cache.configuration.MutableConfiguration;
@@ -32,14 +34,19 @@ public class CacheConfiguration {
     private BuildProperties buildProperties;
 
     @Bean
-    public javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(JHipsterProperties jHipsterProperties) {
+    public javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        ObjectMapper objectMapper
+    ) {
         MutableConfiguration<Object, Object> jcacheConfig = new MutableConfiguration<>();
 
         URI redisUri = URI.create(jHipsterProperties.getCache().getRedis().getServer()[0]);
 
         Config config = new Config();
-        // Fix Hibernate lazy initialization https://github.com/jhipster/generator-jhipster/issues/22889
-        config.setCodec(new org.redisson.codec.SerializationCodec());
+        // Kryo por defecto; las colecciones lazy y proxies de Hibernate se serializan como con
+        // SerializationCodec (https://github.com/jhipster/generator-jhipster/issues/22889)
+        config.setCodec(RedisCodecs.crear(applicationProperties.getRedisCodec().getCache(), objectMapper));
         if (jHipsterProperties.getCache().getRedis().isCluster()) {
             ClusterServersConfig clusterServersConfig = config
                 .useClusterServers()
@@ -71,8 +78,19 @@ public class CacheConfiguration {
     }
 
     @Bean
-    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cm) {
-        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cm);
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(
+        javax.cache.CacheManager cm,
+        javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.CacheLocal cacheLocal = applicationProperties.getCacheLocal();
+        if (!Boolean.TRUE.equals(cacheLocal.getHabilitada()) || !(jcacheConfiguration instanceof RedissonConfiguration<?, ?> redisson)) {
+            return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cm);
+        }
+        // Cache local (L1) delante de las regiones de lectura frecuente; invalidaciones por el mismo Redis de la cache
+        NearCacheManager nearCacheManager = new NearCacheManager(cm, redisson.getRedisson(), cacheLocal, meterRegistry);
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, nearCacheManager);
     }
 
     @Bean
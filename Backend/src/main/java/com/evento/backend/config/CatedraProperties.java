@@ -21,6 +21,16 @@ public class CatedraProperties {
      * Contraseña del usuario.
      */
     private String password;
+
+    /**
+     * Segundos antes del vencimiento del JWT en que se renueva en segundo plano.
+     */
+    private Long renovacionAnticipadaSegundos = 300L;
+
+    /**
+     * Intervalo de la verificación del vencimiento del token (ms).
+     */
+    private Long verificacionTokenMs = 30000L;
     // Getters y Setters (Spring Boot los usa para inyectar valores)
 
     public String getBaseUrl() {
@@ -41,4 +51,16 @@ public class CatedraProperties {
     public void setPassword(String password) {
         this.password = password;
     }
+    public Long getRenovacionAnticipadaSegundos() {
+        return renovacionAnticipadaSegundos;
+    }
+    public void setRenovacionAnticipadaSegundos(Long renovacionAnticipadaSegundos) {
+        this.renovacionAnticipadaSegundos = renovacionAnticipadaSegundos;
+    }
+    public Long getVerificacionTokenMs() {
+        return verificacionTokenMs;
+    }
+    public void setVerificacionTokenMs(Long verificacionTokenMs) {
+        this.verificacionTokenMs = verificacionTokenMs;
+    }
 }
@@ -0,0 +1,190 @@
+package com.evento.backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Cliente HTTP saliente compartido por los servicios que llaman a cátedra y al Proxy.
+ *
+ * - Un único pool de conexiones persistentes (keep-alive) con tope total y por destino: las
+ *   llamadas reutilizan conexiones abiertas en lugar de pagar un handshake TCP/TLS cada vez.
+ * - Timeouts por destino: conexión (pool), espera de una conexión libre y lectura (RestTemplate).
+ * - Respuestas gzip/deflate: Apache HttpClient envía Accept-Encoding y descomprime.
+ * - Métricas: pool total ({@code httpcomponents.httpclient.pool.*}), pool por destino
+ *   ({@code http.cliente.pool} con tags destino/estado) y latencia por endpoint
+ *   ({@code http.client.requests}, vía RestTemplateBuilder; las URLs usan templates para no
+ *   crear un tag por ID).
+ */
+@Configuration
+public class HttpClienteConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HttpClienteConfiguration.class);
+
+    public static final String CATEDRA = "catedraRestTemplate";
+    public static final String PROXY = "proxyRestTemplate";
+
+    private static final int CATEDRA_READ_TIMEOUT_MS = 10000;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager(
+        ApplicationProperties applicationProperties,
+        CatedraProperties catedraProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.HttpCliente httpCliente = applicationProperties.getHttpCliente();
+        Map<String, ApplicationProperties.Destino> destinos = new LinkedHashMap<>();
+        destinos.put(catedraProperties.getBaseUrl(), httpCliente.getCatedra());
+        destinos.put(applicationProperties.getProxy().getBaseUrl(), httpCliente.getProxy());
+
+        Map<HttpHost, ConnectionConfig> configPorHost = new LinkedHashMap<>();
+        for (Map.Entry<String, ApplicationProperties.Destino> destino : destinos.entrySet()) {
+            configPorHost.put(
+                host(destino.getKey()),
+                ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.ofMilliseconds(destino.getValue().getConnectTimeoutMs()))
+                    .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                    .build()
+            );
+        }
+        ConnectionConfig porDefecto = ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.ofSeconds(2))
+            .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+            .build();
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(httpCliente.getMaxConexiones())
+            .setConnectionConfigResolver(route -> configPorHost.getOrDefault(route.getTargetHost(), porDefecto))
+            .build();
+
+        registrarDestino(connectionManager, meterRegistry, "catedra", catedraProperties.getBaseUrl(), httpCliente.getCatedra());
+        registrarDestino(connectionManager, meterRegistry, "proxy", applicationProperties.getProxy().getBaseUrl(), httpCliente.getProxy());
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "saliente").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClienteSaliente(
+        PoolingHttpClientConnectionManager httpConnectionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        return HttpClients.custom()
+            .setConnectionManager(httpConnectionManager)
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofSeconds(applicationProperties.getHttpCliente().getInactividadSegundos()))
+            .build();
+    }
+
+    @Bean(CATEDRA)
+    public RestTemplate catedraRestTemplate(
+        RestTemplateBuilder restTemplateBuilder,
+        CloseableHttpClient httpClienteSaliente,
+        ApplicationProperties applicationProperties
+    ) {
+        ApplicationProperties.Destino destino = applicationProperties.getHttpCliente().getCatedra();
+        int readTimeoutMs = destino.getReadTimeoutMs() != null ? destino.getReadTimeoutMs() : CATEDRA_READ_TIMEOUT_MS;
+        return crearRestTemplate(restTemplateBuilder, httpClienteSaliente, destino, readTimeoutMs);
+    }
+
+    @Bean(PROXY)
+    public RestTemplate proxyRestTemplate(
+        RestTemplateBuilder restTemplateBuilder,
+        CloseableHttpClient httpClienteSaliente,
+        ApplicationProperties applicationProperties
+    ) {
+        ApplicationProperties.Destino destino = applicationProperties.getHttpCliente().getProxy();
+        int readTimeoutMs = destino.getReadTimeoutMs() != null ? destino.getReadTimeoutMs() : applicationProperties.getProxy().getTimeout();
+        return crearRestTemplate(restTemplateBuilder, httpClienteSaliente, destino, readTimeoutMs);
+    }
+
+    /**
+     * RestTemplate sobre el cliente compartido, con la espera de pool y el timeout de lectura del destino.
+     */
+    static RestTemplate crearRestTemplate(
+        RestTemplateBuilder restTemplateBuilder,
+        CloseableHttpClient httpCliente,
+        ApplicationProperties.Destino destino,
+        int readTimeoutMs
+    ) {
+        return restTemplateBuilder
+            .requestFactory(() -> {
+                HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpCliente);
+                factory.setConnectionRequestTimeout(Duration.ofMillis(destino.getPoolTimeoutMs()));
+                factory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+                return factory;
+            })
+            .build();
+    }
+
+    /**
+     * Tope de conexiones y gauges del pool para el host de un destino.
+     */
+    private static void registrarDestino(
+        PoolingHttpClientConnectionManager connectionManager,
+        MeterRegistry meterRegistry,
+        String nombre,
+        String baseUrl,
+        ApplicationProperties.Destino destino
+    ) {
+        HttpHost host = host(baseUrl);
+        HttpRoute route = new HttpRoute(host, null, "https".equalsIgnoreCase(host.getSchemeName()));
+        connectionManager.setMaxPerRoute(route, destino.getMaxConexiones());
+        gaugePool(meterRegistry, connectionManager, route, nombre, "leased", PoolStats::getLeased);
+        gaugePool(meterRegistry, connectionManager, route, nombre, "pending", PoolStats::getPending);
+        gaugePool(meterRegistry, connectionManager, route, nombre, "available", PoolStats::getAvailable);
+        LOG.info(
+            "Cliente HTTP {}: {} (max {} conexiones, connect {} ms, pool {} ms)",
+            nombre,
+            host,
+            destino.getMaxConexiones(),
+            destino.getConnectTimeoutMs(),
+            destino.getPoolTimeoutMs()
+        );
+    }
+
+    private static void gaugePool(
+        MeterRegistry meterRegistry,
+        PoolingHttpClientConnectionManager connectionManager,
+        HttpRoute route,
+        String destino,
+        String estado,
+        ToDoubleFunction<PoolStats> valor
+    ) {
+        Gauge.builder("http.cliente.pool", connectionManager, cm -> valor.applyAsDouble(cm.getStats(route)))
+            .description("Conexiones del pool HTTP saliente por destino")
+            .tag("destino", destino)
+            .tag("estado", estado)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Host con puerto explícito, igual al de las rutas que arma HttpClient.
+     */
+    static HttpHost host(String baseUrl) {
+        URI uri = URI.create(baseUrl);
+        int puerto = uri.getPort() != -1 ? uri.getPort() : ("https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80);
+        return new HttpHost(uri.getScheme(), uri.getHost(), puerto);
+    }
+}
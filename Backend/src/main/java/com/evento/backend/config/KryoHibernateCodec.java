@@ -0,0 +1,44 @@
+package com.evento.backend.config;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.serializers.JavaSerializer;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.proxy.HibernateProxy;
+import org.redisson.codec.Kryo5Codec;
+
+/**
+ * Codec binario Kryo para Redisson que conserva el comportamiento de la serialización JDK con
+ * las colecciones lazy y proxies de Hibernate.
+ *
+ * Kryo serializa por campos y no conoce {@code writeReplace}: un proxy o una colección persistente
+ * se escribiría con su estado interno (sesión, clases generadas por ByteBuddy) y no se podría leer
+ * en otro nodo. Esos tipos se delegan a {@link JavaSerializer}, igual que con
+ * {@code SerializationCodec}: un proxy viaja como {@code SerializableProxy} y una colección no
+ * inicializada vuelve sin inicializar. El resto de los objetos usa Kryo.
+ */
+public class KryoHibernateCodec extends Kryo5Codec {
+
+    public KryoHibernateCodec() {
+        super();
+    }
+
+    public KryoHibernateCodec(ClassLoader classLoader) {
+        super(classLoader);
+    }
+
+    /**
+     * Usado por Redisson para copiar el codec con otro ClassLoader
+     */
+    public KryoHibernateCodec(ClassLoader classLoader, KryoHibernateCodec codec) {
+        super(classLoader, codec);
+    }
+
+    @Override
+    protected Kryo createKryo(ClassLoader classLoader, boolean useReferences) throws ClassNotFoundException {
+        Kryo kryo = super.createKryo(classLoader, useReferences);
+        JavaSerializer javaSerializer = new JavaSerializer();
+        kryo.addDefaultSerializer(PersistentCollection.class, javaSerializer);
+        kryo.addDefaultSerializer(HibernateProxy.class, javaSerializer);
+        return kryo;
+    }
+}
@@ -0,0 +1,336 @@
+package com.evento.backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.configuration.Configuration;
+import javax.cache.integration.CompletionListener;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.EntryProcessorResult;
+
+/**
+ * Cache de JCache con una copia local acotada de las lecturas delante de la cache en Redis.
+ *
+ * - Lecturas: se sirven de la copia local si hay entrada vigente; si no, se leen de Redis y se
+ *   guardan localmente.
+ * - Un put sobre una clave sin valor en Redis es una carga desde la base (putFromLoad de
+ *   Hibernate tras un miss): solo llena la copia local y no se publica, para que una lectura en
+ *   frío de un nodo no vacíe la copia de los demás.
+ * - Las demás escrituras (put sobre un valor existente, remove, evict) van a Redis, descartan la
+ *   clave local y se publican para que los demás nodos la descarten (ver {@link NearCacheManager}).
+ * - La copia local es una cache de Caffeine acotada a {@code maxEntradas} (desalojo por
+ *   frecuencia de uso) y con vencimiento a los {@code ttl} desde que se guardó. La lectura de
+ *   Redis se hace dentro de la carga de Caffeine, así una invalidación que se cruza con ella
+ *   espera a que termine y descarta el valor leído.
+ * - Métricas: {@code cache.local} con tags {@code region} y {@code resultado} = hit | miss, y
+ *   {@code cache.local.entradas}.
+ */
+public class NearCache<K, V> implements Cache<K, V> {
+
+    public static final String METER_NAME = "cache.local";
+
+    private final Cache<K, V> remoto;
+    private final NearCacheManager manager;
+    private final com.github.benmanes.caffeine.cache.Cache<K, V> local;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    NearCache(Cache<K, V> remoto, NearCacheManager manager, int maxEntradas, long ttlNanos, MeterRegistry meterRegistry) {
+        this.remoto = remoto;
+        this.manager = manager;
+        this.local = Caffeine.newBuilder().maximumSize(maxEntradas).expireAfterWrite(ttlNanos, TimeUnit.NANOSECONDS).build();
+        this.hitCounter = contador("hit", meterRegistry);
+        this.missCounter = contador("miss", meterRegistry);
+        Gauge.builder(METER_NAME + ".entradas", local, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+            .description("Entradas en la cache local")
+            .tag("region", remoto.getName())
+            .register(meterRegistry);
+    }
+
+    private Counter contador(String resultado, MeterRegistry meterRegistry) {
+        return Counter.builder(METER_NAME)
+            .description("Lecturas de la cache L2 resueltas por la cache local")
+            .tag("region", remoto.getName())
+            .tag("resultado", resultado)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public V get(K key) {
+        V valor = local.getIfPresent(key);
+        if (valor != null) {
+            hitCounter.increment();
+            return valor;
+        }
+        missCounter.increment();
+        return local.get(key, remoto::get);
+    }
+
+    /**
+     * Las claves que faltan se leen de Redis en un solo pedido y no se guardan localmente
+     * (la carga en bloque no es atómica frente a las invalidaciones); Hibernate no usa getAll.
+     */
+    @Override
+    public Map<K, V> getAll(Set<? extends K> keys) {
+        Map<K, V> resultado = new HashMap<>(local.getAllPresent(keys));
+        hitCounter.increment(resultado.size());
+        if (resultado.size() < keys.size()) {
+            Set<K> faltantes = new HashSet<>(keys);
+            faltantes.removeAll(resultado.keySet());
+            missCounter.increment(faltantes.size());
+            resultado.putAll(remoto.getAll(faltantes));
+        }
+        return resultado;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return local.getIfPresent(key) != null || remoto.containsKey(key);
+    }
+
+    /**
+     * Descarta una clave de la copia local (escritura propia o invalidación de otro nodo).
+     */
+    @SuppressWarnings("unchecked")
+    void invalidar(Object key) {
+        local.invalidate((K) key);
+    }
+
+    /**
+     * Descarta toda la copia local.
+     */
+    void invalidarTodo() {
+        local.invalidateAll();
+    }
+
+    private void escrito(K key) {
+        invalidar(key);
+        manager.publicar(getName(), List.of(key));
+    }
+
+    private void escritos(Set<? extends K> keys) {
+        local.invalidateAll(keys);
+        manager.publicar(getName(), keys);
+    }
+
+    private void escritoTodo() {
+        invalidarTodo();
+        manager.publicar(getName(), null);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        Object[] anterior = new Object[1];
+        local.asMap().compute(key, (clave, actual) -> {
+            anterior[0] = remoto.getAndPut(clave, value);
+            // Sin valor previo en Redis es una carga desde la base: solo llena la copia local
+            return anterior[0] == null ? value : null;
+        });
+        if (anterior[0] != null) {
+            manager.publicar(getName(), List.of(key));
+        }
+    }
+
+    @Override
+    public V getAndPut(K key, V value) {
+        V anterior = remoto.getAndPut(key, value);
+        escrito(key);
+        return anterior;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        remoto.putAll(map);
+        escritos(map.keySet());
+    }
+
+    @Override
+    public boolean putIfAbsent(K key, V value) {
+        boolean[] guardado = new boolean[1];
+        local.asMap().compute(key, (clave, actual) -> {
+            guardado[0] = remoto.putIfAbsent(clave, value);
+            return guardado[0] ? value : actual;
+        });
+        return guardado[0];
+    }
+
+    @Override
+    public boolean remove(K key) {
+        boolean eliminado = remoto.remove(key);
+        escrito(key);
+        return eliminado;
+    }
+
+    @Override
+    public boolean remove(K key, V oldValue) {
+        boolean eliminado = remoto.remove(key, oldValue);
+        if (eliminado) {
+            escrito(key);
+        }
+        return eliminado;
+    }
+
+    @Override
+    public V getAndRemove(K key) {
+        V anterior = remoto.getAndRemove(key);
+        escrito(key);
+        return anterior;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        boolean reemplazado = remoto.replace(key, oldValue, newValue);
+        if (reemplazado) {
+            escrito(key);
+        }
+        return reemplazado;
+    }
+
+    @Override
+    public boolean replace(K key, V value) {
+        boolean reemplazado = remoto.replace(key, value);
+        if (reemplazado) {
+            escrito(key);
+        }
+        return reemplazado;
+    }
+
+    @Override
+    public V getAndReplace(K key, V value) {
+        V anterior = remoto.getAndReplace(key, value);
+        escrito(key);
+        return anterior;
+    }
+
+    @Override
+    public void removeAll(Set<? extends K> keys) {
+        remoto.removeAll(keys);
+        escritos(keys);
+    }
+
+    @Override
+    public void removeAll() {
+        remoto.removeAll();
+        escritoTodo();
+    }
+
+    @Override
+    public void clear() {
+        remoto.clear();
+        escritoTodo();
+    }
+
+    @Override
+    public void loadAll(Set<? extends K> keys, boolean replaceExistingValues, CompletionListener completionListener) {
+        remoto.loadAll(keys, replaceExistingValues, completionListener);
+        escritos(keys);
+    }
+
+    @Override
+    public <T> T invoke(K key, EntryProcessor<K, V, T> entryProcessor, Object... arguments) throws EntryProcessorException {
+        T resultado = remoto.invoke(key, entryProcessor, arguments);
+        escrito(key);
+        return resultado;
+    }
+
+    @Override
+    public <T> Map<K, EntryProcessorResult<T>> invokeAll(
+        Set<? extends K> keys,
+        EntryProcessor<K, V, T> entryProcessor,
+        Object... arguments
+    ) {
+        Map<K, EntryProcessorResult<T>> resultado = remoto.invokeAll(keys, entryProcessor, arguments);
+        escritos(keys);
+        return resultado;
+    }
+
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        Iterator<Entry<K, V>> entradas = remoto.iterator();
+        return new Iterator<>() {
+            private Entry<K, V> actual;
+
+            @Override
+            public boolean hasNext() {
+                return entradas.hasNext();
+            }
+
+            @Override
+            public Entry<K, V> next() {
+                actual = entradas.next();
+                return actual;
+            }
+
+            @Override
+            public void remove() {
+                entradas.remove();
+                escrito(actual.getKey());
+            }
+        };
+    }
+
+    @Override
+    public <C extends Configuration<K, V>> C getConfiguration(Class<C> clazz) {
+        return remoto.getConfiguration(clazz);
+    }
+
+    @Override
+    public void registerCacheEntryListener(CacheEntryListenerConfiguration<K, V> cacheEntryListenerConfiguration) {
+        remoto.registerCacheEntryListener(cacheEntryListenerConfiguration);
+    }
+
+    @Override
+    public void deregisterCacheEntryListener(CacheEntryListenerConfiguration<K, V> cacheEntryListenerConfiguration) {
+        remoto.deregisterCacheEntryListener(cacheEntryListenerConfiguration);
+    }
+
+    @Override
+    public String getName() {
+        return remoto.getName();
+    }
+
+    @Override
+    public CacheManager getCacheManager() {
+        return manager;
+    }
+
+    @Override
+    public void close() {
+        invalidarTodo();
+        remoto.close();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return remoto.isClosed();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        if (clazz.isInstance(this)) {
+            return clazz.cast(this);
+        }
+        return remoto.unwrap(clazz);
+    }
+
+    /**
+     * Entradas locales, luego de aplicar los desalojos pendientes.
+     */
+    long getEntradasLocales() {
+        local.cleanUp();
+        return local.estimatedSize();
+    }
+}
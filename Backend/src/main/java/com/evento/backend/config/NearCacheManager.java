@@ -0,0 +1,220 @@
+package com.evento.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.Serializable;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.Configuration;
+import javax.cache.spi.CachingProvider;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.BaseStatusListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * CacheManager de JCache que agrega una cache local (L1) por nodo delante de las regiones
+ * configuradas en {@code application.cache-local.regiones}; el resto de las caches se devuelve tal cual.
+ *
+ * Coherencia entre nodos: cada escritura en una región con cache local (no las cargas desde la
+ * base, ver {@link NearCache}) publica las claves modificadas en un topic de Redis y los demás nodos las descartan de su cache local. Si el topic
+ * se re-suscribe (reconexión, donde pudieron perderse mensajes) se vacían todas las caches
+ * locales; además cada entrada local vence a los {@code ttl-segundos}.
+ */
+public class NearCacheManager implements CacheManager {
+
+    private static final Logger log = LoggerFactory.getLogger(NearCacheManager.class);
+
+    private final CacheManager delegado;
+    private final ApplicationProperties.CacheLocal propiedades;
+    private final Set<String> regiones;
+    private final MeterRegistry meterRegistry;
+    private final RTopic topic;
+    private final String nodo = UUID.randomUUID().toString();
+    private final Map<String, NearCache<?, ?>> caches = new ConcurrentHashMap<>();
+    private final List<Integer> listeners = new ArrayList<>();
+
+    public NearCacheManager(
+        CacheManager delegado,
+        RedissonClient redissonClient,
+        ApplicationProperties.CacheLocal propiedades,
+        MeterRegistry meterRegistry
+    ) {
+        this.delegado = delegado;
+        this.propiedades = propiedades;
+        this.regiones = new HashSet<>(propiedades.getRegiones());
+        this.meterRegistry = meterRegistry;
+        this.topic = redissonClient.getTopic(propiedades.getTopic());
+        listeners.add(topic.addListener(Invalidacion.class, (canal, invalidacion) -> recibir(invalidacion)));
+        listeners.add(
+            topic.addListener(
+                new BaseStatusListener() {
+                    @Override
+                    public void onSubscribe(String canal) {
+                        // Suscripción nueva o reconexión: no se sabe qué invalidaciones se perdieron
+                        caches.values().forEach(NearCache::invalidarTodo);
+                    }
+                }
+            )
+        );
+        log.info("Cache local habilitada para {} regiones (nodo {})", regiones.size(), nodo);
+    }
+
+    @Override
+    public <K, V> Cache<K, V> getCache(String cacheName) {
+        Cache<K, V> cache = delegado.getCache(cacheName);
+        return envolver(cacheName, cache);
+    }
+
+    @Override
+    public <K, V> Cache<K, V> getCache(String cacheName, Class<K> keyType, Class<V> valueType) {
+        Cache<K, V> cache = delegado.getCache(cacheName, keyType, valueType);
+        return envolver(cacheName, cache);
+    }
+
+    @Override
+    public <K, V, C extends Configuration<K, V>> Cache<K, V> createCache(String cacheName, C configuration) {
+        Cache<K, V> cache = delegado.createCache(cacheName, configuration);
+        return envolver(cacheName, cache);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K, V> Cache<K, V> envolver(String cacheName, Cache<K, V> cache) {
+        if (cache == null || !regiones.contains(cacheName)) {
+            return cache;
+        }
+        return (Cache<K, V>) caches.computeIfAbsent(cacheName, nombre ->
+            new NearCache<>(
+                cache,
+                this,
+                propiedades.getMaxEntradas(),
+                propiedades.getTtlSegundos() * 1_000_000_000L,
+                meterRegistry
+            )
+        );
+    }
+
+    /**
+     * Avisa a los demás nodos que descarten claves de su cache local.
+     *
+     * @param region Nombre de la cache
+     * @param claves Claves modificadas; null = toda la región
+     */
+    void publicar(String region, Collection<?> claves) {
+        try {
+            topic.publish(new Invalidacion(nodo, region, claves == null ? null : new ArrayList<Object>(claves)));
+        } catch (RuntimeException e) {
+            // La escritura en Redis ya se hizo; los otros nodos quedan desactualizados hasta el TTL local
+            log.warn("No se pudo publicar la invalidación de la cache {}: {}", region, e.getMessage());
+        }
+    }
+
+    void recibir(Invalidacion invalidacion) {
+        if (nodo.equals(invalidacion.nodo)) {
+            return;
+        }
+        NearCache<?, ?> cache = caches.get(invalidacion.region);
+        if (cache == null) {
+            return;
+        }
+        if (invalidacion.claves == null) {
+            cache.invalidarTodo();
+        } else {
+            invalidacion.claves.forEach(cache::invalidar);
+        }
+    }
+
+    @Override
+    public void destroyCache(String cacheName) {
+        NearCache<?, ?> cache = caches.remove(cacheName);
+        if (cache != null) {
+            cache.invalidarTodo();
+            publicar(cacheName, null);
+        }
+        delegado.destroyCache(cacheName);
+    }
+
+    @Override
+    public CachingProvider getCachingProvider() {
+        return delegado.getCachingProvider();
+    }
+
+    @Override
+    public URI getURI() {
+        return delegado.getURI();
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return delegado.getClassLoader();
+    }
+
+    @Override
+    public Properties getProperties() {
+        return delegado.getProperties();
+    }
+
+    @Override
+    public Iterable<String> getCacheNames() {
+        return delegado.getCacheNames();
+    }
+
+    @Override
+    public void enableManagement(String cacheName, boolean enabled) {
+        delegado.enableManagement(cacheName, enabled);
+    }
+
+    @Override
+    public void enableStatistics(String cacheName, boolean enabled) {
+        delegado.enableStatistics(cacheName, enabled);
+    }
+
+    @Override
+    public void close() {
+        topic.removeListener(listeners.toArray(new Integer[0]));
+        caches.values().forEach(NearCache::invalidarTodo);
+        caches.clear();
+        delegado.close();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return delegado.isClosed();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        if (clazz.isInstance(this)) {
+            return clazz.cast(this);
+        }
+        return delegado.unwrap(clazz);
+    }
+
+    /**
+     * Mensaje del topic de invalidaciones
+     */
+    static final class Invalidacion implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String nodo;
+        private final String region;
+        private final List<Object> claves;
+
+        Invalidacion(String nodo, String region, List<Object> claves) {
+            this.nodo = nodo;
+            this.region = region;
+            this.claves = claves;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.evento.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.JsonJacksonCodec;
+import org.redisson.codec.SerializationCodec;
+
+/**
+ * Codecs de Redisson seleccionables por configuración ({@code application.redis-codec.*}).
+ *
+ * - kryo: binario compacto ({@link KryoHibernateCodec}), por defecto de la cache.
+ * - java: serialización JDK ({@link SerializationCodec}), el codec anterior de la cache.
+ * - json: Jackson con nombres de clase ({@link JsonJacksonCodec}), por defecto del cliente de sesiones.
+ *
+ * Cambiar el codec no convierte los valores ya guardados. Las caches JCache se vacían al iniciar
+ * (ver {@link CacheConfiguration}). El cliente no: durante un despliegue gradual los nodos viejos y
+ * nuevos leen los mismos tickets de confirmación, respuestas idempotentes y mensajes de topic, que
+ * con otro codec fallarían al decodificarse. Cambiarlo requiere detener todos los nodos.
+ */
+public final class RedisCodecs {
+
+    public static final String KRYO = "kryo";
+    public static final String JAVA = "java";
+    public static final String JSON = "json";
+
+    private RedisCodecs() {}
+
+    /**
+     * @param tipo kryo, java o json
+     * @param objectMapper ObjectMapper para el codec json (con soporte de java.time)
+     * @return Codec de Redisson
+     */
+    public static Codec crear(String tipo, ObjectMapper objectMapper) {
+        return switch (tipo == null ? KRYO : tipo) {
+            case KRYO -> new KryoHibernateCodec();
+            case JAVA -> new SerializationCodec();
+            case JSON -> new JsonJacksonCodec(objectMapper);
+            default -> throw new IllegalArgumentException("Codec de Redis desconocido: " + tipo + " (kryo, java o json)");
+        };
+    }
+}
@@ -5,7 +5,6 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
-import org.redisson.codec.JsonJacksonCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
@@ -23,7 +22,7 @@ public class RedisConfig {
      * @return RedissonClient configurado
      */
     @Bean
-    public RedissonClient redissonClient() {
+    public RedissonClient redissonClient(ApplicationProperties applicationProperties) {
         Config config = new Config();
 
         // Configuración single server (Redis local en desarrollo)
@@ -39,8 +38,8 @@ public class RedisConfig {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         
-        // Codec JSON para serializar/deserializar objetos automáticamente con ObjectMapper configurado
-        config.setCodec(new JsonJacksonCodec(objectMapper));
+        // Codec configurable (json por defecto, con el ObjectMapper configurado)
+        config.setCodec(RedisCodecs.crear(applicationProperties.getRedisCodec().getCliente(), objectMapper));
 
         LOG.info("Configurando RedissonClient para Redis local: localhost:6379");
 
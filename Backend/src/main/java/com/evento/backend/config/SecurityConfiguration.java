@@ -57,6 +57,8 @@ public class SecurityConfiguration {
                     .requestMatchers(mvc.pattern("/api/admin/**")).hasAuthority(AuthoritiesConstants.ADMIN)
                     .requestMatchers(mvc.pattern(HttpMethod.POST, "/api/eventos/sincronizar-todo"))
                         .hasAuthority(AuthoritiesConstants.SERVICE)
+                    .requestMatchers(mvc.pattern(HttpMethod.POST, "/api/eventos/sincronizar"))
+                        .hasAuthority(AuthoritiesConstants.SERVICE)
                     .requestMatchers(mvc.pattern("/api/**")).authenticated()
                     .requestMatchers(mvc.pattern("/v3/api-docs/**")).hasAuthority(AuthoritiesConstants.ADMIN)
                     .requestMatchers(mvc.pattern("/management/health")).permitAll()
@@ -1,5 +1,6 @@
 package com.evento.backend.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
@@ -80,6 +81,14 @@ public class Evento implements Serializable {
     @NotNull
     private EventoTipo eventoTipo;
 
+    /**
+     * SHA-256 (hex) del contenido recibido de cátedra en la última sincronización (evento + integrantes)
+     */
+    @JsonIgnore
+    @Size(max = 64)
+    @Column(name = "hash_contenido", length = 64)
+    private String hashContenido;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -264,6 +273,14 @@ public class Evento implements Serializable {
         return this;
     }
 
+    public String getHashContenido() {
+        return this.hashContenido;
+    }
+
+    public void setHashContenido(String hashContenido) {
+        this.hashContenido = hashContenido;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -1,6 +1,7 @@
 package com.evento.backend.domain;
 
 import com.evento.backend.domain.enumeration.EstadoSincronizacion;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
@@ -63,6 +64,27 @@ public class Venta implements Serializable {
     @NotNull
     private User usuario;
 
+    /**
+     * Request de realizar-venta (JSON) con el que se re-intenta una venta PENDIENTE
+     */
+    @JsonIgnore
+    @Size(max = 4000)
+    @Column(name = "solicitud_catedra", length = 4000)
+    private String solicitudCatedra;
+
+    @JsonIgnore
+    @NotNull
+    @Column(name = "intentos", nullable = false)
+    private Integer intentos = 0;
+
+    @JsonIgnore
+    @Column(name = "proximo_intento")
+    private Instant proximoIntento;
+
+    @JsonIgnore
+    @Column(name = "reclamada_hasta")
+    private Instant reclamadaHasta;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -182,6 +204,58 @@ public class Venta implements Serializable {
         return this;
     }
 
+    public String getSolicitudCatedra() {
+        return this.solicitudCatedra;
+    }
+
+    public void setSolicitudCatedra(String solicitudCatedra) {
+        this.solicitudCatedra = solicitudCatedra;
+    }
+
+    public Venta solicitudCatedra(String solicitudCatedra) {
+        this.setSolicitudCatedra(solicitudCatedra);
+        return this;
+    }
+
+    public Integer getIntentos() {
+        return this.intentos;
+    }
+
+    public void setIntentos(Integer intentos) {
+        this.intentos = intentos;
+    }
+
+    public Venta intentos(Integer intentos) {
+        this.setIntentos(intentos);
+        return this;
+    }
+
+    public Instant getProximoIntento() {
+        return this.proximoIntento;
+    }
+
+    public void setProximoIntento(Instant proximoIntento) {
+        this.proximoIntento = proximoIntento;
+    }
+
+    public Venta proximoIntento(Instant proximoIntento) {
+        this.setProximoIntento(proximoIntento);
+        return this;
+    }
+
+    public Instant getReclamadaHasta() {
+        return this.reclamadaHasta;
+    }
+
+    public void setReclamadaHasta(Instant reclamadaHasta) {
+        this.reclamadaHasta = reclamadaHasta;
+    }
+
+    public Venta reclamadaHasta(Instant reclamadaHasta) {
+        this.setReclamadaHasta(reclamadaHasta);
+        return this;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -212,6 +286,8 @@ public class Venta implements Serializable {
             ", exitosa='" + getExitosa() + "'" +
             ", descripcion='" + getDescripcion() + "'" +
             ", estadoSincronizacion='" + getEstadoSincronizacion() + "'" +
+            ", intentos=" + getIntentos() +
+            ", proximoIntento='" + getProximoIntento() + "'" +
             "}";
     }
 }
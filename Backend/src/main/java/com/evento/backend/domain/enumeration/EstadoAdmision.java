@@ -0,0 +1,10 @@
+package com.evento.backend.domain.enumeration;
+
+/**
+ * Estados de un usuario en la sala de espera de un evento
+ */
+public enum EstadoAdmision {
+    ESPERANDO,
+    ADMITIDO,
+    NO_REQUERIDA,
+}
@@ -0,0 +1,11 @@
+package com.evento.backend.domain.enumeration;
+
+/**
+ * Estados de una confirmación de venta asíncrona
+ */
+public enum EstadoConfirmacion {
+    EN_COLA,
+    PROCESANDO,
+    SINCRONIZADA,
+    ERROR,
+}
@@ -39,5 +39,7 @@ public interface IntegranteRepository extends JpaRepository<Integrante, Long> {
     @Query("select integrante from Integrante integrante left join fetch integrante.evento where integrante.id =:id")
     Optional<Integrante> findOneWithToOneRelationships(@Param("id") Long id);
 
+    List<Integrante> findByEvento(Evento evento);
+
     void deleteByEvento(Evento evento);
 }
@@ -1,6 +1,8 @@
 package com.evento.backend.repository;
 
 import com.evento.backend.domain.Venta;
+import com.evento.backend.domain.enumeration.EstadoSincronizacion;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -40,4 +42,59 @@ public interface VentaRepository extends JpaRepository<Venta, Long>, JpaSpecific
 
     @Query("select venta from Venta venta left join fetch venta.evento left join fetch venta.usuario where venta.id =:id")
     Optional<Venta> findOneWithToOneRelationships(@Param("id") Long id);
+
+    /**
+     * IDs de ventas PENDIENTE cuyo próximo intento ya venció y que ningún nodo tiene reclamadas.
+     */
+    @Query(
+        "select venta.id from Venta venta where venta.estadoSincronizacion = :estado and venta.proximoIntento <= :ahora" +
+        " and (venta.reclamadaHasta is null or venta.reclamadaHasta < :ahora) order by venta.proximoIntento"
+    )
+    List<Long> findIdsReconciliables(@Param("estado") EstadoSincronizacion estado, @Param("ahora") Instant ahora, Pageable pageable);
+
+    /**
+     * Reclama una venta PENDIENTE para este nodo hasta {@code hasta}. Es atómico: si dos nodos
+     * compiten por la misma fila, solo uno actualiza.
+     *
+     * @return 1 si se reclamó, 0 si ya no está pendiente o la reclamó otro nodo
+     */
+    @Modifying
+    @Query(
+        "update Venta venta set venta.reclamadaHasta = :hasta where venta.id = :id and venta.estadoSincronizacion = :estado" +
+        " and venta.proximoIntento <= :ahora and (venta.reclamadaHasta is null or venta.reclamadaHasta < :ahora)"
+    )
+    int reclamar(
+        @Param("id") Long id,
+        @Param("estado") EstadoSincronizacion estado,
+        @Param("ahora") Instant ahora,
+        @Param("hasta") Instant hasta
+    );
+
+    /**
+     * Reclama una venta PENDIENTE sin esperar su próximo intento (un nuevo intento de confirmación
+     * del usuario la resuelve en el momento).
+     *
+     * @return 1 si se reclamó, 0 si ya no está pendiente o la tiene reclamada la reconciliación
+     */
+    @Modifying
+    @Query(
+        "update Venta venta set venta.reclamadaHasta = :hasta where venta.id = :id and venta.estadoSincronizacion = :estado" +
+        " and (venta.reclamadaHasta is null or venta.reclamadaHasta < :ahora)"
+    )
+    int reclamarPendiente(
+        @Param("id") Long id,
+        @Param("estado") EstadoSincronizacion estado,
+        @Param("ahora") Instant ahora,
+        @Param("hasta") Instant hasta
+    );
+
+    List<Venta> findByUsuarioIdAndEventoIdAndEstadoSincronizacion(
+        Long usuarioId,
+        Long eventoId,
+        EstadoSincronizacion estadoSincronizacion
+    );
+
+    boolean existsByIdVentaCatedra(Long idVentaCatedra);
+
+    long countByEstadoSincronizacion(EstadoSincronizacion estadoSincronizacion);
 }
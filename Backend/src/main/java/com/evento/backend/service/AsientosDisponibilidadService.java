@@ -1,45 +1,51 @@
 package com.evento.backend.service;
 
 import com.evento.backend.domain.Evento;
-import com.evento.backend.domain.enumeration.EstadoAsiento;
 import com.evento.backend.repository.EventoRepository;
-import com.evento.backend.service.dto.AsientoDisponibilidadDTO;
+import com.evento.backend.service.dto.DisponibilidadResumenDTO;
+import com.evento.backend.service.dto.EventoDTO;
 import com.evento.backend.service.dto.MatrizAsientosDTO;
-import com.evento.backend.service.dto.RedisAsientoDTO;
 import com.evento.backend.service.dto.RedisResponseDTO;
+import com.evento.backend.service.helper.MatrizEstadoAsientos;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 /**
  * Servicio de lógica de negocio para consultar disponibilidad de asientos
  *
  * Responsabilidades:
  * - Obtener información del evento desde BD local
- * - Consultar asientos bloqueados/vendidos desde Proxy (Redis cátedra)
- * - Construir matriz completa de asientos con estados
+ * - Consultar asientos bloqueados/vendidos desde Proxy (Redis cátedra), con cache de TTL corto
+ * - Construir matriz compacta de asientos con estados (2 bits por asiento)
  * - Calcular estadísticas (disponibles, bloqueados, vendidos)
+ *
+ * Sin transacción a nivel de clase: el evento se lee con la transacción corta del repositorio
+ * y la consulta HTTP al Proxy se hace sin retener una conexión de la base.
  */
 @Service
-@Transactional(readOnly = true)
 public class AsientosDisponibilidadService {
     private static final Logger log = LoggerFactory.getLogger(AsientosDisponibilidadService.class);
     private final EventoRepository eventoRepository;
     private final ProxyClientService proxyClientService;
+    private final DisponibilidadCacheService disponibilidadCacheService;
+    private final DisponibilidadVersionService disponibilidadVersionService;
 
     public AsientosDisponibilidadService(
         EventoRepository eventoRepository,
-        ProxyClientService proxyClientService
+        ProxyClientService proxyClientService,
+        DisponibilidadCacheService disponibilidadCacheService,
+        DisponibilidadVersionService disponibilidadVersionService
     ) {
         this.eventoRepository = eventoRepository;
         this.proxyClientService = proxyClientService;
+        this.disponibilidadCacheService = disponibilidadCacheService;
+        this.disponibilidadVersionService = disponibilidadVersionService;
     }
 
     /**
@@ -49,9 +55,9 @@ public class AsientosDisponibilidadService {
      * 1. Buscar evento en BD local por ID
      * 2. Validar que evento esté activo y tenga configuración de asientos
      * 3. Consultar Proxy para obtener asientos bloqueados/vendidos de Redis
-     * 4. Construir matriz completa (todos los asientos)
-     * 5. Marcar estados según datos de Redis
-     * 6. Calcular estadísticas
+     * 4. Construir matriz compacta y marcar estados según datos de Redis
+     * 5. Calcular estadísticas
+     * 6. Materializar la lista completa de asientos
      *
      * @param eventoId - ID local del evento en BD Backend
      * @return MatrizAsientosDTO con información completa
@@ -60,8 +66,126 @@ public class AsientosDisponibilidadService {
      * @throws RuntimeException        si Proxy no disponible
      */
     public MatrizAsientosDTO getDisponibilidadAsientos(Long eventoId) {
+        return getDisponibilidadAsientos(eventoId, true);
+    }
+
+    /**
+     * Obtiene la disponibilidad de asientos para un evento
+     * <p>
+     * Si {@code expandido} es false solo se devuelven las estadísticas, sin la lista
+     * de asientos (evita crear un DTO por asiento cuando el cliente no lo necesita).
+     *
+     * @param eventoId  - ID local del evento en BD Backend
+     * @param expandido - true para incluir la lista completa de asientos
+     * @return MatrizAsientosDTO con estadísticas y, opcionalmente, asientos
+     */
+    public MatrizAsientosDTO getDisponibilidadAsientos(Long eventoId, boolean expandido) {
+        return getDisponibilidadAsientos(eventoId, expandido, null);
+    }
+
+    /**
+     * Obtiene la disponibilidad de asientos para un evento, opcionalmente como delta
+     * <p>
+     * Con {@code sinceVersion} se devuelven solo los asientos que cambiaron desde esa versión
+     * ({@code completo=false}). Si la versión ya no está en el historial (cliente muy atrasado,
+     * versión de otro nodo o reinicio del Backend) se devuelve el snapshot completo ({@code completo=true}).
+     *
+     * @param eventoId     - ID local del evento en BD Backend
+     * @param expandido    - true para incluir la lista completa de asientos (solo snapshot completo)
+     * @param sinceVersion - versión que tiene el cliente, o null
+     * @return MatrizAsientosDTO con estadísticas, versión y asientos (completos o modificados)
+     */
+    public MatrizAsientosDTO getDisponibilidadAsientos(Long eventoId, boolean expandido, Long sinceVersion) {
         log.debug("=== INICIANDO CONSULTA DE DISPONIBILIDAD ===");
-        log.debug("Evento ID local: {}", eventoId);
+        log.debug("Evento ID local: {} (sinceVersion: {})", eventoId, sinceVersion);
+        Evento evento = buscarEventoValidado(eventoId);
+        Instant consultadaEn = Instant.now();
+        DisponibilidadVersionService.VersionAsientos version = disponibilidadVersionService.registrar(
+            evento.getIdCatedra(),
+            consultarMatriz(evento),
+            consultadaEn,
+            sinceVersion
+        );
+        // Matriz vigente: si otra consulta más nueva ya se registró, se responde con esa
+        MatrizEstadoAsientos matriz = version.getMatriz();
+        // 4. Construir DTO de respuesta (en un delta no se materializa la lista completa)
+        MatrizAsientosDTO response = construirMatrizDTO(evento, matriz, expandido && version.isCompleto());
+        response.setVersion(version.getVersion());
+        response.setCompleto(version.isCompleto());
+        if (!version.isCompleto()) {
+            response.setAsientos(matriz.toAsientosDTO(version.getCambios()));
+            log.debug("Delta desde versión {}: {} asientos modificados", sinceVersion, response.getAsientos().size());
+        }
+        log.info("=== CONSULTA COMPLETADA ===");
+        log.info("Evento: {} | Total: {} | Disponibles: {} | Bloqueados: {} | Vendidos: {}",
+            evento.getTitulo(), response.getTotalAsientos(),
+            response.getDisponibles(), response.getBloqueados(), response.getVendidos());
+        return response;
+    }
+
+    /**
+     * Obtiene la matriz compacta de estados de un evento, sin materializar DTOs por asiento.
+     * Pensado para validaciones internas (selección y confirmación de compra).
+     *
+     * @param eventoId - ID local del evento en BD Backend
+     * @return MatrizEstadoAsientos con los estados actuales
+     * @throws EntityNotFoundException si evento no existe
+     * @throws IllegalStateException   si evento inactivo o sin configuración
+     * @throws RuntimeException        si Proxy no disponible
+     */
+    public MatrizEstadoAsientos obtenerMatrizEstado(Long eventoId) {
+        return consultarMatriz(buscarEventoValidado(eventoId));
+    }
+
+    /**
+     * Calcula los contadores de disponibilidad de una página de eventos con una única
+     * consulta batch al Proxy (sin construir la lista de asientos).
+     * <p>
+     * Los eventos sin idCatedra o sin configuración de asientos se devuelven sin contadores.
+     *
+     * @param eventos - Eventos de la página
+     * @return Un resumen por evento, en el mismo orden
+     * @throws RuntimeException si Proxy no disponible
+     */
+    public List<DisponibilidadResumenDTO> getResumenDisponibilidad(List<EventoDTO> eventos) {
+        List<Long> idsCatedra = eventos.stream()
+            .filter(this::tieneAsientosConfigurados)
+            .map(EventoDTO::getIdCatedra)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        Map<Long, RedisResponseDTO> redisData = idsCatedra.isEmpty()
+            ? Map.of()
+            : proxyClientService.consultarAsientosDesdeProxy(idsCatedra);
+        Instant ahora = Instant.now();
+        return eventos.stream().map(evento -> {
+            DisponibilidadResumenDTO resumen = new DisponibilidadResumenDTO();
+            resumen.setEventoId(evento.getId());
+            resumen.setEventoIdCatedra(evento.getIdCatedra());
+            if (tieneAsientosConfigurados(evento) && evento.getIdCatedra() != null) {
+                MatrizEstadoAsientos matriz = MatrizEstadoAsientos.desde(
+                    evento.getFilaAsientos(),
+                    evento.getColumnaAsientos(),
+                    redisData.get(evento.getIdCatedra()),
+                    ahora
+                );
+                resumen.setTotalAsientos(matriz.getTotalAsientos());
+                resumen.setDisponibles(matriz.getDisponibles());
+                resumen.setBloqueados(matriz.getBloqueados());
+                resumen.setVendidos(matriz.getVendidos());
+            }
+            return resumen;
+        }).toList();
+    }
+
+    private boolean tieneAsientosConfigurados(EventoDTO evento) {
+        return evento.getFilaAsientos() != null && evento.getColumnaAsientos() != null;
+    }
+
+    /**
+     * Busca el evento en BD local y valida que permita consultar asientos
+     */
+    private Evento buscarEventoValidado(Long eventoId) {
         // 1. Buscar evento en BD local
         Evento evento = eventoRepository.findById(eventoId)
             .orElseThrow(() -> {
@@ -84,119 +208,58 @@ public class AsientosDisponibilidadService {
         }
         log.debug("Validaciones OK - Filas: {}, Columnas: {}",
             evento.getFilaAsientos(), evento.getColumnaAsientos());
-        // 3. Consultar asientos bloqueados/vendidos desde Proxy
-        Optional<RedisResponseDTO> redisData = proxyClientService
-            .consultarAsientosDesdeProxy(evento.getIdCatedra());
+        return evento;
+    }
+
+    /**
+     * Consulta el Proxy y aplica los asientos bloqueados/vendidos sobre la matriz compacta
+     */
+    private MatrizEstadoAsientos consultarMatriz(Evento evento) {
+        // 3. Consultar asientos bloqueados/vendidos desde Proxy (cache de TTL corto por evento)
+        Long idCatedra = evento.getIdCatedra();
+        Optional<RedisResponseDTO> redisData = disponibilidadCacheService.obtener(
+            idCatedra,
+            () -> proxyClientService.consultarAsientosDesdeProxy(idCatedra)
+        );
         if (redisData.isPresent()) {
             log.debug("Datos de Redis recibidos: {} asientos bloqueados/vendidos",
-                redisData.get().getAsientos().size());
+                redisData.get().getAsientos() != null ? redisData.get().getAsientos().size() : 0);
         } else {
             log.debug("Sin datos en Redis - todos los asientos disponibles");
         }
-        // 4. Construir matriz completa
-        MatrizAsientosDTO matriz = construirMatrizCompleta(evento, redisData);
-        log.info("=== CONSULTA COMPLETADA ===");
-        log.info("Evento: {} | Total: {} | Disponibles: {} | Bloqueados: {} | Vendidos: {}",
-            evento.getTitulo(), matriz.getTotalAsientos(),
-            matriz.getDisponibles(), matriz.getBloqueados(), matriz.getVendidos());
+        MatrizEstadoAsientos matriz = MatrizEstadoAsientos.desde(
+            evento.getFilaAsientos(),
+            evento.getColumnaAsientos(),
+            redisData.orElse(null),
+            Instant.now()
+        );
+        log.debug("Estados actualizados: {} bloqueados, {} vendidos",
+            matriz.getBloqueados(), matriz.getVendidos());
         return matriz;
     }
 
     /**
-     * Construye la matriz completa de asientos con estados
-     * <p>
-     * Estrategia:
-     * 1. Crear matriz inicializada con todos DISPONIBLE
-     * 2. Si hay datos de Redis, actualizar estados (BLOQUEADO/VENDIDO)
-     * 3. Validar expiración de bloqueos
-     * 4. Calcular estadísticas
+     * Construye el DTO de respuesta a partir de la matriz compacta.
+     * La lista de asientos solo se materializa si se pide la forma expandida.
      */
-    private MatrizAsientosDTO construirMatrizCompleta(
+    private MatrizAsientosDTO construirMatrizDTO(
         Evento evento,
-        Optional<RedisResponseDTO> redisData
+        MatrizEstadoAsientos matriz,
+        boolean expandido
     ) {
-        int totalFilas = evento.getFilaAsientos();
-        int totalColumnas = evento.getColumnaAsientos();
-        int totalAsientos = totalFilas * totalColumnas;
-        log.debug("Construyendo matriz: {}x{} = {} asientos",
-            totalFilas, totalColumnas, totalAsientos);
-        // 1. Crear lista de asientos inicializada como DISPONIBLE
-        List<AsientoDisponibilidadDTO> asientos = new ArrayList<>(totalAsientos);
-        for (int fila = 1; fila <= totalFilas; fila++) {
-            for (int columna = 1; columna <= totalColumnas; columna++) {
-                AsientoDisponibilidadDTO asiento = new AsientoDisponibilidadDTO(
-                    fila, columna, EstadoAsiento.DISPONIBLE
-                );
-                asientos.add(asiento);
-            }
-        }
-        // Contadores iniciales
-        int disponibles = totalAsientos;
-        int bloqueados = 0;
-        int vendidos = 0;
-        // 2. Si hay datos de Redis, actualizar estados
-        if (redisData.isPresent() && redisData.get().getAsientos() != null) {
-            log.debug("Actualizando estados desde Redis...");
-            // Crear mapa para acceso rápido: "fila-columna" -> AsientoDTO
-            Map<String, AsientoDisponibilidadDTO> mapaAsientos = new HashMap<>();
-            for (AsientoDisponibilidadDTO asiento : asientos) {
-                String key = asiento.getFila() + "-" + asiento.getColumna();
-                mapaAsientos.put(key, asiento);
-            }
-            Instant ahora = Instant.now();
-            // Procesar cada asiento de Redis
-            for (RedisAsientoDTO redisAsiento : redisData.get().getAsientos()) {
-                String key = redisAsiento.getFila() + "-" + redisAsiento.getColumna();
-                AsientoDisponibilidadDTO asiento = mapaAsientos.get(key);
-                if (asiento == null) {
-                    log.warn("Asiento en Redis fuera de rango: fila={}, columna={}",
-                        redisAsiento.getFila(), redisAsiento.getColumna());
-                    continue;
-                }
-                String estado = redisAsiento.getEstado();
-                if ("Bloqueado".equalsIgnoreCase(estado)) {
-                    // Verificar si el bloqueo expiró
-                    if (redisAsiento.getExpira() != null) {
-                        if (redisAsiento.getExpira().isAfter(ahora)) {
-                            // Bloqueo vigente
-                            asiento.setEstado(EstadoAsiento.BLOQUEADO);
-                            asiento.setExpira(redisAsiento.getExpira());
-                            bloqueados++;
-                            disponibles--;
-                            log.trace("Asiento ({},{}) BLOQUEADO hasta {}",
-                                redisAsiento.getFila(), redisAsiento.getColumna(),
-                                redisAsiento.getExpira());
-                        } else {
-                            // Bloqueo expirado - queda como DISPONIBLE
-                            log.trace("Asiento ({},{}) bloqueo EXPIRADO - disponible",
-                                redisAsiento.getFila(), redisAsiento.getColumna());
-                        }
-                    }
-                } else if ("Vendido".equalsIgnoreCase(estado)) {
-                    // Asiento vendido
-                    asiento.setEstado(EstadoAsiento.VENDIDO);
-                    asiento.setNombrePersona(redisAsiento.getNombrePersona());
-                    vendidos++;
-                    disponibles--;
-                    log.trace("Asiento ({},{}) VENDIDO",
-                        redisAsiento.getFila(), redisAsiento.getColumna());
-                }
-            }
-            log.debug("Estados actualizados: {} bloqueados, {} vendidos",
-                bloqueados, vendidos);
-        }
-        // 3. Construir DTO de respuesta
         MatrizAsientosDTO response = new MatrizAsientosDTO();
         response.setEventoId(evento.getId());
         response.setEventoIdCatedra(evento.getIdCatedra());
         response.setTituloEvento(evento.getTitulo());
-        response.setTotalFilas(totalFilas);
-        response.setTotalColumnas(totalColumnas);
-        response.setTotalAsientos(totalAsientos);
-        response.setDisponibles(disponibles);
-        response.setBloqueados(bloqueados);
-        response.setVendidos(vendidos);
-        response.setAsientos(asientos);
+        response.setTotalFilas(matriz.getFilas());
+        response.setTotalColumnas(matriz.getColumnas());
+        response.setTotalAsientos(matriz.getTotalAsientos());
+        response.setDisponibles(matriz.getDisponibles());
+        response.setBloqueados(matriz.getBloqueados());
+        response.setVendidos(matriz.getVendidos());
+        if (expandido) {
+            response.setAsientos(matriz.toAsientosDTO());
+        }
         response.setConsultadoEn(Instant.now());
         return response;
     }
@@ -0,0 +1,377 @@
+package com.evento.backend.service;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.service.dto.MatrizAsientosDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Stream (Server-Sent Events) de cambios de disponibilidad de asientos por evento.
+ *
+ * - Un único poller por evento con suscriptores consulta la disponibilidad como delta
+ *   ({@code sinceVersion}) y reparte el resultado a todos los suscriptores del nodo.
+ * - Al suscribirse se envía un evento {@code snapshot} con la matriz completa; luego
+ *   eventos {@code cambios} solo con los asientos modificados.
+ * - Cada suscriptor tiene un buffer acotado; si se llena (cliente lento) se lo desconecta
+ *   y al reconectarse recibe un snapshot nuevo.
+ * - Sin cambios se envía un comentario de heartbeat cada {@code stream-heartbeat-ms}.
+ * - El poller se detiene cuando el evento se queda sin suscriptores.
+ *
+ * Las consultas al Proxy se hacen fuera del lock del canal; bajo el lock solo se compara la
+ * versión obtenida con la del canal y se publica. Un snapshot más viejo que la versión del canal
+ * se vuelve a pedir (el suscriptor perdería los deltas intermedios) y cada suscriptor solo recibe
+ * resultados posteriores a su snapshot.
+ */
+@Service
+public class AsientosStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(AsientosStreamService.class);
+
+    public static final String SUSCRIPTORES_METER_NAME = "disponibilidad.stream.suscriptores";
+    public static final String DESCONECTADOS_METER_NAME = "disponibilidad.stream.desconectados";
+
+    private static final long TIMEOUT_EMITTER_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private final AsientosDisponibilidadService asientosDisponibilidadService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationProperties.Disponibilidad disponibilidadProperties;
+
+    private final Map<Long, Canal> canales = new ConcurrentHashMap<>();
+    private final AtomicInteger suscriptores = new AtomicInteger();
+    private final ScheduledExecutorService pollers = Executors.newScheduledThreadPool(
+        2,
+        new CustomizableThreadFactory("asientos-stream-poll-")
+    );
+    private final ExecutorService envios = Executors.newFixedThreadPool(4, new CustomizableThreadFactory("asientos-stream-envio-"));
+
+    private final Counter lentosCounter;
+    private final Counter erroresCounter;
+
+    public AsientosStreamService(
+        AsientosDisponibilidadService asientosDisponibilidadService,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.asientosDisponibilidadService = asientosDisponibilidadService;
+        this.objectMapper = objectMapper;
+        this.disponibilidadProperties = applicationProperties.getDisponibilidad();
+        Gauge.builder(SUSCRIPTORES_METER_NAME, suscriptores, AtomicInteger::get)
+            .description("Suscriptores SSE de disponibilidad conectados a este nodo")
+            .register(meterRegistry);
+        this.lentosCounter = desconectados("lento", meterRegistry);
+        this.erroresCounter = desconectados("error", meterRegistry);
+    }
+
+    private Counter desconectados(String motivo, MeterRegistry meterRegistry) {
+        return Counter.builder(DESCONECTADOS_METER_NAME)
+            .description("Suscriptores SSE desconectados por el servidor")
+            .tag("motivo", motivo)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Suscribe un cliente a los cambios de asientos de un evento.
+     *
+     * @param eventoId ID local del evento
+     * @return Emitter SSE (el primer evento es el snapshot completo)
+     * @throws SuscriptoresExcedidosException si el nodo alcanzó el máximo de suscriptores
+     * @throws EntityNotFoundException si el evento no existe
+     * @throws IllegalStateException si el evento está inactivo o sin configuración
+     */
+    public SseEmitter suscribir(Long eventoId) {
+        return suscribir(eventoId, new SseEmitter(TIMEOUT_EMITTER_MS));
+    }
+
+    SseEmitter suscribir(Long eventoId, SseEmitter emitter) {
+        int maximo = disponibilidadProperties.getStreamMaxSuscriptores();
+        if (suscriptores.incrementAndGet() > maximo) {
+            suscriptores.decrementAndGet();
+            log.warn("Suscripción SSE rechazada para evento {}: máximo de {} suscriptores alcanzado", eventoId, maximo);
+            throw new SuscriptoresExcedidosException(maximo);
+        }
+
+        while (true) {
+            MatrizAsientosDTO snapshot;
+            Set<DataWithMediaType> datos;
+            try {
+                snapshot = asientosDisponibilidadService.getDisponibilidadAsientos(eventoId, true, null);
+                datos = evento("snapshot", snapshot);
+            } catch (RuntimeException e) {
+                suscriptores.decrementAndGet();
+                throw e;
+            }
+            Canal canal = canales.computeIfAbsent(eventoId, Canal::new);
+            synchronized (canal) {
+                if (canal.cerrado || esAnterior(snapshot.getVersion(), canal.version)) {
+                    // Canal cerrado mientras se consultaba, o el poller ya publicó un delta posterior al snapshot
+                    continue;
+                }
+                Suscriptor suscriptor = new Suscriptor(canal, emitter, snapshot.getVersion(), disponibilidadProperties.getStreamBufferEventos());
+                canal.suscriptores.add(suscriptor);
+                if (canal.tarea == null) {
+                    iniciarPoller(canal, snapshot.getVersion());
+                }
+                encolar(suscriptor, datos);
+                emitter.onCompletion(() -> desuscribir(suscriptor));
+                emitter.onTimeout(() -> desuscribir(suscriptor));
+                emitter.onError(e -> desuscribir(suscriptor));
+                log.debug("Suscriptor SSE agregado al evento {} ({} en el evento)", eventoId, canal.suscriptores.size());
+                return emitter;
+            }
+        }
+    }
+
+    private static boolean esAnterior(Long version, Long otra) {
+        return version != null && otra != null && version < otra;
+    }
+
+    private void iniciarPoller(Canal canal, Long version) {
+        long intervalo = disponibilidadProperties.getStreamIntervaloMs();
+        canal.version = version;
+        canal.ultimoEnvio = System.nanoTime();
+        canal.tarea = pollers.scheduleWithFixedDelay(() -> consultar(canal), intervalo, intervalo, TimeUnit.MILLISECONDS);
+        log.info("Poller SSE iniciado para evento {}", canal.eventoId);
+    }
+
+    /**
+     * Ejecuta una consulta del poller del evento (una sola por evento, sin importar la cantidad de suscriptores)
+     */
+    void consultar(Long eventoId) {
+        Canal canal = canales.get(eventoId);
+        if (canal != null) {
+            consultar(canal);
+        }
+    }
+
+    private void consultar(Canal canal) {
+        Long version;
+        synchronized (canal) {
+            if (canal.cerrado) {
+                return;
+            }
+            version = canal.version;
+        }
+
+        MatrizAsientosDTO resultado = null;
+        Set<DataWithMediaType> datos = null;
+        try {
+            MatrizAsientosDTO delta = asientosDisponibilidadService.getDisponibilidadAsientos(canal.eventoId, false, version);
+            if (Boolean.TRUE.equals(delta.getCompleto())) {
+                // Historial insuficiente: reenviar la matriz completa
+                resultado = asientosDisponibilidadService.getDisponibilidadAsientos(canal.eventoId, true, null);
+                datos = evento("snapshot", resultado);
+            } else {
+                resultado = delta;
+                if (delta.getAsientos() != null && !delta.getAsientos().isEmpty()) {
+                    datos = evento("cambios", delta);
+                }
+            }
+        } catch (EntityNotFoundException | IllegalStateException e) {
+            log.warn("Evento {} ya no admite consultas de asientos: {} - cerrando stream", canal.eventoId, e.getMessage());
+            List<Suscriptor> actuales;
+            synchronized (canal) {
+                actuales = List.copyOf(canal.suscriptores);
+            }
+            actuales.forEach(this::desconectar);
+            return;
+        } catch (RuntimeException e) {
+            // Proxy no disponible: se reintenta en el próximo ciclo
+            log.warn("Error consultando asientos del evento {} para SSE: {}", canal.eventoId, e.getMessage());
+        }
+
+        synchronized (canal) {
+            if (canal.cerrado) {
+                return;
+            }
+            // Solo se publica sobre la versión con que se consultó; si cambió, el próximo ciclo recalcula
+            if (resultado != null && Objects.equals(canal.version, version) && !esAnterior(resultado.getVersion(), version)) {
+                if (datos != null) {
+                    publicar(canal, datos, resultado.getVersion());
+                }
+                canal.version = resultado.getVersion();
+            }
+            long heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(disponibilidadProperties.getStreamHeartbeatMs());
+            if (System.nanoTime() - canal.ultimoEnvio >= heartbeatNanos) {
+                publicar(canal, HEARTBEAT, null);
+            }
+        }
+    }
+
+    /**
+     * Encola los datos a los suscriptores del canal. Llamar con el lock del canal.
+     *
+     * @param version Versión de los datos; no se envían a quien tiene un snapshot igual o posterior (null = a todos)
+     */
+    private void publicar(Canal canal, Set<DataWithMediaType> datos, Long version) {
+        canal.ultimoEnvio = System.nanoTime();
+        for (Suscriptor suscriptor : List.copyOf(canal.suscriptores)) {
+            if (version == null || suscriptor.versionInicial == null || suscriptor.versionInicial < version) {
+                encolar(suscriptor, datos);
+            }
+        }
+    }
+
+    private void encolar(Suscriptor suscriptor, Set<DataWithMediaType> datos) {
+        if (!suscriptor.cola.offer(datos)) {
+            log.debug("Suscriptor SSE del evento {} no consume eventos - desconectando", suscriptor.canal.eventoId);
+            lentosCounter.increment();
+            desconectar(suscriptor);
+            return;
+        }
+        programarEnvio(suscriptor);
+    }
+
+    private void programarEnvio(Suscriptor suscriptor) {
+        if (suscriptor.enviando.compareAndSet(false, true)) {
+            envios.execute(() -> enviar(suscriptor));
+        }
+    }
+
+    private void enviar(Suscriptor suscriptor) {
+        try {
+            Set<DataWithMediaType> datos;
+            while (suscriptor.activo.get() && (datos = suscriptor.cola.poll()) != null) {
+                suscriptor.emitter.send(datos);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado
+            log.debug("Error enviando evento SSE del evento {}: {}", suscriptor.canal.eventoId, e.getMessage());
+            erroresCounter.increment();
+            desuscribir(suscriptor);
+        } finally {
+            suscriptor.enviando.set(false);
+            if (suscriptor.activo.get() && !suscriptor.cola.isEmpty()) {
+                programarEnvio(suscriptor);
+            }
+        }
+    }
+
+    /**
+     * Desuscribe y cierra la conexión. El cierre se hace fuera del lock del canal,
+     * ya que puede esperar a un envío en curso hacia un cliente lento.
+     */
+    private void desconectar(Suscriptor suscriptor) {
+        desuscribir(suscriptor);
+        envios.execute(suscriptor.emitter::complete);
+    }
+
+    private void desuscribir(Suscriptor suscriptor) {
+        if (!suscriptor.activo.compareAndSet(true, false)) {
+            return;
+        }
+        suscriptores.decrementAndGet();
+        suscriptor.cola.clear();
+        Canal canal = suscriptor.canal;
+        synchronized (canal) {
+            canal.suscriptores.remove(suscriptor);
+            liberarSiVacio(canal);
+        }
+    }
+
+    /**
+     * Detiene el poller y descarta el canal si no le quedan suscriptores. Llamar con el lock del canal.
+     */
+    private void liberarSiVacio(Canal canal) {
+        if (!canal.suscriptores.isEmpty() || canal.cerrado) {
+            return;
+        }
+        canal.cerrado = true;
+        if (canal.tarea != null) {
+            canal.tarea.cancel(false);
+            log.info("Poller SSE detenido para evento {} (sin suscriptores)", canal.eventoId);
+        }
+        canales.remove(canal.eventoId, canal);
+    }
+
+    private Set<DataWithMediaType> evento(String nombre, MatrizAsientosDTO matriz) {
+        try {
+            // Se serializa una sola vez para todos los suscriptores
+            return SseEmitter.event()
+                .name(nombre)
+                .id(String.valueOf(matriz.getVersion()))
+                .data(objectMapper.writeValueAsString(matriz), MediaType.APPLICATION_JSON)
+                .build();
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializando disponibilidad de asientos", e);
+        }
+    }
+
+    int getCanalesActivos() {
+        return canales.size();
+    }
+
+    int getSuscriptores() {
+        return suscriptores.get();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        pollers.shutdownNow();
+        envios.shutdownNow();
+        canales.values().forEach(canal -> List.copyOf(canal.suscriptores).forEach(suscriptor -> suscriptor.emitter.complete()));
+    }
+
+    /**
+     * Evento con al menos un suscriptor en este nodo. Se accede sincronizado sobre la instancia.
+     */
+    private static final class Canal {
+
+        private final Long eventoId;
+        private final List<Suscriptor> suscriptores = new ArrayList<>();
+        private ScheduledFuture<?> tarea;
+        private Long version;
+        private long ultimoEnvio;
+        private boolean cerrado;
+
+        private Canal(Long eventoId) {
+            this.eventoId = eventoId;
+        }
+    }
+
+    private static final class Suscriptor {
+
+        private final Canal canal;
+        private final SseEmitter emitter;
+        private final Long versionInicial;
+        private final BlockingQueue<Set<DataWithMediaType>> cola;
+        private final AtomicBoolean activo = new AtomicBoolean(true);
+        private final AtomicBoolean enviando = new AtomicBoolean();
+
+        private Suscriptor(Canal canal, SseEmitter emitter, Long versionInicial, int capacidad) {
+            this.canal = canal;
+            this.emitter = emitter;
+            this.versionInicial = versionInicial;
+            this.cola = new ArrayBlockingQueue<>(Math.max(1, capacidad));
+        }
+    }
+}
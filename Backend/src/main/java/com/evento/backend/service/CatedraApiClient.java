@@ -4,10 +4,10 @@ import com.evento.backend.config.CatedraProperties;
 import com.evento.backend.service.dto.EventoCatedraDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
@@ -15,6 +15,7 @@ import org.springframework.web.client.RestTemplate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 /**
  * Cliente HTTP para consumir el API REST del servidor de cátedra.
  *
@@ -22,54 +23,49 @@ import java.util.List;
  * - Hacer llamadas HTTP GET al endpoint de eventos
  * - Agregar header Authorization con token JWT
  * - Deserializar respuestas JSON a objetos EventoCatedraDTO
- * - Manejar errores de autenticación (401) renovando el token
+ * - Manejar errores de autenticación (401) renovando el token y re-intentando una vez
+ * - Pasar las consultas por el circuit breaker y bulkhead "eventos" (ResilienciaService)
  *
  * Este servicio es usado por EventoSyncService para obtener eventos
  * desde el servidor de cátedra durante la sincronización.
  *
  * Endpoints consumidos:
  * - GET /api/endpoints/v1/eventos (lista completa de eventos activos)
+ * - GET /api/endpoints/v1/evento/{id} (un evento, para sincronizaciones dirigidas)
  */
 @Service
 public class CatedraApiClient {
     private static final Logger log = LoggerFactory.getLogger(CatedraApiClient.class);
     private final CatedraProperties catedraProperties;
     private final CatedraAuthService authService;
+    private final ResilienciaService resilienciaService;
     private final RestTemplate restTemplate;
 
     public CatedraApiClient(
         CatedraProperties catedraProperties,
-        CatedraAuthService authService
+        CatedraAuthService authService,
+        ResilienciaService resilienciaService,
+        @Qualifier("catedraRestTemplate") RestTemplate restTemplate
     ) {
         this.catedraProperties = catedraProperties;
         this.authService = authService;
-        this.restTemplate = new RestTemplate();
+        this.resilienciaService = resilienciaService;
+        this.restTemplate = restTemplate;
     }
 
     public List<EventoCatedraDTO> getEventosCompletos() {
         String url = catedraProperties.getBaseUrl() + "/api/endpoints/v1/eventos";
 
         try {
-            // Primer intento con token actual
+            // Un 401 se re-intenta una vez con token renovado (CatedraAuthService.conToken)
             log.debug("Consultando eventos desde cátedra: {}", url);
-            return fetchEventos(url);
+            return resilienciaService.ejecutar(ResilienciaService.EVENTOS, () -> authService.conToken(token -> fetchEventos(url, token)));
 
         } catch (HttpClientErrorException e) {
-            // Verificar si es error de autenticación (token expirado)
-            if (e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
-                log.warn("Token expirado (401 Unauthorized), renovando...");
-                authService.renewToken();
-
-                // Segundo intento con token renovado
-                log.debug("Reintentando consulta con token renovado...");
-                return fetchEventos(url);
-
-            } else {
-                // Otro tipo de error HTTP (403, 404, 500, etc.)
-                log.error("Error HTTP al obtener eventos: {} - {}",
-                    e.getStatusCode(), e.getMessage());
-                throw new RuntimeException("Error al consultar eventos desde cátedra", e);
-            }
+            // Error HTTP (401 aun con token renovado, 403, 404, etc.)
+            log.error("Error HTTP al obtener eventos: {} - {}",
+                e.getStatusCode(), e.getMessage());
+            throw new RuntimeException("Error al consultar eventos desde cátedra", e);
 
         } catch (Exception e) {
             // Error de red, timeout, o error inesperado
@@ -78,20 +74,56 @@ public class CatedraApiClient {
         }
     }
 
-    private List<EventoCatedraDTO> fetchEventos(String url) {
-        // 1. Obtener token JWT válido
-        String token = authService.getValidToken();
+    /**
+     * Obtiene un evento de cátedra por su ID.
+     *
+     * @param idCatedra ID del evento en cátedra
+     * @return el evento, o vacío si cátedra responde 404 (evento eliminado)
+     * @throws RuntimeException ante cualquier otro error, para no confundirlo con un evento inexistente
+     */
+    public Optional<EventoCatedraDTO> getEvento(Long idCatedra) {
+        String url = catedraProperties.getBaseUrl() + "/api/endpoints/v1/evento/{id}";
+
+        try {
+            log.debug("Consultando evento {} desde cátedra: {}", idCatedra, url);
+            return resilienciaService.ejecutar(
+                ResilienciaService.EVENTOS,
+                () -> authService.conToken(token -> fetchEvento(url, idCatedra, token))
+            );
+
+        } catch (HttpClientErrorException e) {
+            log.error("Error HTTP al obtener evento {}: {} - {}", idCatedra, e.getStatusCode(), e.getMessage());
+            throw new RuntimeException("Error al consultar evento " + idCatedra + " desde cátedra", e);
+        }
+    }
+
+    private Optional<EventoCatedraDTO> fetchEvento(String url, Long idCatedra, String token) {
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("Authorization", "Bearer " + token);
+            ResponseEntity<EventoCatedraDTO> response = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                EventoCatedraDTO.class,
+                idCatedra
+            );
+            return Optional.ofNullable(response.getBody());
+        } catch (HttpClientErrorException.NotFound e) {
+            log.info("Evento {} no encontrado en cátedra", idCatedra);
+            return Optional.empty();
+        }
+    }
 
-        // 2. Construir headers HTTP con Authorization Bearer
+    private List<EventoCatedraDTO> fetchEventos(String url, String token) {
+        // 1. Construir headers HTTP con Authorization Bearer
         HttpHeaders headers = new HttpHeaders();
         headers.set("Authorization", "Bearer " + token);
 
-        // 3. Crear request HTTP (solo headers, sin body en GET)
+        // 2. Crear request HTTP (solo headers, sin body en GET)
         HttpEntity<Void> request = new HttpEntity<>(headers);
 
-        // 4. Hacer GET y deserializar respuesta JSON a array de DTOs
-        log.debug("   Headers: Authorization: Bearer {}...", token.substring(0, 20));
-
+        // 3. Hacer GET y deserializar respuesta JSON a array de DTOs
         ResponseEntity<EventoCatedraDTO[]> response = restTemplate.exchange(
             url,
             HttpMethod.GET,
@@ -99,7 +131,7 @@ public class CatedraApiClient {
             EventoCatedraDTO[].class  // Jackson deserializa JSON array → DTO[]
         );
 
-        // 5. Convertir array a List y devolver
+        // 4. Convertir array a List y devolver
         if (response.getBody() != null) {
             List<EventoCatedraDTO> eventos = Arrays.asList(response.getBody());
             log.info("Eventos obtenidos desde cátedra: {}", eventos.size());
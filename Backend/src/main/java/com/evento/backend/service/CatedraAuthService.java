@@ -2,50 +2,154 @@ package com.evento.backend.service;
 
 import com.evento.backend.config.CatedraProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.nimbusds.jwt.JWTParser;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
-import java.util.HashMap;
-import java.util.Map;
+
 /**
  * Servicio para manejar la autenticación con el API de cátedra.
  *
  * Responsabilidades:
  * - Realizar login contra el servidor de cátedra
- * - Mantener un token JWT en memoria (cache simple)
- * - Renovar el token cuando expira (detectado por respuesta 401)
+ * - Mantener un token JWT en memoria, con su vencimiento (claim {@code exp})
+ * - Renovarlo en segundo plano antes de que venza ({@code catedra.api.renovacion-anticipada-segundos})
+ * - Renovarlo ante un 401 y re-intentar la llamada una vez ({@link #conToken})
+ *
+ * El token se publica en un campo volatile y los logins se serializan con un lock: si muchos
+ * threads encuentran el token vencido (o reciben 401 con el mismo token) se hace un único login
+ * y el resto usa el token nuevo.
  *
- * El token se guarda en memoria mientras la aplicación esté corriendo.
  * Si el Backend se reinicia, se hará login nuevamente automáticamente.
  */
 @Service
 public class CatedraAuthService {
     private static final Logger log = LoggerFactory.getLogger(CatedraAuthService.class);
 
+    /**
+     * Un token que vence dentro de este margen ya no se usa: la llamada podría llegar con el token vencido.
+     */
+    private static final Duration MARGEN_VENCIMIENTO = Duration.ofSeconds(10);
 
     private final CatedraProperties catedraProperties;
     private final RestTemplate restTemplate;
+    private final ReentrantLock renovacion = new ReentrantLock();
 
-    private String cachedToken;
+    private volatile TokenCatedra token;
 
-    public CatedraAuthService(CatedraProperties catedraProperties) {
+    public CatedraAuthService(
+        CatedraProperties catedraProperties,
+        @Qualifier("catedraRestTemplate") RestTemplate restTemplate
+    ) {
         this.catedraProperties = catedraProperties;
-        this.restTemplate = new RestTemplate();
+        this.restTemplate = restTemplate;
     }
 
+    /**
+     * @return Token vigente, haciendo login si no hay token o está por vencer
+     */
     public String getValidToken() {
-        if (cachedToken == null) {
+        TokenCatedra actual = token;
+        if (actual != null && !actual.vencePara(Instant.now().plus(MARGEN_VENCIMIENTO))) {
+            return actual.valor;
+        }
+        if (actual == null) {
             log.info("No hay token en cache, realizando login...");
-            login();
         }
-        return cachedToken;
+        return renovar(actual).valor;
+    }
+
+    /**
+     * Ejecuta una llamada autenticada. Si cátedra responde 401, renueva el token (un único login
+     * aunque varios threads reciban 401 con el mismo token) y re-intenta una vez.
+     *
+     * @param llamada Llamada que recibe el token a enviar como Bearer
+     * @return Resultado de la llamada
+     * @throws HttpClientErrorException.Unauthorized si el token renovado también es rechazado
+     */
+    public <T> T conToken(Function<String, T> llamada) {
+        String valor = getValidToken();
+        try {
+            return llamada.apply(valor);
+        } catch (HttpClientErrorException.Unauthorized e) {
+            log.warn("Token JWT rechazado por cátedra (401), renovando y re-intentando...");
+            renewToken(valor);
+            return llamada.apply(getValidToken());
+        }
     }
 
-    public void login() {
+    /**
+     * Renueva el token rechazado por cátedra. Si otro thread ya lo reemplazó no hace login.
+     *
+     * @param tokenRechazado Token con el que se recibió el 401
+     */
+    public void renewToken(String tokenRechazado) {
+        TokenCatedra actual = token;
+        if (actual != null && !actual.valor.equals(tokenRechazado)) {
+            return;
+        }
+        log.info("♻ Renovando token JWT (token expirado)...");
+        renovar(actual);
+    }
+
+    /**
+     * Renovación proactiva: hace login si el token vence dentro de {@code renovacion-anticipada-segundos}.
+     */
+    @Scheduled(
+        initialDelayString = "${catedra.api.verificacion-token-ms:30000}",
+        fixedDelayString = "${catedra.api.verificacion-token-ms:30000}"
+    )
+    public void renovarSiPorVencer() {
+        TokenCatedra actual = token;
+        Instant limite = Instant.now().plusSeconds(catedraProperties.getRenovacionAnticipadaSegundos());
+        if (actual == null || !actual.vencePara(limite)) {
+            return;
+        }
+        try {
+            log.info("Token JWT vence a las {}, renovando anticipadamente", actual.vence);
+            renovar(actual);
+        } catch (RuntimeException e) {
+            // Se re-intenta en la próxima verificación; mientras tanto el token actual sigue vigente
+            log.warn("No se pudo renovar anticipadamente el token: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Login bajo lock. Si al tomar el lock el token ya no es el que se vio, otro thread lo renovó.
+     *
+     * @param visto Token que el llamador encontró vencido o rechazado (null si no había)
+     */
+    private TokenCatedra renovar(TokenCatedra visto) {
+        renovacion.lock();
+        try {
+            TokenCatedra actual = token;
+            if (actual != null && actual != visto) {
+                return actual;
+            }
+            TokenCatedra nuevo = login();
+            token = nuevo;
+            return nuevo;
+        } finally {
+            renovacion.unlock();
+        }
+    }
+
+    private TokenCatedra login() {
         try {
             // 1. Construir URL completa
             String url = catedraProperties.getBaseUrl() + "/api/authenticate";
@@ -65,8 +169,9 @@ public class CatedraAuthService {
             LoginResponse response = restTemplate.postForObject(url, request, LoginResponse.class);
             // 6. Verificar que obtuvimos el token
             if (response != null && response.getIdToken() != null) {
-                cachedToken = response.getIdToken();
-                log.info("✓ Login exitoso, token obtenido: {}...", cachedToken.substring(0, 20));
+                TokenCatedra nuevo = new TokenCatedra(response.getIdToken(), leerVencimiento(response.getIdToken()));
+                log.info("✓ Login exitoso, token obtenido (vence: {})", nuevo.vence != null ? nuevo.vence : "desconocido");
+                return nuevo;
             } else {
                 log.error("✗ Login falló: respuesta nula o sin token");
                 throw new RuntimeException("No se pudo obtener token de autenticación");
@@ -77,10 +182,34 @@ public class CatedraAuthService {
         }
     }
 
-    public void renewToken() {
-        log.info("♻ Renovando token JWT (token expirado)...");
-        cachedToken = null;  // Limpiar cache
-        login();             // Hacer login nuevamente
+    /**
+     * Claim {@code exp} del JWT (sin validar la firma: solo se usa para saber cuándo renovar).
+     *
+     * @return Vencimiento, o null si el token no es un JWT legible o no tiene exp (solo se renueva ante 401)
+     */
+    static Instant leerVencimiento(String jwt) {
+        try {
+            Date exp = JWTParser.parse(jwt).getJWTClaimsSet().getExpirationTime();
+            return exp != null ? exp.toInstant() : null;
+        } catch (ParseException e) {
+            log.warn("Token de cátedra sin claim exp legible: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static final class TokenCatedra {
+
+        private final String valor;
+        private final Instant vence;
+
+        private TokenCatedra(String valor, Instant vence) {
+            this.valor = valor;
+            this.vence = vence;
+        }
+
+        private boolean vencePara(Instant instante) {
+            return vence != null && !vence.isAfter(instante);
+        }
     }
 
     private static class LoginResponse {
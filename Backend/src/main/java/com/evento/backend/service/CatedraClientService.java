@@ -4,6 +4,8 @@ import com.evento.backend.config.CatedraProperties;
 import com.evento.backend.service.dto.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
@@ -17,7 +19,8 @@ import java.util.List;
  * Responsabilidades:
  * - Bloquear asientos temporalmente (5 minutos)
  * - Realizar ventas de asientos
- * - Manejo de autenticación JWT
+ * - Consultar ventas registradas (reconciliación de ventas pendientes)
+ * - Manejo de autenticación JWT (re-intento con token renovado ante 401, ver CatedraAuthService)
  * - Manejo de errores de comunicación
  */
 @Service
@@ -25,14 +28,21 @@ public class CatedraClientService {
     private static final Logger LOG = LoggerFactory.getLogger(CatedraClientService.class);
     private final CatedraProperties catedraProperties;
     private final CatedraAuthService catedraAuthService;
+    private final DisponibilidadCacheService disponibilidadCacheService;
+    private final ResilienciaService resilienciaService;
     private final RestTemplate restTemplate;
     public CatedraClientService(
         CatedraProperties catedraProperties,
-        CatedraAuthService catedraAuthService
+        CatedraAuthService catedraAuthService,
+        DisponibilidadCacheService disponibilidadCacheService,
+        ResilienciaService resilienciaService,
+        @Qualifier("catedraRestTemplate") RestTemplate restTemplate
     ) {
         this.catedraProperties = catedraProperties;
         this.catedraAuthService = catedraAuthService;
-        this.restTemplate = new RestTemplate();
+        this.disponibilidadCacheService = disponibilidadCacheService;
+        this.resilienciaService = resilienciaService;
+        this.restTemplate = restTemplate;
     }
     /**
      * Bloquea asientos temporalmente en el servidor de cátedra.
@@ -41,11 +51,18 @@ public class CatedraClientService {
      * @param eventoIdCatedra ID del evento en servidor de cátedra (NO el ID local)
      * @param asientos Lista de asientos a bloquear
      * @return Response con resultado del bloqueo
+     * @throws DependenciaNoDisponibleException si el circuito de bloqueos está abierto (sin llamar a cátedra)
      * @throws RuntimeException si hay error de comunicación o autenticación
      */
     public BloquearAsientosResponseDTO bloquearAsientos(
         Long eventoIdCatedra,
         List<AsientoSimpleDTO> asientos
+    ) {
+        return resilienciaService.ejecutar(ResilienciaService.BLOQUEAR, () -> bloquearEnCatedra(eventoIdCatedra, asientos));
+    }
+    private BloquearAsientosResponseDTO bloquearEnCatedra(
+        Long eventoIdCatedra,
+        List<AsientoSimpleDTO> asientos
     ) {
         LOG.info("Bloqueando {} asientos en evento cátedra {}", asientos.size(), eventoIdCatedra);
         try {
@@ -53,27 +70,16 @@ public class CatedraClientService {
             String baseUrl = catedraProperties.getBaseUrl();
             String url = baseUrl + "/api/endpoints/v1/bloquear-asientos";
             LOG.debug("URL bloqueo: {}", url);
-            // 2. Obtener token JWT
-            String token = catedraAuthService.getValidToken();
-            // 3. Construir request DTO
+            // 2. Construir request DTO
             BloquearAsientosRequestDTO request = new BloquearAsientosRequestDTO(
                 eventoIdCatedra,
                 asientos
             );
-            // 4. Configurar headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(token);
-            // 5. Crear entity con headers y body
-            HttpEntity<BloquearAsientosRequestDTO> entity = new HttpEntity<>(request, headers);
-            // 6. Hacer POST request
-            ResponseEntity<BloquearAsientosResponseDTO> response = restTemplate.exchange(
-                url,
-                HttpMethod.POST,
-                entity,
-                BloquearAsientosResponseDTO.class
+            // 3. Hacer POST request con el token JWT (re-intenta una vez con token renovado ante 401)
+            ResponseEntity<BloquearAsientosResponseDTO> response = catedraAuthService.conToken(token ->
+                restTemplate.exchange(url, HttpMethod.POST, entidad(request, token), BloquearAsientosResponseDTO.class)
             );
-            // 7. Validar response
+            // 4. Validar response
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 BloquearAsientosResponseDTO responseBody = response.getBody();
 
@@ -91,10 +97,8 @@ public class CatedraClientService {
                 throw new RuntimeException("Response inválida desde servidor cátedra");
             }
         } catch (HttpClientErrorException.Unauthorized e) {
-            LOG.error("Token JWT inválido o expirado: {}", e.getMessage());
-            // Intentar renovar token
-            catedraAuthService.renewToken();
-            throw new RuntimeException("No autorizado para bloquear asientos en cátedra. Token renovado, reintente.", e);
+            LOG.error("Token JWT rechazado aun después de renovarlo: {}", e.getMessage());
+            throw new RuntimeException("No autorizado para bloquear asientos en cátedra", e);
         } catch (HttpClientErrorException.BadRequest e) {
             LOG.error("Request inválido al bloquear asientos: {}", e.getResponseBodyAsString());
             throw new RuntimeException("Request de bloqueo inválido: " + e.getMessage(), e);
@@ -107,6 +111,9 @@ public class CatedraClientService {
         } catch (Exception e) {
             LOG.error("Error inesperado al bloquear asientos: {}", e.getMessage(), e);
             throw new RuntimeException("Error al comunicarse con servidor cátedra", e);
+        } finally {
+            // El estado de los asientos pudo cambiar: descartar la disponibilidad cacheada
+            disponibilidadCacheService.invalidar(eventoIdCatedra);
         }
     }
     /**
@@ -115,9 +122,13 @@ public class CatedraClientService {
      *
      * @param request DTO con datos de la venta
      * @return Response con resultado de la venta (incluye ventaId si exitosa)
+     * @throws DependenciaNoDisponibleException si el circuito de ventas está abierto (sin llamar a cátedra)
      * @throws RuntimeException si hay error de comunicación o autenticación
      */
     public RealizarVentaResponseDTO realizarVenta(RealizarVentaRequestDTO request) {
+        return resilienciaService.ejecutar(ResilienciaService.VENDER, () -> venderEnCatedra(request));
+    }
+    private RealizarVentaResponseDTO venderEnCatedra(RealizarVentaRequestDTO request) {
         LOG.info("Realizando venta de {} asientos en evento cátedra {}",
             request.getAsientos().size(), request.getEventoId());
         try {
@@ -125,22 +136,12 @@ public class CatedraClientService {
             String baseUrl = catedraProperties.getBaseUrl();
             String url = baseUrl + "/api/endpoints/v1/realizar-venta";
             LOG.debug("URL venta: {}", url);
-            // 2. Obtener token JWT
-            String token = catedraAuthService.getValidToken();
-            // 3. Configurar headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(token);
-            // 4. Crear entity con headers y body
-            HttpEntity<RealizarVentaRequestDTO> entity = new HttpEntity<>(request, headers);
-            // 5. Hacer POST request
-            ResponseEntity<RealizarVentaResponseDTO> response = restTemplate.exchange(
-                url,
-                HttpMethod.POST,
-                entity,
-                RealizarVentaResponseDTO.class
+            // 2. Hacer POST request con el token JWT (re-intenta una vez con token renovado ante 401:
+            //    cátedra no procesó la venta)
+            ResponseEntity<RealizarVentaResponseDTO> response = catedraAuthService.conToken(token ->
+                restTemplate.exchange(url, HttpMethod.POST, entidad(request, token), RealizarVentaResponseDTO.class)
             );
-            // 6. Validar response
+            // 3. Validar response
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 RealizarVentaResponseDTO responseBody = response.getBody();
 
@@ -158,10 +159,8 @@ public class CatedraClientService {
                 throw new RuntimeException("Response inválida desde servidor cátedra");
             }
         } catch (HttpClientErrorException.Unauthorized e) {
-            LOG.error("Token JWT inválido o expirado: {}", e.getMessage());
-            // Intentar renovar token
-            catedraAuthService.renewToken();
-            throw new RuntimeException("No autorizado para realizar ventas en cátedra. Token renovado, reintente.", e);
+            LOG.error("Token JWT rechazado aun después de renovarlo: {}", e.getMessage());
+            throw new RuntimeException("No autorizado para realizar ventas en cátedra", e);
         } catch (HttpClientErrorException.BadRequest e) {
             LOG.error("Request inválido al realizar venta: {}", e.getResponseBodyAsString());
             throw new RuntimeException("Request de venta inválido: " + e.getMessage(), e);
@@ -174,8 +173,80 @@ public class CatedraClientService {
         } catch (Exception e) {
             LOG.error("Error inesperado al realizar venta: {}", e.getMessage(), e);
             throw new RuntimeException("Error al comunicarse con servidor cátedra", e);
+        } finally {
+            // El estado de los asientos pudo cambiar: descartar la disponibilidad cacheada
+            disponibilidadCacheService.invalidar(request.getEventoId());
+        }
+    }
+    /**
+     * Lista las ventas registradas en cátedra para este alumno.
+     *
+     * @return Ventas (exitosas y rechazadas), sin el detalle de asientos
+     * @throws RuntimeException si hay error de comunicación o autenticación
+     */
+    public List<VentaResumenCatedraDTO> listarVentas() {
+        List<VentaResumenCatedraDTO> ventas = consultar(
+            "/api/endpoints/v1/listar-ventas",
+            new ParameterizedTypeReference<List<VentaResumenCatedraDTO>>() {}
+        );
+        return ventas != null ? ventas : List.of();
+    }
+    /**
+     * Obtiene el detalle de una venta registrada en cátedra (incluye asientos y personas).
+     *
+     * @param ventaIdCatedra ID de venta en cátedra
+     * @return Venta con el mismo formato que la respuesta de realizar-venta
+     * @throws RuntimeException si hay error de comunicación o autenticación
+     */
+    public RealizarVentaResponseDTO obtenerVenta(Long ventaIdCatedra) {
+        RealizarVentaResponseDTO venta = consultar(
+            "/api/endpoints/v1/listar-venta/{ventaId}",
+            new ParameterizedTypeReference<RealizarVentaResponseDTO>() {},
+            ventaIdCatedra
+        );
+        if (venta == null) {
+            throw new RuntimeException("Response inválida desde servidor cátedra");
+        }
+        return venta;
+    }
+    /**
+     * GET autenticado a un endpoint de consulta de cátedra.
+     *
+     * @param path Template del path (las variables van en uriVariables, así la métrica agrupa por endpoint)
+     */
+    private <T> T consultar(String path, ParameterizedTypeReference<T> tipo, Object... uriVariables) {
+        String url = catedraProperties.getBaseUrl() + path;
+        LOG.debug("GET cátedra: {}", url);
+        try {
+            ResponseEntity<T> response = catedraAuthService.conToken(token -> {
+                HttpHeaders headers = new HttpHeaders();
+                headers.setBearerAuth(token);
+                return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), tipo, uriVariables);
+            });
+            return response.getBody();
+        } catch (HttpClientErrorException.Unauthorized e) {
+            LOG.error("Token JWT rechazado aun después de renovarlo: {}", e.getMessage());
+            throw new RuntimeException("No autorizado para consultar cátedra", e);
+        } catch (HttpServerErrorException e) {
+            LOG.error("Error interno del servidor cátedra: {}", e.getResponseBodyAsString());
+            throw new RuntimeException("Error en servidor cátedra", e);
+        } catch (ResourceAccessException e) {
+            LOG.error("Servidor cátedra no disponible o timeout: {}", e.getMessage());
+            throw new RuntimeException("Servidor cátedra no disponible", e);
+        } catch (Exception e) {
+            LOG.error("Error inesperado al consultar {}: {}", path, e.getMessage());
+            throw new RuntimeException("Error al comunicarse con servidor cátedra", e);
         }
     }
+    /**
+     * Body JSON con el token JWT como Bearer.
+     */
+    private static <T> HttpEntity<T> entidad(T body, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(token);
+        return new HttpEntity<>(body, headers);
+    }
     /**
      * Verifica si el servidor de cátedra está disponible.
      *
@@ -0,0 +1,418 @@
+package com.evento.backend.service;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.domain.enumeration.EstadoConfirmacion;
+import com.evento.backend.service.dto.ConfirmacionVentaDTO;
+import com.evento.backend.service.dto.VentaDTO;
+import com.evento.backend.web.rest.errors.BadRequestAlertException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.redisson.api.RBucket;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Confirmación de ventas asíncrona.
+ *
+ * - {@link #solicitar} registra un ticket EN_COLA en Redis y encola la confirmación en un pool
+ *   acotado de workers; el request HTTP responde 202 sin esperar a cátedra.
+ * - Cada worker ejecuta {@link SesionBusinessService#confirmarVenta} y deja el ticket en
+ *   SINCRONIZADA (con el ID de la venta) o ERROR (con el errorKey y mensaje de la falla).
+ * - El cliente consulta el ticket por polling o se suscribe a un stream SSE que recibe el estado
+ *   actual y luego el final. El resultado final se publica en un topic de Redis para que los
+ *   streams abiertos en otros nodos también lo reciban.
+ * - Un usuario tiene a lo sumo una confirmación en curso: pedir otra devuelve el mismo ticket.
+ * - La marca de confirmación en curso del usuario es un lease corto ({@code en-curso-ttl-segundos})
+ *   que solo renueva el nodo que tiene la tarea. Si el nodo cae, el lease vence: el usuario puede
+ *   volver a confirmar y el ticket que quedó EN_COLA/PROCESANDO se informa como ERROR.
+ *
+ * Pattern de keys: "compra:confirmacion:{ticket}" y "compra:confirmacion:usuario:{userId}" (lease del ticket en curso)
+ */
+@Service
+public class ConfirmacionVentaService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfirmacionVentaService.class);
+
+    public static final String CONFIRMACIONES_METER_NAME = "compra.confirmaciones";
+    public static final String COLA_METER_NAME = "compra.confirmaciones.cola";
+
+    private static final String KEY_PREFIX = "compra:confirmacion:";
+    private static final String TOPIC_FINALIZADAS = KEY_PREFIX + "finalizadas";
+    private static final long RENOVACION_EN_CURSO_MS = 30000;
+
+    private final SesionBusinessService sesionBusinessService;
+    private final SesionRedisService sesionRedisService;
+    private final RedissonClient redissonClient;
+    private final ApplicationProperties.Confirmacion confirmacionProperties;
+
+    private final ThreadPoolExecutor workers;
+    // Streams abiertos en este nodo por ticket. Se accede sincronizado sobre el mapa.
+    private final Map<String, List<SseEmitter>> suscriptores = new HashMap<>();
+    // Confirmaciones encoladas o en proceso en este nodo (ticket → usuario), cuyo lease se renueva
+    private final Map<String, Long> enCursoLocal = new ConcurrentHashMap<>();
+    private RTopic topic;
+    private Integer listenerId;
+
+    private final Counter sincronizadasCounter;
+    private final Counter erroresCounter;
+    private final Counter rechazadasCounter;
+
+    public ConfirmacionVentaService(
+        SesionBusinessService sesionBusinessService,
+        SesionRedisService sesionRedisService,
+        RedissonClient redissonClient,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.sesionBusinessService = sesionBusinessService;
+        this.sesionRedisService = sesionRedisService;
+        this.redissonClient = redissonClient;
+        this.confirmacionProperties = applicationProperties.getConfirmacion();
+        int cantidadWorkers = Math.max(1, confirmacionProperties.getWorkers());
+        this.workers = new ThreadPoolExecutor(
+            cantidadWorkers,
+            cantidadWorkers,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, confirmacionProperties.getCapacidadCola())),
+            new CustomizableThreadFactory("confirmacion-venta-")
+        );
+        Gauge.builder(COLA_METER_NAME, workers, pool -> pool.getQueue().size())
+            .description("Confirmaciones de venta esperando un worker en este nodo")
+            .register(meterRegistry);
+        this.sincronizadasCounter = confirmaciones("sincronizada", meterRegistry);
+        this.erroresCounter = confirmaciones("error", meterRegistry);
+        this.rechazadasCounter = confirmaciones("cola_llena", meterRegistry);
+    }
+
+    private Counter confirmaciones(String resultado, MeterRegistry meterRegistry) {
+        return Counter.builder(CONFIRMACIONES_METER_NAME)
+            .description("Confirmaciones de venta asíncronas por resultado")
+            .tag("resultado", resultado)
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        topic = redissonClient.getTopic(TOPIC_FINALIZADAS);
+        listenerId = topic.addListener(ConfirmacionVentaDTO.class, (canal, confirmacion) -> notificarSuscriptores(confirmacion));
+    }
+
+    /**
+     * Registra una confirmación de venta y la encola para su procesamiento.
+     *
+     * @param userId ID del usuario
+     * @return Ticket EN_COLA, o el ticket de la confirmación que el usuario ya tiene en curso
+     * @throws BadRequestAlertException si el usuario no tiene sesión activa
+     * @throws ConfirmacionesExcedidasException si la cola del nodo está llena
+     */
+    public ConfirmacionVentaDTO solicitar(Long userId) {
+        // Falla rápido con 400 en lugar de aceptar un ticket que terminará en ERROR
+        if (sesionRedisService.obtenerSesion(userId.toString()).isEmpty()) {
+            throw new BadRequestAlertException("No existe sesión activa", "sesion", "nosession");
+        }
+
+        ConfirmacionVentaDTO confirmacion = new ConfirmacionVentaDTO(UUID.randomUUID().toString(), userId, Instant.now());
+        Optional<ConfirmacionVentaDTO> enCurso = reservarTicket(confirmacion);
+        if (enCurso.isPresent()) {
+            log.info("Usuario {} ya tiene la confirmación {} en curso", userId, enCurso.get().getTicket());
+            return enCurso.get();
+        }
+        bucket(confirmacion.getTicket()).set(confirmacion, getTtl());
+        enCursoLocal.put(confirmacion.getTicket(), userId);
+
+        try {
+            // El worker trabaja sobre su copia: la respuesta HTTP devuelve el ticket EN_COLA
+            workers.execute(new Tarea(new ConfirmacionVentaDTO(confirmacion)));
+        } catch (RejectedExecutionException e) {
+            rechazadasCounter.increment();
+            enCursoLocal.remove(confirmacion.getTicket());
+            bucket(confirmacion.getTicket()).delete();
+            bucketUsuario(userId).compareAndSet(confirmacion.getTicket(), null);
+            log.warn("Confirmación rechazada para usuario {}: cola de {} confirmaciones llena", userId, workers.getQueue().size());
+            throw new ConfirmacionesExcedidasException(confirmacionProperties.getCapacidadCola());
+        }
+        log.info("Confirmación {} encolada para usuario {}", confirmacion.getTicket(), userId);
+        return confirmacion;
+    }
+
+    /**
+     * Obtiene el estado de una confirmación del usuario.
+     *
+     * @param ticket Ticket devuelto por {@link #solicitar}
+     * @param userId ID del usuario
+     * @return Confirmación (en ERROR si el nodo que la procesaba dejó de renovarla), o empty si no
+     *         existe, expiró o es de otro usuario
+     */
+    public Optional<ConfirmacionVentaDTO> obtener(String ticket, Long userId) {
+        ConfirmacionVentaDTO confirmacion = bucket(ticket).get();
+        if (confirmacion == null || !userId.equals(confirmacion.getUserId())) {
+            return Optional.empty();
+        }
+        if (!confirmacion.isFinalizada() && !ticket.equals(bucketUsuario(userId).get())) {
+            return Optional.of(abandonar(confirmacion));
+        }
+        return Optional.of(confirmacion);
+    }
+
+    /**
+     * Cierra en ERROR una confirmación sin terminar cuyo lease venció (el nodo que la tenía cayó).
+     * Si el worker la terminó mientras tanto, se devuelve su resultado.
+     */
+    private ConfirmacionVentaDTO abandonar(ConfirmacionVentaDTO confirmacion) {
+        ConfirmacionVentaDTO abandonada = new ConfirmacionVentaDTO(confirmacion);
+        abandonada.setError("nododetenido");
+        abandonada.setMensaje("La confirmación no llegó a procesarse. Por favor, reintente.");
+        abandonada.setEstado(EstadoConfirmacion.ERROR);
+        abandonada.setActualizada(Instant.now());
+        RBucket<ConfirmacionVentaDTO> bucket = bucket(confirmacion.getTicket());
+        if (bucket.compareAndSet(confirmacion, abandonada)) {
+            erroresCounter.increment();
+            log.warn("Confirmación {} abandonada: el nodo que la procesaba dejó de renovarla", confirmacion.getTicket());
+            return abandonada;
+        }
+        ConfirmacionVentaDTO actual = bucket.get();
+        return actual != null ? actual : abandonada;
+    }
+
+    /**
+     * Renueva el lease de las confirmaciones que este nodo tiene encoladas o en proceso.
+     */
+    @Scheduled(initialDelay = RENOVACION_EN_CURSO_MS, fixedDelay = RENOVACION_EN_CURSO_MS)
+    public void renovarEnCurso() {
+        enCursoLocal.forEach((ticket, userId) -> {
+            try {
+                bucketUsuario(userId).expire(getTtlEnCurso());
+            } catch (RuntimeException e) {
+                log.warn("No se pudo renovar la confirmación en curso {}: {}", ticket, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Suscribe un cliente al resultado de una confirmación.
+     * El stream envía el estado actual y, cuando la confirmación termina, el estado final y se cierra.
+     *
+     * @param ticket Ticket de la confirmación
+     * @param userId ID del usuario
+     * @return Emitter SSE con eventos {@code estado}
+     * @throws EntityNotFoundException si la confirmación no existe o es de otro usuario
+     */
+    public SseEmitter suscribir(String ticket, Long userId) {
+        return suscribir(ticket, userId, new SseEmitter(confirmacionProperties.getStreamTimeoutMs()));
+    }
+
+    SseEmitter suscribir(String ticket, Long userId, SseEmitter emitter) {
+        ConfirmacionVentaDTO actual = obtener(ticket, userId).orElseThrow(() ->
+            new EntityNotFoundException("Confirmación no encontrada: " + ticket)
+        );
+        if (actual.isFinalizada()) {
+            enviar(emitter, actual);
+            emitter.complete();
+            return emitter;
+        }
+
+        emitter.onCompletion(() -> desuscribir(ticket, emitter));
+        emitter.onTimeout(() -> desuscribir(ticket, emitter));
+        synchronized (suscriptores) {
+            suscriptores.computeIfAbsent(ticket, t -> new ArrayList<>()).add(emitter);
+            enviar(emitter, actual);
+        }
+
+        // Si terminó entre la lectura y el alta, la notificación ya pasó: entregarla ahora
+        obtener(ticket, userId).filter(ConfirmacionVentaDTO::isFinalizada).ifPresent(this::notificarSuscriptores);
+        return emitter;
+    }
+
+    private void desuscribir(String ticket, SseEmitter emitter) {
+        synchronized (suscriptores) {
+            List<SseEmitter> emitters = suscriptores.get(ticket);
+            if (emitters != null && emitters.remove(emitter) && emitters.isEmpty()) {
+                suscriptores.remove(ticket);
+            }
+        }
+    }
+
+    /**
+     * Envía el estado final a los streams del ticket abiertos en este nodo y los cierra.
+     * Es idempotente: el resultado puede llegar por el worker local y por el topic.
+     */
+    private void notificarSuscriptores(ConfirmacionVentaDTO confirmacion) {
+        List<SseEmitter> emitters;
+        synchronized (suscriptores) {
+            emitters = suscriptores.remove(confirmacion.getTicket());
+        }
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            enviar(emitter, confirmacion);
+            emitter.complete();
+        }
+    }
+
+    private void enviar(SseEmitter emitter, ConfirmacionVentaDTO confirmacion) {
+        try {
+            emitter.send(
+                SseEmitter.event()
+                    .name("estado")
+                    .id(confirmacion.getEstado().name())
+                    .data(confirmacion, MediaType.APPLICATION_JSON)
+                    .build()
+            );
+        } catch (IOException | IllegalStateException e) {
+            log.debug("No se pudo enviar el estado de la confirmación {}: {}", confirmacion.getTicket(), e.getMessage());
+        }
+    }
+
+    /**
+     * Reserva el ticket como confirmación en curso del usuario.
+     *
+     * @return empty si se reservó, o la confirmación que el usuario ya tiene en curso
+     */
+    private Optional<ConfirmacionVentaDTO> reservarTicket(ConfirmacionVentaDTO confirmacion) {
+        RBucket<String> enCurso = bucketUsuario(confirmacion.getUserId());
+        while (!enCurso.setIfAbsent(confirmacion.getTicket(), getTtlEnCurso())) {
+            String ticketPrevio = enCurso.get();
+            if (ticketPrevio == null) {
+                continue;
+            }
+            ConfirmacionVentaDTO previa = bucket(ticketPrevio).get();
+            if (previa != null && !previa.isFinalizada()) {
+                return Optional.of(previa);
+            }
+            // La confirmación previa terminó o expiró: se reemplaza
+            if (enCurso.compareAndSet(ticketPrevio, confirmacion.getTicket())) {
+                enCurso.expire(getTtlEnCurso());
+                break;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void procesar(ConfirmacionVentaDTO confirmacion) {
+        confirmacion.setEstado(EstadoConfirmacion.PROCESANDO);
+        guardar(confirmacion);
+        try {
+            VentaDTO venta = sesionBusinessService.confirmarVenta(confirmacion.getUserId());
+            confirmacion.setVentaId(venta.getId());
+            confirmacion.setEstado(EstadoConfirmacion.SINCRONIZADA);
+            sincronizadasCounter.increment();
+            log.info("Confirmación {} sincronizada: venta {}", confirmacion.getTicket(), venta.getId());
+        } catch (BadRequestAlertException e) {
+            marcarError(confirmacion, e.getErrorKey(), e.getBody().getTitle());
+            log.warn("Confirmación {} con error: {}", confirmacion.getTicket(), e.getBody().getTitle());
+        } catch (RuntimeException e) {
+            marcarError(confirmacion, "errorinterno", "Error interno al confirmar la venta");
+            log.error("Error inesperado en confirmación {}: {}", confirmacion.getTicket(), e.getMessage(), e);
+        }
+        finalizar(confirmacion);
+    }
+
+    private void marcarError(ConfirmacionVentaDTO confirmacion, String error, String mensaje) {
+        confirmacion.setError(error);
+        confirmacion.setMensaje(mensaje);
+        confirmacion.setEstado(EstadoConfirmacion.ERROR);
+        erroresCounter.increment();
+    }
+
+    private void finalizar(ConfirmacionVentaDTO confirmacion) {
+        guardar(confirmacion);
+        enCursoLocal.remove(confirmacion.getTicket());
+        notificarSuscriptores(confirmacion);
+        try {
+            topic.publish(confirmacion);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo publicar el resultado de la confirmación {}: {}", confirmacion.getTicket(), e.getMessage());
+        }
+    }
+
+    private void guardar(ConfirmacionVentaDTO confirmacion) {
+        confirmacion.setActualizada(Instant.now());
+        try {
+            bucket(confirmacion.getTicket()).set(confirmacion, getTtl());
+        } catch (RuntimeException e) {
+            log.error("Error al guardar confirmación {} en Redis: {}", confirmacion.getTicket(), e.getMessage());
+        }
+    }
+
+    private RBucket<ConfirmacionVentaDTO> bucket(String ticket) {
+        return redissonClient.getBucket(KEY_PREFIX + ticket);
+    }
+
+    private RBucket<String> bucketUsuario(Long userId) {
+        return redissonClient.getBucket(KEY_PREFIX + "usuario:" + userId);
+    }
+
+    private Duration getTtl() {
+        return Duration.ofMinutes(confirmacionProperties.getTtlMinutos());
+    }
+
+    private Duration getTtlEnCurso() {
+        return Duration.ofSeconds(confirmacionProperties.getEnCursoTtlSegundos());
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Confirmaciones en curso al detener el nodo; se interrumpen");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Las que no llegaron a ejecutarse terminan en ERROR para que el cliente pueda reintentar
+        for (Runnable pendiente : workers.shutdownNow()) {
+            if (pendiente instanceof Tarea tarea) {
+                marcarError(tarea.confirmacion, "nododetenido", "La confirmación no llegó a procesarse. Por favor, reintente.");
+                finalizar(tarea.confirmacion);
+            }
+        }
+        if (topic != null && listenerId != null) {
+            topic.removeListener(listenerId);
+        }
+    }
+
+    /**
+     * Confirmación encolada; se conserva el DTO para poder cerrarla si el nodo se detiene.
+     */
+    private final class Tarea implements Runnable {
+
+        private final ConfirmacionVentaDTO confirmacion;
+
+        private Tarea(ConfirmacionVentaDTO confirmacion) {
+            this.confirmacion = confirmacion;
+        }
+
+        @Override
+        public void run() {
+            procesar(confirmacion);
+        }
+    }
+}
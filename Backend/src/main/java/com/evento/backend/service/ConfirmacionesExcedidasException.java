@@ -0,0 +1,13 @@
+package com.evento.backend.service;
+
+/**
+ * La cola de confirmaciones de venta asíncronas de este nodo está llena
+ */
+public class ConfirmacionesExcedidasException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ConfirmacionesExcedidasException(int capacidad) {
+        super("Cola de confirmaciones llena: " + capacidad);
+    }
+}
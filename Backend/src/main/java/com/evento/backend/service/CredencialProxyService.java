@@ -0,0 +1,97 @@
+package com.evento.backend.service;
+
+import static com.evento.backend.security.SecurityUtils.AUTHORITIES_CLAIM;
+import static com.evento.backend.security.SecurityUtils.JWT_ALGORITHM;
+
+import com.evento.backend.security.AuthoritiesConstants;
+import java.time.Duration;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+
+/**
+ * Credencial de servicio del Backend frente al Proxy.
+ *
+ * Las consultas al Proxy se hacen también desde threads sin request HTTP (workers de confirmación,
+ * reconciliación de ventas, pollers de streams), donde no hay SecurityContext con el JWT del usuario.
+ * Por eso el Backend firma su propio JWT con authority {@code ROLE_SERVICE}, con la misma clave y
+ * algoritmo que los tokens de usuario (el Proxy ya los valida).
+ *
+ * El token se cachea en un campo volatile y se vuelve a firmar cuando vence dentro de
+ * {@link #MARGEN_VENCIMIENTO}.
+ */
+@Service
+public class CredencialProxyService {
+
+    private static final Logger log = LoggerFactory.getLogger(CredencialProxyService.class);
+
+    static final String SUBJECT = "backend-service";
+    private static final Duration VIGENCIA = Duration.ofHours(1);
+    private static final Duration MARGEN_VENCIMIENTO = Duration.ofMinutes(5);
+
+    private final JwtEncoder jwtEncoder;
+
+    private volatile TokenServicio token;
+
+    public CredencialProxyService(JwtEncoder jwtEncoder) {
+        this.jwtEncoder = jwtEncoder;
+    }
+
+    /**
+     * @return JWT de servicio vigente, firmando uno nuevo si no hay o está por vencer
+     */
+    public String getToken() {
+        TokenServicio actual = token;
+        if (actual != null && actual.vence.isAfter(Instant.now().plus(MARGEN_VENCIMIENTO))) {
+            return actual.valor;
+        }
+        return renovar(actual).valor;
+    }
+
+    /**
+     * Descarta el token rechazado por el Proxy; la próxima llamada firma uno nuevo.
+     *
+     * @param tokenRechazado Token con el que se recibió el 401
+     */
+    public void invalidar(String tokenRechazado) {
+        TokenServicio actual = token;
+        if (actual != null && actual.valor.equals(tokenRechazado)) {
+            renovar(actual);
+        }
+    }
+
+    private synchronized TokenServicio renovar(TokenServicio visto) {
+        TokenServicio actual = token;
+        if (actual != null && actual != visto) {
+            return actual;
+        }
+        Instant ahora = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+            .issuedAt(ahora)
+            .expiresAt(ahora.plus(VIGENCIA))
+            .subject(SUBJECT)
+            .claim(AUTHORITIES_CLAIM, AuthoritiesConstants.SERVICE)
+            .build();
+        String valor = jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(JWT_ALGORITHM).build(), claims)).getTokenValue();
+        TokenServicio nuevo = new TokenServicio(valor, claims.getExpiresAt());
+        token = nuevo;
+        log.debug("Token de servicio para el Proxy firmado (vence: {})", nuevo.vence);
+        return nuevo;
+    }
+
+    private static final class TokenServicio {
+
+        private final String valor;
+        private final Instant vence;
+
+        private TokenServicio(String valor, Instant vence) {
+            this.valor = valor;
+            this.vence = vence;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.evento.backend.service;
+
+/**
+ * Llamada remota rechazada sin ejecutarse: circuito abierto o sin lugar en el bulkhead de la operación
+ */
+public class DependenciaNoDisponibleException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String operacion;
+
+    public DependenciaNoDisponibleException(String operacion, String motivo) {
+        super("Operación remota " + operacion + " no disponible: " + motivo);
+        this.operacion = operacion;
+    }
+
+    public String getOperacion() {
+        return operacion;
+    }
+}
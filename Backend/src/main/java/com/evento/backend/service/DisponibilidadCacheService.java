@@ -0,0 +1,147 @@
+package com.evento.backend.service;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.service.dto.RedisResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache en memoria, de TTL corto, de los asientos bloqueados/vendidos por evento (idCatedra).
+ *
+ * - Las consultas concurrentes de un mismo evento sin dato vigente se agrupan en una única
+ *   llamada al Proxy (single-flight); el resto de los hilos espera ese resultado.
+ * - Las operaciones propias de este nodo (bloqueo / venta) invalidan la entrada del evento.
+ * - Métricas: {@code disponibilidad.cache} con tag {@code resultado} = hit | miss | coalesced.
+ */
+@Service
+public class DisponibilidadCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(DisponibilidadCacheService.class);
+
+    public static final String CACHE_METER_NAME = "disponibilidad.cache";
+
+    private final ApplicationProperties.Disponibilidad disponibilidadProperties;
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter coalescedCounter;
+
+    public DisponibilidadCacheService(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.disponibilidadProperties = applicationProperties.getDisponibilidad();
+        this.hitCounter = contador("hit", meterRegistry);
+        this.missCounter = contador("miss", meterRegistry);
+        this.coalescedCounter = contador("coalesced", meterRegistry);
+    }
+
+    private Counter contador(String resultado, MeterRegistry meterRegistry) {
+        return Counter.builder(CACHE_METER_NAME)
+            .description("Consultas de asientos por evento resueltas por la cache local")
+            .tag("resultado", resultado)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve los asientos del evento desde cache o los carga con {@code cargador}.
+     *
+     * @param eventoIdCatedra ID del evento en cátedra
+     * @param cargador Consulta real al Proxy (solo la ejecuta un hilo por evento)
+     * @return Datos de Redis (empty si no hay asientos ocupados)
+     * @throws RuntimeException la misma excepción del cargador, para todos los hilos que esperaban
+     */
+    public Optional<RedisResponseDTO> obtener(Long eventoIdCatedra, Supplier<Optional<RedisResponseDTO>> cargador) {
+        long ttlNanos = getTtlNanos();
+        if (ttlNanos <= 0) {
+            missCounter.increment();
+            return cargador.get();
+        }
+
+        Entrada nueva = new Entrada();
+        Entrada actual = entradas.compute(eventoIdCatedra, (id, existente) ->
+            existente != null && existente.vigente(System.nanoTime(), ttlNanos) ? existente : nueva
+        );
+
+        if (actual != nueva) {
+            if (actual.resultado.isDone()) {
+                hitCounter.increment();
+            } else {
+                coalescedCounter.increment();
+                log.debug("Consulta de asientos del evento {} agrupada con una en curso", eventoIdCatedra);
+            }
+            return esperar(actual);
+        }
+
+        // Este hilo es el encargado de consultar al Proxy
+        missCounter.increment();
+        try {
+            Optional<RedisResponseDTO> datos = cargador.get();
+            nueva.cargadaEn = System.nanoTime();
+            nueva.resultado.complete(datos);
+            return datos;
+        } catch (Throwable e) {
+            // No cachear errores: liberar la entrada y propagar a los que esperaban
+            // (también los Error, para que ningún hilo quede bloqueado en esperar())
+            entradas.remove(eventoIdCatedra, nueva);
+            nueva.resultado.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Descarta la entrada de un evento (llamar luego de bloquear o vender asientos).
+     *
+     * @param eventoIdCatedra ID del evento en cátedra
+     */
+    public void invalidar(Long eventoIdCatedra) {
+        if (eventoIdCatedra != null && entradas.remove(eventoIdCatedra) != null) {
+            log.debug("Cache de asientos invalidada para evento {}", eventoIdCatedra);
+        }
+    }
+
+    private long getTtlNanos() {
+        Long ttlMs = disponibilidadProperties.getCacheTtlMs();
+        return ttlMs == null ? 0 : ttlMs * 1_000_000L;
+    }
+
+    private Optional<RedisResponseDTO> esperar(Entrada entrada) {
+        try {
+            return entrada.resultado.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Consulta de asientos interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("Error consultando asientos", e.getCause());
+        }
+    }
+
+    /**
+     * Resultado (en curso o completo) de una consulta al Proxy
+     */
+    private static final class Entrada {
+
+        private final CompletableFuture<Optional<RedisResponseDTO>> resultado = new CompletableFuture<>();
+        private volatile long cargadaEn;
+
+        private boolean vigente(long ahora, long ttlNanos) {
+            if (!resultado.isDone()) {
+                return true;
+            }
+            return !resultado.isCompletedExceptionally() && ahora - cargadaEn < ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.evento.backend.service;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.service.helper.MatrizEstadoAsientos;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Versionado de la disponibilidad de asientos por evento (idCatedra).
+ *
+ * Cada matriz construida a partir del Proxy se compara con la anterior del mismo evento;
+ * si algún asiento cambió (incluye bloqueos que expiraron) la versión se incrementa y se
+ * guarda el conjunto de asientos modificados. Con ese historial acotado se responden los
+ * pedidos {@code ?sinceVersion=} devolviendo solo los asientos que cambiaron.
+ *
+ * Las versiones son locales a cada instancia del Backend, por lo que llevan en los bits altos
+ * una época aleatoria elegida al arrancar ({@code época << 32 | contador}, menor a 2^53 para
+ * que el cliente JS la lea sin perder precisión). Una versión emitida por otro nodo o antes de
+ * un reinicio tiene otra época y se responde con un snapshot completo.
+ *
+ * Las matrices se registran en el orden en que se consultaron: una consulta que termina
+ * después de otra más nueva no vuelve el historial atrás, y se responde con la matriz vigente.
+ */
+@Service
+public class DisponibilidadVersionService {
+
+    private static final Logger log = LoggerFactory.getLogger(DisponibilidadVersionService.class);
+
+    private static final int BITS_CONTADOR = 32;
+    private static final int BITS_EPOCA = 21;
+
+    private final ApplicationProperties.Disponibilidad disponibilidadProperties;
+    private final Map<Long, Historial> historiales = new ConcurrentHashMap<>();
+    private final long epoca;
+
+    public DisponibilidadVersionService(ApplicationProperties applicationProperties) {
+        this.disponibilidadProperties = applicationProperties.getDisponibilidad();
+        this.epoca = ThreadLocalRandom.current().nextLong(1, 1L << BITS_EPOCA);
+    }
+
+    /**
+     * Registra la matriz actual de un evento y calcula los cambios desde la versión indicada.
+     *
+     * @param eventoIdCatedra ID del evento en cátedra
+     * @param matriz Matriz recién construida
+     * @param consultadaEn Momento en que empezó la consulta de los datos de la matriz
+     * @param desdeVersion Versión que tiene el cliente (null para snapshot completo)
+     * @return Versión actual, la matriz vigente y, si es posible, los asientos modificados desde {@code desdeVersion}
+     */
+    public VersionAsientos registrar(Long eventoIdCatedra, MatrizEstadoAsientos matriz, Instant consultadaEn, Long desdeVersion) {
+        Historial historial = historiales.computeIfAbsent(eventoIdCatedra, id -> new Historial(epoca << BITS_CONTADOR));
+        synchronized (historial) {
+            if (!historial.actualizar(matriz, consultadaEn, getMaxVersiones())) {
+                log.debug("Matriz del evento {} consultada en {} anterior a la vigente - se descarta", eventoIdCatedra, consultadaEn);
+            }
+            BitSet cambios = desdeVersion != null && esDeEstaEpoca(desdeVersion) ? historial.cambiosDesde(desdeVersion) : null;
+            if (desdeVersion != null && cambios == null) {
+                log.debug(
+                    "Versión {} fuera del historial del evento {} (actual {}) - snapshot completo",
+                    desdeVersion,
+                    eventoIdCatedra,
+                    historial.version
+                );
+            }
+            return new VersionAsientos(historial.version, historial.ultimaMatriz, cambios);
+        }
+    }
+
+    private boolean esDeEstaEpoca(long version) {
+        return version >>> BITS_CONTADOR == epoca;
+    }
+
+    private int getMaxVersiones() {
+        Integer max = disponibilidadProperties.getHistorialVersiones();
+        return max == null || max < 1 ? 1 : max;
+    }
+
+    /**
+     * Resultado de registrar una matriz: versión vigente, matriz de esa versión y asientos
+     * modificados (null = snapshot completo)
+     */
+    public static class VersionAsientos {
+
+        private final long version;
+        private final MatrizEstadoAsientos matriz;
+        private final BitSet cambios;
+
+        public VersionAsientos(long version, MatrizEstadoAsientos matriz, BitSet cambios) {
+            this.version = version;
+            this.matriz = matriz;
+            this.cambios = cambios;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public MatrizEstadoAsientos getMatriz() {
+            return matriz;
+        }
+
+        public BitSet getCambios() {
+            return cambios;
+        }
+
+        public boolean isCompleto() {
+            return cambios == null;
+        }
+    }
+
+    /**
+     * Estado versionado de un evento. Se accede sincronizado sobre la instancia.
+     */
+    private static final class Historial {
+
+        private long version;
+        private MatrizEstadoAsientos ultimaMatriz;
+        private Instant ultimaConsulta;
+        private final Deque<Cambio> cambios = new ArrayDeque<>();
+
+        private Historial(long versionInicial) {
+            this.version = versionInicial;
+        }
+
+        /**
+         * @return false si la matriz es anterior a la vigente y se descartó
+         */
+        private boolean actualizar(MatrizEstadoAsientos matriz, Instant consultadaEn, int maxVersiones) {
+            if (ultimaMatriz == null) {
+                ultimaMatriz = matriz;
+                ultimaConsulta = consultadaEn;
+                return true;
+            }
+            if (consultadaEn.isBefore(ultimaConsulta)) {
+                return false;
+            }
+            BitSet modificados = matriz.diferencias(ultimaMatriz);
+            ultimaMatriz = matriz;
+            ultimaConsulta = consultadaEn;
+            if (modificados.isEmpty()) {
+                return true;
+            }
+            version++;
+            cambios.addLast(new Cambio(version, modificados));
+            while (cambios.size() > maxVersiones) {
+                cambios.removeFirst();
+            }
+            return true;
+        }
+
+        /**
+         * Unión de los asientos modificados después de {@code desdeVersion},
+         * o null si esa versión no puede reconstruirse con el historial actual.
+         */
+        private BitSet cambiosDesde(long desdeVersion) {
+            long versionMasAntigua = cambios.isEmpty() ? version : cambios.peekFirst().version - 1;
+            if (desdeVersion > version || desdeVersion < versionMasAntigua) {
+                return null;
+            }
+            BitSet union = new BitSet();
+            for (Cambio cambio : cambios) {
+                if (cambio.version > desdeVersion) {
+                    union.or(cambio.asientos);
+                }
+            }
+            return union;
+        }
+    }
+
+    private static final class Cambio {
+
+        private final long version;
+        private final BitSet asientos;
+
+        private Cambio(long version, BitSet asientos) {
+            this.version = version;
+            this.asientos = asientos;
+        }
+    }
+}
@@ -52,8 +52,9 @@ public class EventoService {
     public EventoDTO update(EventoDTO eventoDTO) {
         LOG.debug("Request to update Evento : {}", eventoDTO);
         Evento evento = eventoMapper.toEntity(eventoDTO);
-        evento = eventoRepository.save(evento);
-        return eventoMapper.toDto(evento);
+        // El hash de sincronización no viene en el DTO: se conserva el guardado
+        eventoRepository.findById(eventoDTO.getId()).ifPresent(actual -> evento.setHashContenido(actual.getHashContenido()));
+        return eventoMapper.toDto(eventoRepository.save(evento));
     }
 
     /**
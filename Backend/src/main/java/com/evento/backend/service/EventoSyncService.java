@@ -12,10 +12,22 @@ import com.evento.backend.service.dto.IntegranteCatedraDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 /**
@@ -24,13 +36,18 @@ import java.util.Set;
  * Responsabilidades:
  * - Obtener eventos completos desde CatedraApiClient
  * - Crear/actualizar eventos (UPSERT por idCatedra)
+ * - Omitir eventos sin cambios: se guarda un hash SHA-256 del contenido recibido (evento +
+ *   integrantes) y si coincide no se escribe nada (ni evento ni integrantes, sin invalidar la L2)
  * - Crear tipos de evento si no existen
- * - Sincronizar integrantes (delete + re-insert)
+ * - Sincronizar integrantes (solo se borran/insertan los que cambiaron)
  * - Desactivar eventos que ya no existen en cátedra
  * - Retornar resumen de operaciones realizadas
+ *
+ * Sin transacción a nivel de clase: las consultas HTTP a cátedra se hacen sin retener una conexión
+ * de la base, y cada evento se escribe en su propia transacción (TransactionTemplate), de modo que
+ * el error de un evento solo revierte ese evento.
  */
 @Service
-@Transactional
 public class EventoSyncService {
 
     private static final Logger log = LoggerFactory.getLogger(EventoSyncService.class);
@@ -39,17 +56,20 @@ public class EventoSyncService {
     private final EventoRepository eventoRepository;
     private final EventoTipoRepository eventoTipoRepository;
     private final IntegranteRepository integranteRepository;
+    private final TransactionTemplate transactionTemplate;
 
     public EventoSyncService(
         CatedraApiClient catedraApiClient,
         EventoRepository eventoRepository,
         EventoTipoRepository eventoTipoRepository,
-        IntegranteRepository integranteRepository
+        IntegranteRepository integranteRepository,
+        PlatformTransactionManager transactionManager
     ) {
         this.catedraApiClient = catedraApiClient;
         this.eventoRepository = eventoRepository;
         this.eventoTipoRepository = eventoTipoRepository;
         this.integranteRepository = integranteRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -58,6 +78,7 @@ public class EventoSyncService {
      * Proceso:
      * 1. Obtener eventos desde CatedraApiClient
      * 2. Para cada evento:
+     *    - Si el hash del contenido coincide con el guardado y está activo: sin cambios
      *    - Obtener/crear EventoTipo
      *    - UPSERT Evento (crear o actualizar)
      *    - Sincronizar Integrantes
@@ -88,45 +109,16 @@ public class EventoSyncService {
 
             // PASO 2: Procesar cada evento individualmente
             for (EventoCatedraDTO eventoDto : eventosCatedra) {
-                try {
-                    log.debug("--- Procesando evento: idCatedra={}, titulo={}",
-                        eventoDto.getId(), eventoDto.getTitulo());
-
-                    // 2.1 Obtener o crear EventoTipo
-                    EventoTipo tipo = findOrCreateEventoTipo(eventoDto.getEventoTipo());
-
-                    // 2.2 Verificar si el evento ya existe (para saber si es create o update)
-                    boolean existeAntes = eventoRepository.findByIdCatedra(eventoDto.getId()).isPresent();
-
-                    // 2.3 UPSERT Evento (crear o actualizar)
-                    Evento evento = upsertEvento(eventoDto, tipo);
-
-                    // 2.4 Sincronizar Integrantes (delete + re-insert)
-                    syncIntegrantes(evento, eventoDto.getIntegrantes());
-
-                    // 2.5 Recordar este ID como activo (para desactivar faltantes después)
+                if (procesarEvento(eventoDto, result)) {
+                    // Recordar este ID como activo (para desactivar faltantes después)
                     idsCatedraActivos.add(eventoDto.getId());
-
-                    // 2.6 Actualizar contadores
-                    if (existeAntes) {
-                        result.incrementUpdated();
-                    } else {
-                        result.incrementCreated();
-                    }
-
-                } catch (Exception e) {
-                    // Error procesando este evento individual - LOG y CONTINUAR con el siguiente
-                    String errorMsg = String.format("Error procesando evento idCatedra=%d: %s",
-                        eventoDto.getId(), e.getMessage());
-                    log.error(errorMsg, e);
-                    result.addError(errorMsg);
                 }
             }
 
             // PASO 3: Desactivar eventos que ya no existen en cátedra
             log.info("Verificando eventos faltantes para desactivar...");
-            int desactivados = deactivateMissingEventos(idsCatedraActivos);
-            result.setDeactivated(desactivados);
+            Integer desactivados = transactionTemplate.execute(status -> deactivateMissingEventos(idsCatedraActivos));
+            result.setDeactivated(desactivados != null ? desactivados : 0);
 
         } catch (Exception e) {
             // Error crítico (ej: no se pudo conectar a cátedra)
@@ -140,6 +132,7 @@ public class EventoSyncService {
         log.info("Resultados:");
         log.info("  - Eventos creados: {}", result.getCreated());
         log.info("  - Eventos actualizados: {}", result.getUpdated());
+        log.info("  - Eventos sin cambios: {}", result.getUnchanged());
         log.info("  - Eventos desactivados: {}", result.getDeactivated());
         log.info("  - Errores: {}", result.getErrors().size());
 
@@ -151,6 +144,110 @@ public class EventoSyncService {
         return result;
     }
 
+    /**
+     * Sincroniza solo los eventos indicados (sincronización dirigida desde el Proxy).
+     *
+     * Cada evento se consulta individualmente en cátedra: si existe se crea/actualiza igual que
+     * en {@link #synchronize()}, y si cátedra responde 404 se desactiva localmente.
+     * Un error con un evento no impide procesar el resto.
+     *
+     * @param idsCatedra IDs de eventos en cátedra
+     * @return SyncResult con contadores de operaciones y errores
+     */
+    public SyncResult synchronizeEventos(Collection<Long> idsCatedra) {
+        log.info("=== INICIANDO SINCRONIZACIÓN DIRIGIDA DE {} EVENTO(S): {} ===", idsCatedra.size(), idsCatedra);
+
+        SyncResult result = new SyncResult();
+        for (Long idCatedra : new LinkedHashSet<>(idsCatedra)) {
+            try {
+                Optional<EventoCatedraDTO> eventoDto = catedraApiClient.getEvento(idCatedra);
+                if (eventoDto.isPresent()) {
+                    procesarEvento(eventoDto.get(), result);
+                } else if (Boolean.TRUE.equals(transactionTemplate.execute(status -> desactivarEvento(idCatedra)))) {
+                    result.setDeactivated(result.getDeactivated() + 1);
+                }
+            } catch (Exception e) {
+                String errorMsg = String.format("Error sincronizando evento idCatedra=%d: %s", idCatedra, e.getMessage());
+                log.error(errorMsg, e);
+                result.addError(errorMsg);
+            }
+        }
+
+        log.info("=== SINCRONIZACIÓN DIRIGIDA COMPLETADA: {} creados, {} actualizados, {} sin cambios, {} desactivados, {} errores ===",
+            result.getCreated(), result.getUpdated(), result.getUnchanged(), result.getDeactivated(), result.getErrors().size());
+        return result;
+    }
+
+    /**
+     * Crea o actualiza un evento de cátedra con sus integrantes, en su propia transacción.
+     * Los errores se registran en el resultado sin interrumpir la sincronización.
+     *
+     * @return true si el evento se procesó sin errores
+     */
+    private boolean procesarEvento(EventoCatedraDTO eventoDto, SyncResult result) {
+        try {
+            log.debug("--- Procesando evento: idCatedra={}, titulo={}",
+                eventoDto.getId(), eventoDto.getTitulo());
+
+            Operacion operacion = transactionTemplate.execute(status -> guardarEvento(eventoDto));
+            if (operacion == Operacion.CREADO) {
+                result.incrementCreated();
+            } else if (operacion == Operacion.ACTUALIZADO) {
+                result.incrementUpdated();
+            } else {
+                result.incrementUnchanged();
+            }
+            return true;
+
+        } catch (Exception e) {
+            // Error procesando este evento individual - LOG y CONTINUAR con el siguiente
+            String errorMsg = String.format("Error procesando evento idCatedra=%d: %s",
+                eventoDto.getId(), e.getMessage());
+            log.error(errorMsg, e);
+            result.addError(errorMsg);
+            return false;
+        }
+    }
+
+    private Operacion guardarEvento(EventoCatedraDTO eventoDto) {
+        // Verificar si el evento ya existe (para saber si es create, update o sin cambios)
+        Optional<Evento> existente = eventoRepository.findByIdCatedra(eventoDto.getId());
+        String hash = hashContenido(eventoDto);
+        if (existente.isPresent() && hash.equals(existente.get().getHashContenido()) && Boolean.TRUE.equals(existente.get().getActivo())) {
+            log.debug("Evento sin cambios: idCatedra={}", eventoDto.getId());
+            return Operacion.SIN_CAMBIOS;
+        }
+
+        // Obtener o crear EventoTipo
+        EventoTipo tipo = findOrCreateEventoTipo(eventoDto.getEventoTipo());
+
+        // UPSERT Evento (crear o actualizar)
+        Evento evento = upsertEvento(existente, eventoDto, tipo, hash);
+
+        // Sincronizar Integrantes (solo las diferencias)
+        syncIntegrantes(evento, eventoDto.getIntegrantes(), existente.isPresent());
+
+        return existente.isPresent() ? Operacion.ACTUALIZADO : Operacion.CREADO;
+    }
+
+    /**
+     * Desactiva el evento local con ese idCatedra, si existe y está activo.
+     *
+     * @return true si se desactivó
+     */
+    private boolean desactivarEvento(Long idCatedra) {
+        Optional<Evento> eventoOpt = eventoRepository.findByIdCatedra(idCatedra);
+        if (eventoOpt.isEmpty() || !Boolean.TRUE.equals(eventoOpt.get().getActivo())) {
+            return false;
+        }
+        Evento evento = eventoOpt.get();
+        log.info("Desactivando evento eliminado en cátedra: ID={}, idCatedra={}, titulo='{}'",
+            evento.getId(), idCatedra, evento.getTitulo());
+        evento.setActivo(false);
+        eventoRepository.save(evento);
+        return true;
+    }
+
     private EventoTipo findOrCreateEventoTipo(EventoTipoCatedraDTO dto) {
         if (dto == null || dto.getNombre() == null) {
             throw new IllegalArgumentException("EventoTipoCatedraDTO o su nombre no pueden ser nulos");
@@ -173,10 +270,7 @@ public class EventoSyncService {
         return eventoTipoRepository.save(nuevoTipo);
     }
 
-    private Evento upsertEvento(EventoCatedraDTO dto, EventoTipo tipo) {
-        // Buscar evento existente por idCatedra
-        Optional<Evento> eventoOpt = eventoRepository.findByIdCatedra(dto.getId());
-
+    private Evento upsertEvento(Optional<Evento> eventoOpt, EventoCatedraDTO dto, EventoTipo tipo, String hash) {
         Evento evento;
         boolean esNuevo = false;
 
@@ -204,6 +298,7 @@ public class EventoSyncService {
         evento.setPrecioEntrada(dto.getPrecioEntrada());
         evento.setActivo(true);
         evento.setEventoTipo(tipo);
+        evento.setHashContenido(hash);
 
         // Guardar en base de datos
         Evento eventoGuardado = eventoRepository.save(evento);
@@ -219,14 +314,25 @@ public class EventoSyncService {
         return eventoGuardado;
     }
 
-    private void syncIntegrantes(Evento evento, List<IntegranteCatedraDTO> dtos) {
-        // 1. BORRAR todos los integrantes existentes del evento
-        integranteRepository.deleteByEvento(evento);
-        log.debug("  → Integrantes anteriores eliminados");
+    private void syncIntegrantes(Evento evento, List<IntegranteCatedraDTO> dtos, boolean eventoExistente) {
+        // 1. Integrantes actuales por (nombre, apellido, identificación); un evento nuevo no tiene
+        Map<List<String>, Deque<Integrante>> actuales = new HashMap<>();
+        if (eventoExistente) {
+            for (Integrante integrante : integranteRepository.findByEvento(evento)) {
+                List<String> clave = claveIntegrante(integrante.getNombre(), integrante.getApellido(), integrante.getIdentificacion());
+                actuales.computeIfAbsent(clave, k -> new ArrayDeque<>()).add(integrante);
+            }
+        }
 
-        // 2. CREAR nuevos integrantes desde los DTOs
-        if (dtos != null && !dtos.isEmpty()) {
+        // 2. CREAR los que no estaban; los que ya estaban se conservan sin escribir
+        int creados = 0;
+        if (dtos != null) {
             for (IntegranteCatedraDTO dto : dtos) {
+                Deque<Integrante> iguales = actuales.get(claveIntegrante(dto.getNombre(), dto.getApellido(), dto.getIdentificacion()));
+                if (iguales != null && !iguales.isEmpty()) {
+                    iguales.poll();
+                    continue;
+                }
                 Integrante integrante = new Integrante();
                 integrante.setNombre(dto.getNombre());
                 integrante.setApellido(dto.getApellido());
@@ -234,11 +340,66 @@ public class EventoSyncService {
                 integrante.setEvento(evento);
 
                 integranteRepository.save(integrante);
+                creados++;
             }
-            log.debug("  → {} integrantes sincronizados", dtos.size());
-        } else {
-            log.debug("  → Sin integrantes para este evento");
         }
+
+        // 3. BORRAR los que ya no vienen de cátedra
+        List<Integrante> sobrantes = new ArrayList<>();
+        actuales.values().forEach(sobrantes::addAll);
+        if (!sobrantes.isEmpty()) {
+            integranteRepository.deleteAll(sobrantes);
+        }
+        log.debug("  → Integrantes: {} creados, {} eliminados", creados, sobrantes.size());
+    }
+
+    private static List<String> claveIntegrante(String nombre, String apellido, String identificacion) {
+        return Arrays.asList(nombre, apellido, identificacion);
+    }
+
+    /**
+     * SHA-256 (hex) del contenido de cátedra de un evento: todos los campos del DTO, su tipo y sus
+     * integrantes (en el orden recibido). Cada valor va precedido de su longitud para que dos
+     * contenidos distintos no produzcan el mismo texto.
+     */
+    static String hashContenido(EventoCatedraDTO dto) {
+        StringBuilder contenido = new StringBuilder();
+        agregar(contenido, dto.getId());
+        agregar(contenido, dto.getTitulo());
+        agregar(contenido, dto.getResumen());
+        agregar(contenido, dto.getDescripcion());
+        agregar(contenido, dto.getFecha());
+        agregar(contenido, dto.getDireccion());
+        agregar(contenido, dto.getImagen());
+        agregar(contenido, dto.getFilaAsientos());
+        agregar(contenido, dto.getColumnaAsientos());
+        // 100 y 100.00 son el mismo precio
+        agregar(contenido, dto.getPrecioEntrada() != null ? dto.getPrecioEntrada().stripTrailingZeros().toPlainString() : null);
+        EventoTipoCatedraDTO tipo = dto.getEventoTipo();
+        agregar(contenido, tipo != null ? tipo.getNombre() : null);
+        agregar(contenido, tipo != null ? tipo.getDescripcion() : null);
+        List<IntegranteCatedraDTO> integrantes = dto.getIntegrantes() != null ? dto.getIntegrantes() : List.of();
+        agregar(contenido, integrantes.size());
+        for (IntegranteCatedraDTO integrante : integrantes) {
+            agregar(contenido, integrante.getNombre());
+            agregar(contenido, integrante.getApellido());
+            agregar(contenido, integrante.getIdentificacion());
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(contenido.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static void agregar(StringBuilder contenido, Object valor) {
+        if (valor == null) {
+            contenido.append("-1:");
+            return;
+        }
+        String texto = valor.toString();
+        contenido.append(texto.length()).append(':').append(texto);
     }
 
     private int deactivateMissingEventos(Set<Long> idsCatedraActivos) {
@@ -273,10 +434,16 @@ public class EventoSyncService {
         return desactivados;
     }
 
+    private enum Operacion {
+        CREADO,
+        ACTUALIZADO,
+        SIN_CAMBIOS,
+    }
 
     public static class SyncResult {
         private int created = 0;
         private int updated = 0;
+        private int unchanged = 0;
         private int deactivated = 0;
         private List<String> errors = new ArrayList<>();
 
@@ -299,6 +466,14 @@ public class EventoSyncService {
             this.updated = updated;
         }
 
+        public int getUnchanged() {
+            return unchanged;
+        }
+
+        public void setUnchanged(int unchanged) {
+            this.unchanged = unchanged;
+        }
+
         public int getDeactivated() {
             return deactivated;
         }
@@ -326,6 +501,10 @@ public class EventoSyncService {
         public void incrementUpdated() {
             this.updated++;
         }
+
+        public void incrementUnchanged() {
+            this.unchanged++;
+        }
     }
 }
 
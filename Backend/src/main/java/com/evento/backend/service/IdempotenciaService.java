@@ -0,0 +1,238 @@
+package com.evento.backend.service;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.service.dto.RespuestaIdempotenteDTO;
+import com.evento.backend.web.rest.errors.BadRequestAlertException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.function.Supplier;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+/**
+ * Ejecución idempotente de los endpoints de compra con header {@code Idempotency-Key}.
+ *
+ * - El primer request con una key la reserva en Redis (EN_CURSO) y ejecuta la operación.
+ * - Al terminar guarda la respuesta, o el error de negocio (BadRequestAlertException), con TTL.
+ *   Los re-intentos con la misma key la reciben sin volver a ejecutar la lógica ni llamar a cátedra.
+ * - Un re-intento mientras el primero sigue en curso espera su resultado (polling sobre Redis,
+ *   funciona entre nodos); si no llega a tiempo responde 409 con Retry-After.
+ * - Los errores inesperados (5xx) liberan la key para que el re-intento vuelva a ejecutar.
+ * - La misma key con otro body es un error del cliente.
+ *
+ * Las keys son por usuario y operación: "compra:idempotencia:{userId}:{operacion}:{key}"
+ */
+@Service
+public class IdempotenciaService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotenciaService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String HEADER_REPLAY = "Idempotent-Replayed";
+    public static final String IDEMPOTENCIA_METER_NAME = "compra.idempotencia";
+
+    private static final String KEY_PREFIX = "compra:idempotencia:";
+    private static final int LARGO_MAXIMO_KEY = 255;
+    private static final long ESPERA_INICIAL_MS = 20;
+    private static final long ESPERA_MAXIMA_ENTRE_CONSULTAS_MS = 500;
+
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+    private final ApplicationProperties.Idempotencia idempotenciaProperties;
+
+    private final Counter ejecutadasCounter;
+    private final Counter repetidasCounter;
+    private final Counter enCursoCounter;
+
+    public IdempotenciaService(
+        RedissonClient redissonClient,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.redissonClient = redissonClient;
+        this.objectMapper = objectMapper;
+        this.idempotenciaProperties = applicationProperties.getIdempotencia();
+        this.ejecutadasCounter = requests("ejecutada", meterRegistry);
+        this.repetidasCounter = requests("repetida", meterRegistry);
+        this.enCursoCounter = requests("en_curso", meterRegistry);
+    }
+
+    private Counter requests(String resultado, MeterRegistry meterRegistry) {
+        return Counter.builder(IDEMPOTENCIA_METER_NAME)
+            .description("Requests de compra con Idempotency-Key por resultado")
+            .tag("resultado", resultado)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la operación una sola vez por key.
+     *
+     * @param userId ID del usuario
+     * @param operacion Nombre de la operación (la misma key puede usarse en operaciones distintas)
+     * @param idempotencyKey Valor del header (null ejecuta la operación sin idempotencia)
+     * @param request Body del request (null si no tiene), para detectar keys reutilizadas
+     * @param tipoBody Clase del body de la respuesta, para reconstruirla desde Redis
+     * @param operacionSupplier Operación a ejecutar
+     * @return Respuesta de la operación, la guardada de la primera ejecución, o 409 si sigue en curso
+     */
+    public <T> ResponseEntity<T> ejecutar(
+        Long userId,
+        String operacion,
+        String idempotencyKey,
+        Object request,
+        Class<T> tipoBody,
+        Supplier<ResponseEntity<T>> operacionSupplier
+    ) {
+        if (idempotencyKey == null) {
+            return operacionSupplier.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > LARGO_MAXIMO_KEY) {
+            throw new BadRequestAlertException("Idempotency-Key inválida", "sesion", "idempotencykeyinvalida");
+        }
+
+        RBucket<RespuestaIdempotenteDTO> bucket = redissonClient.getBucket(
+            KEY_PREFIX + userId + ":" + operacion + ":" + idempotencyKey
+        );
+        String huella = huella(request);
+        RespuestaIdempotenteDTO enCurso = new RespuestaIdempotenteDTO(RespuestaIdempotenteDTO.Estado.EN_CURSO, huella);
+        if (!bucket.setIfAbsent(enCurso, Duration.ofSeconds(idempotenciaProperties.getEnCursoTtlSegundos()))) {
+            return responderRepetido(bucket, huella, operacion, idempotencyKey, tipoBody);
+        }
+
+        ejecutadasCounter.increment();
+        ResponseEntity<T> respuesta;
+        try {
+            respuesta = operacionSupplier.get();
+        } catch (BadRequestAlertException e) {
+            guardar(bucket, error(huella, e));
+            throw e;
+        } catch (RuntimeException e) {
+            bucket.delete();
+            throw e;
+        }
+        guardar(bucket, completada(huella, respuesta));
+        return respuesta;
+    }
+
+    private <T> ResponseEntity<T> responderRepetido(
+        RBucket<RespuestaIdempotenteDTO> bucket,
+        String huella,
+        String operacion,
+        String idempotencyKey,
+        Class<T> tipoBody
+    ) {
+        RespuestaIdempotenteDTO registro = esperarResultado(bucket);
+        if (registro == null || registro.getEstado() != RespuestaIdempotenteDTO.Estado.COMPLETADA) {
+            // Sigue en curso (o el primer request falló y liberó la key): el cliente reintenta
+            enCursoCounter.increment();
+            log.info("Request {} con Idempotency-Key {} sigue en curso", operacion, idempotencyKey);
+            return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+        if (!Objects.equals(registro.getHuella(), huella)) {
+            throw new BadRequestAlertException(
+                "Idempotency-Key ya utilizada con otro request",
+                "sesion",
+                "idempotencykeyreutilizada"
+            );
+        }
+
+        repetidasCounter.increment();
+        log.debug("Request {} con Idempotency-Key {} repetido: se devuelve la respuesta guardada", operacion, idempotencyKey);
+        if (registro.isError()) {
+            throw new BadRequestAlertException(registro.getErrorTitulo(), registro.getErrorEntidad(), registro.getErrorKey());
+        }
+        return reconstruir(registro, tipoBody);
+    }
+
+    /**
+     * Espera a que el primer request termine, con backoff exponencial entre consultas.
+     *
+     * @return Registro completado, o el último leído si se agotó la espera (null si la key se liberó)
+     */
+    private RespuestaIdempotenteDTO esperarResultado(RBucket<RespuestaIdempotenteDTO> bucket) {
+        long limite = System.currentTimeMillis() + idempotenciaProperties.getEsperaMaxMs();
+        long espera = ESPERA_INICIAL_MS;
+        RespuestaIdempotenteDTO registro = bucket.get();
+        while (registro != null && registro.getEstado() == RespuestaIdempotenteDTO.Estado.EN_CURSO && System.currentTimeMillis() < limite) {
+            try {
+                Thread.sleep(Math.min(espera, Math.max(1, limite - System.currentTimeMillis())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            espera = Math.min(espera * 2, ESPERA_MAXIMA_ENTRE_CONSULTAS_MS);
+            registro = bucket.get();
+        }
+        return registro;
+    }
+
+    private void guardar(RBucket<RespuestaIdempotenteDTO> bucket, RespuestaIdempotenteDTO registro) {
+        try {
+            bucket.set(registro, Duration.ofMinutes(idempotenciaProperties.getTtlMinutos()));
+        } catch (RuntimeException e) {
+            // La operación ya se ejecutó: no se falla el request por no poder guardar su respuesta
+            log.error("Error al guardar respuesta idempotente en Redis: {}", e.getMessage());
+        }
+    }
+
+    private RespuestaIdempotenteDTO completada(String huella, ResponseEntity<?> respuesta) {
+        RespuestaIdempotenteDTO registro = new RespuestaIdempotenteDTO(RespuestaIdempotenteDTO.Estado.COMPLETADA, huella);
+        registro.setStatus(respuesta.getStatusCode().value());
+        respuesta.getHeaders().forEach((nombre, valores) -> registro.getHeaders().put(nombre, new ArrayList<>(valores)));
+        if (respuesta.getBody() != null) {
+            try {
+                registro.setBody(objectMapper.writeValueAsString(respuesta.getBody()));
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Error serializando respuesta idempotente", e);
+            }
+        }
+        return registro;
+    }
+
+    private RespuestaIdempotenteDTO error(String huella, BadRequestAlertException e) {
+        RespuestaIdempotenteDTO registro = new RespuestaIdempotenteDTO(RespuestaIdempotenteDTO.Estado.COMPLETADA, huella);
+        registro.setErrorTitulo(e.getBody().getTitle());
+        registro.setErrorEntidad(e.getEntityName());
+        registro.setErrorKey(e.getErrorKey());
+        return registro;
+    }
+
+    private <T> ResponseEntity<T> reconstruir(RespuestaIdempotenteDTO registro, Class<T> tipoBody) {
+        HttpHeaders headers = new HttpHeaders();
+        registro.getHeaders().forEach(headers::addAll);
+        headers.set(HEADER_REPLAY, "true");
+        try {
+            T body = registro.getBody() != null ? objectMapper.readValue(registro.getBody(), tipoBody) : null;
+            return ResponseEntity.status(registro.getStatus()).headers(headers).body(body);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error leyendo respuesta idempotente", e);
+        }
+    }
+
+    private String huella(Object request) {
+        if (request == null) {
+            return null;
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Error calculando huella del request", e);
+        }
+    }
+}
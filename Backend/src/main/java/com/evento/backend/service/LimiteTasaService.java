@@ -0,0 +1,130 @@
+package com.evento.backend.service;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.service.helper.ScriptLua;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Límites de solicitudes a los endpoints de compra, por usuario y por evento, compartidos entre nodos.
+ *
+ * Cada límite es un token bucket en Redis (hash con tokens y último cálculo): admite ráfagas de
+ * hasta N solicitudes y se recarga a N por intervalo. Cada bucket se consume con un script Lua que,
+ * si rechaza, devuelve cuánto falta para el próximo token (Retry-After exacto).
+ *
+ * - Keys: "limite:{usuario-userId}:endpoint" y "limite:{eventoId}:endpoint:evento". El bucket del
+ *   usuario no depende del evento (es uno solo aunque compre en varios eventos), así que vive en
+ *   otro slot y se consume en una llamada aparte.
+ * - Primero se consume el del usuario: un usuario por encima de su límite no gasta tokens del
+ *   evento. Una solicitud que luego rechaza el límite del evento cuenta igual como intento del usuario.
+ *   Sin evento (no hay sesión activa) solo se aplica el límite por usuario.
+ * - Si Redis no responde la solicitud se deja pasar: el límite protege a cátedra, no debe cortar las ventas.
+ * - Métricas: {@code compra.limite} con tags {@code endpoint} y {@code resultado} = usuario | evento | error
+ *   (ámbito del límite que rechazó la solicitud).
+ */
+@Service
+public class LimiteTasaService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LimiteTasaService.class);
+
+    public static final String METER_NAME = "compra.limite";
+
+    /**
+     * KEYS: bucket. ARGV: ahoraMs, capacidad, intervalo en ms.
+     * Devuelve 0 si consumió un token, o los milisegundos hasta el próximo token.
+     */
+    private static final String SCRIPT_CONSUMIR =
+        "local ahora = tonumber(ARGV[1]) " +
+        "local capacidad = tonumber(ARGV[2]) " +
+        "local intervalo = tonumber(ARGV[3]) " +
+        "local estado = redis.call('hmget', KEYS[1], 'tokens', 'ts') " +
+        "local disponibles = capacidad " +
+        "if estado[1] then " +
+        "  local transcurrido = math.max(0, ahora - tonumber(estado[2])) " +
+        "  disponibles = math.min(capacidad, tonumber(estado[1]) + transcurrido * capacidad / intervalo) " +
+        "end " +
+        "if disponibles < 1 then return math.ceil((1 - disponibles) * intervalo / capacidad) end " +
+        "redis.call('hset', KEYS[1], 'tokens', tostring(disponibles - 1), 'ts', ARGV[1]) " +
+        "redis.call('pexpire', KEYS[1], ARGV[3]) " +
+        "return 0";
+
+    private static final ScriptLua CONSUMIR = new ScriptLua(SCRIPT_CONSUMIR);
+
+    private final RedissonClient redissonClient;
+    private final ApplicationProperties.LimiteTasa limiteProperties;
+    private final MeterRegistry meterRegistry;
+
+    public LimiteTasaService(RedissonClient redissonClient, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.redissonClient = redissonClient;
+        this.limiteProperties = applicationProperties.getLimiteTasa();
+        this.meterRegistry = meterRegistry;
+    }
+
+    private Counter contador(String endpoint, String resultado) {
+        return Counter.builder(METER_NAME)
+            .description("Solicitudes de compra rechazadas por límite de tasa (o sin verificar por error de Redis)")
+            .tag("endpoint", endpoint)
+            .tag("resultado", resultado)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Consume una solicitud de los límites del endpoint para el usuario y el evento.
+     *
+     * @param endpoint Nombre del endpoint (clave en {@code application.limite-tasa.endpoints})
+     * @param userId ID del usuario
+     * @param eventoId ID local del evento; null si no se conoce (solo límite por usuario)
+     * @return 0 si la solicitud puede seguir, o los milisegundos a esperar antes de reintentar
+     */
+    public long consumir(String endpoint, Long userId, Long eventoId) {
+        ApplicationProperties.Limite limite = limiteProperties.getEndpoints().get(endpoint);
+        if (!Boolean.TRUE.equals(limiteProperties.getHabilitada()) || limite == null) {
+            return 0;
+        }
+        long intervaloMs = limite.getIntervaloSegundos() * 1000L;
+        try {
+            if (limite.getPorUsuario() != null) {
+                String key = limiteProperties.getKeyPrefix() + "{usuario-" + userId + "}:" + endpoint;
+                long esperaMs = consumirBucket(key, limite.getPorUsuario(), intervaloMs);
+                if (esperaMs > 0) {
+                    return limitada(endpoint, "usuario", userId, eventoId, esperaMs);
+                }
+            }
+            if (limite.getPorEvento() != null && eventoId != null) {
+                String key = limiteProperties.getKeyPrefix() + "{" + eventoId + "}:" + endpoint + ":evento";
+                long esperaMs = consumirBucket(key, limite.getPorEvento(), intervaloMs);
+                if (esperaMs > 0) {
+                    return limitada(endpoint, "evento", userId, eventoId, esperaMs);
+                }
+            }
+        } catch (RuntimeException e) {
+            contador(endpoint, "error").increment();
+            LOG.warn("No se pudo verificar el límite de {} para el usuario {}: {}", endpoint, userId, e.getMessage());
+        }
+        return 0;
+    }
+
+    private long consumirBucket(String key, Long capacidad, long intervaloMs) {
+        Long esperaMs = CONSUMIR.ejecutar(
+            redissonClient,
+            RScript.ReturnType.INTEGER,
+            List.<Object>of(key),
+            String.valueOf(System.currentTimeMillis()),
+            capacidad.toString(),
+            String.valueOf(intervaloMs)
+        );
+        return esperaMs != null ? esperaMs : 0;
+    }
+
+    private long limitada(String endpoint, String ambito, Long userId, Long eventoId, long esperaMs) {
+        contador(endpoint, ambito).increment();
+        LOG.debug("Solicitud a {} del usuario {} (evento {}) limitada por {}: reintentar en {} ms", endpoint, userId, eventoId, ambito, esperaMs);
+        return esperaMs;
+    }
+}
@@ -4,59 +4,63 @@ import com.evento.backend.config.ApplicationProperties;
 import com.evento.backend.service.dto.RedisResponseDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Servicio cliente HTTP para comunicarse con el Proxy
  *
  * El Proxy actúa como intermediario entre el Backend y Redis de cátedra
  * Este servicio consume el endpoint del Proxy para obtener datos de asientos
+ *
+ * Las consultas de asientos son condicionales: se envía el ETag de la última respuesta
+ * del evento y, ante un 304, se reutiliza el RedisResponseDTO ya parseado.
+ *
+ * Las llamadas se autentican con el token de servicio de {@link CredencialProxyService}, no con
+ * el del usuario: también se consulta desde workers y tareas programadas sin SecurityContext.
+ *
+ * Las consultas pasan por el circuit breaker y bulkhead "proxy-asientos" (ResilienciaService).
+ * Con el circuito abierto o el Proxy sin responder, la consulta de un evento devuelve esa
+ * última respuesta conocida (si la hay) en lugar de fallar.
  */
 @Service
 public class ProxyClientService {
     private static final Logger log = LoggerFactory.getLogger(ProxyClientService.class);
+    // Mismo límite que acepta el endpoint batch del Proxy
+    private static final int MAX_EVENTOS_BATCH = 100;
     private final ApplicationProperties applicationProperties;
+    private final ResilienciaService resilienciaService;
     private final RestTemplate restTemplate;
-    public ProxyClientService(ApplicationProperties applicationProperties) {
+    private final CredencialProxyService credencialProxyService;
+    // Última respuesta de asientos por evento (idCatedra) con su ETag
+    private final Map<Long, RespuestaConEtag> ultimasRespuestas = new ConcurrentHashMap<>();
+    public ProxyClientService(
+        ApplicationProperties applicationProperties,
+        ResilienciaService resilienciaService,
+        @Qualifier("proxyRestTemplate") RestTemplate restTemplate,
+        CredencialProxyService credencialProxyService
+    ) {
         this.applicationProperties = applicationProperties;
-        this.restTemplate = new RestTemplate();
-    }
-
-    /**
-     * Obtiene el token JWT
-     *
-     * @return Token JWT del usuario autenticado
-     * @throws RuntimeException si no hay token JWT en el contexto
-     */
-    private String obtenerTokenActual() {
-        var authentication = SecurityContextHolder.getContext().getAuthentication();
-
-        // Validación de autenticación
-        if (authentication == null || !authentication.isAuthenticated()) {
-            log.error("Intento de llamar al Proxy sin autenticación válida");
-            throw new RuntimeException("Usuario no autenticado para llamar al Proxy");
-        }
-
-        // Validación de tipo de autenticación JWT
-        if (authentication instanceof JwtAuthenticationToken jwtAuth) {
-            String token = jwtAuth.getToken().getTokenValue();
-            log.debug("Token JWT obtenido para usuario: {}", authentication.getName());
-            return token;
-        }
-
-        log.error("Autenticación no es de tipo JWT: {}", authentication.getClass().getName());
-        throw new RuntimeException("No se pudo obtener el token JWT del contexto de seguridad");
+        this.resilienciaService = resilienciaService;
+        this.restTemplate = restTemplate;
+        this.credencialProxyService = credencialProxyService;
     }
 
     /**
@@ -65,19 +69,37 @@ public class ProxyClientService {
      * El Proxy consulta Redis de cátedra con la key: "evento_{eventoIdCatedra}"
      *
      * @param eventoIdCatedra - ID del evento en servidor de cátedra (NO el ID local)
-     * @return Optional con datos de Redis, o empty si no hay datos o hay error
+     * @return Optional con datos de Redis (o la última respuesta conocida si el Proxy no está disponible),
+     *         o empty si no hay datos
      */
     public Optional<RedisResponseDTO> consultarAsientosDesdeProxy(Long eventoIdCatedra) {
+        try {
+            return resilienciaService.ejecutar(ResilienciaService.PROXY_ASIENTOS, () -> consultarEventoEnProxy(eventoIdCatedra));
+        } catch (RuntimeException e) {
+            RespuestaConEtag ultima = ultimasRespuestas.get(eventoIdCatedra);
+            if (ultima == null || !(e instanceof DependenciaNoDisponibleException || ResilienciaService.esFallaRemota(e))) {
+                throw e;
+            }
+            log.warn("{} - usando la última respuesta conocida del evento {}", e.getMessage(), eventoIdCatedra);
+            return Optional.of(ultima.datos);
+        }
+    }
+
+    private Optional<RedisResponseDTO> consultarEventoEnProxy(Long eventoIdCatedra) {
         String proxyBaseUrl = applicationProperties.getProxy().getBaseUrl();
-        String url = proxyBaseUrl + "/api/proxy/asientos/" + eventoIdCatedra;
-        log.debug("Consultando asientos desde Proxy: {}", url);
+        String url = proxyBaseUrl + "/api/proxy/asientos/{eventoId}";
+        log.debug("Consultando asientos del evento {} desde Proxy", eventoIdCatedra);
+        // Token de servicio: la consulta puede venir de un worker o del scheduler, sin usuario autenticado
+        String token = credencialProxyService.getToken();
         try {
-            // Obtener token JWT del usuario actual
-            String token = obtenerTokenActual();
 
-            // Crear headers con Authorization Bearer
+            // Crear headers con Authorization Bearer (y ETag de la última respuesta, si hay)
             HttpHeaders headers = new HttpHeaders();
             headers.setBearerAuth(token);
+            RespuestaConEtag anterior = ultimasRespuestas.get(eventoIdCatedra);
+            if (anterior != null) {
+                headers.setIfNoneMatch(anterior.etag);
+            }
             HttpEntity<String> entity = new HttpEntity<>(headers);
 
             // Hacer petición HTTP con autenticación
@@ -85,25 +107,39 @@ public class ProxyClientService {
                 url,
                 HttpMethod.GET,
                 entity,
-                RedisResponseDTO.class
+                RedisResponseDTO.class,
+                eventoIdCatedra
             );
 
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && anterior != null) {
+                log.debug("Asientos del evento {} sin cambios (304) - reutilizando última respuesta", eventoIdCatedra);
+                return Optional.of(anterior.datos);
+            }
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 RedisResponseDTO data = response.getBody();
                 log.debug("Respuesta de Proxy recibida: {} asientos",
                     data.getAsientos() != null ? data.getAsientos().size() : 0);
+                String etag = response.getHeaders().getETag();
+                if (etag != null) {
+                    ultimasRespuestas.put(eventoIdCatedra, new RespuestaConEtag(etag, data));
+                } else {
+                    ultimasRespuestas.remove(eventoIdCatedra);
+                }
                 return Optional.of(data);
             }
+            ultimasRespuestas.remove(eventoIdCatedra);
             log.debug("Respuesta vacía desde Proxy para evento {}", eventoIdCatedra);
             return Optional.empty();
         } catch (HttpClientErrorException.NotFound e) {
             // 404 = No hay datos en Redis para este evento (todos los asientos disponibles)
             log.debug("Evento {} no tiene asientos bloqueados/vendidos en Redis (404)",
                 eventoIdCatedra);
+            ultimasRespuestas.remove(eventoIdCatedra);
             return Optional.empty();
         } catch (HttpClientErrorException.Unauthorized e) {
-            // 401 = Problema de autenticación con Proxy (si lo tiene configurado)
+            // 401 = el Proxy rechazó el token de servicio; la próxima consulta usa uno nuevo
             log.warn("Error de autenticación al consultar Proxy: {}", e.getMessage());
+            credencialProxyService.invalidar(token);
             throw new RuntimeException("No autorizado para consultar Proxy", e);
         } catch (ResourceAccessException e) {
             // Error de conectividad (Proxy caído, timeout, etc.)
@@ -115,6 +151,57 @@ public class ProxyClientService {
             throw new RuntimeException("Error comunicándose con Proxy", e);
         }
     }
+    /**
+     * Consulta asientos bloqueados/vendidos de varios eventos en una sola llamada al Proxy
+     * (que los lee con un único MGET). Los pedidos de más de {@value #MAX_EVENTOS_BATCH}
+     * eventos se parten en varias llamadas.
+     *
+     * @param eventoIdsCatedra - IDs de eventos en servidor de cátedra
+     * @return Datos de Redis por ID de cátedra; los eventos sin datos no se incluyen
+     * @throws RuntimeException si el Proxy no está disponible
+     */
+    public Map<Long, RedisResponseDTO> consultarAsientosDesdeProxy(Collection<Long> eventoIdsCatedra) {
+        List<Long> ids = new ArrayList<>(eventoIdsCatedra);
+        Map<Long, RedisResponseDTO> resultado = new HashMap<>();
+        for (int desde = 0; desde < ids.size(); desde += MAX_EVENTOS_BATCH) {
+            List<Long> lote = ids.subList(desde, Math.min(desde + MAX_EVENTOS_BATCH, ids.size()));
+            resultado.putAll(resilienciaService.ejecutar(ResilienciaService.PROXY_ASIENTOS, () -> consultarLoteDesdeProxy(lote)));
+        }
+        return resultado;
+    }
+
+    private Map<Long, RedisResponseDTO> consultarLoteDesdeProxy(List<Long> eventoIdsCatedra) {
+        String proxyBaseUrl = applicationProperties.getProxy().getBaseUrl();
+        String url = proxyBaseUrl + "/api/proxy/asientos?ids={ids}";
+        String ids = eventoIdsCatedra.stream().map(String::valueOf).collect(Collectors.joining(","));
+        log.debug("Consultando asientos de {} eventos desde Proxy", eventoIdsCatedra.size());
+        String token = credencialProxyService.getToken();
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(token);
+            ResponseEntity<Map<Long, RedisResponseDTO>> response = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                new ParameterizedTypeReference<Map<Long, RedisResponseDTO>>() {},
+                ids
+            );
+            Map<Long, RedisResponseDTO> data = response.getBody();
+            log.debug("Respuesta batch de Proxy: {} eventos con datos", data != null ? data.size() : 0);
+            return data != null ? data : Map.of();
+        } catch (HttpClientErrorException.Unauthorized e) {
+            log.warn("Error de autenticación al consultar Proxy (batch): {}", e.getMessage());
+            credencialProxyService.invalidar(token);
+            throw new RuntimeException("No autorizado para consultar Proxy", e);
+        } catch (ResourceAccessException e) {
+            log.error("Proxy no disponible o timeout: {}", e.getMessage());
+            throw new RuntimeException("Proxy no disponible", e);
+        } catch (Exception e) {
+            log.error("Error inesperado consultando Proxy (batch): {}", e.getMessage(), e);
+            throw new RuntimeException("Error comunicándose con Proxy", e);
+        }
+    }
+
     /**
      * Verifica si el Proxy está disponible
      *
@@ -134,4 +221,16 @@ public class ProxyClientService {
             return false;
         }
     }
+
+    /**
+     * ETag y DTO parseado de la última respuesta 200 del Proxy para un evento
+     */
+    private static final class RespuestaConEtag {
+        private final String etag;
+        private final RedisResponseDTO datos;
+        private RespuestaConEtag(String etag, RedisResponseDTO datos) {
+            this.etag = etag;
+            this.datos = datos;
+        }
+    }
 }
@@ -0,0 +1,166 @@
+package com.evento.backend.service;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.service.dto.AsientoSimpleDTO;
+import com.evento.backend.service.helper.ScriptLua;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Registro de reservas de asientos en Redis, previo al bloqueo en cátedra.
+ *
+ * Cuando varios usuarios compiten por los mismos asientos, solo el primero que los reserva acá
+ * llega a cátedra; el resto recibe el conflicto sin llamada remota. Cátedra sigue siendo la
+ * fuente de verdad: una reserva local no garantiza el bloqueo, y sin reserva (expirada o Redis
+ * caído) la selección sigue directo a cátedra.
+ *
+ * - Una key por asiento: "reserva:asiento:{eventoId}:fila-columna" = userId, con el mismo TTL que
+ *   el bloqueo en cátedra; la confirmación la renueva cuando re-bloquea asientos vencidos.
+ * - Una key por usuario y evento con sus asientos reservados, para liberarlos sin conocerlos
+ *   (cancelación, sesión nueva, venta). Todas las keys de un evento comparten hash tag.
+ * - Reservar es atómico (script Lua): o se reservan todos los asientos o ninguno. Una nueva
+ *   selección del mismo usuario reemplaza sus reservas anteriores del evento.
+ * - Métricas: {@code asientos.reserva} con tag {@code resultado} = reservada | conflicto | error;
+ *   cada conflicto es un bloqueo en cátedra evitado.
+ */
+@Service
+public class ReservaAsientosService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReservaAsientosService.class);
+
+    public static final String METER_NAME = "asientos.reserva";
+
+    /**
+     * KEYS: reservas del usuario, asiento1, asiento2, ... ARGV: userId, ttlMs.
+     * Devuelve 0 si reservó todos, o la posición (desde 1) del primer asiento reservado por otro usuario.
+     */
+    private static final String SCRIPT_RESERVAR =
+        "for i = 2, #KEYS do " +
+        "  local actual = redis.call('get', KEYS[i]) " +
+        "  if actual and actual ~= ARGV[1] then return i - 1 end " +
+        "end " +
+        "for _, key in ipairs(redis.call('smembers', KEYS[1])) do " +
+        "  if redis.call('get', key) == ARGV[1] then redis.call('del', key) end " +
+        "end " +
+        "redis.call('del', KEYS[1]) " +
+        "for i = 2, #KEYS do " +
+        "  redis.call('set', KEYS[i], ARGV[1], 'PX', ARGV[2]) " +
+        "  redis.call('sadd', KEYS[1], KEYS[i]) " +
+        "end " +
+        "redis.call('pexpire', KEYS[1], ARGV[2]) " +
+        "return 0";
+
+    /**
+     * KEYS: reservas del usuario. ARGV: userId. Libera solo los asientos que siguen reservados por el usuario.
+     */
+    private static final String SCRIPT_LIBERAR =
+        "local liberados = 0 " +
+        "for _, key in ipairs(redis.call('smembers', KEYS[1])) do " +
+        "  if redis.call('get', key) == ARGV[1] then liberados = liberados + redis.call('del', key) end " +
+        "end " +
+        "redis.call('del', KEYS[1]) " +
+        "return liberados";
+
+    private static final ScriptLua RESERVAR = new ScriptLua(SCRIPT_RESERVAR);
+    private static final ScriptLua LIBERAR = new ScriptLua(SCRIPT_LIBERAR);
+
+    private final RedissonClient redissonClient;
+    private final ApplicationProperties.ReservaAsientos reservaProperties;
+
+    private final Counter reservadaCounter;
+    private final Counter conflictoCounter;
+    private final Counter errorCounter;
+
+    public ReservaAsientosService(
+        RedissonClient redissonClient,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.redissonClient = redissonClient;
+        this.reservaProperties = applicationProperties.getReservaAsientos();
+        this.reservadaCounter = contador("reservada", meterRegistry);
+        this.conflictoCounter = contador("conflicto", meterRegistry);
+        this.errorCounter = contador("error", meterRegistry);
+    }
+
+    private Counter contador(String resultado, MeterRegistry meterRegistry) {
+        return Counter.builder(METER_NAME)
+            .description("Reservas locales de asientos previas al bloqueo en cátedra")
+            .tag("resultado", resultado)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Reserva todos los asientos para el usuario, o ninguno si alguno está reservado por otro.
+     * Volver a reservar los mismos asientos renueva su TTL.
+     *
+     * @param eventoId ID local del evento
+     * @param userId ID del usuario
+     * @param asientos Asientos a reservar
+     * @return Primer asiento reservado por otro usuario; empty si se reservaron (o si no se pudo consultar Redis)
+     */
+    public Optional<AsientoSimpleDTO> reservar(Long eventoId, Long userId, List<AsientoSimpleDTO> asientos) {
+        if (!Boolean.TRUE.equals(reservaProperties.getHabilitada())) {
+            return Optional.empty();
+        }
+        List<Object> keys = new ArrayList<>();
+        keys.add(generarKeyUsuario(eventoId, userId));
+        for (AsientoSimpleDTO asiento : asientos) {
+            keys.add(generarKeyAsiento(eventoId, asiento));
+        }
+        long ttlMs = reservaProperties.getTtlSegundos() * 1000L;
+        Long conflicto;
+        try {
+            conflicto = RESERVAR.ejecutar(redissonClient, RScript.ReturnType.INTEGER, keys, userId.toString(), String.valueOf(ttlMs));
+        } catch (RuntimeException e) {
+            // Sin pre-filtro: la selección sigue y decide cátedra
+            errorCounter.increment();
+            LOG.warn("No se pudieron reservar asientos del evento {} en Redis: {}", eventoId, e.getMessage());
+            return Optional.empty();
+        }
+        if (conflicto == null || conflicto == 0) {
+            reservadaCounter.increment();
+            return Optional.empty();
+        }
+        conflictoCounter.increment();
+        AsientoSimpleDTO asiento = asientos.get(conflicto.intValue() - 1);
+        LOG.debug("Asiento {}-{} del evento {} reservado por otro usuario", asiento.getFila(), asiento.getColumna(), eventoId);
+        return Optional.of(asiento);
+    }
+
+    /**
+     * Libera las reservas del usuario en el evento (cancelación, selección fallida, venta o sesión nueva).
+     *
+     * @param eventoId ID local del evento
+     * @param userId ID del usuario
+     */
+    public void liberar(Long eventoId, Long userId) {
+        if (!Boolean.TRUE.equals(reservaProperties.getHabilitada()) || eventoId == null) {
+            return;
+        }
+        try {
+            List<Object> keys = List.of(generarKeyUsuario(eventoId, userId));
+            Long liberados = LIBERAR.ejecutar(redissonClient, RScript.ReturnType.INTEGER, keys, userId.toString());
+            LOG.debug("{} reservas liberadas del usuario {} en evento {}", liberados, userId, eventoId);
+        } catch (RuntimeException e) {
+            // Las reservas vencen con su TTL
+            LOG.warn("No se pudieron liberar las reservas del usuario {} en evento {}: {}", userId, eventoId, e.getMessage());
+        }
+    }
+
+    private String generarKeyAsiento(Long eventoId, AsientoSimpleDTO asiento) {
+        return reservaProperties.getKeyPrefix() + "{" + eventoId + "}:" + asiento.getFila() + "-" + asiento.getColumna();
+    }
+
+    private String generarKeyUsuario(Long eventoId, Long userId) {
+        return reservaProperties.getKeyPrefix() + "{" + eventoId + "}:usuario:" + userId;
+    }
+}
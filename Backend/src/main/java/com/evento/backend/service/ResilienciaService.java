@@ -0,0 +1,204 @@
+package com.evento.backend.service;
+
+import com.evento.backend.config.ApplicationProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Circuit breaker y bulkhead por operación remota (bloquear, vender, eventos, proxy-asientos).
+ *
+ * Si cátedra o el Proxy se cuelgan, cada llamada ocupa un thread hasta el timeout; sin límite,
+ * todos los threads terminan esperando a la dependencia caída.
+ * - Bulkhead: como máximo {@code maxConcurrentes} llamadas simultáneas por operación; el resto
+ *   espera hasta {@code esperaBulkheadMs} y se rechaza.
+ * - Circuit breaker (Resilience4j): con {@code umbralFallas}% de fallas en las últimas llamadas
+ *   el circuito se abre y las llamadas se rechazan sin ir a la red durante {@code abiertoSegundos};
+ *   luego se prueban unas pocas. Solo cuentan como falla timeouts, errores de conexión y 5xx;
+ *   un 4xx es una respuesta de una dependencia sana.
+ *
+ * Los rechazos lanzan {@link DependenciaNoDisponibleException}; cada servicio decide el fallback.
+ * Métricas: las de Resilience4j para cada circuito ({@code resilience4j.circuitbreaker.state},
+ * {@code .calls}, {@code .failure.rate}, ... con tag {@code name} = operación),
+ * {@code resiliencia.rechazos} (tags operacion/motivo = circuito | bulkhead) y
+ * {@code resiliencia.concurrentes} (llamadas en curso por operación).
+ */
+@Service
+public class ResilienciaService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResilienciaService.class);
+
+    public static final String BLOQUEAR = "bloquear";
+    public static final String VENDER = "vender";
+    public static final String EVENTOS = "eventos";
+    public static final String PROXY_ASIENTOS = "proxy-asientos";
+
+    public static final String METER_RECHAZOS = "resiliencia.rechazos";
+    public static final String METER_CONCURRENTES = "resiliencia.concurrentes";
+
+    private final ApplicationProperties.Resiliencia resilienciaProperties;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerRegistry circuitos = CircuitBreakerRegistry.ofDefaults();
+    private final Map<String, OperacionProtegida> operaciones = new ConcurrentHashMap<>();
+
+    public ResilienciaService(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.resilienciaProperties = applicationProperties.getResiliencia();
+        this.meterRegistry = meterRegistry;
+        // Registra también los circuitos que se crean después
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitos).bindTo(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la llamada remota dentro del circuit breaker y el bulkhead de la operación.
+     *
+     * @param operacion Nombre de la operación (clave en {@code application.resiliencia.operaciones})
+     * @param llamada Llamada remota
+     * @return Resultado de la llamada
+     * @throws DependenciaNoDisponibleException si el circuito está abierto o el bulkhead lleno
+     */
+    public <T> T ejecutar(String operacion, Supplier<T> llamada) {
+        OperacionProtegida protegida = operaciones.computeIfAbsent(operacion, this::crear);
+        CircuitBreaker circuito = protegida.circuito;
+        if (!circuito.tryAcquirePermission()) {
+            protegida.rechazosCircuito.increment();
+            throw new DependenciaNoDisponibleException(operacion, "circuito " + circuito.getState());
+        }
+        if (!adquirir(protegida)) {
+            circuito.releasePermission();
+            protegida.rechazosBulkhead.increment();
+            throw new DependenciaNoDisponibleException(operacion, "sin lugar en el bulkhead");
+        }
+        long inicio = System.nanoTime();
+        try {
+            T resultado = llamada.get();
+            circuito.onSuccess(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return resultado;
+        } catch (Throwable e) {
+            // También un Error: si no se registra, el permiso queda tomado (en HALF_OPEN, para siempre)
+            circuito.onError(System.nanoTime() - inicio, TimeUnit.NANOSECONDS, e);
+            throw e;
+        } finally {
+            protegida.bulkhead.release();
+        }
+    }
+
+    /**
+     * @param operacion Nombre de la operación
+     * @return Estado del circuito (CLOSED si la operación aún no se usó)
+     */
+    public CircuitBreaker.State estado(String operacion) {
+        OperacionProtegida protegida = operaciones.get(operacion);
+        return protegida != null ? protegida.circuito.getState() : CircuitBreaker.State.CLOSED;
+    }
+
+    private boolean adquirir(OperacionProtegida protegida) {
+        try {
+            return protegida.bulkhead.tryAcquire(protegida.esperaBulkheadMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private OperacionProtegida crear(String operacion) {
+        ApplicationProperties.Operacion config = resilienciaProperties
+            .getOperaciones()
+            .getOrDefault(operacion, new ApplicationProperties.Operacion());
+        CircuitBreaker circuito = circuitos.circuitBreaker(
+            operacion,
+            CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(config.getVentanaLlamadas())
+                .minimumNumberOfCalls(config.getMinimoLlamadas())
+                .failureRateThreshold(config.getUmbralFallas())
+                .waitDurationInOpenState(Duration.ofSeconds(config.getAbiertoSegundos()))
+                .permittedNumberOfCallsInHalfOpenState(config.getLlamadasSemiAbierto())
+                .recordException(ResilienciaService::esFallaRemota)
+                .build()
+        );
+        circuito
+            .getEventPublisher()
+            .onStateTransition(evento -> LOG.warn("Circuito {}: {}", operacion, evento.getStateTransition()));
+
+        Semaphore bulkhead = new Semaphore(config.getMaxConcurrentes());
+        Gauge.builder(METER_CONCURRENTES, bulkhead, b -> config.getMaxConcurrentes() - b.availablePermits())
+            .description("Llamadas remotas en curso por operación")
+            .tag("operacion", operacion)
+            .register(meterRegistry);
+
+        LOG.info(
+            "Operación remota {}: circuito {}% de {} llamadas, abierto {} s; máximo {} concurrentes",
+            operacion,
+            config.getUmbralFallas(),
+            config.getVentanaLlamadas(),
+            config.getAbiertoSegundos(),
+            config.getMaxConcurrentes()
+        );
+        return new OperacionProtegida(
+            circuito,
+            bulkhead,
+            config.getEsperaBulkheadMs(),
+            contador(operacion, "circuito"),
+            contador(operacion, "bulkhead")
+        );
+    }
+
+    private Counter contador(String operacion, String motivo) {
+        return Counter.builder(METER_RECHAZOS)
+            .description("Llamadas remotas rechazadas sin ejecutarse")
+            .tag("operacion", operacion)
+            .tag("motivo", motivo)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Timeout, error de conexión o 5xx en algún punto de la cadena de causas.
+     */
+    static boolean esFallaRemota(Throwable error) {
+        for (Throwable causa = error; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ResourceAccessException || causa instanceof HttpServerErrorException || causa instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class OperacionProtegida {
+
+        private final CircuitBreaker circuito;
+        private final Semaphore bulkhead;
+        private final long esperaBulkheadMs;
+        private final Counter rechazosCircuito;
+        private final Counter rechazosBulkhead;
+
+        private OperacionProtegida(
+            CircuitBreaker circuito,
+            Semaphore bulkhead,
+            long esperaBulkheadMs,
+            Counter rechazosCircuito,
+            Counter rechazosBulkhead
+        ) {
+            this.circuito = circuito;
+            this.bulkhead = bulkhead;
+            this.esperaBulkheadMs = esperaBulkheadMs;
+            this.rechazosCircuito = rechazosCircuito;
+            this.rechazosBulkhead = rechazosBulkhead;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.evento.backend.service;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.domain.enumeration.EstadoAdmision;
+import com.evento.backend.service.dto.SalaEsperaDTO;
+import com.evento.backend.service.helper.ScriptLua;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Sala de espera (control de admisión) para eventos de alta demanda.
+ *
+ * Con la sala habilitada para un evento ({@code application.sala-espera.eventos}), iniciar la
+ * sesión de compra requiere un token de admisión. El usuario entra a la cola consultando su
+ * posición y los usuarios se admiten en orden de llegada al ritmo configurado, de modo que la
+ * compra (Redis, Postgres y cátedra) recibe un caudal sostenible en lugar de todos a la vez.
+ *
+ * Estado por evento en Redis (mismo hash tag, todo atómico en un script Lua):
+ * - cola: sorted set userId → orden de llegada.
+ * - vistos: sorted set userId → última consulta; quien deja de consultar pierde el lugar.
+ * - admitidos: sorted set userId → vencimiento del token; tokens: hash userId → token.
+ * - estado: hash con la secuencia de llegada y el reloj del ritmo de admisión (token bucket).
+ *
+ * No hay proceso de fondo: las admisiones pendientes se calculan en cada consulta.
+ */
+@Service
+public class SalaEsperaService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SalaEsperaService.class);
+
+    public static final String METER_NAME = "sala.espera";
+
+    private static final long TTL_ESTADO_MS = 24 * 60 * 60 * 1000L;
+
+    /**
+     * KEYS: cola, vistos, admitidos, tokens, estado.
+     * ARGV: userId, ahoraMs, admisiones por segundo, ráfaga, ttl token ms, abandono ms, token nuevo, ttl estado ms.
+     * Devuelve {"ADMITIDO", token, venceMs} o {"ESPERANDO", posicion, enCola}.
+     */
+    private static final String SCRIPT_CONSULTAR =
+        "local ahora = tonumber(ARGV[2]) " +
+        "for _, u in ipairs(redis.call('zrangebyscore', KEYS[3], '-inf', ahora)) do redis.call('hdel', KEYS[4], u) end " +
+        "redis.call('zremrangebyscore', KEYS[3], '-inf', ahora) " +
+        // El usuario entra a la cola (o renueva su presencia)
+        "if not redis.call('zscore', KEYS[3], ARGV[1]) then " +
+        "  if not redis.call('zscore', KEYS[1], ARGV[1]) then " +
+        "    redis.call('zadd', KEYS[1], redis.call('hincrby', KEYS[5], 'secuencia', 1), ARGV[1]) " +
+        "  end " +
+        "  redis.call('zadd', KEYS[2], ahora, ARGV[1]) " +
+        "end " +
+        // Admisiones pendientes según el ritmo, con tope de ráfaga
+        "local tasa = tonumber(ARGV[3]) " +
+        "local rafaga = tonumber(ARGV[4]) " +
+        "local reloj = tonumber(redis.call('hget', KEYS[5], 'reloj') or '0') " +
+        "if (ahora - reloj) * tasa / 1000 > rafaga then reloj = ahora - rafaga * 1000 / tasa end " +
+        "local cupo = math.floor((ahora - reloj) * tasa / 1000) " +
+        "local admitidos = 0 " +
+        "local revisados = 0 " +
+        "while admitidos < cupo and revisados < 1000 do " +
+        "  local siguiente = redis.call('zrange', KEYS[1], 0, 0)[1] " +
+        "  if not siguiente then break end " +
+        "  revisados = revisados + 1 " +
+        "  redis.call('zrem', KEYS[1], siguiente) " +
+        "  local visto = tonumber(redis.call('zscore', KEYS[2], siguiente) or '0') " +
+        "  redis.call('zrem', KEYS[2], siguiente) " +
+        "  if ahora - visto <= tonumber(ARGV[6]) then " +
+        "    redis.call('zadd', KEYS[3], ahora + tonumber(ARGV[5]), siguiente) " +
+        "    admitidos = admitidos + 1 " +
+        "  end " +
+        "end " +
+        "redis.call('hset', KEYS[5], 'reloj', string.format('%.3f', reloj + admitidos * 1000 / tasa)) " +
+        "for _, key in ipairs(KEYS) do redis.call('pexpire', key, ARGV[8]) end " +
+        "local vence = redis.call('zscore', KEYS[3], ARGV[1]) " +
+        "if vence then " +
+        "  redis.call('hsetnx', KEYS[4], ARGV[1], ARGV[7]) " +
+        "  return {'ADMITIDO', redis.call('hget', KEYS[4], ARGV[1]), vence} " +
+        "end " +
+        "return {'ESPERANDO', tostring(redis.call('zrank', KEYS[1], ARGV[1]) + 1), tostring(redis.call('zcard', KEYS[1]))}";
+
+    /**
+     * KEYS: admitidos, tokens. ARGV: userId, token, ahoraMs. Devuelve 1 si el token es válido.
+     */
+    private static final String SCRIPT_VALIDAR =
+        "local vence = redis.call('zscore', KEYS[1], ARGV[1]) " +
+        "if not vence or tonumber(vence) <= tonumber(ARGV[3]) then return 0 end " +
+        "if redis.call('hget', KEYS[2], ARGV[1]) ~= ARGV[2] then return 0 end " +
+        "return 1";
+
+    private static final ScriptLua CONSULTAR = new ScriptLua(SCRIPT_CONSULTAR);
+    private static final ScriptLua VALIDAR = new ScriptLua(SCRIPT_VALIDAR);
+
+    private final RedissonClient redissonClient;
+    private final ApplicationProperties.SalaEspera salaEsperaProperties;
+
+    private final Counter esperandoCounter;
+    private final Counter admitidoCounter;
+    private final Counter rechazadoCounter;
+
+    public SalaEsperaService(RedissonClient redissonClient, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.redissonClient = redissonClient;
+        this.salaEsperaProperties = applicationProperties.getSalaEspera();
+        this.esperandoCounter = contador("esperando", meterRegistry);
+        this.admitidoCounter = contador("admitido", meterRegistry);
+        this.rechazadoCounter = contador("rechazado", meterRegistry);
+    }
+
+    private Counter contador(String resultado, MeterRegistry meterRegistry) {
+        return Counter.builder(METER_NAME)
+            .description("Consultas a la sala de espera e inicios de sesión rechazados sin admisión")
+            .tag("resultado", resultado)
+            .register(meterRegistry);
+    }
+
+    /**
+     * @param eventoId ID local del evento
+     * @return true si iniciar sesión en el evento requiere token de admisión
+     */
+    public boolean requiereAdmision(Long eventoId) {
+        return eventoId != null && salaEsperaProperties.getEventos().contains(eventoId);
+    }
+
+    /**
+     * Entra a la cola del evento (si no estaba) y devuelve la posición o el token de admisión.
+     * El cliente debe volver a consultar cada {@code consultarEnMs} para no perder el lugar.
+     *
+     * @param eventoId ID local del evento
+     * @param userId ID del usuario
+     * @return Estado del usuario en la sala
+     */
+    public SalaEsperaDTO consultar(Long eventoId, Long userId) {
+        if (!requiereAdmision(eventoId)) {
+            return new SalaEsperaDTO(eventoId, EstadoAdmision.NO_REQUERIDA);
+        }
+        long ahora = System.currentTimeMillis();
+        double tasa = salaEsperaProperties.getAdmisionesPorSegundo();
+        List<Object> resultado = CONSULTAR.ejecutar(
+            redissonClient,
+            RScript.ReturnType.MULTI,
+            generarKeys(eventoId, "cola", "vistos", "admitidos", "tokens", "estado"),
+            userId.toString(),
+            String.valueOf(ahora),
+            String.valueOf(tasa),
+            String.valueOf(salaEsperaProperties.getRafaga()),
+            String.valueOf(salaEsperaProperties.getTokenTtlSegundos() * 1000L),
+            String.valueOf(salaEsperaProperties.getAbandonoSegundos() * 1000L),
+            UUID.randomUUID().toString(),
+            String.valueOf(TTL_ESTADO_MS)
+        );
+
+        SalaEsperaDTO sala;
+        if (EstadoAdmision.ADMITIDO.name().equals(resultado.get(0))) {
+            admitidoCounter.increment();
+            sala = new SalaEsperaDTO(eventoId, EstadoAdmision.ADMITIDO);
+            sala.setToken((String) resultado.get(1));
+            sala.setTokenVence(Instant.ofEpochMilli((long) Double.parseDouble((String) resultado.get(2))));
+            LOG.debug("Usuario {} admitido en evento {} hasta {}", userId, eventoId, sala.getTokenVence());
+        } else {
+            esperandoCounter.increment();
+            sala = new SalaEsperaDTO(eventoId, EstadoAdmision.ESPERANDO);
+            sala.setPosicion(Long.parseLong((String) resultado.get(1)));
+            sala.setEnCola(Long.parseLong((String) resultado.get(2)));
+            sala.setEsperaEstimadaSegundos((long) Math.ceil(sala.getPosicion() / tasa));
+            sala.setConsultarEnMs(salaEsperaProperties.getConsultaIntervaloMs());
+        }
+        return sala;
+    }
+
+    /**
+     * Verifica el token de admisión de un usuario para iniciar la sesión de compra.
+     * Si Redis no responde se deja pasar (la sala no debe bloquear las ventas).
+     *
+     * @param eventoId ID local del evento
+     * @param userId ID del usuario
+     * @param token Token recibido en la consulta a la sala
+     * @return true si el evento no requiere admisión o el token es válido y vigente
+     */
+    public boolean validarAdmision(Long eventoId, Long userId, String token) {
+        if (!requiereAdmision(eventoId)) {
+            return true;
+        }
+        if (token == null || token.isBlank()) {
+            rechazadoCounter.increment();
+            return false;
+        }
+        Long valido;
+        try {
+            valido = VALIDAR.ejecutar(
+                redissonClient,
+                RScript.ReturnType.INTEGER,
+                generarKeys(eventoId, "admitidos", "tokens"),
+                userId.toString(),
+                token,
+                String.valueOf(System.currentTimeMillis())
+            );
+        } catch (RuntimeException e) {
+            LOG.warn("No se pudo validar la admisión del usuario {} al evento {}: {}", userId, eventoId, e.getMessage());
+            return true;
+        }
+        if (valido == null || valido != 1) {
+            rechazadoCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private List<Object> generarKeys(Long eventoId, String... nombres) {
+        return Arrays.stream(nombres)
+            .<Object>map(nombre -> salaEsperaProperties.getKeyPrefix() + "{" + eventoId + "}:" + nombre)
+            .toList();
+    }
+}
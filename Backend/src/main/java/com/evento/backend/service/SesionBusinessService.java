@@ -4,6 +4,7 @@ import com.evento.backend.domain.*;
 import com.evento.backend.domain.enumeration.*;
 import com.evento.backend.repository.*;
 import com.evento.backend.service.dto.*;
+import com.evento.backend.service.helper.MatrizEstadoAsientos;
 import com.evento.backend.service.helper.VentaCreationHelper;
 import com.evento.backend.service.mapper.SesionMapper;
 import com.evento.backend.service.mapper.SesionRedisMapper;
@@ -16,14 +17,21 @@ import java.util.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Servicio de lógica de negocio para gestión de sesiones de compra.
  * Maneja el flujo completo: inicio sesión → selección asientos → asignación nombres → venta.
+ *
+ * Las operaciones puramente locales son {@code @Transactional}. La selección de asientos y la
+ * confirmación de venta llaman al Proxy y a cátedra, por lo que se dividen en fases: transacciones
+ * locales cortas y llamadas remotas fuera de toda transacción, para no retener una conexión del
+ * pool mientras cátedra responde. Si un paso falla se aplica una transición compensatoria
+ * (ver {@link #confirmarVenta(Long)}).
  */
 @Service
-@Transactional
 public class SesionBusinessService {
     private static final Logger log = LoggerFactory.getLogger(SesionBusinessService.class);
 
@@ -45,6 +53,9 @@ public class SesionBusinessService {
     // Servicios
     private final AsientosDisponibilidadService asientosDisponibilidadService;
     private final CatedraClientService catedraClientService;
+    private final ReservaAsientosService reservaAsientosService;
+    private final SalaEsperaService salaEsperaService;
+    private final VentaReconciliacionService ventaReconciliacionService;
 
     // Mappers
     private final SesionMapper sesionMapper;
@@ -55,6 +66,9 @@ public class SesionBusinessService {
     // Helpers
     private final VentaCreationHelper ventaCreationHelper;
 
+    // Transacciones cortas de las fases locales de selección y venta
+    private final TransactionTemplate transactionTemplate;
+
     public SesionBusinessService(
         SesionRedisService sesionRedisService,
         SesionRepository sesionRepository,
@@ -65,11 +79,15 @@ public class SesionBusinessService {
         AsientoVendidoRepository asientoVendidoRepository,
         AsientosDisponibilidadService asientosDisponibilidadService,
         CatedraClientService catedraClientService,
+        ReservaAsientosService reservaAsientosService,
+        SalaEsperaService salaEsperaService,
+        VentaReconciliacionService ventaReconciliacionService,
         SesionMapper sesionMapper,
         VentaMapper ventaMapper,
         SesionRedisMapper sesionRedisMapper,
         VentaCatedraMapper ventaCatedraMapper,
-        VentaCreationHelper ventaCreationHelper
+        VentaCreationHelper ventaCreationHelper,
+        PlatformTransactionManager transactionManager
     ) {
         this.sesionRedisService = sesionRedisService;
         this.sesionRepository = sesionRepository;
@@ -80,24 +98,40 @@ public class SesionBusinessService {
         this.asientoVendidoRepository = asientoVendidoRepository;
         this.asientosDisponibilidadService = asientosDisponibilidadService;
         this.catedraClientService = catedraClientService;
+        this.reservaAsientosService = reservaAsientosService;
+        this.salaEsperaService = salaEsperaService;
+        this.ventaReconciliacionService = ventaReconciliacionService;
         this.sesionMapper = sesionMapper;
         this.ventaMapper = ventaMapper;
         this.sesionRedisMapper = sesionRedisMapper;
         this.ventaCatedraMapper = ventaCatedraMapper;
         this.ventaCreationHelper = ventaCreationHelper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
     // ========== MÉTODOS PÚBLICOS ==========
     /**
      * Inicia una nueva sesión de compra para un usuario y evento.
      * Si el usuario ya tiene una sesión activa, la cancela automáticamente.
+     * Si el evento tiene sala de espera, requiere un token de admisión vigente.
      *
      * @param userId ID del usuario
      * @param eventoId ID del evento
+     * @param tokenAdmision Token de la sala de espera (null si el evento no la tiene)
      * @return DTO de la sesión creada
      */
-    public SesionDTO iniciarSesion(Long userId, Long eventoId) {
+    @Transactional
+    public SesionDTO iniciarSesion(Long userId, Long eventoId, String tokenAdmision) {
         log.debug("Iniciando sesión para usuario {} en evento {}", userId, eventoId);
 
+        // 0. Sala de espera: sin admisión no se toca la base ni cátedra
+        if (!salaEsperaService.validarAdmision(eventoId, userId, tokenAdmision)) {
+            throw new BadRequestAlertException(
+                "Evento con sala de espera: debe esperar su turno en /api/compra/sala-espera/" + eventoId,
+                "sesion",
+                "sinadmision"
+            );
+        }
+
         // 1. Validar usuario existe
         User user = userRepository
             .findById(userId)
@@ -128,8 +162,9 @@ public class SesionBusinessService {
             // Eliminar asientos seleccionados
             asientoSeleccionadoRepository.deleteBySesionId(sesionPrevia.getId());
 
-            // Eliminar de Redis
+            // Eliminar de Redis y liberar reservas de asientos
             sesionRedisService.eliminarSesion(userId.toString());
+            reservaAsientosService.liberar(sesionPrevia.getEvento().getId(), userId);
 
             // Marcar como completada
             sesionPrevia.setEstado(EstadoSesion.COMPLETADO);
@@ -166,6 +201,7 @@ public class SesionBusinessService {
      * @param userId ID del usuario
      * @return DTO de la sesión o null si no existe
      */
+    @Transactional
     public SesionDTO obtenerEstadoSesion(Long userId) {
         log.debug("Obteniendo estado de sesión para usuario {}", userId);
         // 1. Intentar obtener desde Redis
@@ -199,6 +235,7 @@ public class SesionBusinessService {
             sesionRepository.save(sesion);
             // Limpiar asientos
             asientoSeleccionadoRepository.deleteBySesionId(sesion.getId());
+            reservaAsientosService.liberar(sesion.getEvento().getId(), userId);
             return null;
         }
         // 4. Rehidratar Redis
@@ -210,20 +247,28 @@ public class SesionBusinessService {
         log.debug("Sesión {} rehidratada en Redis para usuario {}", sesion.getId(), userId);
         return sesionDTO;
     }
+    /**
+     * Evento de la sesión activa del usuario, solo desde Redis (sin rehidratar desde PostgreSQL).
+     *
+     * @param userId ID del usuario
+     * @return ID local del evento, o empty si no hay sesión en Redis
+     */
+    public Optional<Long> obtenerEventoSesionActiva(Long userId) {
+        return sesionRedisService.obtenerSesion(userId.toString()).map(SesionRedisDTO::getEventoId);
+    }
     /**
      * Actualiza la actividad de la sesión (keep-alive).
      * Usado para evitar expiración por inactividad.
      *
      * @param userId ID del usuario
      */
+    @Transactional
     public void actualizarActividad(Long userId) {
         log.debug("Actualizando actividad para usuario {}", userId);
-        // 1. Verificar que existe en Redis
-        if (!sesionRedisService.existeSesion(userId.toString())) {
+        // 1-2. Extender TTL en Redis (falla si la sesión no existe o expiró)
+        if (!sesionRedisService.actualizarActividad(userId.toString())) {
             throw new BadRequestAlertException("No existe sesión activa", "sesion", "nosession");
         }
-        // 2. Actualizar TTL en Redis
-        sesionRedisService.actualizarActividad(userId.toString());
         // 3. Actualizar en PostgreSQL
         Optional<Sesion> sesionOpt = sesionRepository.findFirstByUsuarioIdAndEstadoNot(userId, EstadoSesion.COMPLETADO);
         if (sesionOpt.isPresent()) {
@@ -239,6 +284,7 @@ public class SesionBusinessService {
      *
      * @param userId ID del usuario
      */
+    @Transactional
     public void cancelarSesion(Long userId) {
         log.debug("Cancelando sesión para usuario {}", userId);
         // 1. Buscar sesión en PostgreSQL
@@ -248,8 +294,9 @@ public class SesionBusinessService {
             // 2. Marcar como completada
             sesion.setEstado(EstadoSesion.COMPLETADO);
             sesionRepository.save(sesion);
-            // 3. Eliminar asientos seleccionados
+            // 3. Eliminar asientos seleccionados y sus reservas
             asientoSeleccionadoRepository.deleteBySesionId(sesion.getId());
+            reservaAsientosService.liberar(sesion.getEvento().getId(), userId);
             log.info("Sesión {} cancelada para usuario {}", sesion.getId(), userId);
         }
         // 4. Eliminar de Redis (si existe)
@@ -291,26 +338,13 @@ public class SesionBusinessService {
                 );
             }
         }
-        // 3. Obtener sesión desde Redis
-        Optional<SesionRedisDTO> sesionRedisOpt = sesionRedisService.obtenerSesion(userId.toString());
-        if (sesionRedisOpt.isEmpty()) {
-            throw new BadRequestAlertException("No existe sesión activa", "sesion", "nosession");
-        }
-        SesionRedisDTO sesionRedis = sesionRedisOpt.get();
-
-        // Obtener sesión completa de PostgreSQL
-        Sesion sesion = sesionRepository
-            .findById(sesionRedis.getSesionId())
-            .orElseThrow(() -> new BadRequestAlertException("Sesión no encontrada", "sesion", "sessionnotfound"));
-        // 4. Validar estado permite selección
-        if (sesion.getEstado() != EstadoSesion.SELECCION_ASIENTOS && sesion.getEstado() != EstadoSesion.CARGA_DATOS) {
-            throw new BadRequestAlertException(
-                "Estado de sesión no permite selección de asientos",
-                "sesion",
-                "invalidstate"
-            );
-        }
-        // 5. Obtener evento desde PostgreSQL
+        // 3-4. Fase local (transacción corta): obtener sesión y validar que el estado permite selección
+        Sesion sesion = transactionTemplate.execute(status -> {
+            Sesion actual = obtenerSesionActiva(userId);
+            validarEstadoSeleccion(actual);
+            return actual;
+        });
+        // 5. Evento de la sesión (cargado junto con la sesión)
         Evento evento = sesion.getEvento();
 
         if (evento.getIdCatedra() == null) {
@@ -326,73 +360,49 @@ public class SesionBusinessService {
         for (AsientoSimpleDTO asiento : asientos) {
             validarCoordenadasAsiento(evento, asiento.getFila(), asiento.getColumna());
         }
-        // 7. Consultar disponibilidad desde Redis cátedra
-        MatrizAsientosDTO matrizDisponibilidad = asientosDisponibilidadService.getDisponibilidadAsientos(
+        // 7. Fase remota (sin transacción): consultar disponibilidad desde Redis cátedra
+        MatrizEstadoAsientos matrizDisponibilidad = asientosDisponibilidadService.obtenerMatrizEstado(
             evento.getId()
         );
-        List<AsientoDisponibilidadDTO> listaAsientos = matrizDisponibilidad.getAsientos();
         // 8. Verificar TODOS los asientos están disponibles
         for (AsientoSimpleDTO asiento : asientos) {
-            AsientoDisponibilidadDTO asientoDisp = buscarAsientoEnLista(
-                listaAsientos,
+            EstadoAsiento estado = buscarEstadoAsiento(
+                matrizDisponibilidad,
                 asiento.getFila(),
                 asiento.getColumna()
             );
-            if (asientoDisp.getEstado() != EstadoAsiento.DISPONIBLE) {
+            if (estado != EstadoAsiento.DISPONIBLE) {
                 throw new BadRequestAlertException(
                     "Asiento no disponible: fila " + asiento.getFila() + ", columna " + asiento.getColumna() +
-                        " (estado: " + asientoDisp.getEstado() + ")",
+                        " (estado: " + estado + ")",
                     "sesion",
                     "asientonotavailable"
                 );
             }
         }
-        // 9. Bloquear en servidor de cátedra
-        BloquearAsientosResponseDTO bloqueoResponse = catedraClientService.bloquearAsientos(
-            evento.getIdCatedra(),
-            asientos
-        );
-        // 11. Validar respuesta de bloqueo
-        if (Boolean.FALSE.equals(bloqueoResponse.getResultado())) {
+        // 9. Reservar localmente: si otro usuario ya los tiene, responder sin llamar a cátedra
+        Optional<AsientoSimpleDTO> reservadoPorOtro = reservaAsientosService.reservar(evento.getId(), userId, asientos);
+        if (reservadoPorOtro.isPresent()) {
             throw new BadRequestAlertException(
-                "No se pudieron bloquear los asientos: " + bloqueoResponse.getDescripcion(),
+                "Asiento no disponible: fila " + reservadoPorOtro.get().getFila() + ", columna " + reservadoPorOtro.get().getColumna() +
+                    " (seleccionado por otro usuario)",
                 "sesion",
-                "bloqueofallido"
+                "asientoreservado"
             );
         }
-        // Verificar que TODOS los asientos quedaron bloqueados
-        for (AsientoBloqueoResponseDTO asientoResp : bloqueoResponse.getAsientos()) {
-            if (!"Bloqueo exitoso".equalsIgnoreCase(asientoResp.getEstado())) {
-                throw new BadRequestAlertException(
-                    "Asiento no pudo ser bloqueado: fila " + asientoResp.getFila() + ", columna " + asientoResp.getColumna(),
-                    "sesion",
-                    "asientonotbloqueado"
-                );
-            }
+        SesionDTO sesionActualizada;
+        try {
+            sesionActualizada = bloquearYRegistrarSeleccion(sesion, evento, asientos);
+        } catch (RuntimeException e) {
+            reservaAsientosService.liberar(evento.getId(), userId);
+            throw e;
         }
-        // 12. Eliminar asientos previos de la sesión (permitir re-selección)
-        asientoSeleccionadoRepository.deleteBySesionId(sesion.getId());
-        // 13. Crear nuevos AsientoSeleccionado
-        List<AsientoSeleccionado> nuevosAsientos = new ArrayList<>();
-        for (AsientoSimpleDTO asiento : asientos) {
-            AsientoSeleccionado nuevoAsiento = new AsientoSeleccionado();
-            nuevoAsiento.setSesion(sesion);
-            nuevoAsiento.setFila(asiento.getFila());
-            nuevoAsiento.setColumna(asiento.getColumna());
-            nuevoAsiento.setNombrePersona(null); // Se asignará después
-            nuevosAsientos.add(nuevoAsiento);
+        // 15. Actualizar en Redis solo estado y asientos (si la sesión expiró, se guarda completa)
+        if (!sesionRedisService.actualizarSeleccion(userId.toString(), sesionActualizada.getEstado(), asientos)) {
+            SesionRedisDTO sesionRedisActualizada = sesionRedisMapper.toRedisDTO(sesionActualizada);
+            sesionRedisActualizada.setAsientosSeleccionados(asientos);
+            sesionRedisService.guardarSesion(userId.toString(), sesionRedisActualizada);
         }
-        asientoSeleccionadoRepository.saveAll(nuevosAsientos);
-        // 14. Actualizar estado sesión a CARGA_DATOS
-        sesion.setEstado(EstadoSesion.CARGA_DATOS);
-        sesion.setUltimaActividad(Instant.now());
-        sesion = sesionRepository.save(sesion);
-        // 15. Actualizar en Redis
-        SesionDTO sesionActualizada = sesionMapper.toDto(sesion);
-
-        SesionRedisDTO sesionRedisActualizada = sesionRedisMapper.toRedisDTO(sesionActualizada);
-
-        sesionRedisService.guardarSesion(userId.toString(), sesionRedisActualizada);
         log.info("Asientos seleccionados exitosamente para sesión {}: {} asientos", sesion.getId(), asientos.size());
         return sesionActualizada;
     }
@@ -403,19 +413,11 @@ public class SesionBusinessService {
      *  @param nombresAsignados Map de nombres por asiento (key: "fila-columna", value: nombre)
      * @return DTO de la sesión actualizada
      */
+    @Transactional
     public SesionDTO asignarNombres(Long userId, Map<String, String> nombresAsignados) {
         log.debug("Asignando nombres a asientos para usuario {}", userId);
-        // 1. Obtener sesión desde Redis
-        Optional<SesionRedisDTO> sesionRedisOpt = sesionRedisService.obtenerSesion(userId.toString());
-        if (sesionRedisOpt.isEmpty()) {
-            throw new BadRequestAlertException("No existe sesión activa", "sesion", "nosession");
-        }
-        SesionRedisDTO sesionRedis = sesionRedisOpt.get();
-
-        // Obtener sesión completa de PostgreSQL
-        Sesion sesion = sesionRepository
-            .findById(sesionRedis.getSesionId())
-            .orElseThrow(() -> new BadRequestAlertException("Sesión no encontrada", "sesion", "sessionnotfound"));
+        // 1. Obtener sesión (Redis + PostgreSQL)
+        Sesion sesion = obtenerSesionActiva(userId);
         // 2. Validar estado
         if (sesion.getEstado() != EstadoSesion.CARGA_DATOS) {
             throw new BadRequestAlertException(
@@ -468,12 +470,20 @@ public class SesionBusinessService {
         // 7. Actualizar actividad en sesión
         sesion.setUltimaActividad(Instant.now());
         sesion = sesionRepository.save(sesion);
-        // 8. Actualizar Redis
+        // 8. Actualizar en Redis solo los nombres (si la sesión expiró, se guarda completa)
         SesionDTO sesionActualizada = sesionMapper.toDto(sesion);
-
-        SesionRedisDTO sesionRedisActualizada = sesionRedisMapper.toRedisDTO(sesionActualizada);
-
-        sesionRedisService.guardarSesion(userId.toString(), sesionRedisActualizada);
+        Map<String, String> nombres = new HashMap<>();
+        List<AsientoSimpleDTO> asientos = new ArrayList<>();
+        for (AsientoSeleccionado asiento : asientosSeleccionados) {
+            nombres.put(asiento.getFila() + "-" + asiento.getColumna(), asiento.getNombrePersona());
+            asientos.add(new AsientoSimpleDTO(asiento.getFila(), asiento.getColumna()));
+        }
+        if (!sesionRedisService.actualizarNombres(userId.toString(), nombres)) {
+            SesionRedisDTO sesionRedisActualizada = sesionRedisMapper.toRedisDTO(sesionActualizada);
+            sesionRedisActualizada.setAsientosSeleccionados(asientos);
+            sesionRedisActualizada.setNombresAsignados(nombres);
+            sesionRedisService.guardarSesion(userId.toString(), sesionRedisActualizada);
+        }
         log.info("Nombres asignados exitosamente para sesión {}", sesion.getId());
         return sesionActualizada;
     }
@@ -481,72 +491,56 @@ public class SesionBusinessService {
      * Confirma la venta de los asientos seleccionados.
      * Permite múltiples re-intentos si la venta falla.
      *
+     * Fases:
+     * 1. Transacción corta: validar sesión y asientos. Si quedó una venta PENDIENTE de un intento
+     *    anterior, se resuelve antes: si cátedra la registró se sincroniza y se devuelve.
+     * 2. Sin transacción: re-validar disponibilidad en el Proxy y re-bloquear si hace falta.
+     * 3. Transacción corta: registrar la venta como PENDIENTE.
+     * 4. Sin transacción: realizar la venta en cátedra.
+     * 5. Transacción corta: aplicar el resultado (SINCRONIZADA + asientos vendidos + sesión
+     *    COMPLETADO), o la compensación si cátedra la rechaza (venta PENDIENTE → ERROR).
+     *
+     * Si cátedra no responde (o su circuit breaker está abierto), o la fase 5 falla tras una venta
+     * exitosa, la venta queda PENDIENTE para re-intento/reconciliación.
+     *
      * @param userId ID del usuario
      * @return DTO de la venta realizada
      */
     public VentaDTO confirmarVenta(Long userId) {
         log.debug("Confirmando venta para usuario {}", userId);
 
-        // 1. Obtener sesión desde Redis
-        Optional<SesionRedisDTO> sesionRedisOpt = sesionRedisService.obtenerSesion(userId.toString());
-        if (sesionRedisOpt.isEmpty()) {
-            throw new BadRequestAlertException("No existe sesión activa", "sesion", "nosession");
-        }
-        SesionRedisDTO sesionRedis = sesionRedisOpt.get();
-
-        // Obtener sesión completa de PostgreSQL
-        Sesion sesion = sesionRepository
-            .findById(sesionRedis.getSesionId())
-            .orElseThrow(() -> new BadRequestAlertException("Sesión no encontrada", "sesion", "sessionnotfound"));
-
-        // 2. Validar estado
-        if (sesion.getEstado() != EstadoSesion.CARGA_DATOS) {
-            throw new BadRequestAlertException(
-                "Debe asignar nombres a los asientos antes de confirmar",
-                "sesion",
-                "invalidstate"
-            );
-        }
-
-        // 3. Obtener asientos seleccionados desde PostgreSQL
-        List<AsientoSeleccionado> asientosSeleccionados = asientoSeleccionadoRepository.findBySesionId(sesion.getId());
-        if (asientosSeleccionados.isEmpty()) {
-            throw new BadRequestAlertException("No hay asientos seleccionados", "sesion", "noasientos");
-        }
-
-        // 4. Validar que TODOS tienen nombre asignado
-        for (AsientoSeleccionado asiento : asientosSeleccionados) {
-            if (!validarNombreCompleto(asiento.getNombrePersona())) {
-                throw new BadRequestAlertException(
-                    "Asiento sin nombre: fila " + asiento.getFila() + ", columna " + asiento.getColumna(),
-                    "sesion",
-                    "nombrefaltante"
-                );
-            }
-        }
-
-        // 5. Obtener evento
+        // 1. Fase local: sesión, estado y asientos con nombre
+        PreparacionVenta preparacion = transactionTemplate.execute(status -> prepararVenta(userId));
+        Sesion sesion = preparacion.sesion;
+        List<AsientoSeleccionado> asientosSeleccionados = preparacion.asientos;
         Evento evento = sesion.getEvento();
 
+        // Una venta anterior sin respuesta de cátedra pudo haberse concretado
+        Optional<VentaDTO> ventaAnterior = resolverVentasPendientes(sesion, evento);
+        if (ventaAnterior.isPresent()) {
+            sesionRedisService.eliminarSesion(userId.toString());
+            reservaAsientosService.liberar(evento.getId(), userId);
+            log.info("Venta anterior {} ya registrada en cátedra: se confirma sin re-enviar", ventaAnterior.get().getId());
+            return ventaAnterior.get();
+        }
 
-        // 6. Calcular precio total (CORREGIDO: usar BigDecimal)
+        // Calcular precio total (BigDecimal)
         BigDecimal precioTotal = evento.getPrecioEntrada().multiply(BigDecimal.valueOf(asientosSeleccionados.size()));
 
-        // 7. Re-validar disponibilidad en Redis cátedra
-        MatrizAsientosDTO matrizDisponibilidad = asientosDisponibilidadService.getDisponibilidadAsientos(
+        // 2. Fase remota: re-validar disponibilidad en Redis cátedra
+        MatrizEstadoAsientos matrizDisponibilidad = asientosDisponibilidadService.obtenerMatrizEstado(
             evento.getId()
         );
-        List<AsientoDisponibilidadDTO> listaAsientos = matrizDisponibilidad.getAsientos();
         List<AsientoSimpleDTO> asientosParaReBloquear = new ArrayList<>();
         for (AsientoSeleccionado asiento : asientosSeleccionados) {
-            AsientoDisponibilidadDTO asientoDisp = buscarAsientoEnLista(
-                listaAsientos,
+            EstadoAsiento estado = buscarEstadoAsiento(
+                matrizDisponibilidad,
                 asiento.getFila(),
                 asiento.getColumna()
             );
 
             // Verificar que no fue vendido por otro usuario
-            if (asientoDisp.getEstado() == EstadoAsiento.VENDIDO) {
+            if (estado == EstadoAsiento.VENDIDO) {
                 throw new BadRequestAlertException(
                     "Asiento ya vendido: fila " + asiento.getFila() + ", columna " + asiento.getColumna(),
                     "sesion",
@@ -555,106 +549,102 @@ public class SesionBusinessService {
             }
 
             // Si está DISPONIBLE (bloqueo expiró), necesita re-bloqueo
-            if (asientoDisp.getEstado() == EstadoAsiento.DISPONIBLE) {
+            if (estado == EstadoAsiento.DISPONIBLE) {
                 asientosParaReBloquear.add(new AsientoSimpleDTO(asiento.getFila(), asiento.getColumna()));
             }
         }
 
-        // 8. Re-bloquear si es necesario
+        // Re-bloquear si es necesario. Con el circuito de cátedra abierto no se intenta la venta:
+        // queda PENDIENTE y la reconciliación re-bloquea y la re-envía cuando cátedra se recupere.
+        boolean catedraNoDisponible = false;
         if (!asientosParaReBloquear.isEmpty()) {
             log.info("Re-bloqueando {} asientos cuyo bloqueo expiró", asientosParaReBloquear.size());
-            BloquearAsientosResponseDTO reBloqueoResponse = catedraClientService.bloquearAsientos(
-                evento.getIdCatedra(),
-                asientosParaReBloquear
-            );
-            if (Boolean.FALSE.equals(reBloqueoResponse.getResultado())) {
+            BloquearAsientosResponseDTO reBloqueoResponse = null;
+            try {
+                reBloqueoResponse = catedraClientService.bloquearAsientos(evento.getIdCatedra(), asientosParaReBloquear);
+            } catch (DependenciaNoDisponibleException e) {
+                log.warn("Re-bloqueo no intentado: {}", e.getMessage());
+                catedraNoDisponible = true;
+            }
+            if (reBloqueoResponse != null && Boolean.FALSE.equals(reBloqueoResponse.getResultado())) {
                 throw new BadRequestAlertException(
                     "No se pudo re-bloquear asientos: " + reBloqueoResponse.getDescripcion(),
                     "sesion",
                     "rebloqueofallido"
                 );
             }
+            if (reBloqueoResponse != null) {
+                // Nuevo bloqueo en cátedra: la reserva local vuelve a durar lo mismo que el bloqueo
+                reservaAsientosService.reservar(
+                    evento.getId(),
+                    userId,
+                    asientosSeleccionados.stream().map(asiento -> new AsientoSimpleDTO(asiento.getFila(), asiento.getColumna())).toList()
+                );
+            }
         }
 
-        // 9. Construir request de venta para cátedra usando mapper
+        // Construir request de venta para cátedra usando mapper
         RealizarVentaRequestDTO ventaRequest = ventaCatedraMapper.toRealizarVentaRequest(
             evento,
             precioTotal,
             asientosSeleccionados
         );
 
-        // 10. Realizar venta en servidor de cátedra
+        // 3. Fase local: registrar la venta como PENDIENTE antes de llamar a cátedra
+        Venta ventaPendiente = transactionTemplate.execute(status ->
+            ventaRepository.save(ventaCreationHelper.crearVentaPendiente(sesion.getUsuario(), evento, precioTotal, ventaRequest))
+        );
+
+        // 4. Fase remota: realizar venta en servidor de cátedra
         RealizarVentaResponseDTO ventaResponse;
         try {
+            if (catedraNoDisponible) {
+                throw new DependenciaNoDisponibleException(ResilienciaService.BLOQUEAR, "re-bloqueo no realizado");
+            }
             ventaResponse = catedraClientService.realizarVenta(ventaRequest);
         } catch (Exception e) {
-            // Error de comunicación (timeout, 500, etc.)
-            log.error("Error de comunicación al realizar venta: {}", e.getMessage());
-            // Crear venta con estado PENDIENTE (permite re-intento)
-            Venta ventaPendiente = ventaCreationHelper.crearVentaPendiente(
-                sesion.getUsuario(),
-                evento,
-                precioTotal
-            );
-            ventaRepository.save(ventaPendiente);
+            // Error de comunicación (timeout, 500, etc.): la venta queda PENDIENTE (permite re-intento)
+            log.error("Error de comunicación al realizar venta {}: {}", ventaPendiente.getId(), e.getMessage());
             throw new BadRequestAlertException(
                 "Servidor de cátedra no disponible. Por favor, reintente en unos momentos.",
                 "venta",
                 "catedradown"
             );
         }
-        // 11. Procesar respuesta de venta
+
+        // 5. Fase local: aplicar resultado
         if (Boolean.TRUE.equals(ventaResponse.getResultado())) {
 
             // ===== CASO A: VENTA EXITOSA =====
             log.info("Venta exitosa en cátedra con ID: {}", ventaResponse.getVentaId());
 
-            // Crear Venta entity usando helper
-            Venta venta = ventaCreationHelper.crearVentaExitosa(
-                sesion.getUsuario(),
-                evento,
-                ventaResponse.getVentaId(),
-                precioTotal
-            );
-            venta = ventaRepository.save(venta);
-
-            // Crear AsientoVendido entities
-            List<AsientoVendido> asientosVendidos = new ArrayList<>();
-            for (AsientoVentaResponseDTO asientoResp : ventaResponse.getAsientos()) {
-                AsientoVendido asientoVendido = new AsientoVendido();
-                asientoVendido.setVenta(venta);
-                asientoVendido.setFila(asientoResp.getFila());
-                asientoVendido.setColumna(asientoResp.getColumna());
-                asientoVendido.setNombrePersona(asientoResp.getPersona());
-                asientosVendidos.add(asientoVendido);
+            VentaDTO ventaDTO;
+            try {
+                ventaDTO = transactionTemplate.execute(status -> registrarVentaExitosa(ventaPendiente, ventaResponse, sesion.getId()));
+            } catch (RuntimeException e) {
+                log.error(
+                    "Venta {} realizada en cátedra (ID {}) pero no se pudo registrar localmente; queda PENDIENTE: {}",
+                    ventaPendiente.getId(),
+                    ventaResponse.getVentaId(),
+                    e.getMessage()
+                );
+                throw e;
             }
-            asientoVendidoRepository.saveAll(asientosVendidos);
-
-            // Actualizar sesión a COMPLETADO
-            sesion.setEstado(EstadoSesion.COMPLETADO);
-            sesionRepository.save(sesion);
 
-            // Eliminar de Redis
+            // Eliminar de Redis (los asientos ya están vendidos en cátedra)
             sesionRedisService.eliminarSesion(userId.toString());
-
-            // Eliminar asientos seleccionados
-            asientoSeleccionadoRepository.deleteBySesionId(sesion.getId());
-            log.info("Venta confirmada exitosamente: ID cátedra {}, ID local {}", ventaResponse.getVentaId(), venta.getId());
-
-            // Retornar VentaDTO usando mapper
-            return ventaMapper.toDto(venta);
+            reservaAsientosService.liberar(evento.getId(), userId);
+            log.info("Venta confirmada exitosamente: ID cátedra {}, ID local {}", ventaResponse.getVentaId(), ventaDTO.getId());
+            return ventaDTO;
         } else {
 
             // ===== CASO B: VENTA RECHAZADA POR CÁTEDRA =====
             log.warn("Venta rechazada por cátedra: {}", ventaResponse.getDescripcion());
 
-            // Crear Venta con estado ERROR (permite re-intento)
-            Venta ventaFallida = ventaCreationHelper.crearVentaRechazada(
-                sesion.getUsuario(),
-                evento,
-                precioTotal
+            // Compensación: la venta PENDIENTE pasa a ERROR (permite re-intento)
+            transactionTemplate.executeWithoutResult(status ->
+                ventaRepository.save(ventaCreationHelper.marcarRechazada(ventaPendiente, ventaResponse.getDescripcion()))
             );
-            ventaRepository.save(ventaFallida);
 
             // NO actualizar sesión (mantener CARGA_DATOS para permitir re-intento)
             // NO eliminar de Redis
@@ -665,30 +655,254 @@ public class SesionBusinessService {
             );
         }
     }
+    // ========== FASES LOCALES DE SELECCIÓN Y VENTA ==========
+    /**
+     * Bloquea los asientos en cátedra (fase remota) y registra la selección (transacción corta).
+     */
+    private SesionDTO bloquearYRegistrarSeleccion(Sesion sesion, Evento evento, List<AsientoSimpleDTO> asientos) {
+        // 10. Bloquear en servidor de cátedra
+        BloquearAsientosResponseDTO bloqueoResponse = catedraClientService.bloquearAsientos(
+            evento.getIdCatedra(),
+            asientos
+        );
+        // 11. Validar respuesta de bloqueo
+        if (Boolean.FALSE.equals(bloqueoResponse.getResultado())) {
+            throw new BadRequestAlertException(
+                "No se pudieron bloquear los asientos: " + bloqueoResponse.getDescripcion(),
+                "sesion",
+                "bloqueofallido"
+            );
+        }
+        // Verificar que TODOS los asientos quedaron bloqueados
+        for (AsientoBloqueoResponseDTO asientoResp : bloqueoResponse.getAsientos()) {
+            if (!"Bloqueo exitoso".equalsIgnoreCase(asientoResp.getEstado())) {
+                throw new BadRequestAlertException(
+                    "Asiento no pudo ser bloqueado: fila " + asientoResp.getFila() + ", columna " + asientoResp.getColumna(),
+                    "sesion",
+                    "asientonotbloqueado"
+                );
+            }
+        }
+        // 12-14. Fase local (transacción corta): registrar la selección.
+        // Si falla, la sesión queda como estaba; los bloqueos de cátedra expiran solos.
+        try {
+            return transactionTemplate.execute(status -> registrarSeleccion(sesion.getId(), asientos));
+        } catch (RuntimeException e) {
+            log.warn(
+                "No se pudo registrar la selección de la sesión {} tras bloquear en cátedra (los bloqueos expirarán): {}",
+                sesion.getId(),
+                e.getMessage()
+            );
+            throw e;
+        }
+    }
+    /**
+     * Registra los asientos bloqueados como selección de la sesión y la pasa a CARGA_DATOS.
+     * Re-valida el estado: la sesión pudo cambiar mientras se bloqueaba en cátedra.
+     */
+    private SesionDTO registrarSeleccion(Long sesionId, List<AsientoSimpleDTO> asientos) {
+        Sesion sesion = sesionRepository
+            .findById(sesionId)
+            .orElseThrow(() -> new BadRequestAlertException("Sesión no encontrada", "sesion", "sessionnotfound"));
+        validarEstadoSeleccion(sesion);
+        // Eliminar asientos previos de la sesión (permitir re-selección)
+        asientoSeleccionadoRepository.deleteBySesionId(sesion.getId());
+        // Crear nuevos AsientoSeleccionado
+        List<AsientoSeleccionado> nuevosAsientos = new ArrayList<>();
+        for (AsientoSimpleDTO asiento : asientos) {
+            AsientoSeleccionado nuevoAsiento = new AsientoSeleccionado();
+            nuevoAsiento.setSesion(sesion);
+            nuevoAsiento.setFila(asiento.getFila());
+            nuevoAsiento.setColumna(asiento.getColumna());
+            nuevoAsiento.setNombrePersona(null); // Se asignará después
+            nuevosAsientos.add(nuevoAsiento);
+        }
+        asientoSeleccionadoRepository.saveAll(nuevosAsientos);
+        // Actualizar estado sesión a CARGA_DATOS
+        sesion.setEstado(EstadoSesion.CARGA_DATOS);
+        sesion.setUltimaActividad(Instant.now());
+        return sesionMapper.toDto(sesionRepository.save(sesion));
+    }
+
+    /**
+     * Valida la sesión y sus asientos antes de confirmar la venta.
+     */
+    private PreparacionVenta prepararVenta(Long userId) {
+        Sesion sesion = obtenerSesionActiva(userId);
+
+        // Validar estado
+        if (sesion.getEstado() != EstadoSesion.CARGA_DATOS) {
+            throw new BadRequestAlertException(
+                "Debe asignar nombres a los asientos antes de confirmar",
+                "sesion",
+                "invalidstate"
+            );
+        }
+
+        // Obtener asientos seleccionados desde PostgreSQL
+        List<AsientoSeleccionado> asientosSeleccionados = asientoSeleccionadoRepository.findBySesionId(sesion.getId());
+        if (asientosSeleccionados.isEmpty()) {
+            throw new BadRequestAlertException("No hay asientos seleccionados", "sesion", "noasientos");
+        }
+
+        // Validar que TODOS tienen nombre asignado
+        for (AsientoSeleccionado asiento : asientosSeleccionados) {
+            if (!validarNombreCompleto(asiento.getNombrePersona())) {
+                throw new BadRequestAlertException(
+                    "Asiento sin nombre: fila " + asiento.getFila() + ", columna " + asiento.getColumna(),
+                    "sesion",
+                    "nombrefaltante"
+                );
+            }
+        }
+        return new PreparacionVenta(sesion, asientosSeleccionados);
+    }
+
+    /**
+     * Marca la venta como SINCRONIZADA, crea los AsientoVendido y completa la sesión.
+     */
+    private VentaDTO registrarVentaExitosa(Venta ventaPendiente, RealizarVentaResponseDTO ventaResponse, Long sesionId) {
+        Venta venta = ventaRepository.save(ventaCreationHelper.marcarExitosa(ventaPendiente, ventaResponse.getVentaId()));
+
+        // Crear AsientoVendido entities
+        List<AsientoVendido> asientosVendidos = ventaCreationHelper.crearAsientosVendidos(venta, ventaResponse.getAsientos());
+        asientoVendidoRepository.saveAll(asientosVendidos);
+
+        // Actualizar sesión a COMPLETADO
+        sesionRepository.findById(sesionId).ifPresent(sesion -> {
+            sesion.setEstado(EstadoSesion.COMPLETADO);
+            sesionRepository.save(sesion);
+        });
+
+        // Eliminar asientos seleccionados
+        asientoSeleccionadoRepository.deleteBySesionId(sesionId);
+
+        // Retornar VentaDTO usando mapper
+        return ventaMapper.toDto(venta);
+    }
+
+    /**
+     * Resuelve las ventas PENDIENTE del usuario en el evento antes de registrar una nueva: cada una
+     * se busca en el listado de cátedra (la respuesta original pudo perderse). La que cátedra
+     * registró se sincroniza; las que no llegaron pasan a ERROR, reemplazadas por el nuevo intento.
+     *
+     * @return Venta anterior ya registrada en cátedra, o empty si no había o ninguna llegó
+     * @throws BadRequestAlertException si la reconciliación está re-intentando una venta anterior,
+     *                                  o si cátedra no responde (las ventas siguen PENDIENTE)
+     */
+    private Optional<VentaDTO> resolverVentasPendientes(Sesion sesion, Evento evento) {
+        List<Venta> pendientes = transactionTemplate.execute(status ->
+            ventaRepository.findByUsuarioIdAndEventoIdAndEstadoSincronizacion(
+                sesion.getUsuario().getId(),
+                evento.getId(),
+                EstadoSincronizacion.PENDIENTE
+            )
+        );
+        for (Venta anterior : pendientes) {
+            if (!ventaReconciliacionService.reclamarParaConfirmacion(anterior.getId())) {
+                throw new BadRequestAlertException(
+                    "Una venta anterior se está re-intentando con cátedra. Por favor, espere su resultado.",
+                    "venta",
+                    "ventapendiente"
+                );
+            }
+            // Sin solicitud legible no hay con qué buscarla: se reemplaza, como haría la reconciliación
+            RealizarVentaRequestDTO solicitud = leerSolicitud(anterior);
+            Optional<RealizarVentaResponseDTO> registrada;
+            try {
+                registrada = solicitud == null ? Optional.empty() : ventaReconciliacionService.buscarEnCatedra(anterior.getFechaVenta(), solicitud);
+            } catch (RuntimeException e) {
+                ventaReconciliacionService.liberar(anterior.getId());
+                log.error("No se pudo verificar en cátedra la venta pendiente {}: {}", anterior.getId(), e.getMessage());
+                throw new BadRequestAlertException(
+                    "Servidor de cátedra no disponible. Por favor, reintente en unos momentos.",
+                    "venta",
+                    "catedradown"
+                );
+            }
+            if (registrada.isPresent()) {
+                return Optional.of(transactionTemplate.execute(status -> registrarVentaExitosa(anterior, registrada.get(), sesion.getId())));
+            }
+            log.info("Venta pendiente {} no registrada en cátedra: reemplazada por un nuevo intento", anterior.getId());
+            transactionTemplate.executeWithoutResult(status ->
+                ventaRepository.save(ventaCreationHelper.marcarRechazada(anterior, "Reemplazada por un nuevo intento de confirmación"))
+            );
+        }
+        return Optional.empty();
+    }
+
+    private RealizarVentaRequestDTO leerSolicitud(Venta venta) {
+        try {
+            return ventaCreationHelper.leerSolicitud(venta);
+        } catch (RuntimeException e) {
+            log.error("Solicitud ilegible en la venta pendiente {}: {}", venta.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Sesión y asientos validados en la primera fase de la confirmación
+     */
+    private static final class PreparacionVenta {
+
+        private final Sesion sesion;
+        private final List<AsientoSeleccionado> asientos;
+
+        private PreparacionVenta(Sesion sesion, List<AsientoSeleccionado> asientos) {
+            this.sesion = sesion;
+            this.asientos = asientos;
+        }
+    }
     // ========== MÉTODOS HELPER PRIVADOS ==========
     /**
-     * Busca un asiento en la lista de disponibilidad.
+     * Obtiene la sesión activa del usuario: ID desde Redis, datos completos desde PostgreSQL.
+     *
+     * @param userId ID del usuario
+     * @return Sesión persistida
+     */
+    private Sesion obtenerSesionActiva(Long userId) {
+        Optional<SesionRedisDTO> sesionRedisOpt = sesionRedisService.obtenerSesion(userId.toString());
+        if (sesionRedisOpt.isEmpty()) {
+            throw new BadRequestAlertException("No existe sesión activa", "sesion", "nosession");
+        }
+        return sesionRepository
+            .findById(sesionRedisOpt.get().getSesionId())
+            .orElseThrow(() -> new BadRequestAlertException("Sesión no encontrada", "sesion", "sessionnotfound"));
+    }
+    /**
+     * Valida que el estado de la sesión permite seleccionar asientos.
+     *
+     * @param sesion Sesión
+     */
+    private void validarEstadoSeleccion(Sesion sesion) {
+        if (sesion.getEstado() != EstadoSesion.SELECCION_ASIENTOS && sesion.getEstado() != EstadoSesion.CARGA_DATOS) {
+            throw new BadRequestAlertException(
+                "Estado de sesión no permite selección de asientos",
+                "sesion",
+                "invalidstate"
+            );
+        }
+    }
+    /**
+     * Obtiene el estado de un asiento desde la matriz de disponibilidad.
      *
-     * @param asientos Lista de asientos del evento
+     * @param matriz Matriz compacta de estados del evento
      * @param fila Fila del asiento (1-indexed)
      * @param columna Columna del asiento (1-indexed)
-     * @return DTO del asiento encontrado
+     * @return Estado actual del asiento
      */
-    private AsientoDisponibilidadDTO buscarAsientoEnLista(List<AsientoDisponibilidadDTO> asientos, int fila, int columna) {
-        if (asientos == null || asientos.isEmpty()) {
+    private EstadoAsiento buscarEstadoAsiento(MatrizEstadoAsientos matriz, int fila, int columna) {
+        if (matriz == null) {
             throw new BadRequestAlertException("Lista de asientos no disponible", "sesion", "listanull");
         }
-        for (AsientoDisponibilidadDTO asiento : asientos) {
-            if (asiento.getFila().equals(fila) && asiento.getColumna().equals(columna)) {
-                return asiento;
-            }
+        if (!matriz.enRango(fila, columna)) {
+            throw new BadRequestAlertException(
+                "Asiento no encontrado: fila " + fila + ", columna " + columna,
+                "sesion",
+                "asientonotfound"
+            );
         }
-        // Si no se encuentra, lanzar excepción
-        throw new BadRequestAlertException(
-            "Asiento no encontrado: fila " + fila + ", columna " + columna,
-            "sesion",
-            "asientonotfound"
-        );
+        return matriz.getEstado(fila, columna);
     }
     /**
      * Valida que un nombre cumple con los requisitos mínimos.
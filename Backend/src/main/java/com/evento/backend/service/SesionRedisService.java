@@ -1,13 +1,26 @@
 package com.evento.backend.service;
 
+import com.evento.backend.domain.enumeration.EstadoSesion;
+import com.evento.backend.service.dto.AsientoSimpleDTO;
 import com.evento.backend.service.dto.SesionRedisDTO;
+import com.evento.backend.service.helper.ScriptLua;
 import com.evento.backend.config.ApplicationProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.redisson.api.RBucket;
+import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.JsonJacksonCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 /**
@@ -16,6 +29,15 @@ import java.util.concurrent.TimeUnit;
  * Las sesiones se almacenan con TTL de 30 minutos y expiran automáticamente.
  * Pattern de keys: "sesion:usuario:{userId}"
  *
+ * Cada sesión es un hash de Redis con un campo por dato (sesionId, eventoId, userId, estado,
+ * asientos, nombres), de modo que cada paso de la compra escribe solo los campos que cambia
+ * y el keep-alive es un único PEXPIRE. La expiración y la última actividad no se guardan:
+ * se derivan del TTL de la key. Lecturas y escrituras son un script Lua (un round trip, atómico)
+ * invocado por SHA.
+ *
+ * Las sesiones guardadas con el formato anterior (objeto completo en un bucket) se migran
+ * al hash la primera vez que se leen, conservando su TTL.
+ *
  * Responsabilidades:
  * - CRUD de sesiones en Redis
  * - Gestión de TTL (Time To Live)
@@ -26,15 +48,72 @@ public class SesionRedisService {
 
     private static final Logger LOG = LoggerFactory.getLogger(SesionRedisService.class);
 
+    // Campos del hash
+    static final String CAMPO_SESION_ID = "sesionId";
+    static final String CAMPO_EVENTO_ID = "eventoId";
+    static final String CAMPO_USER_ID = "userId";
+    static final String CAMPO_ESTADO = "estado";
+    static final String CAMPO_ASIENTOS = "asientos";
+    static final String CAMPO_NOMBRES = "nombres";
+
+    private static final String SESION_LEGADA = "legado";
+
+    /**
+     * Lee el hash y su TTL: {pttl, campo1, valor1, ...}; {} si no existe; {"legado"} si la key
+     * tiene el formato anterior.
+     */
+    private static final String SCRIPT_LEER =
+        "local tipo = redis.call('type', KEYS[1]).ok " +
+        "if tipo == 'none' then return {} end " +
+        "if tipo ~= 'hash' then return {'" + SESION_LEGADA + "'} end " +
+        "local resultado = redis.call('hgetall', KEYS[1]) " +
+        "table.insert(resultado, 1, tostring(redis.call('pttl', KEYS[1]))) " +
+        "return resultado";
+
+    /**
+     * Reemplaza la sesión completa. ARGV: ttlMs, campo1, valor1, ...
+     */
+    private static final String SCRIPT_GUARDAR =
+        "redis.call('del', KEYS[1]) " +
+        "redis.call('hset', KEYS[1], unpack(ARGV, 2)) " +
+        "redis.call('pexpire', KEYS[1], ARGV[1]) " +
+        "return 1";
+
+    /**
+     * Actualiza campos de una sesión existente y extiende su TTL.
+     * ARGV: ttlMs, cantidad de campos a borrar, campos a borrar..., campo1, valor1, ...
+     * Devuelve 0 (sin escribir) si la sesión no existe o tiene el formato anterior.
+     */
+    private static final String SCRIPT_ACTUALIZAR =
+        "if redis.call('type', KEYS[1]).ok ~= 'hash' then return 0 end " +
+        "local borrar = tonumber(ARGV[2]) " +
+        "for i = 3, 2 + borrar do redis.call('hdel', KEYS[1], ARGV[i]) end " +
+        "if #ARGV > 2 + borrar then redis.call('hset', KEYS[1], unpack(ARGV, 3 + borrar)) end " +
+        "redis.call('pexpire', KEYS[1], ARGV[1]) " +
+        "return 1";
+
+    private static final ScriptLua LEER = new ScriptLua(SCRIPT_LEER);
+    private static final ScriptLua GUARDAR = new ScriptLua(SCRIPT_GUARDAR);
+    private static final ScriptLua ACTUALIZAR = new ScriptLua(SCRIPT_ACTUALIZAR);
+
+    private static final TypeReference<List<AsientoSimpleDTO>> TIPO_ASIENTOS = new TypeReference<>() {};
+    private static final TypeReference<Map<String, String>> TIPO_NOMBRES = new TypeReference<>() {};
+
     private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
     private final ApplicationProperties.Sesion sesionProperties;
+    // Codec con el que se guardaban las sesiones antes de pasar a hash (independiente del codec del cliente)
+    private final Codec codecLegado;
 
     public SesionRedisService(
         RedissonClient redissonClient,
+        ObjectMapper objectMapper,
         ApplicationProperties applicationProperties
     ) {
         this.redissonClient = redissonClient;
+        this.objectMapper = objectMapper;
         this.sesionProperties = applicationProperties.getSesion();
+        this.codecLegado = new JsonJacksonCodec(objectMapper);
     }
 
     /**
@@ -58,17 +137,24 @@ public class SesionRedisService {
         LOG.debug("Obteniendo sesión desde Redis: key={}", key);
 
         try {
-            RBucket<SesionRedisDTO> bucket = redissonClient.getBucket(key);
-            SesionRedisDTO sesion = bucket.get();
+            List<Object> resultado = ejecutar(LEER, key);
 
-            if (sesion != null) {
-                LOG.debug("Sesión encontrada para usuario {}: eventoId={}, estado={}",
-                    userId, sesion.getEventoId(), sesion.getEstado());
-                return Optional.of(sesion);
-            } else {
+            if (resultado.size() == 1 && SESION_LEGADA.equals(resultado.get(0))) {
+                return migrarSesionLegada(userId, key);
+            }
+            if (resultado.size() < 3) {
                 LOG.debug("No existe sesión para usuario {}", userId);
                 return Optional.empty();
             }
+
+            Map<String, String> campos = new LinkedHashMap<>();
+            for (int i = 1; i + 1 < resultado.size(); i += 2) {
+                campos.put((String) resultado.get(i), (String) resultado.get(i + 1));
+            }
+            SesionRedisDTO sesion = desdeCampos(campos, Long.parseLong((String) resultado.get(0)));
+            LOG.debug("Sesión encontrada para usuario {}: eventoId={}, estado={}",
+                userId, sesion.getEventoId(), sesion.getEstado());
+            return Optional.of(sesion);
         } catch (Exception e) {
             LOG.error("Error al obtener sesión de Redis para usuario {}: {}", userId, e.getMessage());
             return Optional.empty();
@@ -76,28 +162,37 @@ public class SesionRedisService {
     }
 
     /**
-     * Guarda o actualiza una sesión en Redis con TTL.
+     * Guarda o reemplaza la sesión completa en Redis con TTL.
+     * Para cambios de un paso de la compra usar {@link #actualizarSeleccion} o {@link #actualizarNombres}.
      *
      * @param userId Username del usuario
      * @param sesion Datos de la sesión a guardar
      */
     public void guardarSesion(String userId, SesionRedisDTO sesion) {
-        String key = generarKey(userId);
         long ttlSegundos = sesionProperties.getTtlSegundos();
+        guardarSesion(userId, sesion, ttlSegundos * 1000);
+        LOG.info("Sesión guardada para usuario {}: eventoId={}, estado={}, expira en {}s",
+            userId, sesion.getEventoId(), sesion.getEstado(), ttlSegundos);
+    }
 
-        LOG.debug("Guardando sesión en Redis: key={}, ttl={}s", key, ttlSegundos);
+    private void guardarSesion(String userId, SesionRedisDTO sesion, long ttlMs) {
+        String key = generarKey(userId);
+        LOG.debug("Guardando sesión en Redis: key={}, ttl={}ms", key, ttlMs);
 
         try {
             // Actualizar campos de control
+            Instant ahora = Instant.now();
             sesion.setUserId(userId);
-            sesion.setUltimaActividad(Instant.now());
-            sesion.setExpiracion(Instant.now().plusSeconds(ttlSegundos));
-
-            RBucket<SesionRedisDTO> bucket = redissonClient.getBucket(key);
-            bucket.set(sesion, ttlSegundos, TimeUnit.SECONDS);
+            sesion.setUltimaActividad(ahora);
+            sesion.setExpiracion(ahora.plusMillis(ttlMs));
 
-            LOG.info("Sesión guardada para usuario {}: eventoId={}, estado={}, expira en {}s",
-                userId, sesion.getEventoId(), sesion.getEstado(), ttlSegundos);
+            List<Object> argumentos = new ArrayList<>();
+            argumentos.add(String.valueOf(ttlMs));
+            aCampos(sesion).forEach((campo, valor) -> {
+                argumentos.add(campo);
+                argumentos.add(valor);
+            });
+            ejecutar(GUARDAR, key, argumentos.toArray());
         } catch (Exception e) {
             LOG.error("Error al guardar sesión en Redis para usuario {}: {}", userId, e.getMessage(), e);
             throw new RuntimeException("Error al guardar sesión en Redis", e);
@@ -105,26 +200,74 @@ public class SesionRedisService {
     }
 
     /**
-     * Actualiza el timestamp de última actividad y extiende el TTL a 30 minutos.
+     * Registra una nueva selección de asientos: actualiza estado y asientos, descarta los nombres
+     * asignados a la selección anterior y extiende el TTL.
      *
      * @param userId Username del usuario
-     * @return true si se actualizó, false si no existe sesión
+     * @param estado Estado de la sesión tras la selección
+     * @param asientos Asientos seleccionados
+     * @return true si se actualizó, false si no existe sesión (el llamador debe guardarla completa)
      */
-    public boolean actualizarActividad(String userId) {
-        Optional<SesionRedisDTO> sesionOpt = obtenerSesion(userId);
+    public boolean actualizarSeleccion(String userId, EstadoSesion estado, List<AsientoSimpleDTO> asientos) {
+        Map<String, String> campos = new LinkedHashMap<>();
+        campos.put(CAMPO_ESTADO, estado.name());
+        campos.put(CAMPO_ASIENTOS, json(asientos));
+        return actualizarCampos(userId, List.of(CAMPO_NOMBRES), campos);
+    }
 
-        if (sesionOpt.isEmpty()) {
-            LOG.debug("No se puede actualizar actividad: no existe sesión para usuario {}", userId);
-            return false;
+    /**
+     * Registra los nombres asignados a los asientos y extiende el TTL.
+     *
+     * @param userId Username del usuario
+     * @param nombresAsignados Nombres por asiento (key: "fila-columna")
+     * @return true si se actualizó, false si no existe sesión (el llamador debe guardarla completa)
+     */
+    public boolean actualizarNombres(String userId, Map<String, String> nombresAsignados) {
+        return actualizarCampos(userId, List.of(), Map.of(CAMPO_NOMBRES, json(nombresAsignados)));
+    }
+
+    private boolean actualizarCampos(String userId, List<String> borrar, Map<String, String> campos) {
+        String key = generarKey(userId);
+        LOG.debug("Actualizando campos {} de la sesión: key={}", campos.keySet(), key);
+
+        try {
+            List<Object> argumentos = new ArrayList<>();
+            argumentos.add(String.valueOf(sesionProperties.getTtlSegundos() * 1000));
+            argumentos.add(String.valueOf(borrar.size()));
+            argumentos.addAll(borrar);
+            campos.forEach((campo, valor) -> {
+                argumentos.add(campo);
+                argumentos.add(valor);
+            });
+            List<Object> resultado = ejecutar(ACTUALIZAR, key, argumentos.toArray());
+            return !resultado.isEmpty() && Long.valueOf(1).equals(resultado.get(0));
+        } catch (Exception e) {
+            LOG.error("Error al actualizar sesión en Redis para usuario {}: {}", userId, e.getMessage(), e);
+            throw new RuntimeException("Error al guardar sesión en Redis", e);
         }
+    }
 
-        SesionRedisDTO sesion = sesionOpt.get();
+    /**
+     * Extiende el TTL de la sesión (keep-alive). Es un único PEXPIRE: la última actividad
+     * se deriva del TTL.
+     *
+     * @param userId Username del usuario
+     * @return true si se actualizó, false si no existe sesión
+     */
+    public boolean actualizarActividad(String userId) {
+        String key = generarKey(userId);
         LOG.debug("Actualizando actividad para usuario {}", userId);
 
-        // guardarSesion() ya actualiza ultimaActividad y expiracion, y resetea TTL
-        guardarSesion(userId, sesion);
-
-        return true;
+        try {
+            boolean actualizada = redissonClient.getKeys().expire(key, sesionProperties.getTtlSegundos(), TimeUnit.SECONDS);
+            if (!actualizada) {
+                LOG.debug("No se puede actualizar actividad: no existe sesión para usuario {}", userId);
+            }
+            return actualizada;
+        } catch (Exception e) {
+            LOG.error("Error al actualizar actividad en Redis para usuario {}: {}", userId, e.getMessage());
+            return false;
+        }
     }
 
     /**
@@ -138,8 +281,7 @@ public class SesionRedisService {
         LOG.debug("Eliminando sesión de Redis: key={}", key);
 
         try {
-            RBucket<SesionRedisDTO> bucket = redissonClient.getBucket(key);
-            boolean deleted = bucket.delete();
+            boolean deleted = redissonClient.getKeys().delete(key) > 0;
 
             if (deleted) {
                 LOG.info("✓ Sesión eliminada para usuario {}", userId);
@@ -164,8 +306,7 @@ public class SesionRedisService {
         String key = generarKey(userId);
 
         try {
-            RBucket<SesionRedisDTO> bucket = redissonClient.getBucket(key);
-            boolean existe = bucket.isExists();
+            boolean existe = redissonClient.getKeys().countExists(key) > 0;
 
             LOG.debug("Verificando existencia de sesión para usuario {}: {}", userId, existe);
             return existe;
@@ -185,14 +326,13 @@ public class SesionRedisService {
         String key = generarKey(userId);
 
         try {
-            RBucket<SesionRedisDTO> bucket = redissonClient.getBucket(key);
+            long ttlMs = redissonClient.getKeys().remainTimeToLive(key);
 
-            if (!bucket.isExists()) {
+            if (ttlMs < 0) {
                 LOG.debug("No existe sesión para calcular tiempo restante: usuario={}", userId);
                 return 0;
             }
 
-            long ttlMs = bucket.remainTimeToLive();
             long ttlSegundos = ttlMs / 1000;
 
             LOG.debug("Tiempo restante para sesión de usuario {}: {}s", userId, ttlSegundos);
@@ -202,4 +342,90 @@ public class SesionRedisService {
             return 0;
         }
     }
+
+    // ========== FORMATO DEL HASH ==========
+
+    /**
+     * Convierte la sesión en los campos del hash (los nulos se omiten).
+     */
+    Map<String, String> aCampos(SesionRedisDTO sesion) {
+        Map<String, String> campos = new LinkedHashMap<>();
+        if (sesion.getSesionId() != null) {
+            campos.put(CAMPO_SESION_ID, sesion.getSesionId().toString());
+        }
+        if (sesion.getEventoId() != null) {
+            campos.put(CAMPO_EVENTO_ID, sesion.getEventoId().toString());
+        }
+        campos.put(CAMPO_USER_ID, sesion.getUserId());
+        if (sesion.getEstado() != null) {
+            campos.put(CAMPO_ESTADO, sesion.getEstado().name());
+        }
+        if (sesion.getAsientosSeleccionados() != null && !sesion.getAsientosSeleccionados().isEmpty()) {
+            campos.put(CAMPO_ASIENTOS, json(sesion.getAsientosSeleccionados()));
+        }
+        if (sesion.getNombresAsignados() != null && !sesion.getNombresAsignados().isEmpty()) {
+            campos.put(CAMPO_NOMBRES, json(sesion.getNombresAsignados()));
+        }
+        return campos;
+    }
+
+    /**
+     * Reconstruye la sesión desde los campos del hash y el TTL restante de la key.
+     */
+    SesionRedisDTO desdeCampos(Map<String, String> campos, long ttlRestanteMs) {
+        SesionRedisDTO sesion = new SesionRedisDTO();
+        String sesionId = campos.get(CAMPO_SESION_ID);
+        sesion.setSesionId(sesionId != null ? Long.valueOf(sesionId) : null);
+        String eventoId = campos.get(CAMPO_EVENTO_ID);
+        sesion.setEventoId(eventoId != null ? Long.valueOf(eventoId) : null);
+        sesion.setUserId(campos.get(CAMPO_USER_ID));
+        String estado = campos.get(CAMPO_ESTADO);
+        sesion.setEstado(estado != null ? EstadoSesion.valueOf(estado) : null);
+        try {
+            if (campos.containsKey(CAMPO_ASIENTOS)) {
+                sesion.setAsientosSeleccionados(objectMapper.readValue(campos.get(CAMPO_ASIENTOS), TIPO_ASIENTOS));
+            }
+            if (campos.containsKey(CAMPO_NOMBRES)) {
+                sesion.setNombresAsignados(objectMapper.readValue(campos.get(CAMPO_NOMBRES), TIPO_NOMBRES));
+            }
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error leyendo sesión de Redis", e);
+        }
+        Instant expiracion = Instant.now().plusMillis(Math.max(0, ttlRestanteMs));
+        sesion.setExpiracion(expiracion);
+        sesion.setUltimaActividad(expiracion.minusSeconds(sesionProperties.getTtlSegundos()));
+        return sesion;
+    }
+
+    /**
+     * Migra una sesión guardada como objeto completo (formato anterior) al hash, conservando su TTL.
+     */
+    private Optional<SesionRedisDTO> migrarSesionLegada(String userId, String key) {
+        RBucket<SesionRedisDTO> bucket = redissonClient.getBucket(key, codecLegado);
+        SesionRedisDTO sesion = bucket.get();
+        long ttlMs = bucket.remainTimeToLive();
+        if (sesion == null || ttlMs == -2) {
+            return Optional.empty();
+        }
+        guardarSesion(userId, sesion, ttlMs > 0 ? ttlMs : sesionProperties.getTtlSegundos() * 1000);
+        LOG.info("Sesión de usuario {} migrada a hash", userId);
+        return Optional.of(sesion);
+    }
+
+    private String json(Object valor) {
+        try {
+            return objectMapper.writeValueAsString(valor);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializando sesión", e);
+        }
+    }
+
+    private List<Object> ejecutar(ScriptLua script, String key, Object... argumentos) {
+        Object resultado = script.ejecutar(redissonClient, RScript.ReturnType.MULTI, List.of(key), argumentos);
+        if (resultado instanceof List<?> lista) {
+            return new ArrayList<>(lista);
+        }
+        return resultado != null ? List.of(resultado) : List.of();
+    }
+
 }
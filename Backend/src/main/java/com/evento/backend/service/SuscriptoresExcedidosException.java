@@ -0,0 +1,13 @@
+package com.evento.backend.service;
+
+/**
+ * Se alcanzó el máximo de suscriptores SSE de disponibilidad en este nodo
+ */
+public class SuscriptoresExcedidosException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SuscriptoresExcedidosException(int maximo) {
+        super("Máximo de suscriptores alcanzado: " + maximo);
+    }
+}
@@ -0,0 +1,415 @@
+package com.evento.backend.service;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.domain.Venta;
+import com.evento.backend.domain.enumeration.EstadoAsiento;
+import com.evento.backend.domain.enumeration.EstadoSincronizacion;
+import com.evento.backend.repository.AsientoVendidoRepository;
+import com.evento.backend.repository.VentaRepository;
+import com.evento.backend.service.dto.AsientoSimpleDTO;
+import com.evento.backend.service.dto.AsientoVentaDTO;
+import com.evento.backend.service.dto.AsientoVentaResponseDTO;
+import com.evento.backend.service.dto.BloquearAsientosResponseDTO;
+import com.evento.backend.service.dto.RealizarVentaRequestDTO;
+import com.evento.backend.service.dto.RealizarVentaResponseDTO;
+import com.evento.backend.service.dto.VentaResumenCatedraDTO;
+import com.evento.backend.service.helper.MatrizEstadoAsientos;
+import com.evento.backend.service.helper.VentaCreationHelper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reconciliación de ventas PENDIENTE: ventas registradas antes de llamar a cátedra que no
+ * recibieron respuesta (timeout, 500, connection refused).
+ *
+ * En cada ronda el nodo reclama un lote de ventas cuyo próximo intento venció (UPDATE atómico
+ * por fila: con varios nodos cada venta la procesa uno solo; si el nodo cae el reclamo vence) y
+ * las re-intenta en un pool acotado, para no saturar a cátedra cuando se recupera. Por venta:
+ * <ol>
+ *   <li>Si cátedra ya registró la venta (la respuesta original se perdió) se sincroniza sin re-enviarla.</li>
+ *   <li>Si algún asiento ya fue vendido la venta pasa a ERROR; los asientos cuyo bloqueo expiró se re-bloquean.</li>
+ *   <li>Se re-envía la solicitud guardada: SINCRONIZADA (con sus asientos vendidos) o ERROR si cátedra la rechaza.</li>
+ *   <li>Si cátedra sigue sin responder se programa otro intento con backoff exponencial y jitter,
+ *       hasta {@code maxIntentos}; luego la venta pasa a ERROR.</li>
+ * </ol>
+ */
+@Service
+public class VentaReconciliacionService {
+
+    private static final Logger log = LoggerFactory.getLogger(VentaReconciliacionService.class);
+
+    public static final String RECONCILIACION_METER_NAME = "ventas.reconciliacion";
+    public static final String PENDIENTES_METER_NAME = "ventas.reconciliacion.pendientes";
+
+    // Diferencia tolerada entre el reloj local y el de cátedra al buscar la venta en su listado
+    private static final Duration MARGEN_RELOJ = Duration.ofMinutes(1);
+
+    private final VentaRepository ventaRepository;
+    private final AsientoVendidoRepository asientoVendidoRepository;
+    private final CatedraClientService catedraClientService;
+    private final AsientosDisponibilidadService asientosDisponibilidadService;
+    private final VentaCreationHelper ventaCreationHelper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationProperties.Reconciliacion reconciliacionProperties;
+
+    private final ExecutorService reintentos;
+    private final AtomicLong pendientes = new AtomicLong();
+
+    private final Counter sincronizadasCounter;
+    private final Counter erroresCounter;
+    private final Counter reintentosCounter;
+
+    public VentaReconciliacionService(
+        VentaRepository ventaRepository,
+        AsientoVendidoRepository asientoVendidoRepository,
+        CatedraClientService catedraClientService,
+        AsientosDisponibilidadService asientosDisponibilidadService,
+        VentaCreationHelper ventaCreationHelper,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.ventaRepository = ventaRepository;
+        this.asientoVendidoRepository = asientoVendidoRepository;
+        this.catedraClientService = catedraClientService;
+        this.asientosDisponibilidadService = asientosDisponibilidadService;
+        this.ventaCreationHelper = ventaCreationHelper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconciliacionProperties = applicationProperties.getReconciliacion();
+        this.reintentos = Executors.newFixedThreadPool(
+            Math.max(1, reconciliacionProperties.getConcurrencia()),
+            new CustomizableThreadFactory("reconciliacion-venta-")
+        );
+        Gauge.builder(PENDIENTES_METER_NAME, pendientes, AtomicLong::get)
+            .description("Ventas PENDIENTE al inicio de la última ronda de reconciliación")
+            .register(meterRegistry);
+        this.sincronizadasCounter = reconciliaciones("sincronizada", meterRegistry);
+        this.erroresCounter = reconciliaciones("error", meterRegistry);
+        this.reintentosCounter = reconciliaciones("reintento", meterRegistry);
+    }
+
+    private Counter reconciliaciones(String resultado, MeterRegistry meterRegistry) {
+        return Counter.builder(RECONCILIACION_METER_NAME)
+            .description("Re-intentos de ventas PENDIENTE por resultado")
+            .tag("resultado", resultado)
+            .register(meterRegistry);
+    }
+
+    @Scheduled(
+        initialDelayString = "${application.reconciliacion.intervalo-ms:30000}",
+        fixedDelayString = "${application.reconciliacion.intervalo-ms:30000}"
+    )
+    public void reconciliar() {
+        if (!Boolean.TRUE.equals(reconciliacionProperties.getHabilitada())) {
+            return;
+        }
+        try {
+            int procesadas = ejecutarRonda();
+            if (procesadas > 0) {
+                log.info("Reconciliación: {} ventas pendientes re-intentadas", procesadas);
+            }
+        } catch (RuntimeException e) {
+            log.error("Error en la ronda de reconciliación de ventas: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        reintentos.shutdownNow();
+    }
+
+    /**
+     * Reclama un lote de ventas pendientes y las re-intenta.
+     *
+     * @return Cantidad de ventas reclamadas por este nodo
+     */
+    int ejecutarRonda() {
+        pendientes.set(ventaRepository.countByEstadoSincronizacion(EstadoSincronizacion.PENDIENTE));
+        Instant ahora = Instant.now();
+        List<VentaAReintentar> reclamadas = transactionTemplate.execute(status -> reclamar(ahora));
+        if (reclamadas == null || reclamadas.isEmpty()) {
+            return 0;
+        }
+
+        List<Callable<Void>> tareas = new ArrayList<>();
+        for (VentaAReintentar venta : reclamadas) {
+            tareas.add(() -> {
+                reintentar(venta);
+                return null;
+            });
+        }
+        try {
+            reintentos.invokeAll(tareas);
+        } catch (InterruptedException e) {
+            // Las ventas no procesadas se retoman cuando vence su reclamo
+            Thread.currentThread().interrupt();
+        }
+        return reclamadas.size();
+    }
+
+    private List<VentaAReintentar> reclamar(Instant ahora) {
+        Instant hasta = ahora.plusMillis(reconciliacionProperties.getReclamoMs());
+        List<Long> ids = ventaRepository.findIdsReconciliables(
+            EstadoSincronizacion.PENDIENTE,
+            ahora,
+            PageRequest.of(0, reconciliacionProperties.getLote())
+        );
+        List<VentaAReintentar> reclamadas = new ArrayList<>();
+        for (Long id : ids) {
+            if (ventaRepository.reclamar(id, EstadoSincronizacion.PENDIENTE, ahora, hasta) == 0) {
+                continue; // La reclamó otro nodo o dejó de estar pendiente
+            }
+            ventaRepository.findById(id).ifPresent(venta -> reclamadas.add(new VentaAReintentar(venta, leerSolicitud(venta))));
+        }
+        return reclamadas;
+    }
+
+    private RealizarVentaRequestDTO leerSolicitud(Venta venta) {
+        try {
+            return ventaCreationHelper.leerSolicitud(venta);
+        } catch (RuntimeException e) {
+            log.error("Solicitud ilegible en la venta pendiente {}: {}", venta.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void reintentar(VentaAReintentar venta) {
+        Resultado resultado;
+        try {
+            resultado = procesar(venta);
+        } catch (RuntimeException e) {
+            log.warn("Re-intento {} de la venta {} falló: {}", venta.intentos + 1, venta.ventaId, e.getMessage());
+            resultado = Resultado.reintentar(e.getMessage());
+        }
+        Resultado aplicado = resultado;
+        try {
+            transactionTemplate.executeWithoutResult(status -> aplicar(venta.ventaId, aplicado));
+        } catch (RuntimeException e) {
+            // El reclamo vence y otra ronda la retoma (si cátedra ya la registró, se encuentra en su listado)
+            log.error("No se pudo registrar el resultado de la venta {}: {}", venta.ventaId, e.getMessage());
+        }
+    }
+
+    private Resultado procesar(VentaAReintentar venta) {
+        RealizarVentaRequestDTO solicitud = venta.solicitud;
+        if (solicitud == null || solicitud.getAsientos() == null || solicitud.getAsientos().isEmpty()) {
+            return Resultado.rechazada("Venta pendiente sin solicitud guardada: no se puede re-intentar");
+        }
+
+        // 1. La venta pudo concretarse en cátedra aunque la respuesta no llegó
+        Optional<RealizarVentaResponseDTO> registrada = buscarEnCatedra(venta.fechaVenta, solicitud);
+        if (registrada.isPresent()) {
+            log.info("Venta {} ya registrada en cátedra con ID {}", venta.ventaId, registrada.get().getVentaId());
+            return Resultado.exitosa(registrada.get());
+        }
+
+        // 2. Asientos vendidos a otro comprador, o bloqueos expirados
+        MatrizEstadoAsientos matriz = asientosDisponibilidadService.obtenerMatrizEstado(venta.eventoId);
+        List<AsientoSimpleDTO> asientosParaReBloquear = new ArrayList<>();
+        for (AsientoVentaDTO asiento : solicitud.getAsientos()) {
+            if (!matriz.enRango(asiento.getFila(), asiento.getColumna())) {
+                return Resultado.rechazada("Asiento no encontrado: fila " + asiento.getFila() + ", columna " + asiento.getColumna());
+            }
+            EstadoAsiento estado = matriz.getEstado(asiento.getFila(), asiento.getColumna());
+            if (estado == EstadoAsiento.VENDIDO) {
+                return Resultado.rechazada("Asiento ya vendido: fila " + asiento.getFila() + ", columna " + asiento.getColumna());
+            }
+            if (estado == EstadoAsiento.DISPONIBLE) {
+                asientosParaReBloquear.add(new AsientoSimpleDTO(asiento.getFila(), asiento.getColumna()));
+            }
+        }
+        if (!asientosParaReBloquear.isEmpty()) {
+            BloquearAsientosResponseDTO reBloqueo = catedraClientService.bloquearAsientos(solicitud.getEventoId(), asientosParaReBloquear);
+            if (!Boolean.TRUE.equals(reBloqueo.getResultado())) {
+                return Resultado.rechazada("No se pudo re-bloquear asientos: " + reBloqueo.getDescripcion());
+            }
+        }
+
+        // 3. Re-enviar la venta
+        RealizarVentaResponseDTO respuesta = catedraClientService.realizarVenta(solicitud);
+        if (Boolean.TRUE.equals(respuesta.getResultado())) {
+            return Resultado.exitosa(respuesta);
+        }
+        return Resultado.rechazada(respuesta.getDescripcion());
+    }
+
+    /**
+     * Reclama una venta PENDIENTE para que la resuelva un nuevo intento de confirmación del usuario
+     * (sin esperar su próximo intento). Falla si la reconciliación la tiene reclamada.
+     *
+     * @return true si se reclamó
+     */
+    public boolean reclamarParaConfirmacion(Long ventaId) {
+        Instant ahora = Instant.now();
+        Instant hasta = ahora.plusMillis(reconciliacionProperties.getReclamoMs());
+        return Boolean.TRUE.equals(
+            transactionTemplate.execute(status -> ventaRepository.reclamarPendiente(ventaId, EstadoSincronizacion.PENDIENTE, ahora, hasta) == 1)
+        );
+    }
+
+    /**
+     * Libera el reclamo de una venta que sigue PENDIENTE; la reconciliación la retoma en su próximo intento.
+     */
+    public void liberar(Long ventaId) {
+        transactionTemplate.executeWithoutResult(status ->
+            ventaRepository.findById(ventaId)
+                .filter(venta -> venta.getEstadoSincronizacion() == EstadoSincronizacion.PENDIENTE)
+                .ifPresent(venta -> {
+                    venta.setReclamadaHasta(null);
+                    ventaRepository.save(venta);
+                })
+        );
+    }
+
+    /**
+     * Busca en el listado de cátedra una venta exitosa del mismo evento, posterior al registro
+     * local, no asociada a otra venta local y con los mismos asientos y personas.
+     *
+     * @param fechaVenta Fecha del registro local de la venta PENDIENTE
+     * @param solicitud Solicitud enviada a cátedra
+     * @return Detalle de la venta en cátedra, o empty si no llegó a registrarse
+     * @throws RuntimeException si cátedra no responde
+     */
+    public Optional<RealizarVentaResponseDTO> buscarEnCatedra(Instant fechaVenta, RealizarVentaRequestDTO solicitud) {
+        Instant desde = fechaVenta.minus(MARGEN_RELOJ);
+        for (VentaResumenCatedraDTO resumen : catedraClientService.listarVentas()) {
+            if (
+                !Boolean.TRUE.equals(resumen.getResultado()) ||
+                !Objects.equals(resumen.getEventoId(), solicitud.getEventoId()) ||
+                !Objects.equals(resumen.getCantidadAsientos(), solicitud.getAsientos().size()) ||
+                resumen.getFechaVenta() == null ||
+                resumen.getFechaVenta().isBefore(desde) ||
+                ventaRepository.existsByIdVentaCatedra(resumen.getVentaId())
+            ) {
+                continue;
+            }
+            RealizarVentaResponseDTO detalle = catedraClientService.obtenerVenta(resumen.getVentaId());
+            if (mismosAsientos(solicitud, detalle)) {
+                if (detalle.getVentaId() == null) {
+                    detalle.setVentaId(resumen.getVentaId());
+                }
+                return Optional.of(detalle);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean mismosAsientos(RealizarVentaRequestDTO solicitud, RealizarVentaResponseDTO detalle) {
+        if (detalle.getAsientos() == null) {
+            return false;
+        }
+        Set<String> solicitados = new HashSet<>();
+        for (AsientoVentaDTO asiento : solicitud.getAsientos()) {
+            solicitados.add(asiento.getFila() + ":" + asiento.getColumna() + ":" + asiento.getPersona());
+        }
+        Set<String> vendidos = new HashSet<>();
+        for (AsientoVentaResponseDTO asiento : detalle.getAsientos()) {
+            vendidos.add(asiento.getFila() + ":" + asiento.getColumna() + ":" + asiento.getPersona());
+        }
+        return solicitados.equals(vendidos);
+    }
+
+    /**
+     * Aplica el resultado sobre la venta recargada. Una venta exitosa en cátedra se registra aunque
+     * localmente haya sido reemplazada (es una venta real); el resto solo si sigue PENDIENTE.
+     */
+    private void aplicar(Long ventaId, Resultado resultado) {
+        Venta venta = ventaRepository.findById(ventaId).orElse(null);
+        if (venta == null || venta.getEstadoSincronizacion() == EstadoSincronizacion.SINCRONIZADA) {
+            return;
+        }
+        if (resultado.respuesta != null) {
+            Venta sincronizada = ventaRepository.save(ventaCreationHelper.marcarExitosa(venta, resultado.respuesta.getVentaId()));
+            asientoVendidoRepository.saveAll(ventaCreationHelper.crearAsientosVendidos(sincronizada, resultado.respuesta.getAsientos()));
+            sincronizadasCounter.increment();
+            log.info("Venta {} sincronizada con cátedra (ID {})", ventaId, resultado.respuesta.getVentaId());
+            return;
+        }
+        if (venta.getEstadoSincronizacion() != EstadoSincronizacion.PENDIENTE) {
+            return;
+        }
+        if (!resultado.reintentar) {
+            ventaRepository.save(ventaCreationHelper.marcarRechazada(venta, resultado.motivo));
+            erroresCounter.increment();
+            log.warn("Venta {} pasa a ERROR: {}", ventaId, resultado.motivo);
+        } else if (venta.getIntentos() + 1 >= reconciliacionProperties.getMaxIntentos()) {
+            ventaRepository.save(ventaCreationHelper.marcarRechazada(venta, "Re-intentos agotados: " + resultado.motivo));
+            erroresCounter.increment();
+            log.warn("Venta {} pasa a ERROR tras {} re-intentos", ventaId, venta.getIntentos() + 1);
+        } else {
+            Venta programada = ventaRepository.save(ventaCreationHelper.programarReintento(venta, Instant.now()));
+            reintentosCounter.increment();
+            log.debug("Venta {}: próximo re-intento {}", ventaId, programada.getProximoIntento());
+        }
+    }
+
+    /**
+     * Datos de una venta reclamada, leídos en la transacción del reclamo
+     */
+    private static final class VentaAReintentar {
+
+        private final Long ventaId;
+        private final Long eventoId;
+        private final Instant fechaVenta;
+        private final int intentos;
+        private final RealizarVentaRequestDTO solicitud;
+
+        private VentaAReintentar(Venta venta, RealizarVentaRequestDTO solicitud) {
+            this.ventaId = venta.getId();
+            this.eventoId = venta.getEvento().getId();
+            this.fechaVenta = venta.getFechaVenta();
+            this.intentos = venta.getIntentos();
+            this.solicitud = solicitud;
+        }
+    }
+
+    /**
+     * Resultado de un re-intento: venta confirmada por cátedra, rechazada o a re-intentar
+     */
+    private static final class Resultado {
+
+        private final RealizarVentaResponseDTO respuesta;
+        private final String motivo;
+        private final boolean reintentar;
+
+        private Resultado(RealizarVentaResponseDTO respuesta, String motivo, boolean reintentar) {
+            this.respuesta = respuesta;
+            this.motivo = motivo;
+            this.reintentar = reintentar;
+        }
+
+        private static Resultado exitosa(RealizarVentaResponseDTO respuesta) {
+            return new Resultado(respuesta, null, false);
+        }
+
+        private static Resultado rechazada(String motivo) {
+            return new Resultado(null, motivo, false);
+        }
+
+        private static Resultado reintentar(String motivo) {
+            return new Resultado(null, motivo, true);
+        }
+    }
+}
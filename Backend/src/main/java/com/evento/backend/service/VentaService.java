@@ -52,8 +52,16 @@ public class VentaService {
     public VentaDTO update(VentaDTO ventaDTO) {
         LOG.debug("Request to update Venta : {}", ventaDTO);
         Venta venta = ventaMapper.toEntity(ventaDTO);
-        venta = ventaRepository.save(venta);
-        return ventaMapper.toDto(venta);
+        // Las columnas de reconciliación no vienen en el DTO: se conservan las guardadas
+        ventaRepository
+            .findById(ventaDTO.getId())
+            .ifPresent(actual -> {
+                venta.setSolicitudCatedra(actual.getSolicitudCatedra());
+                venta.setIntentos(actual.getIntentos());
+                venta.setProximoIntento(actual.getProximoIntento());
+                venta.setReclamadaHasta(actual.getReclamadaHasta());
+            });
+        return ventaMapper.toDto(ventaRepository.save(venta));
     }
 
     /**
@@ -0,0 +1,137 @@
+package com.evento.backend.service.dto;
+
+import com.evento.backend.domain.enumeration.EstadoConfirmacion;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Ticket de una confirmación de venta asíncrona (POST /api/compra/confirmar-async).
+ *
+ * Se guarda en Redis con TTL mientras el worker confirma la venta; el cliente lo consulta
+ * por polling o stream hasta que llega a SINCRONIZADA (con ventaId) o ERROR (con error y mensaje).
+ */
+public class ConfirmacionVentaDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String ticket;
+
+    private Long userId;
+
+    private EstadoConfirmacion estado;
+
+    private Long ventaId;
+
+    private String error; // errorKey de la excepción (ej: "ventarechazada", "catedradown")
+
+    private String mensaje;
+
+    private Instant creada;
+
+    private Instant actualizada;
+
+    public ConfirmacionVentaDTO() {}
+
+    public ConfirmacionVentaDTO(String ticket, Long userId, Instant creada) {
+        this.ticket = ticket;
+        this.userId = userId;
+        this.estado = EstadoConfirmacion.EN_COLA;
+        this.creada = creada;
+        this.actualizada = creada;
+    }
+
+    public ConfirmacionVentaDTO(ConfirmacionVentaDTO otra) {
+        this.ticket = otra.ticket;
+        this.userId = otra.userId;
+        this.estado = otra.estado;
+        this.ventaId = otra.ventaId;
+        this.error = otra.error;
+        this.mensaje = otra.mensaje;
+        this.creada = otra.creada;
+        this.actualizada = otra.actualizada;
+    }
+
+    /**
+     * La confirmación ya no va a cambiar de estado
+     */
+    @JsonIgnore
+    public boolean isFinalizada() {
+        return estado == EstadoConfirmacion.SINCRONIZADA || estado == EstadoConfirmacion.ERROR;
+    }
+
+    public String getTicket() {
+        return ticket;
+    }
+
+    public void setTicket(String ticket) {
+        this.ticket = ticket;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public EstadoConfirmacion getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoConfirmacion estado) {
+        this.estado = estado;
+    }
+
+    public Long getVentaId() {
+        return ventaId;
+    }
+
+    public void setVentaId(Long ventaId) {
+        this.ventaId = ventaId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+
+    public Instant getCreada() {
+        return creada;
+    }
+
+    public void setCreada(Instant creada) {
+        this.creada = creada;
+    }
+
+    public Instant getActualizada() {
+        return actualizada;
+    }
+
+    public void setActualizada(Instant actualizada) {
+        this.actualizada = actualizada;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfirmacionVentaDTO{" +
+            "ticket='" + ticket + '\'' +
+            ", userId=" + userId +
+            ", estado=" + estado +
+            ", ventaId=" + ventaId +
+            ", error='" + error + '\'' +
+            '}';
+    }
+}
@@ -0,0 +1,85 @@
+package com.evento.backend.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * Contadores de disponibilidad de un evento (sin lista de asientos), para listados
+ */
+public class DisponibilidadResumenDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+    /**
+     * ID local del evento en BD Backend
+     */
+    private Long eventoId;
+    /**
+     * ID del evento en servidor de cátedra
+     */
+    private Long eventoIdCatedra;
+    /**
+     * Cantidad total de asientos (filas * columnas)
+     */
+    private Integer totalAsientos;
+    /**
+     * Cantidad de asientos disponibles
+     */
+    private Integer disponibles;
+    /**
+     * Cantidad de asientos bloqueados (no expirados)
+     */
+    private Integer bloqueados;
+    /**
+     * Cantidad de asientos vendidos
+     */
+    private Integer vendidos;
+    // Constructor vacío
+    public DisponibilidadResumenDTO() {
+    }
+    // Getters and Setters
+    public Long getEventoId() {
+        return eventoId;
+    }
+    public void setEventoId(Long eventoId) {
+        this.eventoId = eventoId;
+    }
+    public Long getEventoIdCatedra() {
+        return eventoIdCatedra;
+    }
+    public void setEventoIdCatedra(Long eventoIdCatedra) {
+        this.eventoIdCatedra = eventoIdCatedra;
+    }
+    public Integer getTotalAsientos() {
+        return totalAsientos;
+    }
+    public void setTotalAsientos(Integer totalAsientos) {
+        this.totalAsientos = totalAsientos;
+    }
+    public Integer getDisponibles() {
+        return disponibles;
+    }
+    public void setDisponibles(Integer disponibles) {
+        this.disponibles = disponibles;
+    }
+    public Integer getBloqueados() {
+        return bloqueados;
+    }
+    public void setBloqueados(Integer bloqueados) {
+        this.bloqueados = bloqueados;
+    }
+    public Integer getVendidos() {
+        return vendidos;
+    }
+    public void setVendidos(Integer vendidos) {
+        this.vendidos = vendidos;
+    }
+    @Override
+    public String toString() {
+        return "DisponibilidadResumenDTO{" +
+            "eventoId=" + eventoId +
+            ", eventoIdCatedra=" + eventoIdCatedra +
+            ", totalAsientos=" + totalAsientos +
+            ", disponibles=" + disponibles +
+            ", bloqueados=" + bloqueados +
+            ", vendidos=" + vendidos +
+            '}';
+    }
+}
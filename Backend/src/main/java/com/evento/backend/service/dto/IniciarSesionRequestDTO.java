@@ -16,6 +16,9 @@ public class IniciarSesionRequestDTO implements Serializable {
     @Min(value = 1, message = "El ID del evento debe ser mayor a 0")
     private Long eventoId;
 
+    // Token de admisión de la sala de espera (solo eventos con sala de espera)
+    private String tokenAdmision;
+
     // Constructor vacío
     public IniciarSesionRequestDTO() {
     }
@@ -34,6 +37,14 @@ public class IniciarSesionRequestDTO implements Serializable {
         this.eventoId = eventoId;
     }
 
+    public String getTokenAdmision() {
+        return tokenAdmision;
+    }
+
+    public void setTokenAdmision(String tokenAdmision) {
+        this.tokenAdmision = tokenAdmision;
+    }
+
     @Override
     public String toString() {
         return "IniciarSesionRequestDTO{" +
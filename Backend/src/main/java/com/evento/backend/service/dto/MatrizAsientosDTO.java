@@ -49,6 +49,14 @@ public class MatrizAsientosDTO {
      * Timestamp de cuando se consultó esta información
      */
     private Instant consultadoEn;
+    /**
+     * Versión de la disponibilidad del evento (usar como sinceVersion en la próxima consulta)
+     */
+    private Long version;
+    /**
+     * true si asientos es el snapshot completo; false si solo contiene los cambios desde sinceVersion
+     */
+    private Boolean completo;
     // Constructor vacío
     public MatrizAsientosDTO() {
     }
@@ -119,6 +127,18 @@ public class MatrizAsientosDTO {
     public void setConsultadoEn(Instant consultadoEn) {
         this.consultadoEn = consultadoEn;
     }
+    public Long getVersion() {
+        return version;
+    }
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    public Boolean getCompleto() {
+        return completo;
+    }
+    public void setCompleto(Boolean completo) {
+        this.completo = completo;
+    }
     @Override
     public String toString() {
         return "MatrizAsientosDTO{" +
@@ -133,6 +153,8 @@ public class MatrizAsientosDTO {
             ", vendidos=" + vendidos +
             ", cantidadAsientos=" + (asientos != null ? asientos.size() : 0) +
             ", consultadoEn=" + consultadoEn +
+            ", version=" + version +
+            ", completo=" + completo +
             '}';
     }
 }
@@ -0,0 +1,116 @@
+package com.evento.backend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registro en Redis de un request con {@code Idempotency-Key}.
+ *
+ * Mientras el primer request se ejecuta queda EN_CURSO; al terminar guarda la respuesta
+ * (status, headers y body JSON) o el error de negocio, que se devuelven tal cual a los re-intentos.
+ */
+public class RespuestaIdempotenteDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Estado {
+        EN_CURSO,
+        COMPLETADA,
+    }
+
+    private Estado estado;
+
+    private String huella; // SHA-256 del body del request: la misma key con otro body es un error
+
+    private Integer status;
+
+    private Map<String, List<String>> headers = new HashMap<>();
+
+    private String body;
+
+    // Error de negocio (BadRequestAlertException) de la primera ejecución
+    private String errorTitulo;
+
+    private String errorEntidad;
+
+    private String errorKey;
+
+    public RespuestaIdempotenteDTO() {}
+
+    public RespuestaIdempotenteDTO(Estado estado, String huella) {
+        this.estado = estado;
+        this.huella = huella;
+    }
+
+    @JsonIgnore
+    public boolean isError() {
+        return errorKey != null;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public void setEstado(Estado estado) {
+        this.estado = estado;
+    }
+
+    public String getHuella() {
+        return huella;
+    }
+
+    public void setHuella(String huella) {
+        this.huella = huella;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(Map<String, List<String>> headers) {
+        this.headers = headers;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public String getErrorTitulo() {
+        return errorTitulo;
+    }
+
+    public void setErrorTitulo(String errorTitulo) {
+        this.errorTitulo = errorTitulo;
+    }
+
+    public String getErrorEntidad() {
+        return errorEntidad;
+    }
+
+    public void setErrorEntidad(String errorEntidad) {
+        this.errorEntidad = errorEntidad;
+    }
+
+    public String getErrorKey() {
+        return errorKey;
+    }
+
+    public void setErrorKey(String errorKey) {
+        this.errorKey = errorKey;
+    }
+}
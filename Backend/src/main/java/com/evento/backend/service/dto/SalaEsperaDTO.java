@@ -0,0 +1,121 @@
+package com.evento.backend.service.dto;
+
+import com.evento.backend.domain.enumeration.EstadoAdmision;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Estado de un usuario en la sala de espera de un evento (POST /api/compra/sala-espera/{eventoId}).
+ *
+ * Mientras está ESPERANDO el cliente vuelve a consultar cada {@code consultarEnMs}; al quedar
+ * ADMITIDO recibe el token que debe enviar en POST /api/compra/iniciar antes de {@code tokenVence}.
+ */
+public class SalaEsperaDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long eventoId;
+
+    private EstadoAdmision estado;
+
+    private Long posicion; // 1 = siguiente en ser admitido
+
+    private Long enCola;
+
+    private Long esperaEstimadaSegundos;
+
+    private Long consultarEnMs;
+
+    private String token;
+
+    private Instant tokenVence;
+
+    public SalaEsperaDTO() {}
+
+    public SalaEsperaDTO(Long eventoId, EstadoAdmision estado) {
+        this.eventoId = eventoId;
+        this.estado = estado;
+    }
+
+    public Long getEventoId() {
+        return eventoId;
+    }
+
+    public void setEventoId(Long eventoId) {
+        this.eventoId = eventoId;
+    }
+
+    public EstadoAdmision getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoAdmision estado) {
+        this.estado = estado;
+    }
+
+    public Long getPosicion() {
+        return posicion;
+    }
+
+    public void setPosicion(Long posicion) {
+        this.posicion = posicion;
+    }
+
+    public Long getEnCola() {
+        return enCola;
+    }
+
+    public void setEnCola(Long enCola) {
+        this.enCola = enCola;
+    }
+
+    public Long getEsperaEstimadaSegundos() {
+        return esperaEstimadaSegundos;
+    }
+
+    public void setEsperaEstimadaSegundos(Long esperaEstimadaSegundos) {
+        this.esperaEstimadaSegundos = esperaEstimadaSegundos;
+    }
+
+    public Long getConsultarEnMs() {
+        return consultarEnMs;
+    }
+
+    public void setConsultarEnMs(Long consultarEnMs) {
+        this.consultarEnMs = consultarEnMs;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public Instant getTokenVence() {
+        return tokenVence;
+    }
+
+    public void setTokenVence(Instant tokenVence) {
+        this.tokenVence = tokenVence;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "SalaEsperaDTO{" +
+            "eventoId=" +
+            eventoId +
+            ", estado=" +
+            estado +
+            ", posicion=" +
+            posicion +
+            ", enCola=" +
+            enCola +
+            ", tokenVence=" +
+            tokenVence +
+            "}"
+        );
+    }
+}
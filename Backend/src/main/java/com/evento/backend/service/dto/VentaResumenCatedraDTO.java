@@ -0,0 +1,75 @@
+package com.evento.backend.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+/**
+ * DTO de una venta en el listado del servidor de cátedra.
+ * Elemento de la respuesta de GET /api/endpoints/v1/listar-ventas
+ */
+public class VentaResumenCatedraDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private Long eventoId;
+    private Long ventaId;
+    private Instant fechaVenta;
+    private Boolean resultado;
+    private String descripcion;
+    private BigDecimal precioVenta;
+    private Integer cantidadAsientos;
+
+    // Constructores
+    public VentaResumenCatedraDTO() {}
+    // Getters y Setters
+    public Long getEventoId() {
+        return eventoId;
+    }
+    public void setEventoId(Long eventoId) {
+        this.eventoId = eventoId;
+    }
+    public Long getVentaId() {
+        return ventaId;
+    }
+    public void setVentaId(Long ventaId) {
+        this.ventaId = ventaId;
+    }
+    public Instant getFechaVenta() {
+        return fechaVenta;
+    }
+    public void setFechaVenta(Instant fechaVenta) {
+        this.fechaVenta = fechaVenta;
+    }
+    public Boolean getResultado() {
+        return resultado;
+    }
+    public void setResultado(Boolean resultado) {
+        this.resultado = resultado;
+    }
+    public String getDescripcion() {
+        return descripcion;
+    }
+    public void setDescripcion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+    public BigDecimal getPrecioVenta() {
+        return precioVenta;
+    }
+    public void setPrecioVenta(BigDecimal precioVenta) {
+        this.precioVenta = precioVenta;
+    }
+    public Integer getCantidadAsientos() {
+        return cantidadAsientos;
+    }
+    public void setCantidadAsientos(Integer cantidadAsientos) {
+        this.cantidadAsientos = cantidadAsientos;
+    }
+    @Override
+    public String toString() {
+        return "VentaResumenCatedraDTO{" +
+            "eventoId=" + eventoId +
+            ", ventaId=" + ventaId +
+            ", fechaVenta=" + fechaVenta +
+            ", resultado=" + resultado +
+            ", cantidadAsientos=" + cantidadAsientos +
+            '}';
+    }
+}
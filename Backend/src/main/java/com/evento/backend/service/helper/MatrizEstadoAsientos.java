@@ -0,0 +1,283 @@
+package com.evento.backend.service.helper;
+
+import com.evento.backend.domain.enumeration.EstadoAsiento;
+import com.evento.backend.service.dto.AsientoDisponibilidadDTO;
+import com.evento.backend.service.dto.RedisAsientoDTO;
+import com.evento.backend.service.dto.RedisResponseDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Matriz compacta con el estado de todos los asientos de un evento.
+ *
+ * Cada asiento ocupa 2 bits dentro de un arreglo de {@code long} (32 asientos por palabra),
+ * indexado como {@code (fila - 1) * columnas + (columna - 1)}.
+ * Solo los asientos BLOQUEADOS/VENDIDOS guardan datos extra en tablas laterales
+ * (expiración del bloqueo y nombre de la persona).
+ *
+ * La lista de {@link AsientoDisponibilidadDTO} se construye únicamente cuando se llama a
+ * {@link #toAsientosDTO()}; las validaciones internas consultan la matriz directamente.
+ *
+ * Una vez construida no se modifica, por lo que puede compartirse entre requests
+ * (ver DisponibilidadVersionService); {@link #aplicar} no es thread-safe.
+ */
+public class MatrizEstadoAsientos {
+
+    private static final Logger log = LoggerFactory.getLogger(MatrizEstadoAsientos.class);
+
+    private static final int BITS_POR_ASIENTO = 2;
+    private static final int ASIENTOS_POR_PALABRA = Long.SIZE / BITS_POR_ASIENTO;
+    private static final long MASCARA = 0b11L;
+
+    // Códigos de estado (el orden coincide con EstadoAsiento)
+    private static final int DISPONIBLE = 0;
+    private static final int BLOQUEADO = 1;
+    private static final int VENDIDO = 2;
+    private static final EstadoAsiento[] ESTADOS = EstadoAsiento.values();
+
+    private final int filas;
+    private final int columnas;
+    private final long[] estados;
+
+    // Tablas laterales: solo contienen asientos bloqueados / vendidos
+    private final Map<Integer, Instant> expiraciones = new HashMap<>();
+    private final Map<Integer, String> nombres = new HashMap<>();
+
+    private int bloqueados;
+    private int vendidos;
+
+    public MatrizEstadoAsientos(int filas, int columnas) {
+        if (filas < 0 || columnas < 0) {
+            throw new IllegalArgumentException("Dimensiones inválidas: " + filas + "x" + columnas);
+        }
+        this.filas = filas;
+        this.columnas = columnas;
+        int total = filas * columnas;
+        this.estados = new long[(total + ASIENTOS_POR_PALABRA - 1) / ASIENTOS_POR_PALABRA];
+    }
+
+    /**
+     * Construye la matriz a partir de la respuesta de Redis cátedra.
+     *
+     * @param filas Cantidad de filas del evento
+     * @param columnas Cantidad de columnas del evento
+     * @param redisData Datos de Redis (puede ser null si no hay asientos ocupados)
+     * @param ahora Instante de referencia para descartar bloqueos expirados
+     * @return Matriz con los estados aplicados
+     */
+    public static MatrizEstadoAsientos desde(int filas, int columnas, RedisResponseDTO redisData, Instant ahora) {
+        MatrizEstadoAsientos matriz = new MatrizEstadoAsientos(filas, columnas);
+        if (redisData != null && redisData.getAsientos() != null) {
+            for (RedisAsientoDTO redisAsiento : redisData.getAsientos()) {
+                matriz.aplicar(redisAsiento, ahora);
+            }
+        }
+        return matriz;
+    }
+
+    /**
+     * Aplica un asiento informado por Redis cátedra.
+     *
+     * - "Bloqueado" con expiración futura → BLOQUEADO
+     * - "Bloqueado" expirado o sin expiración → se mantiene DISPONIBLE
+     * - "Vendido" → VENDIDO
+     * - Coordenadas fuera de rango → se ignora
+     *
+     * @param redisAsiento Asiento de Redis
+     * @param ahora Instante de referencia para validar expiración
+     */
+    public void aplicar(RedisAsientoDTO redisAsiento, Instant ahora) {
+        Integer fila = redisAsiento.getFila();
+        Integer columna = redisAsiento.getColumna();
+        if (!enRango(fila, columna)) {
+            log.warn("Asiento en Redis fuera de rango: fila={}, columna={}", fila, columna);
+            return;
+        }
+        int indice = indice(fila, columna);
+        String estado = redisAsiento.getEstado();
+        if ("Bloqueado".equalsIgnoreCase(estado)) {
+            Instant expira = redisAsiento.getExpira();
+            if (expira != null && expira.isAfter(ahora)) {
+                marcar(indice, BLOQUEADO);
+                expiraciones.put(indice, expira);
+            } else {
+                log.trace("Asiento ({},{}) bloqueo EXPIRADO - disponible", fila, columna);
+            }
+        } else if ("Vendido".equalsIgnoreCase(estado)) {
+            marcar(indice, VENDIDO);
+            if (redisAsiento.getNombrePersona() != null) {
+                nombres.put(indice, redisAsiento.getNombrePersona());
+            }
+        }
+    }
+
+    /**
+     * Estado de un asiento (coordenadas 1-based).
+     *
+     * @throws IndexOutOfBoundsException si las coordenadas están fuera de rango
+     */
+    public EstadoAsiento getEstado(int fila, int columna) {
+        if (!enRango(fila, columna)) {
+            throw new IndexOutOfBoundsException("Asiento fuera de rango: fila " + fila + ", columna " + columna);
+        }
+        return ESTADOS[leer(indice(fila, columna))];
+    }
+
+    public Instant getExpira(int fila, int columna) {
+        return enRango(fila, columna) ? expiraciones.get(indice(fila, columna)) : null;
+    }
+
+    public String getNombrePersona(int fila, int columna) {
+        return enRango(fila, columna) ? nombres.get(indice(fila, columna)) : null;
+    }
+
+    public boolean enRango(Integer fila, Integer columna) {
+        return fila != null && columna != null && fila >= 1 && fila <= filas && columna >= 1 && columna <= columnas;
+    }
+
+    /**
+     * Materializa la forma expandida: un DTO por asiento, recorriendo fila por fila.
+     *
+     * @return Lista de filas * columnas asientos
+     */
+    public List<AsientoDisponibilidadDTO> toAsientosDTO() {
+        List<AsientoDisponibilidadDTO> asientos = new ArrayList<>(getTotalAsientos());
+        for (int indice = 0; indice < getTotalAsientos(); indice++) {
+            asientos.add(toAsientoDTO(indice));
+        }
+        return asientos;
+    }
+
+    /**
+     * Materializa solo los asientos indicados (por índice lineal), en orden fila por fila.
+     *
+     * @param indices Índices de asientos a incluir
+     * @return Lista con un DTO por índice
+     */
+    public List<AsientoDisponibilidadDTO> toAsientosDTO(BitSet indices) {
+        List<AsientoDisponibilidadDTO> asientos = new ArrayList<>(indices.cardinality());
+        for (int indice = indices.nextSetBit(0); indice >= 0 && indice < getTotalAsientos(); indice = indices.nextSetBit(indice + 1)) {
+            asientos.add(toAsientoDTO(indice));
+        }
+        return asientos;
+    }
+
+    /**
+     * Calcula los asientos cuyo estado, expiración o nombre difieren respecto de otra matriz.
+     * Si las dimensiones no coinciden (o no hay matriz anterior) se consideran todos modificados.
+     *
+     * @param anterior Matriz anterior del mismo evento
+     * @return Índices lineales de los asientos modificados
+     */
+    public BitSet diferencias(MatrizEstadoAsientos anterior) {
+        BitSet cambios = new BitSet(getTotalAsientos());
+        if (anterior == null || anterior.filas != filas || anterior.columnas != columnas) {
+            cambios.set(0, getTotalAsientos());
+            return cambios;
+        }
+        // Comparar 32 asientos por vez; solo se recorren las palabras con diferencias
+        for (int palabra = 0; palabra < estados.length; palabra++) {
+            long diferencia = estados[palabra] ^ anterior.estados[palabra];
+            while (diferencia != 0) {
+                int posicion = Long.numberOfTrailingZeros(diferencia) / BITS_POR_ASIENTO;
+                cambios.set(palabra * ASIENTOS_POR_PALABRA + posicion);
+                diferencia &= ~(MASCARA << (posicion * BITS_POR_ASIENTO));
+            }
+        }
+        // Mismo estado pero distinta expiración o nombre
+        agregarDiferencias(expiraciones, anterior.expiraciones, cambios);
+        agregarDiferencias(nombres, anterior.nombres, cambios);
+        return cambios;
+    }
+
+    public int getFilas() {
+        return filas;
+    }
+
+    public int getColumnas() {
+        return columnas;
+    }
+
+    public int getTotalAsientos() {
+        return filas * columnas;
+    }
+
+    public int getDisponibles() {
+        return getTotalAsientos() - bloqueados - vendidos;
+    }
+
+    public int getBloqueados() {
+        return bloqueados;
+    }
+
+    public int getVendidos() {
+        return vendidos;
+    }
+
+    // ========== MANEJO DE BITS ==========
+
+    private AsientoDisponibilidadDTO toAsientoDTO(int indice) {
+        int codigo = leer(indice);
+        AsientoDisponibilidadDTO asiento = new AsientoDisponibilidadDTO(indice / columnas + 1, indice % columnas + 1, ESTADOS[codigo]);
+        if (codigo == BLOQUEADO) {
+            asiento.setExpira(expiraciones.get(indice));
+        } else if (codigo == VENDIDO) {
+            asiento.setNombrePersona(nombres.get(indice));
+        }
+        return asiento;
+    }
+
+    private static <T> void agregarDiferencias(Map<Integer, T> actual, Map<Integer, T> anterior, BitSet cambios) {
+        actual.forEach((indice, valor) -> {
+            if (!valor.equals(anterior.get(indice))) {
+                cambios.set(indice);
+            }
+        });
+        anterior.keySet().forEach(indice -> {
+            if (!actual.containsKey(indice)) {
+                cambios.set(indice);
+            }
+        });
+    }
+
+    private int indice(int fila, int columna) {
+        return (fila - 1) * columnas + (columna - 1);
+    }
+
+    private int leer(int indice) {
+        int desplazamiento = (indice % ASIENTOS_POR_PALABRA) * BITS_POR_ASIENTO;
+        return (int) ((estados[indice / ASIENTOS_POR_PALABRA] >>> desplazamiento) & MASCARA);
+    }
+
+    /**
+     * Cambia el estado de un asiento manteniendo los contadores y las tablas laterales consistentes
+     * (un asiento repetido en Redis no se cuenta dos veces).
+     */
+    private void marcar(int indice, int codigo) {
+        int anterior = leer(indice);
+        if (anterior == codigo) {
+            return;
+        }
+        if (anterior == BLOQUEADO) {
+            bloqueados--;
+            expiraciones.remove(indice);
+        } else if (anterior == VENDIDO) {
+            vendidos--;
+            nombres.remove(indice);
+        }
+        if (codigo == BLOQUEADO) {
+            bloqueados++;
+        } else if (codigo == VENDIDO) {
+            vendidos++;
+        }
+        int palabra = indice / ASIENTOS_POR_PALABRA;
+        int desplazamiento = (indice % ASIENTOS_POR_PALABRA) * BITS_POR_ASIENTO;
+        estados[palabra] = (estados[palabra] & ~(MASCARA << desplazamiento)) | ((long) codigo << desplazamiento);
+    }
+}
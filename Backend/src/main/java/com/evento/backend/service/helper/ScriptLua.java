@@ -0,0 +1,54 @@
+package com.evento.backend.service.helper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+
+/**
+ * Script Lua de Redis invocado por SHA (EVALSHA): por la red viaja solo el hash y los argumentos.
+ * Si Redis no tiene el script en cache (reinicio, SCRIPT FLUSH, failover) se envía completo con EVAL,
+ * que además lo vuelve a cachear. Keys y argumentos viajan como strings (StringCodec).
+ */
+public final class ScriptLua {
+
+    private final String script;
+    private final String sha;
+
+    public ScriptLua(String script) {
+        this.script = script;
+        this.sha = sha1(script);
+    }
+
+    /**
+     * @param redissonClient Cliente Redisson
+     * @param tipo Tipo de retorno del script
+     * @param keys Keys (KEYS[1..n])
+     * @param argumentos Argumentos (ARGV[1..n])
+     * @return Resultado del script
+     */
+    public <R> R ejecutar(RedissonClient redissonClient, RScript.ReturnType tipo, List<Object> keys, Object... argumentos) {
+        RScript rScript = redissonClient.getScript(StringCodec.INSTANCE);
+        try {
+            return rScript.evalSha(RScript.Mode.READ_WRITE, sha, tipo, keys, argumentos);
+        } catch (RedisException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("NOSCRIPT")) {
+                throw e;
+            }
+            return rScript.eval(RScript.Mode.READ_WRITE, script, tipo, keys, argumentos);
+        }
+    }
+
+    private static String sha1(String script) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
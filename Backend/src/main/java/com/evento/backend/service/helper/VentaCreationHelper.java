@@ -1,12 +1,22 @@
 package com.evento.backend.service.helper;
 
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.domain.AsientoVendido;
 import com.evento.backend.domain.Evento;
 import com.evento.backend.domain.User;
 import com.evento.backend.domain.Venta;
 import com.evento.backend.domain.enumeration.EstadoSincronizacion;
+import com.evento.backend.service.dto.AsientoVentaResponseDTO;
+import com.evento.backend.service.dto.RealizarVentaRequestDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Helper para creación de entidades Venta con diferentes estados de sincronización.
@@ -15,18 +25,28 @@ import java.time.Instant;
 @Service
 public class VentaCreationHelper {
 
+    private final ObjectMapper objectMapper;
+    private final ApplicationProperties.Reconciliacion reconciliacionProperties;
+
+    public VentaCreationHelper(ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
+        this.objectMapper = objectMapper;
+        this.reconciliacionProperties = applicationProperties.getReconciliacion();
+    }
+
     /**
      * Crea venta con estado PENDIENTE.
      * 
-     * Usado cuando el servidor de cátedra no responde (timeout, 500, connection refused).
-     * La venta queda marcada como pendiente para re-intento posterior.
+     * Se registra antes de llamar a cátedra: si el servidor no responde (timeout, 500,
+     * connection refused) la venta queda pendiente y la reconciliación la re-intenta
+     * con la misma solicitud, a partir de {@code retrasoInicialMs}.
      * 
      * @param usuario Usuario que realiza la compra
      * @param evento Evento de la venta
      * @param precioTotal Precio total calculado
+     * @param solicitud Request enviado a cátedra (se guarda para re-intentarlo)
      * @return Venta con estado PENDIENTE (no exitosa)
      */
-    public Venta crearVentaPendiente(User usuario, Evento evento, BigDecimal precioTotal) {
+    public Venta crearVentaPendiente(User usuario, Evento evento, BigDecimal precioTotal, RealizarVentaRequestDTO solicitud) {
         Venta venta = new Venta();
         venta.setUsuario(usuario);
         venta.setEvento(evento);
@@ -35,54 +55,120 @@ public class VentaCreationHelper {
         venta.setPrecioTotal(precioTotal);
         venta.setExitosa(false);
         venta.setEstadoSincronizacion(EstadoSincronizacion.PENDIENTE);
+        venta.setSolicitudCatedra(serializar(solicitud));
+        venta.setIntentos(0);
+        venta.setProximoIntento(venta.getFechaVenta().plusMillis(reconciliacionProperties.getRetrasoInicialMs()));
         return venta;
     }
 
     /**
-     * Crea venta con estado SINCRONIZADO (exitosa).
-     * 
+     * Lee la solicitud a cátedra guardada en una venta PENDIENTE.
+     *
+     * @return Solicitud, o null si la venta no la tiene (registrada antes de guardarse)
+     */
+    public RealizarVentaRequestDTO leerSolicitud(Venta venta) {
+        if (venta.getSolicitudCatedra() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(venta.getSolicitudCatedra(), RealizarVentaRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error leyendo solicitud de la venta " + venta.getId(), e);
+        }
+    }
+
+    /**
+     * Registra un re-intento fallido de una venta PENDIENTE y programa el siguiente con
+     * backoff exponencial: base * 2^(intentos-1), hasta el máximo, con jitter (entre la mitad
+     * y el total de la espera) para que las ventas no se re-intenten todas a la vez.
+     *
+     * @return la misma venta, actualizada
+     */
+    public Venta programarReintento(Venta venta, Instant ahora) {
+        int intentos = venta.getIntentos() + 1;
+        long espera = Math.min(
+            reconciliacionProperties.getBackoffMaxMs(),
+            reconciliacionProperties.getBackoffBaseMs() << Math.min(intentos - 1, 20)
+        );
+        long conJitter = espera / 2 + ThreadLocalRandom.current().nextLong(espera / 2 + 1);
+        venta.setIntentos(intentos);
+        venta.setProximoIntento(ahora.plus(Duration.ofMillis(conJitter)));
+        venta.setReclamadaHasta(null);
+        return venta;
+    }
+
+    /**
+     * Crea los AsientoVendido de una venta confirmada por cátedra.
+     *
+     * @param venta Venta SINCRONIZADA
+     * @param asientos Asientos informados por cátedra en la respuesta de la venta
+     * @return Asientos vendidos (sin persistir)
+     */
+    public List<AsientoVendido> crearAsientosVendidos(Venta venta, List<AsientoVentaResponseDTO> asientos) {
+        List<AsientoVendido> asientosVendidos = new ArrayList<>();
+        if (asientos == null) {
+            return asientosVendidos;
+        }
+        for (AsientoVentaResponseDTO asientoResp : asientos) {
+            AsientoVendido asientoVendido = new AsientoVendido();
+            asientoVendido.setVenta(venta);
+            asientoVendido.setFila(asientoResp.getFila());
+            asientoVendido.setColumna(asientoResp.getColumna());
+            asientoVendido.setNombrePersona(asientoResp.getPersona());
+            asientosVendidos.add(asientoVendido);
+        }
+        return asientosVendidos;
+    }
+
+    /**
+     * Marca una venta PENDIENTE como SINCRONIZADA (exitosa).
+     *
      * Usado cuando cátedra confirma la venta exitosamente (resultado: true).
-     * 
-     * @param usuario Usuario que realiza la compra
-     * @param evento Evento de la venta
+     *
+     * @param venta Venta registrada como pendiente antes de llamar a cátedra
      * @param idVentaCatedra ID de venta asignado por servidor de cátedra
-     * @param precioTotal Precio total calculado
-     * @return Venta con estado SINCRONIZADO (exitosa)
+     * @return la misma venta, actualizada
      */
-    public Venta crearVentaExitosa(User usuario, Evento evento, Long idVentaCatedra, BigDecimal precioTotal) {
-        Venta venta = new Venta();
-        venta.setUsuario(usuario);
-        venta.setEvento(evento);
+    public Venta marcarExitosa(Venta venta, Long idVentaCatedra) {
         venta.setIdVentaCatedra(idVentaCatedra);
-        venta.setFechaVenta(Instant.now());
-        venta.setPrecioTotal(precioTotal);
         venta.setExitosa(true);
         venta.setEstadoSincronizacion(EstadoSincronizacion.SINCRONIZADA);
+        venta.setReclamadaHasta(null);
         return venta;
     }
 
     /**
-     * Crea venta con estado ERROR (rechazada).
-     * 
+     * Marca una venta PENDIENTE como ERROR (rechazada). Es la transición compensatoria
+     * de la venta registrada antes de llamar a cátedra.
+     *
      * Usado cuando cátedra rechaza la venta por razones de negocio:
      * - Asientos ya vendidos
      * - Evento no disponible
      * - Validación de negocio fallida
-     * 
-     * @param usuario Usuario que realiza la compra
-     * @param evento Evento de la venta
-     * @param precioTotal Precio total calculado
-     * @return Venta con estado ERROR (no exitosa)
+     *
+     * @param venta Venta registrada como pendiente antes de llamar a cátedra
+     * @param descripcion Motivo informado por cátedra
+     * @return la misma venta, actualizada
      */
-    public Venta crearVentaRechazada(User usuario, Evento evento, BigDecimal precioTotal) {
-        Venta venta = new Venta();
-        venta.setUsuario(usuario);
-        venta.setEvento(evento);
+    public Venta marcarRechazada(Venta venta, String descripcion) {
         venta.setIdVentaCatedra(null); // Sin ID porque fue rechazada
-        venta.setFechaVenta(Instant.now());
-        venta.setPrecioTotal(precioTotal);
         venta.setExitosa(false);
         venta.setEstadoSincronizacion(EstadoSincronizacion.ERROR);
+        venta.setReclamadaHasta(null);
+        if (descripcion != null) {
+            venta.setDescripcion(descripcion.length() > 500 ? descripcion.substring(0, 500) : descripcion);
+        }
         return venta;
     }
+
+    private String serializar(RealizarVentaRequestDTO solicitud) {
+        if (solicitud == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(solicitud);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializando solicitud de venta", e);
+        }
+    }
 }
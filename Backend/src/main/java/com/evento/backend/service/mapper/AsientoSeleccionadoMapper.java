@@ -14,6 +14,15 @@ public interface AsientoSeleccionadoMapper extends EntityMapper<AsientoSeleccion
     @Mapping(target = "sesion", source = "sesion", qualifiedByName = "sesionId")
     AsientoSeleccionadoDTO toDto(AsientoSeleccionado s);
 
+    // Columnas internas (sincronización con cátedra): no vienen en el DTO
+    @Mapping(target = "sesion.evento.hashContenido", ignore = true)
+    AsientoSeleccionado toEntity(AsientoSeleccionadoDTO dto);
+
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "sesion.evento.hashContenido", ignore = true)
+    void partialUpdate(@MappingTarget AsientoSeleccionado entity, AsientoSeleccionadoDTO dto);
+
     @Named("sesionId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
@@ -14,6 +14,23 @@ public interface AsientoVendidoMapper extends EntityMapper<AsientoVendidoDTO, As
     @Mapping(target = "venta", source = "venta", qualifiedByName = "ventaId")
     AsientoVendidoDTO toDto(AsientoVendido s);
 
+    // Columnas internas (sincronización con cátedra): no vienen en el DTO
+    @Mapping(target = "venta.solicitudCatedra", ignore = true)
+    @Mapping(target = "venta.intentos", ignore = true)
+    @Mapping(target = "venta.proximoIntento", ignore = true)
+    @Mapping(target = "venta.reclamadaHasta", ignore = true)
+    @Mapping(target = "venta.evento.hashContenido", ignore = true)
+    AsientoVendido toEntity(AsientoVendidoDTO dto);
+
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "venta.solicitudCatedra", ignore = true)
+    @Mapping(target = "venta.intentos", ignore = true)
+    @Mapping(target = "venta.proximoIntento", ignore = true)
+    @Mapping(target = "venta.reclamadaHasta", ignore = true)
+    @Mapping(target = "venta.evento.hashContenido", ignore = true)
+    void partialUpdate(@MappingTarget AsientoVendido entity, AsientoVendidoDTO dto);
+
     @Named("ventaId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
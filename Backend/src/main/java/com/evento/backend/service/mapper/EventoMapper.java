@@ -14,6 +14,15 @@ public interface EventoMapper extends EntityMapper<EventoDTO, Evento> {
     @Mapping(target = "eventoTipo", source = "eventoTipo", qualifiedByName = "eventoTipoNombre")
     EventoDTO toDto(Evento s);
 
+    // Columnas internas (sincronización con cátedra): no vienen en el DTO
+    @Mapping(target = "hashContenido", ignore = true)
+    Evento toEntity(EventoDTO dto);
+
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "hashContenido", ignore = true)
+    void partialUpdate(@MappingTarget Evento entity, EventoDTO dto);
+
     @Named("eventoTipoNombre")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
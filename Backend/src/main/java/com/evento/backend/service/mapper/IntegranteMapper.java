@@ -14,6 +14,15 @@ public interface IntegranteMapper extends EntityMapper<IntegranteDTO, Integrante
     @Mapping(target = "evento", source = "evento", qualifiedByName = "eventoTitulo")
     IntegranteDTO toDto(Integrante s);
 
+    // Columnas internas (sincronización con cátedra): no vienen en el DTO
+    @Mapping(target = "evento.hashContenido", ignore = true)
+    Integrante toEntity(IntegranteDTO dto);
+
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "evento.hashContenido", ignore = true)
+    void partialUpdate(@MappingTarget Integrante entity, IntegranteDTO dto);
+
     @Named("eventoTitulo")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
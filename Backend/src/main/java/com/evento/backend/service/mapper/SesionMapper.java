@@ -17,6 +17,15 @@ public interface SesionMapper extends EntityMapper<SesionDTO, Sesion> {
     @Mapping(target = "evento", source = "evento", qualifiedByName = "eventoTitulo")
     SesionDTO toDto(Sesion s);
 
+    // Columnas internas (sincronización con cátedra): no vienen en el DTO
+    @Mapping(target = "evento.hashContenido", ignore = true)
+    Sesion toEntity(SesionDTO dto);
+
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "evento.hashContenido", ignore = true)
+    void partialUpdate(@MappingTarget Sesion entity, SesionDTO dto);
+
     @Named("userLogin")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
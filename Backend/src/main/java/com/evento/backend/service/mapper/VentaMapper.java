@@ -17,6 +17,23 @@ public interface VentaMapper extends EntityMapper<VentaDTO, Venta> {
     @Mapping(target = "usuario", source = "usuario", qualifiedByName = "userLogin")
     VentaDTO toDto(Venta s);
 
+    // Columnas internas (sincronización con cátedra): no vienen en el DTO
+    @Mapping(target = "solicitudCatedra", ignore = true)
+    @Mapping(target = "intentos", ignore = true)
+    @Mapping(target = "proximoIntento", ignore = true)
+    @Mapping(target = "reclamadaHasta", ignore = true)
+    @Mapping(target = "evento.hashContenido", ignore = true)
+    Venta toEntity(VentaDTO dto);
+
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "solicitudCatedra", ignore = true)
+    @Mapping(target = "intentos", ignore = true)
+    @Mapping(target = "proximoIntento", ignore = true)
+    @Mapping(target = "reclamadaHasta", ignore = true)
+    @Mapping(target = "evento.hashContenido", ignore = true)
+    void partialUpdate(@MappingTarget Venta entity, VentaDTO dto);
+
     @Named("eventoTitulo")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
@@ -1,14 +1,28 @@
 package com.evento.backend.web.rest;
 
 import com.evento.backend.service.AsientosDisponibilidadService;
+import com.evento.backend.service.AsientosStreamService;
+import com.evento.backend.service.EventoQueryService;
+import com.evento.backend.service.SuscriptoresExcedidosException;
+import com.evento.backend.service.criteria.EventoCriteria;
+import com.evento.backend.service.dto.DisponibilidadResumenDTO;
+import com.evento.backend.service.dto.EventoDTO;
 import com.evento.backend.service.dto.MatrizAsientosDTO;
 import jakarta.persistence.EntityNotFoundException;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
 
 
 /**
@@ -21,8 +35,16 @@ import org.springframework.web.bind.annotation.*;
 public class AsientosDisponibilidadResource {
     private static final Logger log = LoggerFactory.getLogger(AsientosDisponibilidadResource.class);
     private final AsientosDisponibilidadService asientosDisponibilidadService;
-    public AsientosDisponibilidadResource(AsientosDisponibilidadService service) {
+    private final AsientosStreamService asientosStreamService;
+    private final EventoQueryService eventoQueryService;
+    public AsientosDisponibilidadResource(
+        AsientosDisponibilidadService service,
+        AsientosStreamService asientosStreamService,
+        EventoQueryService eventoQueryService
+    ) {
         this.asientosDisponibilidadService = service;
+        this.asientosStreamService = asientosStreamService;
+        this.eventoQueryService = eventoQueryService;
     }
     /**
      * GET /api/eventos/{id}/asientos/disponibilidad
@@ -40,7 +62,15 @@ public class AsientosDisponibilidadResource {
      * - BLOQUEADO: Bloqueado temporalmente por otro usuario (expira en 5 min)
      * - VENDIDO: Ya fue vendido
      *
+     * Con {@code expandido=false} solo se devuelven las estadísticas (sin lista de asientos).
+     *
+     * Cada respuesta incluye {@code version}. Enviándola como {@code sinceVersion} en la próxima
+     * consulta se reciben solo los asientos modificados ({@code completo=false}); si el cliente
+     * está demasiado atrasado se devuelve el snapshot completo ({@code completo=true}).
+     *
      * @param id - ID local del evento
+     * @param expandido - true (default) para incluir la lista completa de asientos
+     * @param sinceVersion - versión conocida por el cliente (opcional)
      * @return 200 OK con MatrizAsientosDTO
      *         404 Not Found si evento no existe
      *         400 Bad Request si evento inactivo o sin configuración
@@ -48,12 +78,14 @@ public class AsientosDisponibilidadResource {
      */
     @GetMapping("/{id}/asientos/disponibilidad")
     public ResponseEntity<MatrizAsientosDTO> getDisponibilidadAsientos(
-        @PathVariable Long id
+        @PathVariable Long id,
+        @RequestParam(defaultValue = "true") boolean expandido,
+        @RequestParam(required = false) Long sinceVersion
     ) {
         log.info("REST request GET /api/eventos/{}/asientos/disponibilidad", id);
         try {
             MatrizAsientosDTO matriz = asientosDisponibilidadService
-                .getDisponibilidadAsientos(id);
+                .getDisponibilidadAsientos(id, expandido, sinceVersion);
             return ResponseEntity.ok()
                 .cacheControl(CacheControl.noCache())
                 .body(matriz);
@@ -70,4 +102,75 @@ public class AsientosDisponibilidadResource {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * GET /api/eventos/{id}/asientos/disponibilidad/stream
+     *
+     * Stream (Server-Sent Events) de cambios de asientos del evento:
+     * - event: snapshot → MatrizAsientosDTO completa (al conectar o si hay que resincronizar)
+     * - event: cambios  → MatrizAsientosDTO con solo los asientos modificados (completo=false)
+     * - comentario heartbeat periódico si no hay cambios
+     *
+     * El id de cada evento SSE es la versión de la disponibilidad.
+     *
+     * @param id - ID local del evento
+     * @return 200 OK con el stream
+     *         404 Not Found si evento no existe
+     *         400 Bad Request si evento inactivo o sin configuración
+     *         503 Service Unavailable si el nodo alcanzó el máximo de suscriptores
+     */
+    @GetMapping(value = "/{id}/asientos/disponibilidad/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamDisponibilidadAsientos(@PathVariable Long id) {
+        log.info("REST request GET /api/eventos/{}/asientos/disponibilidad/stream", id);
+        try {
+            return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(asientosStreamService.suscribir(id));
+        } catch (SuscriptoresExcedidosException e) {
+            log.warn("Stream rechazado para evento {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (EntityNotFoundException e) {
+            log.warn("Evento no encontrado: {}", id);
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            log.warn("Estado inválido para evento {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            log.error("Error iniciando stream de disponibilidad para evento {}: {}",
+                id, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * GET /api/eventos/asientos/resumen
+     *
+     * Contadores de disponibilidad (total, disponibles, bloqueados, vendidos) para una página
+     * de eventos, con los mismos filtros y paginación que GET /api/eventos. Los asientos de
+     * todos los eventos de la página se obtienen con una sola consulta batch al Proxy.
+     *
+     * @param criteria - filtros de eventos
+     * @param pageable - paginación
+     * @return 200 OK con un resumen por evento y headers de paginación
+     *         500 Internal Server Error si Proxy no disponible
+     */
+    @GetMapping("/asientos/resumen")
+    public ResponseEntity<List<DisponibilidadResumenDTO>> getResumenDisponibilidad(
+        EventoCriteria criteria,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        log.info("REST request GET /api/eventos/asientos/resumen: {}", criteria);
+        Page<EventoDTO> page = eventoQueryService.findByCriteria(criteria, pageable);
+        try {
+            List<DisponibilidadResumenDTO> resumen = asientosDisponibilidadService.getResumenDisponibilidad(page.getContent());
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            return ResponseEntity.ok()
+                .headers(headers)
+                .cacheControl(CacheControl.noCache())
+                .body(resumen);
+        } catch (RuntimeException e) {
+            log.error("Error obteniendo resumen de disponibilidad: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
 }
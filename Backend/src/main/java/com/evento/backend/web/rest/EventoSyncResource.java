@@ -8,6 +8,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * REST controller para manejar notificaciones de sincronización desde el Proxy.
  */
@@ -44,9 +46,39 @@ public class EventoSyncResource {
         SyncResult result = eventSyncService.synchronize();
 
         // Log de resumen
-        log.info("Sincronización finalizada: {} creados, {} actualizados, {} desactivados, {} errores",
+        log.info("Sincronización finalizada: {} creados, {} actualizados, {} sin cambios, {} desactivados, {} errores",
+            result.getCreated(),
+            result.getUpdated(),
+            result.getUnchanged(),
+            result.getDeactivated(),
+            result.getErrors().size());
+
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * POST /api/eventos/sincronizar : Sincroniza solo los eventos indicados desde el API de cátedra.
+     *
+     * Invocado por el Proxy cuando los mensajes de Kafka identifican los eventos modificados;
+     * los eventos que ya no existen en cátedra se desactivan.
+     *
+     * @param idsCatedra IDs de eventos en cátedra
+     * @return ResponseEntity con SyncResult (contadores de operaciones)
+     */
+    @PostMapping("/sincronizar")
+    public ResponseEntity<EventoSyncService.SyncResult> sincronizarEventos(@RequestBody List<Long> idsCatedra) {
+        log.info("SOLICITUD DE SINCRONIZACIÓN DIRIGIDA RECIBIDA: {}", idsCatedra);
+
+        if (idsCatedra == null || idsCatedra.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        SyncResult result = eventSyncService.synchronizeEventos(idsCatedra);
+
+        log.info("Sincronización dirigida finalizada: {} creados, {} actualizados, {} sin cambios, {} desactivados, {} errores",
             result.getCreated(),
             result.getUpdated(),
+            result.getUnchanged(),
             result.getDeactivated(),
             result.getErrors().size());
 
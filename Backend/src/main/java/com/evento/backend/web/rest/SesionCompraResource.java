@@ -1,28 +1,54 @@
 package com.evento.backend.web.rest;
 
 import com.evento.backend.security.SecurityUtils;
+import com.evento.backend.service.ConfirmacionVentaService;
+import com.evento.backend.service.ConfirmacionesExcedidasException;
+import com.evento.backend.service.IdempotenciaService;
+import com.evento.backend.service.LimiteTasaService;
+import com.evento.backend.service.SalaEsperaService;
 import com.evento.backend.service.SesionBusinessService;
 import com.evento.backend.service.dto.*;
 import com.evento.backend.web.rest.errors.BadRequestAlertException;
+import com.evento.backend.web.rest.errors.LimiteTasaExcedidoException;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
+import java.net.URI;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import tech.jhipster.web.util.HeaderUtil;
 
 /**
  * REST controller para gestión del flujo de compra de asientos.
  *
  * Endpoints:
+ * - POST   /api/compra/sala-espera/{eventoId} - Entra/consulta la sala de espera de un evento
  * - POST   /api/compra/iniciar              - Inicia nueva sesión de compra
  * - GET    /api/compra/estado               - Obtiene estado de sesión actual
  * - POST   /api/compra/actividad            - Keep-alive de sesión
  * - POST   /api/compra/seleccionar-asientos - Selecciona y bloquea asientos
  * - POST   /api/compra/asignar-nombres      - Asigna nombres a asientos
  * - POST   /api/compra/confirmar            - Confirma la venta
+ * - POST   /api/compra/confirmar-async      - Encola la confirmación de la venta (202 + ticket)
+ * - GET    /api/compra/confirmaciones/{ticket}        - Estado de una confirmación asíncrona
+ * - GET    /api/compra/confirmaciones/{ticket}/stream - Stream SSE del resultado de la confirmación
  * - DELETE /api/compra/cancelar             - Cancela sesión activa
+ *
+ * Los POST iniciar, seleccionar-asientos, asignar-nombres y confirmar aceptan el header
+ * {@code Idempotency-Key}: un re-intento con la misma key recibe la respuesta del primero
+ * (header {@code Idempotent-Replayed: true}) sin volver a ejecutar la operación.
+ * confirmar-async ya es idempotente por usuario (devuelve el ticket en curso).
+ *
+ * iniciar, seleccionar-asientos y confirmar (y confirmar-async) tienen límites de solicitudes por
+ * usuario y por evento ({@code application.limite-tasa}); al excederlos responden 429 con
+ * {@code Retry-After} antes de llegar a PostgreSQL o cátedra.
  */
 @RestController
 @RequestMapping("/api/compra")
@@ -33,18 +59,61 @@ public class SesionCompraResource {
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
     private final SesionBusinessService sesionBusinessService;
-    public SesionCompraResource(SesionBusinessService sesionBusinessService) {
+    private final ConfirmacionVentaService confirmacionVentaService;
+    private final IdempotenciaService idempotenciaService;
+    private final SalaEsperaService salaEsperaService;
+    private final LimiteTasaService limiteTasaService;
+    public SesionCompraResource(
+        SesionBusinessService sesionBusinessService,
+        ConfirmacionVentaService confirmacionVentaService,
+        IdempotenciaService idempotenciaService,
+        SalaEsperaService salaEsperaService,
+        LimiteTasaService limiteTasaService
+    ) {
         this.sesionBusinessService = sesionBusinessService;
+        this.confirmacionVentaService = confirmacionVentaService;
+        this.idempotenciaService = idempotenciaService;
+        this.salaEsperaService = salaEsperaService;
+        this.limiteTasaService = limiteTasaService;
+    }
+
+    /**
+     * {@code POST  /compra/sala-espera/{eventoId}} : Entra a la sala de espera del evento o consulta la posición.
+     *
+     * Mientras el estado sea ESPERANDO el cliente vuelve a consultar cada {@code consultarEnMs}
+     * (si deja de consultar pierde el lugar). Con ADMITIDO recibe el token que debe enviar como
+     * {@code tokenAdmision} en {@code /compra/iniciar}. NO_REQUERIDA: el evento no tiene sala de espera.
+     *
+     * @param eventoId ID del evento
+     * @return ResponseEntity con el SalaEsperaDTO
+     */
+    @PostMapping("/sala-espera/{eventoId}")
+    public ResponseEntity<SalaEsperaDTO> consultarSalaEspera(@PathVariable Long eventoId) {
+        LOG.debug("REST request to consultar sala de espera del evento {}", eventoId);
+
+        Long userId = SecurityUtils.getCurrentUserId()
+            .orElseThrow(() -> new BadRequestAlertException(
+                "Usuario no autenticado",
+                ENTITY_NAME,
+                "notauthenticated"
+            ));
+        SalaEsperaDTO sala = salaEsperaService.consultar(eventoId, userId);
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(sala);
     }
 
     /**
      * {@code POST  /compra/iniciar} : Inicia una nueva sesión de compra.
      * Si el usuario ya tiene una sesión activa, la cancela automáticamente.
-     * @param request el DTO con el eventoId
+     * Si el evento tiene sala de espera, requiere el {@code tokenAdmision} de {@code /compra/sala-espera/{eventoId}}.
+     * @param request el DTO con el eventoId (y el token de admisión)
+     * @param idempotencyKey key opcional para re-intentos seguros
      * @return ResponseEntity con el SesionDTO creado
      */
     @PostMapping("/iniciar")
-    public ResponseEntity<SesionDTO> iniciarSesion(@Valid @RequestBody IniciarSesionRequestDTO request) {
+    public ResponseEntity<SesionDTO> iniciarSesion(
+        @Valid @RequestBody IniciarSesionRequestDTO request,
+        @RequestHeader(value = IdempotenciaService.HEADER, required = false) String idempotencyKey
+    ) {
         LOG.debug("REST request to iniciar sesión de compra: {}", request);
 
         Long userId = SecurityUtils.getCurrentUserId()
@@ -53,15 +122,18 @@ public class SesionCompraResource {
                 ENTITY_NAME,
                 "notauthenticated"
             ));
-        SesionDTO sesion = sesionBusinessService.iniciarSesion(userId, request.getEventoId());
+        verificarLimite("iniciar", userId, request.getEventoId());
+        return idempotenciaService.ejecutar(userId, "iniciar", idempotencyKey, request, SesionDTO.class, () -> {
+            SesionDTO sesion = sesionBusinessService.iniciarSesion(userId, request.getEventoId(), request.getTokenAdmision());
 
-        return ResponseEntity.ok()
-            .headers(HeaderUtil.createAlert(
-                applicationName,
-                "Sesión iniciada exitosamente",
-                sesion.getId().toString()
-            ))
-            .body(sesion);
+            return ResponseEntity.ok()
+                .headers(HeaderUtil.createAlert(
+                    applicationName,
+                    "Sesión iniciada exitosamente",
+                    sesion.getId().toString()
+                ))
+                .body(sesion);
+        });
     }
 
     /**
@@ -119,10 +191,14 @@ public class SesionCompraResource {
      * Valida disponibilidad y bloquea los asientos por 5 minutos.
      * Máximo 4 asientos por sesión.
      * @param request el DTO con la lista de asientos a seleccionar
+     * @param idempotencyKey key opcional para re-intentos seguros
      * @return ResponseEntity con el SesionDTO actualizado
      */
     @PostMapping("/seleccionar-asientos")
-    public ResponseEntity<SesionDTO> seleccionarAsientos(@Valid @RequestBody SeleccionarAsientosRequestDTO request) {
+    public ResponseEntity<SesionDTO> seleccionarAsientos(
+        @Valid @RequestBody SeleccionarAsientosRequestDTO request,
+        @RequestHeader(value = IdempotenciaService.HEADER, required = false) String idempotencyKey
+    ) {
         LOG.debug("REST request to seleccionar asientos: {}", request);
 
         Long userId = SecurityUtils.getCurrentUserId()
@@ -131,15 +207,18 @@ public class SesionCompraResource {
                 ENTITY_NAME,
                 "notauthenticated"
             ));
-        SesionDTO sesion = sesionBusinessService.seleccionarAsientos(userId, request.getAsientos());
+        verificarLimite("seleccionar-asientos", userId, sesionBusinessService.obtenerEventoSesionActiva(userId).orElse(null));
+        return idempotenciaService.ejecutar(userId, "seleccionar-asientos", idempotencyKey, request, SesionDTO.class, () -> {
+            SesionDTO sesion = sesionBusinessService.seleccionarAsientos(userId, request.getAsientos());
 
-        return ResponseEntity.ok()
-            .headers(HeaderUtil.createAlert(
-                applicationName,
-                "Asientos seleccionados exitosamente",
-                sesion.getId().toString()
-            ))
-            .body(sesion);
+            return ResponseEntity.ok()
+                .headers(HeaderUtil.createAlert(
+                    applicationName,
+                    "Asientos seleccionados exitosamente",
+                    sesion.getId().toString()
+                ))
+                .body(sesion);
+        });
     }
 
     /**
@@ -147,10 +226,14 @@ public class SesionCompraResource {
      * Valida que el nombre tenga al menos 3 caracteres.
      * Debe haber un nombre por cada asiento seleccionado.
      * @param request el DTO con el Map de nombres (key: "fila-columna", value: "Nombre Completo")
+     * @param idempotencyKey key opcional para re-intentos seguros
      * @return ResponseEntity con el SesionDTO actualizado
      */
     @PostMapping("/asignar-nombres")
-    public ResponseEntity<SesionDTO> asignarNombres(@Valid @RequestBody AsignarNombresRequestDTO request) {
+    public ResponseEntity<SesionDTO> asignarNombres(
+        @Valid @RequestBody AsignarNombresRequestDTO request,
+        @RequestHeader(value = IdempotenciaService.HEADER, required = false) String idempotencyKey
+    ) {
         LOG.debug("REST request to asignar nombres: {}", request);
 
         Long userId = SecurityUtils.getCurrentUserId()
@@ -159,15 +242,17 @@ public class SesionCompraResource {
                 ENTITY_NAME,
                 "notauthenticated"
             ));
-        SesionDTO sesion = sesionBusinessService.asignarNombres(userId, request.getNombres());
+        return idempotenciaService.ejecutar(userId, "asignar-nombres", idempotencyKey, request, SesionDTO.class, () -> {
+            SesionDTO sesion = sesionBusinessService.asignarNombres(userId, request.getNombres());
 
-        return ResponseEntity.ok()
-            .headers(HeaderUtil.createAlert(
-                applicationName,
-                "Nombres asignados exitosamente",
-                sesion.getId().toString()
-            ))
-            .body(sesion);
+            return ResponseEntity.ok()
+                .headers(HeaderUtil.createAlert(
+                    applicationName,
+                    "Nombres asignados exitosamente",
+                    sesion.getId().toString()
+                ))
+                .body(sesion);
+        });
     }
 
     /**
@@ -179,10 +264,15 @@ public class SesionCompraResource {
      * - Todos los asientos tengan nombre asignado
      * - Los bloqueos sigan vigentes (re-bloquea si expiraron)
      *
+     * Con {@code Idempotency-Key}, un re-intento no crea otra Venta ni repite la venta en cátedra.
+     *
+     * @param idempotencyKey key opcional para re-intentos seguros
      * @return ResponseEntity con el VentaDTO creado
      */
     @PostMapping("/confirmar")
-    public ResponseEntity<VentaDTO> confirmarVenta() {
+    public ResponseEntity<VentaDTO> confirmarVenta(
+        @RequestHeader(value = IdempotenciaService.HEADER, required = false) String idempotencyKey
+    ) {
         LOG.debug("REST request to confirmar venta");
 
         Long userId = SecurityUtils.getCurrentUserId()
@@ -191,15 +281,101 @@ public class SesionCompraResource {
                 ENTITY_NAME,
                 "notauthenticated"
             ));
-        VentaDTO venta = sesionBusinessService.confirmarVenta(userId);
+        verificarLimite("confirmar", userId, sesionBusinessService.obtenerEventoSesionActiva(userId).orElse(null));
+        return idempotenciaService.ejecutar(userId, "confirmar", idempotencyKey, null, VentaDTO.class, () -> {
+            VentaDTO venta = sesionBusinessService.confirmarVenta(userId);
 
-        return ResponseEntity.ok()
-            .headers(HeaderUtil.createAlert(
-                applicationName,
-                "Venta confirmada exitosamente",
-                venta.getId().toString()
-            ))
-            .body(venta);
+            return ResponseEntity.ok()
+                .headers(HeaderUtil.createAlert(
+                    applicationName,
+                    "Venta confirmada exitosamente",
+                    venta.getId().toString()
+                ))
+                .body(venta);
+        });
+    }
+
+    /**
+     * {@code POST  /compra/confirmar-async} : Encola la confirmación de la venta y responde sin esperar a cátedra.
+     *
+     * Las validaciones y la venta son las mismas de {@code /compra/confirmar}, pero las ejecuta un
+     * worker. El resultado se consulta en {@code /compra/confirmaciones/{ticket}} (Location) hasta
+     * que el estado sea SINCRONIZADA (con ventaId) o ERROR (con error y mensaje).
+     * Si el usuario ya tiene una confirmación en curso se devuelve ese mismo ticket.
+     *
+     * @return 202 Accepted con el ticket
+     *         400 Bad Request si no hay sesión activa
+     *         429 Too Many Requests si se excede el límite de confirmar
+     *         503 Service Unavailable si la cola de confirmaciones está llena
+     */
+    @PostMapping("/confirmar-async")
+    public ResponseEntity<ConfirmacionVentaDTO> confirmarVentaAsync() {
+        LOG.debug("REST request to confirmar venta (async)");
+
+        Long userId = SecurityUtils.getCurrentUserId()
+            .orElseThrow(() -> new BadRequestAlertException(
+                "Usuario no autenticado",
+                ENTITY_NAME,
+                "notauthenticated"
+            ));
+        verificarLimite("confirmar", userId, sesionBusinessService.obtenerEventoSesionActiva(userId).orElse(null));
+        try {
+            ConfirmacionVentaDTO confirmacion = confirmacionVentaService.solicitar(userId);
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/compra/confirmaciones/" + confirmacion.getTicket()))
+                .body(confirmacion);
+        } catch (ConfirmacionesExcedidasException e) {
+            LOG.warn("Confirmación async rechazada para usuario {}: {}", userId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+    }
+
+    /**
+     * {@code GET  /compra/confirmaciones/{ticket}} : Estado de una confirmación asíncrona.
+     *
+     * @param ticket el ticket devuelto por {@code /compra/confirmar-async}
+     * @return ResponseEntity con el ConfirmacionVentaDTO o 404 si no existe, expiró o es de otro usuario
+     */
+    @GetMapping("/confirmaciones/{ticket}")
+    public ResponseEntity<ConfirmacionVentaDTO> obtenerConfirmacion(@PathVariable String ticket) {
+        LOG.debug("REST request to obtener confirmación {}", ticket);
+
+        Long userId = SecurityUtils.getCurrentUserId()
+            .orElseThrow(() -> new BadRequestAlertException(
+                "Usuario no autenticado",
+                ENTITY_NAME,
+                "notauthenticated"
+            ));
+        return confirmacionVentaService.obtener(ticket, userId)
+            .map(confirmacion -> ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(confirmacion))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * {@code GET  /compra/confirmaciones/{ticket}/stream} : Stream (Server-Sent Events) del resultado de una confirmación.
+     * Envía un evento {@code estado} con el estado actual y otro con el estado final, y se cierra.
+     * Si el stream vence antes del resultado, el cliente vuelve a consultar el ticket.
+     *
+     * @param ticket el ticket devuelto por {@code /compra/confirmar-async}
+     * @return 200 OK con el stream o 404 si la confirmación no existe
+     */
+    @GetMapping(value = "/confirmaciones/{ticket}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamConfirmacion(@PathVariable String ticket) {
+        LOG.debug("REST request to stream confirmación {}", ticket);
+
+        Long userId = SecurityUtils.getCurrentUserId()
+            .orElseThrow(() -> new BadRequestAlertException(
+                "Usuario no autenticado",
+                ENTITY_NAME,
+                "notauthenticated"
+            ));
+        try {
+            return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(confirmacionVentaService.suscribir(ticket, userId));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     /**
@@ -227,4 +403,16 @@ public class SesionCompraResource {
             ))
             .build();
     }
+
+    /**
+     * Aplica el límite de solicitudes del endpoint para el usuario y el evento.
+     *
+     * @throws LimiteTasaExcedidoException 429 con Retry-After si se excede
+     */
+    private void verificarLimite(String endpoint, Long userId, Long eventoId) {
+        long esperaMs = limiteTasaService.consumir(endpoint, userId, eventoId);
+        if (esperaMs > 0) {
+            throw new LimiteTasaExcedidoException(endpoint, esperaMs);
+        }
+    }
 }
@@ -227,6 +227,8 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
     }
 
     private HttpHeaders buildHeaders(Throwable err) {
+        // Headers propios de la excepción (ej. Retry-After)
+        if (err instanceof LimiteTasaExcedidoException limiteTasaExcedidoException) return limiteTasaExcedidoException.getHeaders();
         return err instanceof BadRequestAlertException badRequestAlertException
             ? HeaderUtil.createFailureAlert(
                 applicationName,
@@ -0,0 +1,37 @@
+package com.evento.backend.web.rest.errors;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+import tech.jhipster.web.rest.errors.ProblemDetailWithCause.ProblemDetailWithCauseBuilder;
+
+/**
+ * 429 Too Many Requests con header {@code Retry-After} (segundos).
+ */
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class LimiteTasaExcedidoException extends ErrorResponseException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSegundos;
+
+    public LimiteTasaExcedidoException(String endpoint, long esperaMs) {
+        super(
+            HttpStatus.TOO_MANY_REQUESTS,
+            ProblemDetailWithCauseBuilder.instance()
+                .withStatus(HttpStatus.TOO_MANY_REQUESTS.value())
+                .withType(ErrorConstants.DEFAULT_TYPE)
+                .withTitle("Demasiadas solicitudes")
+                .withProperty("message", "error.limitetasa")
+                .withProperty("params", endpoint)
+                .build(),
+            null
+        );
+        this.retryAfterSegundos = Math.max(1, (esperaMs + 999) / 1000);
+        getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSegundos));
+    }
+
+    public long getRetryAfterSegundos() {
+        return retryAfterSegundos;
+    }
+}
@@ -0,0 +1,114 @@
+package com.evento.backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Cliente HTTP saliente contra un servidor HTTP local: reutilización de conexiones, gzip y timeouts.
+ */
+class HttpClienteConfigurationTest {
+
+    private final Set<Integer> puertosCliente = ConcurrentHashMap.newKeySet();
+    private final Set<String> acceptEncoding = ConcurrentHashMap.newKeySet();
+
+    private HttpServer servidor;
+    private SimpleMeterRegistry meterRegistry;
+    private CloseableHttpClient httpCliente;
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setup() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.setExecutor(Executors.newFixedThreadPool(4));
+        servidor.createContext("/api/eventos", this::responderGzip);
+        servidor.createContext("/api/lento", exchange -> {
+            try {
+                Thread.sleep(1500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        servidor.start();
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getHttpCliente().getCatedra().setReadTimeoutMs(300);
+        CatedraProperties catedraProperties = new CatedraProperties();
+        catedraProperties.setBaseUrl("http://127.0.0.1:" + servidor.getAddress().getPort());
+        meterRegistry = new SimpleMeterRegistry();
+
+        HttpClienteConfiguration configuration = new HttpClienteConfiguration();
+        PoolingHttpClientConnectionManager connectionManager = configuration.httpConnectionManager(
+            applicationProperties,
+            catedraProperties,
+            meterRegistry
+        );
+        httpCliente = configuration.httpClienteSaliente(connectionManager, applicationProperties);
+        restTemplate = configuration.catedraRestTemplate(new RestTemplateBuilder(), httpCliente, applicationProperties);
+    }
+
+    @AfterEach
+    void cerrar() throws IOException {
+        httpCliente.close();
+        servidor.stop(0);
+    }
+
+    @Test
+    void reutilizaLaConexionYDescomprimeGzip() {
+        String url = "http://127.0.0.1:" + servidor.getAddress().getPort() + "/api/eventos";
+        for (int i = 0; i < 3; i++) {
+            assertThat(restTemplate.getForObject(url, String.class)).isEqualTo("[{\"id\":1}]");
+        }
+
+        assertThat(puertosCliente).hasSize(1);
+        assertThat(acceptEncoding).allMatch(valor -> valor.contains("gzip"));
+        assertThat(meterRegistry.get("http.cliente.pool").tag("destino", "catedra").tag("estado", "available").gauge().value())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void respuestaLentaCortaPorTimeoutDeLectura() {
+        String url = "http://127.0.0.1:" + servidor.getAddress().getPort() + "/api/lento";
+
+        assertThatThrownBy(() -> restTemplate.getForObject(url, String.class)).isInstanceOf(ResourceAccessException.class);
+    }
+
+    private void responderGzip(HttpExchange exchange) throws IOException {
+        puertosCliente.add(exchange.getRemoteAddress().getPort());
+        String encoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        acceptEncoding.add(encoding != null ? encoding : "");
+
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido)) {
+            gzip.write("[{\"id\":1}]".getBytes(StandardCharsets.UTF_8));
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        exchange.sendResponseHeaders(200, comprimido.size());
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(comprimido.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.evento.backend.config;
+
+import static com.evento.backend.config.KryoHibernateCodecTest.codecs;
+import static com.evento.backend.config.KryoHibernateCodecTest.objetos;
+import static com.evento.backend.config.KryoHibernateCodecTest.roundTrip;
+
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.redisson.client.codec.Codec;
+
+/**
+ * Benchmark de tiempo de encode/decode y bytes por objeto: SerializationCodec (cache) y
+ * JsonJacksonCodec (cliente de sesiones) contra Kryo.
+ *
+ * Solo imprime los resultados. Se ejecuta a pedido: {@code ./mvnw verify -Dbenchmarks=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class KryoHibernateCodecBenchmarkIT {
+
+    private static final int ITERACIONES = 500;
+
+    @Test
+    void contraCodecsAnteriores() throws IOException {
+        Map<String, Codec> codecs = codecs();
+        System.out.println("objeto          codec    bytes   encode ns   decode ns");
+        for (Map.Entry<String, Object> objeto : objetos().entrySet()) {
+            for (Map.Entry<String, Codec> entrada : codecs.entrySet()) {
+                Codec actual = entrada.getValue();
+                for (int i = 0; i < ITERACIONES; i++) {
+                    roundTrip(actual, objeto.getValue()); // warm-up
+                }
+                long encode = 0;
+                long decode = 0;
+                int tamanio = 0;
+                for (int i = 0; i < ITERACIONES; i++) {
+                    long inicio = System.nanoTime();
+                    ByteBuf buf = actual.getValueEncoder().encode(objeto.getValue());
+                    encode += System.nanoTime() - inicio;
+                    tamanio = buf.readableBytes();
+                    inicio = System.nanoTime();
+                    actual.getValueDecoder().decode(buf, null);
+                    decode += System.nanoTime() - inicio;
+                    buf.release();
+                }
+                System.out.printf(
+                    "%-15s %-5s %8d %11d %11d%n",
+                    objeto.getKey(),
+                    entrada.getKey(),
+                    tamanio,
+                    encode / ITERACIONES,
+                    decode / ITERACIONES
+                );
+            }
+        }
+    }
+}
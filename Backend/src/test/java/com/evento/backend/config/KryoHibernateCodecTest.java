@@ -0,0 +1,159 @@
+package com.evento.backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.evento.backend.domain.Authority;
+import com.evento.backend.domain.Evento;
+import com.evento.backend.domain.User;
+import com.evento.backend.domain.enumeration.EstadoSesion;
+import com.evento.backend.service.dto.AsientoSimpleDTO;
+import com.evento.backend.service.dto.SesionRedisDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.hibernate.collection.spi.PersistentSet;
+import org.junit.jupiter.api.Test;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.JsonJacksonCodec;
+import org.redisson.codec.SerializationCodec;
+
+class KryoHibernateCodecTest {
+
+    private static final Instant AHORA = Instant.parse("2025-12-15T12:00:00Z");
+
+    private final Codec codec = new KryoHibernateCodec();
+
+    @Test
+    void entidadesYSesionesConservanSusDatos() throws IOException {
+        Evento evento = roundTrip(codec, evento());
+        assertThat(evento.getId()).isEqualTo(40L);
+        assertThat(evento.getFecha()).isEqualTo(AHORA);
+        assertThat(evento.getPrecioEntrada()).isEqualByComparingTo("1500.50");
+
+        SesionRedisDTO sesion = roundTrip(codec, sesion());
+        assertThat(sesion.getEstado()).isEqualTo(EstadoSesion.CARGA_DATOS);
+        assertThat(sesion.getAsientosSeleccionados()).extracting(AsientoSimpleDTO::getFila).containsOnly(5);
+        assertThat(sesion.getNombresAsignados()).containsEntry("5-10", "María Fernanda Rodríguez");
+    }
+
+    @Test
+    void coleccionesDeHibernateSeSerializanComoConElCodecJdk() throws IOException {
+        User user = roundTrip(codec, user(new PersistentSet<>(null, new HashSet<>(Set.of(authority("ROLE_USER"), authority("ROLE_ADMIN")))))
+        );
+        assertThat(user.getAuthorities()).extracting(Authority::getName).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+
+        // Colección lazy sin inicializar: vuelve sin inicializar en lugar de fallar al serializar
+        User lazy = roundTrip(codec, user(new PersistentSet<>()));
+        assertThat(lazy.getAuthorities()).isInstanceOfSatisfying(PersistentSet.class, set -> assertThat(set.wasInitialized()).isFalse());
+    }
+
+    @Test
+    void kryoOcupaMenosBytesQueLosCodecsAnteriores() throws IOException {
+        Map<String, Codec> codecs = codecs();
+        for (Map.Entry<String, Object> objeto : objetos().entrySet()) {
+            int kryo = tamanio(codecs.get("kryo"), objeto.getValue());
+            assertThat(kryo).isLessThan(tamanio(codecs.get("java"), objeto.getValue()));
+            if (!"User".equals(objeto.getKey())) {
+                // User lleva una PersistentSet, que Kryo delega a la serialización JDK
+                assertThat(kryo).isLessThan(tamanio(codecs.get("json"), objeto.getValue()));
+            }
+        }
+    }
+
+    /**
+     * SerializationCodec (cache) y JsonJacksonCodec (cliente de sesiones) contra Kryo.
+     */
+    static Map<String, Codec> codecs() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        Map<String, Codec> codecs = new LinkedHashMap<>();
+        codecs.put("java", new SerializationCodec());
+        codecs.put("json", new JsonJacksonCodec(objectMapper));
+        codecs.put("kryo", new KryoHibernateCodec());
+        return codecs;
+    }
+
+    static Map<String, Object> objetos() {
+        Map<String, Object> objetos = new LinkedHashMap<>();
+        objetos.put("Evento", evento());
+        objetos.put("User", user(new PersistentSet<>(null, new HashSet<>(Set.of(authority("ROLE_USER"))))));
+        objetos.put("SesionRedisDTO", sesion());
+        return objetos;
+    }
+
+    private static int tamanio(Codec codec, Object objeto) throws IOException {
+        ByteBuf buf = codec.getValueEncoder().encode(objeto);
+        try {
+            return buf.readableBytes();
+        } finally {
+            buf.release();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T roundTrip(Codec codec, T objeto) throws IOException {
+        ByteBuf buf = codec.getValueEncoder().encode(objeto);
+        try {
+            return (T) codec.getValueDecoder().decode(buf, null);
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static Evento evento() {
+        return new Evento()
+            .id(40L)
+            .idCatedra(4L)
+            .titulo("Conferencia Nerd")
+            .resumen("Conferencia sobre desarrollo de software")
+            .descripcion("Charlas sobre arquitectura, rendimiento y buenas prácticas")
+            .fecha(AHORA)
+            .direccion("Pabellón 1, Ciudad Universitaria")
+            .imagen("https://example.org/conferencia.png")
+            .filaAsientos(20)
+            .columnaAsientos(30)
+            .precioEntrada(new BigDecimal("1500.50"))
+            .activo(true)
+            .fechaSincronizacion(AHORA);
+    }
+
+    private static User user(Set<Authority> authorities) {
+        User user = new User();
+        user.setId(7L);
+        user.setLogin("pablo.herrera");
+        user.setFirstName("Pablo");
+        user.setLastName("Herrera");
+        user.setEmail("pablo.herrera@example.org");
+        user.setActivated(true);
+        user.setLangKey("es");
+        user.setAuthorities(authorities);
+        return user;
+    }
+
+    private static Authority authority(String name) {
+        Authority authority = new Authority();
+        authority.setName(name);
+        return authority;
+    }
+
+    private static SesionRedisDTO sesion() {
+        SesionRedisDTO sesion = new SesionRedisDTO();
+        sesion.setSesionId(70L);
+        sesion.setEventoId(40L);
+        sesion.setUserId("7");
+        sesion.setEstado(EstadoSesion.CARGA_DATOS);
+        sesion.setAsientosSeleccionados(List.of(new AsientoSimpleDTO(5, 10), new AsientoSimpleDTO(5, 11), new AsientoSimpleDTO(5, 12)));
+        sesion.setNombresAsignados(Map.of("5-10", "María Fernanda Rodríguez", "5-11", "Juan Carlos Pérez", "5-12", "Ana Lucía Gómez"));
+        sesion.setUltimaActividad(AHORA);
+        sesion.setExpiracion(AHORA.plusSeconds(1800));
+        return sesion;
+    }
+}
@@ -0,0 +1,114 @@
+package com.evento.backend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.api.listener.StatusListener;
+
+class NearCacheTest {
+
+    private static final String REGION = "com.evento.backend.domain.EventoTipo";
+
+    private Cache<Object, Object> remoto;
+    private RTopic topic;
+    private MessageListener<NearCacheManager.Invalidacion> listener;
+    private Cache<Object, Object> cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        CacheManager delegado = mock(CacheManager.class);
+        remoto = mock(Cache.class);
+        when(remoto.getName()).thenReturn(REGION);
+        when(delegado.getCache(anyString())).thenReturn(remoto);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        topic = mock(RTopic.class);
+        when(redissonClient.getTopic(anyString())).thenReturn(topic);
+
+        ApplicationProperties.CacheLocal propiedades = new ApplicationProperties.CacheLocal();
+        propiedades.setMaxEntradas(2);
+        NearCacheManager manager = new NearCacheManager(delegado, redissonClient, propiedades, new SimpleMeterRegistry());
+        ArgumentCaptor<MessageListener<NearCacheManager.Invalidacion>> captor = ArgumentCaptor.forClass(MessageListener.class);
+        verify(topic).addListener(eq(NearCacheManager.Invalidacion.class), captor.capture());
+        verify(topic).addListener(any(StatusListener.class));
+        listener = captor.getValue();
+        cache = manager.getCache(REGION);
+    }
+
+    @Test
+    void lecturasRepetidasSeSirvenLocalmente() {
+        when(remoto.get(1L)).thenReturn("Conferencia");
+
+        assertThat(cache).isInstanceOf(NearCache.class);
+        assertThat(cache.get(1L)).isEqualTo("Conferencia");
+        assertThat(cache.get(1L)).isEqualTo("Conferencia");
+        assertThat(cache.containsKey(1L)).isTrue();
+
+        verify(remoto, times(1)).get(1L);
+    }
+
+    @Test
+    void escrituraLocalSePublicaYLaDeOtroNodoInvalida() {
+        when(remoto.get(1L)).thenReturn("Conferencia", "Congreso", "Seminario");
+        when(remoto.getAndPut(1L, "Congreso")).thenReturn("Conferencia");
+        cache.get(1L);
+
+        cache.put(1L, "Congreso");
+        verify(topic).publish(any(NearCacheManager.Invalidacion.class));
+        assertThat(cache.get(1L)).isEqualTo("Congreso");
+
+        // El mensaje propio (eco del topic) se ignora
+        ArgumentCaptor<NearCacheManager.Invalidacion> publicada = ArgumentCaptor.forClass(NearCacheManager.Invalidacion.class);
+        verify(topic).publish(publicada.capture());
+        listener.onMessage("cache:invalidaciones", publicada.getValue());
+        assertThat(cache.get(1L)).isEqualTo("Congreso");
+
+        // Escritura de otro nodo
+        listener.onMessage("cache:invalidaciones", new NearCacheManager.Invalidacion("otro-nodo", REGION, List.of(1L)));
+        assertThat(cache.get(1L)).isEqualTo("Seminario");
+        verify(remoto, times(3)).get(1L);
+    }
+
+    @Test
+    void cargaDesdeLaBaseSoloLlenaLaCopiaLocal() {
+        cache.put(2L, "Congreso");
+
+        verify(topic, never()).publish(any());
+        assertThat(cache.get(2L)).isEqualTo("Congreso");
+        verify(remoto, never()).get(2L);
+    }
+
+    @Test
+    void laCacheLocalEstaAcotadaYConservaLasClavesMasLeidas() {
+        when(remoto.get(any())).thenAnswer(invocation -> "valor-" + invocation.getArgument(0));
+        NearCache<?, ?> near = cache.unwrap(NearCache.class);
+
+        // Una clave leída en cada pedido entre una sucesión de claves leídas una sola vez
+        for (long id = 2; id <= 50; id++) {
+            cache.get(1L);
+            cache.get(id);
+            near.getEntradasLocales();
+        }
+
+        assertThat(near.getEntradasLocales()).isLessThanOrEqualTo(2);
+        cache.get(1L);
+        verify(remoto, times(1)).get(1L);
+    }
+}
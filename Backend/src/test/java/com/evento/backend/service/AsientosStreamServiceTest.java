@@ -0,0 +1,211 @@
+package com.evento.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.domain.enumeration.EstadoAsiento;
+import com.evento.backend.service.dto.AsientoDisponibilidadDTO;
+import com.evento.backend.service.dto.MatrizAsientosDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class AsientosStreamServiceTest {
+
+    private AsientosDisponibilidadService disponibilidadService;
+    private ApplicationProperties applicationProperties;
+    private AsientosStreamService streamService;
+
+    @BeforeEach
+    void setup() {
+        disponibilidadService = mock(AsientosDisponibilidadService.class);
+        applicationProperties = new ApplicationProperties();
+        // El poller se dispara a mano desde el test
+        applicationProperties.getDisponibilidad().setStreamIntervaloMs(3_600_000L);
+        streamService = new AsientosStreamService(
+            disponibilidadService,
+            new ObjectMapper().findAndRegisterModules(),
+            applicationProperties,
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @AfterEach
+    void cerrar() {
+        streamService.cerrar();
+    }
+
+    @Test
+    void unaConsultaPorEventoSirveATodosLosSuscriptores() throws Exception {
+        when(disponibilidadService.getDisponibilidadAsientos(eq(1L), eq(true), isNull())).thenReturn(matriz(10L, true, List.of()));
+        when(disponibilidadService.getDisponibilidadAsientos(eq(1L), eq(false), eq(10L))).thenReturn(
+            matriz(11L, false, List.of(new AsientoDisponibilidadDTO(1, 1, EstadoAsiento.VENDIDO)))
+        );
+        List<EmitterRegistro> emitters = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            EmitterRegistro emitter = new EmitterRegistro();
+            emitters.add(emitter);
+            streamService.suscribir(1L, emitter);
+        }
+
+        streamService.consultar(1L);
+
+        verify(disponibilidadService, times(1)).getDisponibilidadAsientos(eq(1L), eq(false), anyLong());
+        for (EmitterRegistro emitter : emitters) {
+            emitter.esperarEnvios(2);
+            assertThat(emitter.texto(0)).contains("event:snapshot").contains("id:10");
+            assertThat(emitter.texto(1)).contains("event:cambios").contains("id:11").contains("\"estado\":\"VENDIDO\"");
+        }
+    }
+
+    @Test
+    void snapshotAnteriorALaVersionDelCanalSeVuelveAPedir() throws Exception {
+        when(disponibilidadService.getDisponibilidadAsientos(eq(1L), eq(true), isNull())).thenReturn(
+            matriz(10L, true, List.of()),
+            matriz(10L, true, List.of()),
+            matriz(11L, true, List.of())
+        );
+        when(disponibilidadService.getDisponibilidadAsientos(eq(1L), eq(false), eq(10L))).thenReturn(
+            matriz(11L, false, List.of(new AsientoDisponibilidadDTO(1, 1, EstadoAsiento.VENDIDO)))
+        );
+        streamService.suscribir(1L, new EmitterRegistro());
+        streamService.consultar(1L);
+
+        // Su primer snapshot (10) es anterior al delta 11 ya publicado: se pide otro
+        EmitterRegistro tardio = new EmitterRegistro();
+        streamService.suscribir(1L, tardio);
+
+        tardio.esperarEnvios(1);
+        assertThat(tardio.texto(0)).contains("event:snapshot").contains("id:11");
+        verify(disponibilidadService, times(3)).getDisponibilidadAsientos(eq(1L), eq(true), isNull());
+    }
+
+    @Test
+    void laConsultaDeUnaSuscripcionNoBloqueaAlPoller() throws Exception {
+        when(disponibilidadService.getDisponibilidadAsientos(eq(1L), eq(true), isNull())).thenReturn(matriz(10L, true, List.of()));
+        when(disponibilidadService.getDisponibilidadAsientos(eq(1L), eq(false), eq(10L))).thenReturn(matriz(10L, false, List.of()));
+        streamService.suscribir(1L, new EmitterRegistro());
+
+        CountDownLatch enConsulta = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(disponibilidadService.getDisponibilidadAsientos(eq(1L), eq(true), isNull())).thenAnswer(invocation -> {
+            enConsulta.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return matriz(10L, true, List.of());
+        });
+        Thread lento = new Thread(() -> streamService.suscribir(1L, new EmitterRegistro()));
+        lento.start();
+        try {
+            assertThat(enConsulta.await(5, TimeUnit.SECONDS)).isTrue();
+            // Con el Proxy lento para el nuevo suscriptor, el poller del canal sigue consultando
+            CompletableFuture<Void> poll = CompletableFuture.runAsync(() -> streamService.consultar(1L));
+            poll.get(2, TimeUnit.SECONDS);
+        } finally {
+            liberar.countDown();
+            lento.join(5000);
+        }
+        assertThat(streamService.getSuscriptores()).isEqualTo(2);
+    }
+
+    @Test
+    void rechazaSuscriptoresPorEncimaDelMaximo() {
+        applicationProperties.getDisponibilidad().setStreamMaxSuscriptores(2);
+        when(disponibilidadService.getDisponibilidadAsientos(eq(1L), eq(true), isNull())).thenReturn(matriz(1L, true, List.of()));
+
+        streamService.suscribir(1L, new EmitterRegistro());
+        streamService.suscribir(1L, new EmitterRegistro());
+
+        assertThatThrownBy(() -> streamService.suscribir(1L, new EmitterRegistro())).isInstanceOf(SuscriptoresExcedidosException.class);
+        assertThat(streamService.getSuscriptores()).isEqualTo(2);
+    }
+
+    @Test
+    void clienteDesconectadoDetieneElPoller() throws Exception {
+        when(disponibilidadService.getDisponibilidadAsientos(eq(1L), eq(true), isNull())).thenReturn(matriz(1L, true, List.of()));
+        EmitterRegistro emitter = new EmitterRegistro();
+        emitter.fallar = true;
+
+        streamService.suscribir(1L, emitter);
+
+        long limite = System.currentTimeMillis() + 5000;
+        while (streamService.getCanalesActivos() > 0 && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(streamService.getCanalesActivos()).isZero();
+        assertThat(streamService.getSuscriptores()).isZero();
+    }
+
+    @Test
+    void eventoInexistenteNoDejaCanalAbierto() {
+        when(disponibilidadService.getDisponibilidadAsientos(eq(99L), eq(true), isNull())).thenThrow(
+            new EntityNotFoundException("Evento no encontrado: 99")
+        );
+
+        assertThatThrownBy(() -> streamService.suscribir(99L, new EmitterRegistro())).isInstanceOf(
+            EntityNotFoundException.class
+        );
+        assertThat(streamService.getCanalesActivos()).isZero();
+        assertThat(streamService.getSuscriptores()).isZero();
+    }
+
+    private static MatrizAsientosDTO matriz(Long version, boolean completo, List<AsientoDisponibilidadDTO> asientos) {
+        MatrizAsientosDTO matriz = new MatrizAsientosDTO();
+        matriz.setEventoId(1L);
+        matriz.setVersion(version);
+        matriz.setCompleto(completo);
+        matriz.setAsientos(asientos);
+        return matriz;
+    }
+
+    /**
+     * Emitter que registra los eventos enviados en lugar de escribir en una respuesta HTTP
+     */
+    private static class EmitterRegistro extends SseEmitter {
+
+        private final List<Set<DataWithMediaType>> enviados = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean fallar;
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+            if (fallar) {
+                throw new IOException("Cliente desconectado");
+            }
+            enviados.add(items);
+        }
+
+        private void esperarEnvios(int cantidad) throws InterruptedException {
+            long limite = System.currentTimeMillis() + 5000;
+            while (enviados.size() < cantidad && System.currentTimeMillis() < limite) {
+                Thread.sleep(10);
+            }
+            assertThat(enviados).hasSizeGreaterThanOrEqualTo(cantidad);
+        }
+
+        private String texto(int indice) {
+            StringBuilder texto = new StringBuilder();
+            enviados.get(indice).forEach(item -> texto.append(item.getData()));
+            return texto.toString();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.evento.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.evento.backend.config.CatedraProperties;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Token de cátedra contra un servidor de autenticación local: logins concurrentes, 401 y renovación anticipada.
+ */
+class CatedraAuthServiceTest {
+
+    private static final int THREADS = 32;
+
+    private final AtomicInteger logins = new AtomicInteger();
+    /** Tokens que el recurso protegido acepta (el último emitido). */
+    private final Set<String> aceptados = ConcurrentHashMap.newKeySet();
+
+    private volatile long vigenciaSegundos = 3600;
+
+    private HttpServer servidor;
+    private RestTemplate restTemplate;
+    private String baseUrl;
+    private CatedraProperties catedraProperties;
+    private CatedraAuthService service;
+
+    @BeforeEach
+    void setup() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.setExecutor(Executors.newFixedThreadPool(THREADS));
+        servidor.createContext("/api/authenticate", this::autenticar);
+        servidor.createContext("/api/recurso", this::recurso);
+        servidor.start();
+        baseUrl = "http://127.0.0.1:" + servidor.getAddress().getPort();
+
+        catedraProperties = new CatedraProperties();
+        catedraProperties.setBaseUrl(baseUrl);
+        catedraProperties.setUsername("alumno");
+        catedraProperties.setPassword("secreto");
+        restTemplate = new RestTemplate();
+        service = new CatedraAuthService(catedraProperties, restTemplate);
+    }
+
+    @AfterEach
+    void cerrar() {
+        servidor.stop(0);
+    }
+
+    @Test
+    void threadsSinTokenHacenUnSoloLogin() throws Exception {
+        List<String> tokens = enParalelo(() -> service.getValidToken());
+
+        assertThat(logins).hasValue(1);
+        assertThat(tokens).hasSize(THREADS).containsOnly(tokens.get(0));
+    }
+
+    @Test
+    void muchos401ConElMismoTokenRenuevanUnaVezYReintentan() throws Exception {
+        service.getValidToken();
+        // El token emitido deja de ser aceptado (p. ej. cátedra reinició y rotó la clave)
+        aceptados.clear();
+        logins.set(0);
+
+        List<String> respuestas = enParalelo(() -> service.conToken(this::consultarRecurso));
+
+        assertThat(respuestas).hasSize(THREADS).containsOnly("ok");
+        assertThat(logins).hasValue(1);
+    }
+
+    @Test
+    void tokenRechazadoTrasRenovarPropagaEl401() {
+        servidor.removeContext("/api/recurso");
+        servidor.createContext("/api/recurso", exchange -> responder(exchange, 401, ""));
+
+        assertThatThrownBy(() -> service.conToken(this::consultarRecurso)).isInstanceOf(HttpClientErrorException.Unauthorized.class);
+        assertThat(logins).hasValue(2);
+    }
+
+    @Test
+    void renuevaEnSegundoPlanoAntesDelVencimiento() {
+        catedraProperties.setRenovacionAnticipadaSegundos(300L);
+        vigenciaSegundos = 120;
+        String porVencer = service.getValidToken();
+
+        vigenciaSegundos = 3600;
+        service.renovarSiPorVencer();
+        String renovado = service.getValidToken();
+        service.renovarSiPorVencer();
+
+        assertThat(renovado).isNotEqualTo(porVencer);
+        assertThat(logins).hasValue(2);
+    }
+
+    @Test
+    void tokenVencidoSeRenuevaAntesDeUsarlo() {
+        vigenciaSegundos = 5;
+        String vencido = service.getValidToken();
+
+        vigenciaSegundos = 3600;
+        assertThat(service.getValidToken()).isNotEqualTo(vencido);
+        assertThat(CatedraAuthService.leerVencimiento("no-es-un-jwt")).isNull();
+    }
+
+    private String consultarRecurso(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return restTemplate.exchange(baseUrl + "/api/recurso", HttpMethod.GET, new HttpEntity<>(headers), String.class).getBody();
+    }
+
+    private <T> List<T> enParalelo(Callable<T> tarea) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<T>> futuros = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futuros.add(
+                    executor.submit(() -> {
+                        largada.await();
+                        return tarea.call();
+                    })
+                );
+            }
+            largada.countDown();
+            List<T> resultados = new ArrayList<>();
+            for (Future<T> futuro : futuros) {
+                resultados.add(futuro.get(10, TimeUnit.SECONDS));
+            }
+            return resultados;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void autenticar(HttpExchange exchange) throws IOException {
+        int numero = logins.incrementAndGet();
+        try {
+            // Login lento: da tiempo a que los demás threads lleguen con el token vacío
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String jwt = new PlainJWT(
+            new JWTClaimsSet.Builder()
+                .subject("alumno")
+                // jti único: "login" se reinicia en algunos tests y el token no debe repetirse
+                .jwtID(UUID.randomUUID().toString())
+                .claim("login", numero)
+                .expirationTime(Date.from(Instant.now().plusSeconds(vigenciaSegundos)))
+                .build()
+        ).serialize();
+        aceptados.clear();
+        aceptados.add(jwt);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        responder(exchange, 200, "{\"id_token\":\"" + jwt + "\"}");
+    }
+
+    private void recurso(HttpExchange exchange) throws IOException {
+        String autorizacion = exchange.getRequestHeaders().getFirst("Authorization");
+        boolean valido = autorizacion != null && aceptados.contains(autorizacion.substring("Bearer ".length()));
+        responder(exchange, valido ? 200 : 401, valido ? "ok" : "");
+    }
+
+    private static void responder(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
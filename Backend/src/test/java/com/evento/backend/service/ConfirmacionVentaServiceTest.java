@@ -0,0 +1,285 @@
+package com.evento.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.domain.Evento;
+import com.evento.backend.domain.enumeration.EstadoAsiento;
+import com.evento.backend.domain.enumeration.EstadoConfirmacion;
+import com.evento.backend.repository.EventoRepository;
+import com.evento.backend.service.dto.ConfirmacionVentaDTO;
+import com.evento.backend.service.dto.SesionRedisDTO;
+import com.evento.backend.service.dto.VentaDTO;
+import com.evento.backend.web.rest.errors.BadRequestAlertException;
+import com.evento.backend.service.helper.MatrizEstadoAsientos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RBucket;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class ConfirmacionVentaServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    private final Map<String, Object> redis = new ConcurrentHashMap<>();
+    private final CountDownLatch catedraLiberada = new CountDownLatch(1);
+
+    private SesionBusinessService sesionBusinessService;
+    private ApplicationProperties applicationProperties;
+    private ConfirmacionVentaService service;
+
+    @BeforeEach
+    void setup() {
+        sesionBusinessService = mock(SesionBusinessService.class);
+        SesionRedisService sesionRedisService = mock(SesionRedisService.class);
+        when(sesionRedisService.obtenerSesion(anyString())).thenReturn(Optional.of(new SesionRedisDTO()));
+
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getBucket(anyString())).thenAnswer(invocation -> bucket(invocation.getArgument(0)));
+        when(redissonClient.getTopic(anyString())).thenReturn(mock(RTopic.class));
+
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getConfirmacion().setWorkers(1);
+        applicationProperties.getConfirmacion().setCapacidadCola(1);
+        service = new ConfirmacionVentaService(
+            sesionBusinessService,
+            sesionRedisService,
+            redissonClient,
+            applicationProperties,
+            new SimpleMeterRegistry()
+        );
+        service.iniciar();
+    }
+
+    @AfterEach
+    void cerrar() {
+        catedraLiberada.countDown();
+        service.cerrar();
+    }
+
+    @Test
+    void respondeAntesDeQueCatedraConfirmeYTerminaSincronizada() throws Exception {
+        VentaDTO venta = new VentaDTO();
+        venta.setId(55L);
+        when(sesionBusinessService.confirmarVenta(USER_ID)).thenAnswer(invocation -> {
+            catedraLiberada.await(5, TimeUnit.SECONDS);
+            return venta;
+        });
+
+        ConfirmacionVentaDTO ticket = service.solicitar(USER_ID);
+
+        assertThat(ticket.getEstado()).isEqualTo(EstadoConfirmacion.EN_COLA);
+        // Un segundo pedido mientras la primera sigue en curso devuelve el mismo ticket
+        assertThat(service.solicitar(USER_ID).getTicket()).isEqualTo(ticket.getTicket());
+
+        catedraLiberada.countDown();
+        ConfirmacionVentaDTO resultado = esperarFinal(ticket.getTicket());
+        assertThat(resultado.getEstado()).isEqualTo(EstadoConfirmacion.SINCRONIZADA);
+        assertThat(resultado.getVentaId()).isEqualTo(55L);
+        assertThat(service.obtener(ticket.getTicket(), 8L)).isEmpty();
+    }
+
+    @Test
+    void ventaRechazadaTerminaEnErrorConElMotivo() throws Exception {
+        when(sesionBusinessService.confirmarVenta(USER_ID)).thenThrow(
+            new BadRequestAlertException("Venta rechazada: Asientos ya vendidos", "venta", "ventarechazada")
+        );
+
+        ConfirmacionVentaDTO resultado = esperarFinal(service.solicitar(USER_ID).getTicket());
+
+        assertThat(resultado.getEstado()).isEqualTo(EstadoConfirmacion.ERROR);
+        assertThat(resultado.getError()).isEqualTo("ventarechazada");
+        assertThat(resultado.getMensaje()).isEqualTo("Venta rechazada: Asientos ya vendidos");
+        // Terminada la anterior, el usuario puede volver a confirmar con un ticket nuevo
+        assertThat(service.solicitar(USER_ID).getTicket()).isNotEqualTo(resultado.getTicket());
+    }
+
+    @Test
+    void ticketSinLeaseTerminaEnErrorYElUsuarioPuedeReintentar() {
+        when(sesionBusinessService.confirmarVenta(USER_ID)).thenAnswer(invocation -> {
+            catedraLiberada.await(5, TimeUnit.SECONDS);
+            return new VentaDTO();
+        });
+        String ticket = service.solicitar(USER_ID).getTicket();
+        esperarEstado(ticket, USER_ID, EstadoConfirmacion.PROCESANDO);
+        // El nodo que la procesaba cayó: nadie renovó el lease y venció
+        redis.remove("compra:confirmacion:usuario:" + USER_ID);
+
+        ConfirmacionVentaDTO abandonada = service.obtener(ticket, USER_ID).orElseThrow();
+
+        assertThat(abandonada.getEstado()).isEqualTo(EstadoConfirmacion.ERROR);
+        assertThat(abandonada.getError()).isEqualTo("nododetenido");
+        assertThat(service.solicitar(USER_ID).getTicket()).isNotEqualTo(ticket);
+    }
+
+    @Test
+    void colaLlenaRechazaLaConfirmacion() {
+        when(sesionBusinessService.confirmarVenta(any())).thenAnswer(invocation -> {
+            catedraLiberada.await(5, TimeUnit.SECONDS);
+            return new VentaDTO();
+        });
+        String enWorker = service.solicitar(1L).getTicket();
+        esperarEstado(enWorker, 1L, EstadoConfirmacion.PROCESANDO);
+        service.solicitar(2L); // ocupa la cola
+
+        assertThatThrownBy(() -> service.solicitar(3L)).isInstanceOf(ConfirmacionesExcedidasException.class);
+        assertThat(redis.keySet()).noneMatch(key -> key.endsWith("usuario:3"));
+    }
+
+    @Test
+    void streamRecibeElEstadoActualYElFinal() throws Exception {
+        VentaDTO venta = new VentaDTO();
+        venta.setId(55L);
+        when(sesionBusinessService.confirmarVenta(USER_ID)).thenAnswer(invocation -> {
+            catedraLiberada.await(5, TimeUnit.SECONDS);
+            return venta;
+        });
+        ConfirmacionVentaDTO ticket = service.solicitar(USER_ID);
+        EmitterRegistro emitter = new EmitterRegistro();
+
+        service.suscribir(ticket.getTicket(), USER_ID, emitter);
+        catedraLiberada.countDown();
+
+        emitter.esperarEnvios(2);
+        assertThat(emitter.estado(0)).isIn(EstadoConfirmacion.EN_COLA, EstadoConfirmacion.PROCESANDO);
+        assertThat(emitter.estado(1)).isEqualTo(EstadoConfirmacion.SINCRONIZADA);
+    }
+
+    @Test
+    void elWorkerConsultaAlProxyConElTokenDeServicio() throws Exception {
+        try (ProxyLocal proxy = new ProxyLocal(4L, "{\"eventoId\":4,\"asientos\":[{\"fila\":1,\"columna\":1,\"estado\":\"Vendido\"}]}")) {
+            EventoRepository eventoRepository = mock(EventoRepository.class);
+            when(eventoRepository.findById(40L)).thenReturn(
+                Optional.of(new Evento().id(40L).idCatedra(4L).filaAsientos(2).columnaAsientos(2).activo(true))
+            );
+            AsientosDisponibilidadService disponibilidad = new AsientosDisponibilidadService(
+                eventoRepository,
+                proxy.cliente(applicationProperties),
+                new DisponibilidadCacheService(applicationProperties, new SimpleMeterRegistry()),
+                new DisponibilidadVersionService(applicationProperties)
+            );
+            VentaDTO venta = new VentaDTO();
+            venta.setId(55L);
+            // Como confirmarVenta: revalida los asientos contra el Proxy desde el thread del worker
+            when(sesionBusinessService.confirmarVenta(USER_ID)).thenAnswer(invocation -> {
+                assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+                MatrizEstadoAsientos matriz = disponibilidad.obtenerMatrizEstado(40L);
+                assertThat(matriz.getEstado(1, 1)).isEqualTo(EstadoAsiento.VENDIDO);
+                return venta;
+            });
+
+            ConfirmacionVentaDTO resultado = esperarFinal(service.solicitar(USER_ID).getTicket());
+
+            assertThat(resultado.getMensaje()).isNull();
+            assertThat(resultado.getEstado()).isEqualTo(EstadoConfirmacion.SINCRONIZADA);
+            assertThat(proxy.getRechazadas()).isZero();
+        }
+    }
+
+    private ConfirmacionVentaDTO esperarFinal(String ticket) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < limite) {
+            ConfirmacionVentaDTO confirmacion = service.obtener(ticket, USER_ID).orElseThrow();
+            if (confirmacion.isFinalizada()) {
+                return confirmacion;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("La confirmación " + ticket + " no terminó");
+    }
+
+    private void esperarEstado(String ticket, Long userId, EstadoConfirmacion estado) {
+        long limite = System.currentTimeMillis() + 5000;
+        while (service.obtener(ticket, userId).map(ConfirmacionVentaDTO::getEstado).orElse(null) != estado) {
+            assertThat(System.currentTimeMillis()).isLessThan(limite);
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Bucket de Redisson sobre un mapa en memoria
+     */
+    @SuppressWarnings("unchecked")
+    private RBucket<Object> bucket(String key) {
+        RBucket<Object> bucket = mock(RBucket.class);
+        when(bucket.get()).thenAnswer(invocation -> redis.get(key));
+        when(bucket.delete()).thenAnswer(invocation -> redis.remove(key) != null);
+        when(bucket.expire(any(Duration.class))).thenReturn(true);
+        when(bucket.setIfAbsent(any(), any(Duration.class))).thenAnswer(invocation ->
+            redis.putIfAbsent(key, invocation.getArgument(0)) == null
+        );
+        when(bucket.compareAndSet(any(), any())).thenAnswer(invocation -> {
+            Object esperado = invocation.getArgument(0);
+            Object nuevo = invocation.getArgument(1);
+            synchronized (redis) {
+                if (!Objects.equals(redis.get(key), esperado)) {
+                    return false;
+                }
+                if (nuevo == null) {
+                    redis.remove(key);
+                } else {
+                    redis.put(key, nuevo);
+                }
+                return true;
+            }
+        });
+        doAnswer(invocation -> redis.put(key, invocation.getArgument(0)))
+            .when(bucket)
+            .set(any(), any(Duration.class));
+        return bucket;
+    }
+
+    /**
+     * Emitter que registra los estados enviados en lugar de escribir en una respuesta HTTP.
+     * El estado se copia al enviar: sin Redis real, el worker sigue modificando la misma instancia.
+     */
+    private static class EmitterRegistro extends SseEmitter {
+
+        private final List<EstadoConfirmacion> enviados = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+            items
+                .stream()
+                .map(DataWithMediaType::getData)
+                .filter(ConfirmacionVentaDTO.class::isInstance)
+                .forEach(data -> enviados.add(((ConfirmacionVentaDTO) data).getEstado()));
+        }
+
+        private void esperarEnvios(int cantidad) throws InterruptedException {
+            long limite = System.currentTimeMillis() + 5000;
+            while (enviados.size() < cantidad && System.currentTimeMillis() < limite) {
+                Thread.sleep(10);
+            }
+            assertThat(enviados).hasSizeGreaterThanOrEqualTo(cantidad);
+        }
+
+        private EstadoConfirmacion estado(int indice) {
+            return enviados.get(indice);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.evento.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.service.dto.RedisResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DisponibilidadCacheServiceTest {
+
+    private MeterRegistry meterRegistry;
+    private ApplicationProperties applicationProperties;
+    private DisponibilidadCacheService cacheService;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getDisponibilidad().setCacheTtlMs(60_000L);
+        cacheService = new DisponibilidadCacheService(applicationProperties, meterRegistry);
+    }
+
+    @Test
+    void consultasConcurrentesSeAgrupanEnUnaLlamada() throws Exception {
+        AtomicInteger llamadas = new AtomicInteger();
+        CountDownLatch liberarProxy = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Optional<RedisResponseDTO>>> resultados = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                resultados.add(
+                    executor.submit(() ->
+                        cacheService.obtener(1L, () -> {
+                            llamadas.incrementAndGet();
+                            esperar(liberarProxy);
+                            return Optional.of(new RedisResponseDTO());
+                        })
+                    )
+                );
+            }
+            // Dar tiempo a que todos los hilos lleguen a la cache antes de liberar al Proxy
+            while (contador("miss") + contador("coalesced") < 8) {
+                Thread.sleep(5);
+            }
+            liberarProxy.countDown();
+            for (Future<Optional<RedisResponseDTO>> resultado : resultados) {
+                assertThat(resultado.get(5, TimeUnit.SECONDS)).isPresent();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(llamadas.get()).isEqualTo(1);
+        assertThat(contador("miss")).isEqualTo(1);
+        assertThat(contador("coalesced")).isEqualTo(7);
+    }
+
+    @Test
+    void invalidarFuerzaNuevaConsulta() {
+        AtomicInteger llamadas = new AtomicInteger();
+
+        cacheService.obtener(1L, () -> Optional.of(respuesta(llamadas.incrementAndGet())));
+        cacheService.obtener(1L, () -> Optional.of(respuesta(llamadas.incrementAndGet())));
+        assertThat(llamadas.get()).isEqualTo(1);
+        assertThat(contador("hit")).isEqualTo(1);
+
+        cacheService.invalidar(1L);
+        cacheService.obtener(1L, () -> Optional.of(respuesta(llamadas.incrementAndGet())));
+        assertThat(llamadas.get()).isEqualTo(2);
+    }
+
+    @Test
+    void erroresNoSeCachean() {
+        assertThatThrownBy(() ->
+            cacheService.obtener(1L, () -> {
+                throw new RuntimeException("Proxy no disponible");
+            })
+        ).hasMessage("Proxy no disponible");
+
+        assertThat(cacheService.obtener(1L, Optional::empty)).isEmpty();
+        assertThat(contador("miss")).isEqualTo(2);
+    }
+
+    @Test
+    void unErrorDelCargadorTambienLlegaALosQueEsperaban() throws Exception {
+        CountDownLatch liberarProxy = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<RedisResponseDTO>> cargador = executor.submit(() ->
+                cacheService.obtener(1L, () -> {
+                    esperar(liberarProxy);
+                    throw new NoClassDefFoundError("MatrizEstadoAsientos");
+                })
+            );
+            while (contador("miss") < 1) {
+                Thread.sleep(5);
+            }
+            Future<Optional<RedisResponseDTO>> agrupada = executor.submit(() -> cacheService.obtener(1L, Optional::empty));
+            while (contador("coalesced") < 1) {
+                Thread.sleep(5);
+            }
+            liberarProxy.countDown();
+
+            assertThatThrownBy(() -> agrupada.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(NoClassDefFoundError.class);
+            assertThatThrownBy(() -> cargador.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(NoClassDefFoundError.class);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(cacheService.obtener(1L, Optional::empty)).isEmpty();
+    }
+
+    @Test
+    void ttlCeroDesactivaLaCache() {
+        applicationProperties.getDisponibilidad().setCacheTtlMs(0L);
+        AtomicInteger llamadas = new AtomicInteger();
+
+        cacheService.obtener(1L, () -> Optional.of(respuesta(llamadas.incrementAndGet())));
+        cacheService.obtener(1L, () -> Optional.of(respuesta(llamadas.incrementAndGet())));
+
+        assertThat(llamadas.get()).isEqualTo(2);
+    }
+
+    private double contador(String resultado) {
+        return meterRegistry.get(DisponibilidadCacheService.CACHE_METER_NAME).tag("resultado", resultado).counter().count();
+    }
+
+    private static RedisResponseDTO respuesta(long eventoId) {
+        RedisResponseDTO response = new RedisResponseDTO();
+        response.setEventoId(eventoId);
+        return response;
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.evento.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.domain.enumeration.EstadoAsiento;
+import com.evento.backend.service.dto.AsientoDisponibilidadDTO;
+import com.evento.backend.service.dto.RedisAsientoDTO;
+import com.evento.backend.service.dto.RedisResponseDTO;
+import com.evento.backend.service.helper.MatrizEstadoAsientos;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DisponibilidadVersionServiceTest {
+
+    private static final Instant AHORA = Instant.parse("2025-12-01T10:00:00Z");
+
+    private ApplicationProperties applicationProperties;
+    private DisponibilidadVersionService versionService;
+
+    @BeforeEach
+    void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getDisponibilidad().setHistorialVersiones(2);
+        versionService = new DisponibilidadVersionService(applicationProperties);
+    }
+
+    @Test
+    void sinCambiosMantieneLaVersion() {
+        long inicial = versionService.registrar(1L, matriz(AHORA), AHORA, null).getVersion();
+
+        DisponibilidadVersionService.VersionAsientos resultado = versionService.registrar(1L, matriz(AHORA), AHORA, inicial);
+
+        assertThat(resultado.getVersion()).isEqualTo(inicial);
+        assertThat(resultado.isCompleto()).isFalse();
+        assertThat(resultado.getCambios().isEmpty()).isTrue();
+    }
+
+    @Test
+    void deltaIncluyeSoloAsientosModificados() {
+        long inicial = versionService.registrar(1L, matriz(AHORA), AHORA, null).getVersion();
+        versionService.registrar(1L, matriz(AHORA, asiento(1, 2, "Vendido", null, "Ana")), AHORA, null);
+        MatrizEstadoAsientos actual = matriz(AHORA, asiento(1, 2, "Vendido", null, "Ana"), asiento(3, 3, "Bloqueado", AHORA.plusSeconds(60), null));
+
+        DisponibilidadVersionService.VersionAsientos resultado = versionService.registrar(1L, actual, AHORA, inicial);
+
+        assertThat(resultado.getVersion()).isEqualTo(inicial + 2);
+        List<AsientoDisponibilidadDTO> delta = actual.toAsientosDTO(resultado.getCambios());
+        assertThat(delta).extracting(AsientoDisponibilidadDTO::getFila, AsientoDisponibilidadDTO::getColumna, AsientoDisponibilidadDTO::getEstado)
+            .containsExactly(
+                tuple(1, 2, EstadoAsiento.VENDIDO),
+                tuple(3, 3, EstadoAsiento.BLOQUEADO)
+            );
+    }
+
+    @Test
+    void bloqueoExpiradoGeneraNuevaVersion() {
+        RedisAsientoDTO bloqueo = asiento(2, 2, "Bloqueado", AHORA.plusSeconds(30), null);
+        long inicial = versionService.registrar(1L, matriz(AHORA, bloqueo), AHORA, null).getVersion();
+
+        // Mismo snapshot de Redis, pero el bloqueo ya expiró
+        DisponibilidadVersionService.VersionAsientos resultado = versionService.registrar(1L, matriz(AHORA.plusSeconds(31), bloqueo), AHORA, inicial);
+
+        assertThat(resultado.getVersion()).isEqualTo(inicial + 1);
+        assertThat(resultado.getCambios().stream().toArray()).containsExactly(4);
+    }
+
+    @Test
+    void clienteAtrasadoOVersionDesconocidaRecibeSnapshotCompleto() {
+        long inicial = versionService.registrar(1L, matriz(AHORA), AHORA, null).getVersion();
+        versionService.registrar(1L, matriz(AHORA, asiento(1, 1, "Vendido", null, "A")), AHORA, null);
+        versionService.registrar(1L, matriz(AHORA, asiento(1, 1, "Vendido", null, "A"), asiento(1, 2, "Vendido", null, "B")), AHORA, null);
+        versionService.registrar(1L, matriz(AHORA, asiento(1, 1, "Vendido", null, "A"), asiento(1, 3, "Vendido", null, "C")), AHORA, null);
+
+        // El historial conserva 2 cambios: inicial+1 ya no puede reconstruirse
+        assertThat(versionService.registrar(1L, matriz(AHORA), AHORA, inicial).isCompleto()).isTrue();
+        assertThat(versionService.registrar(2L, matriz(AHORA), AHORA, 12345L).isCompleto()).isTrue();
+    }
+
+    @Test
+    void versionDeOtroNodoRecibeSnapshotCompleto() {
+        DisponibilidadVersionService otroNodo = new DisponibilidadVersionService(applicationProperties);
+        long ajena = otroNodo.registrar(1L, matriz(AHORA), AHORA, null).getVersion();
+        otroNodo.registrar(1L, matriz(AHORA, asiento(1, 1, "Vendido", null, "A")), AHORA, null);
+        versionService.registrar(1L, matriz(AHORA), AHORA, null);
+        versionService.registrar(1L, matriz(AHORA, asiento(2, 2, "Vendido", null, "B")), AHORA, null);
+
+        assertThat(versionService.registrar(1L, matriz(AHORA), AHORA, ajena).isCompleto()).isTrue();
+        assertThat(versionService.registrar(1L, matriz(AHORA), AHORA, ajena + 1).isCompleto()).isTrue();
+    }
+
+    @Test
+    void matrizConsultadaAntesDeLaVigenteSeDescarta() {
+        MatrizEstadoAsientos nueva = matriz(AHORA, asiento(1, 2, "Vendido", null, "Ana"));
+        long inicial = versionService.registrar(1L, matriz(AHORA), AHORA, null).getVersion();
+        versionService.registrar(1L, nueva, AHORA.plusSeconds(2), null);
+
+        // La consulta que empezó antes termina última: no vuelve el asiento a disponible
+        DisponibilidadVersionService.VersionAsientos resultado = versionService.registrar(1L, matriz(AHORA), AHORA.plusSeconds(1), inicial);
+
+        assertThat(resultado.getVersion()).isEqualTo(inicial + 1);
+        assertThat(resultado.getMatriz()).isSameAs(nueva);
+        assertThat(resultado.getMatriz().getEstado(1, 2)).isEqualTo(EstadoAsiento.VENDIDO);
+    }
+
+    private static MatrizEstadoAsientos matriz(Instant ahora, RedisAsientoDTO... asientos) {
+        RedisResponseDTO response = new RedisResponseDTO();
+        response.setEventoId(1L);
+        response.setAsientos(new ArrayList<>(List.of(asientos)));
+        return MatrizEstadoAsientos.desde(3, 3, response, ahora);
+    }
+
+    private static RedisAsientoDTO asiento(int fila, int columna, String estado, Instant expira, String nombre) {
+        RedisAsientoDTO asiento = new RedisAsientoDTO();
+        asiento.setFila(fila);
+        asiento.setColumna(columna);
+        asiento.setEstado(estado);
+        asiento.setExpira(expira);
+        asiento.setNombrePersona(nombre);
+        return asiento;
+    }
+}
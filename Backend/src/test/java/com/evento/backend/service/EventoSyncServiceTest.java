@@ -0,0 +1,196 @@
+package com.evento.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.evento.backend.domain.Evento;
+import com.evento.backend.domain.EventoTipo;
+import com.evento.backend.domain.Integrante;
+import com.evento.backend.repository.EventoRepository;
+import com.evento.backend.repository.EventoTipoRepository;
+import com.evento.backend.repository.IntegranteRepository;
+import com.evento.backend.service.dto.EventoCatedraDTO;
+import com.evento.backend.service.dto.EventoTipoCatedraDTO;
+import com.evento.backend.service.dto.IntegranteCatedraDTO;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class EventoSyncServiceTest {
+
+    private CatedraApiClient catedraApiClient;
+    private EventoRepository eventoRepository;
+    private EventoTipoRepository eventoTipoRepository;
+    private IntegranteRepository integranteRepository;
+    private ContadorTransactionManager transactionManager;
+    private EventoSyncService syncService;
+
+    @BeforeEach
+    void setup() {
+        catedraApiClient = mock(CatedraApiClient.class);
+        eventoRepository = mock(EventoRepository.class);
+        eventoTipoRepository = mock(EventoTipoRepository.class);
+        integranteRepository = mock(IntegranteRepository.class);
+        transactionManager = new ContadorTransactionManager();
+        syncService = new EventoSyncService(catedraApiClient, eventoRepository, eventoTipoRepository, integranteRepository, transactionManager);
+        when(eventoRepository.save(any(Evento.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(eventoTipoRepository.findByNombre("Conferencia")).thenReturn(Optional.of(new EventoTipo().nombre("Conferencia")));
+    }
+
+    @Test
+    void sincronizaSoloLosEventosIndicados() {
+        Evento existente = new Evento().idCatedra(1L).activo(true);
+        when(eventoRepository.findByIdCatedra(1L)).thenReturn(Optional.of(existente));
+        when(catedraApiClient.getEvento(1L)).thenReturn(Optional.of(eventoCatedra(1L, "Nuevo título")));
+
+        EventoSyncService.SyncResult result = syncService.synchronizeEventos(List.of(1L, 1L));
+
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(existente.getTitulo()).isEqualTo("Nuevo título");
+        verify(catedraApiClient, never()).getEventosCompletos();
+        verify(eventoRepository, never()).findAll();
+    }
+
+    @Test
+    void desactivaEventoEliminadoYContinuaTrasUnError() {
+        Evento eliminado = new Evento().idCatedra(2L).activo(true);
+        when(eventoRepository.findByIdCatedra(2L)).thenReturn(Optional.of(eliminado));
+        when(eventoRepository.findByIdCatedra(4L)).thenReturn(Optional.empty());
+        when(catedraApiClient.getEvento(2L)).thenReturn(Optional.empty());
+        when(catedraApiClient.getEvento(3L)).thenThrow(new RuntimeException("cátedra no disponible"));
+        when(catedraApiClient.getEvento(4L)).thenReturn(Optional.of(eventoCatedra(4L, "Nuevo")));
+
+        EventoSyncService.SyncResult result = syncService.synchronizeEventos(List.of(2L, 3L, 4L));
+
+        assertThat(eliminado.getActivo()).isFalse();
+        assertThat(result.getDeactivated()).isEqualTo(1);
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getErrors()).hasSize(1).first().asString().contains("idCatedra=3");
+    }
+
+    @Test
+    void eventoSinCambiosNoSeEscribe() {
+        EventoCatedraDTO dto = eventoCatedra(5L, "Igual");
+        dto.setIntegrantes(List.of(new IntegranteCatedraDTO("Ana", "Pérez", "1")));
+        Evento existente = new Evento().idCatedra(5L).activo(true);
+        existente.setHashContenido(EventoSyncService.hashContenido(dto));
+        when(eventoRepository.findByIdCatedra(5L)).thenReturn(Optional.of(existente));
+        when(eventoRepository.findAll()).thenReturn(List.of(existente));
+        when(catedraApiClient.getEventosCompletos()).thenReturn(List.of(dto));
+
+        EventoSyncService.SyncResult result = syncService.synchronize();
+
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(result.getUpdated()).isZero();
+        assertThat(result.getDeactivated()).isZero();
+        verify(eventoRepository, never()).save(any(Evento.class));
+        verifyNoInteractions(integranteRepository, eventoTipoRepository);
+    }
+
+    @Test
+    void eventoModificadoSoloTocaLosIntegrantesQueCambiaron() {
+        Evento existente = new Evento().idCatedra(6L).activo(true);
+        existente.setHashContenido("hash-anterior");
+        Integrante ana = new Integrante().nombre("Ana").apellido("Pérez").identificacion("1");
+        Integrante beto = new Integrante().nombre("Beto").apellido("Gómez").identificacion("2");
+        when(eventoRepository.findByIdCatedra(6L)).thenReturn(Optional.of(existente));
+        when(integranteRepository.findByEvento(existente)).thenReturn(List.of(ana, beto));
+        EventoCatedraDTO dto = eventoCatedra(6L, "Cambiado");
+        dto.setIntegrantes(List.of(new IntegranteCatedraDTO("Beto", "Gómez", "2"), new IntegranteCatedraDTO("Caro", "Díaz", "3")));
+        when(catedraApiClient.getEvento(6L)).thenReturn(Optional.of(dto));
+
+        EventoSyncService.SyncResult result = syncService.synchronizeEventos(List.of(6L));
+
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(existente.getHashContenido()).isEqualTo(EventoSyncService.hashContenido(dto));
+        ArgumentCaptor<Integrante> creado = ArgumentCaptor.forClass(Integrante.class);
+        verify(integranteRepository).save(creado.capture());
+        assertThat(creado.getValue().getNombre()).isEqualTo("Caro");
+        verify(integranteRepository).deleteAll(List.of(ana));
+    }
+
+    @Test
+    void hashCambiaConElContenidoYNoConLaEscalaDelPrecio() {
+        EventoCatedraDTO dto = eventoCatedra(7L, "Concierto");
+        dto.setPrecioEntrada(new BigDecimal("100"));
+        dto.setIntegrantes(List.of(new IntegranteCatedraDTO("Ana", "Pérez", "1")));
+        String hash = EventoSyncService.hashContenido(dto);
+
+        dto.setPrecioEntrada(new BigDecimal("100.00"));
+        assertThat(EventoSyncService.hashContenido(dto)).isEqualTo(hash).hasSize(64);
+
+        dto.setIntegrantes(List.of(new IntegranteCatedraDTO("Ana", "Perez", "1")));
+        assertThat(EventoSyncService.hashContenido(dto)).isNotEqualTo(hash);
+    }
+
+    @Test
+    void consultaACatedraSinTransaccionYRollbackSoloDelEventoQueFalla() {
+        AtomicInteger consultasEnTransaccion = new AtomicInteger();
+        when(catedraApiClient.getEvento(any())).thenAnswer(invocation -> {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                consultasEnTransaccion.incrementAndGet();
+            }
+            return Optional.of(eventoCatedra(invocation.getArgument(0), "Evento " + invocation.getArgument(0)));
+        });
+        when(eventoRepository.findByIdCatedra(any())).thenReturn(Optional.empty());
+        when(eventoRepository.findByIdCatedra(9L)).thenThrow(new IllegalStateException("fila bloqueada"));
+
+        EventoSyncService.SyncResult result = syncService.synchronizeEventos(List.of(8L, 9L, 10L));
+
+        assertThat(consultasEnTransaccion).hasValue(0);
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getErrors()).hasSize(1).first().asString().contains("idCatedra=9");
+        assertThat(transactionManager.commits).hasValue(2);
+        assertThat(transactionManager.rollbacks).hasValue(1);
+    }
+
+    private static EventoCatedraDTO eventoCatedra(Long id, String titulo) {
+        EventoTipoCatedraDTO tipo = new EventoTipoCatedraDTO();
+        tipo.setNombre("Conferencia");
+        EventoCatedraDTO dto = new EventoCatedraDTO();
+        dto.setId(id);
+        dto.setTitulo(titulo);
+        dto.setEventoTipo(tipo);
+        return dto;
+    }
+
+    /**
+     * Transaction manager sin base de datos que cuenta commits y rollbacks
+     */
+    private static class ContadorTransactionManager extends AbstractPlatformTransactionManager {
+
+        private final AtomicInteger commits = new AtomicInteger();
+        private final AtomicInteger rollbacks = new AtomicInteger();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {}
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits.incrementAndGet();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks.incrementAndGet();
+        }
+    }
+}
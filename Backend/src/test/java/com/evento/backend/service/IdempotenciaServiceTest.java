@@ -0,0 +1,169 @@
+package com.evento.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.service.dto.AsientoSimpleDTO;
+import com.evento.backend.service.dto.SeleccionarAsientosRequestDTO;
+import com.evento.backend.service.dto.VentaDTO;
+import com.evento.backend.web.rest.errors.BadRequestAlertException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+class IdempotenciaServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    private final Map<String, Object> redis = new ConcurrentHashMap<>();
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+    private IdempotenciaService service;
+
+    @BeforeEach
+    void setup() {
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getBucket(anyString())).thenAnswer(invocation -> bucket(invocation.getArgument(0)));
+        service = new IdempotenciaService(
+            redissonClient,
+            new ObjectMapper().findAndRegisterModules(),
+            new ApplicationProperties(),
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @Test
+    void reintentoDevuelveLaRespuestaGuardadaSinEjecutarDeNuevo() {
+        ResponseEntity<VentaDTO> primera = service.ejecutar(USER_ID, "confirmar", "k1", null, VentaDTO.class, venta(55L));
+        ResponseEntity<VentaDTO> reintento = service.ejecutar(USER_ID, "confirmar", "k1", null, VentaDTO.class, venta(56L));
+
+        assertThat(ejecuciones.get()).isEqualTo(1);
+        assertThat(reintento.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(reintento.getBody().getId()).isEqualTo(55L);
+        assertThat(reintento.getHeaders().getFirst("X-Alerta")).isEqualTo("venta 55");
+        assertThat(reintento.getHeaders().getFirst(IdempotenciaService.HEADER_REPLAY)).isEqualTo("true");
+        assertThat(primera.getHeaders().containsKey(IdempotenciaService.HEADER_REPLAY)).isFalse();
+        // Otra key, otro usuario: se ejecuta
+        service.ejecutar(USER_ID, "confirmar", "k2", null, VentaDTO.class, venta(57L));
+        service.ejecutar(8L, "confirmar", "k1", null, VentaDTO.class, venta(58L));
+        assertThat(ejecuciones.get()).isEqualTo(3);
+    }
+
+    @Test
+    void reintentoConcurrenteEsperaAlPrimero() throws Exception {
+        CountDownLatch catedra = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<VentaDTO>> primera = CompletableFuture.supplyAsync(() ->
+            service.ejecutar(USER_ID, "confirmar", "k1", null, VentaDTO.class, () -> {
+                esperar(catedra);
+                return venta(55L).get();
+            })
+        );
+        while (redis.isEmpty()) {
+            Thread.onSpinWait();
+        }
+        CompletableFuture<ResponseEntity<VentaDTO>> reintento = CompletableFuture.supplyAsync(() ->
+            service.ejecutar(USER_ID, "confirmar", "k1", null, VentaDTO.class, venta(56L))
+        );
+
+        Thread.sleep(100);
+        assertThat(reintento).isNotDone();
+        catedra.countDown();
+
+        assertThat(primera.get(5, TimeUnit.SECONDS).getBody().getId()).isEqualTo(55L);
+        assertThat(reintento.get(5, TimeUnit.SECONDS).getBody().getId()).isEqualTo(55L);
+        assertThat(ejecuciones.get()).isEqualTo(1);
+    }
+
+    @Test
+    void errorDeNegocioSeRepiteYErrorInesperadoLiberaLaKey() {
+        Supplier<ResponseEntity<VentaDTO>> rechazada = () -> {
+            ejecuciones.incrementAndGet();
+            throw new BadRequestAlertException("Venta rechazada: Asientos ya vendidos", "venta", "ventarechazada");
+        };
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> service.ejecutar(USER_ID, "confirmar", "k1", null, VentaDTO.class, rechazada))
+                .isInstanceOfSatisfying(BadRequestAlertException.class, e -> assertThat(e.getErrorKey()).isEqualTo("ventarechazada"));
+        }
+        assertThat(ejecuciones.get()).isEqualTo(1);
+
+        Supplier<ResponseEntity<VentaDTO>> caida = () -> {
+            throw new IllegalStateException("Redis no disponible");
+        };
+        assertThatThrownBy(() -> service.ejecutar(USER_ID, "confirmar", "k2", null, VentaDTO.class, caida)).isInstanceOf(
+            IllegalStateException.class
+        );
+        assertThat(service.ejecutar(USER_ID, "confirmar", "k2", null, VentaDTO.class, venta(55L)).getBody().getId()).isEqualTo(55L);
+    }
+
+    @Test
+    void mismaKeyConOtroBodyEsRechazada() {
+        service.ejecutar(USER_ID, "seleccionar-asientos", "k1", seleccion(1, 1), VentaDTO.class, venta(55L));
+
+        assertThat(service.ejecutar(USER_ID, "seleccionar-asientos", "k1", seleccion(1, 1), VentaDTO.class, venta(56L)).getBody().getId())
+            .isEqualTo(55L);
+        assertThatThrownBy(() -> service.ejecutar(USER_ID, "seleccionar-asientos", "k1", seleccion(2, 2), VentaDTO.class, venta(57L)))
+            .isInstanceOfSatisfying(BadRequestAlertException.class, e ->
+                assertThat(e.getErrorKey()).isEqualTo("idempotencykeyreutilizada")
+            );
+        assertThat(ejecuciones.get()).isEqualTo(1);
+    }
+
+    private Supplier<ResponseEntity<VentaDTO>> venta(Long id) {
+        return () -> {
+            ejecuciones.incrementAndGet();
+            VentaDTO venta = new VentaDTO();
+            venta.setId(id);
+            return ResponseEntity.ok().header("X-Alerta", "venta " + id).body(venta);
+        };
+    }
+
+    private static SeleccionarAsientosRequestDTO seleccion(int fila, int columna) {
+        SeleccionarAsientosRequestDTO request = new SeleccionarAsientosRequestDTO();
+        request.setAsientos(List.of(new AsientoSimpleDTO(fila, columna)));
+        return request;
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Bucket de Redisson sobre un mapa en memoria
+     */
+    @SuppressWarnings("unchecked")
+    private RBucket<Object> bucket(String key) {
+        RBucket<Object> bucket = mock(RBucket.class);
+        when(bucket.get()).thenAnswer(invocation -> redis.get(key));
+        when(bucket.delete()).thenAnswer(invocation -> redis.remove(key) != null);
+        when(bucket.setIfAbsent(any(), any(Duration.class))).thenAnswer(invocation ->
+            redis.putIfAbsent(key, invocation.getArgument(0)) == null
+        );
+        doAnswer(invocation -> redis.put(key, invocation.getArgument(0)))
+            .when(bucket)
+            .set(any(), any(Duration.class));
+        return bucket;
+    }
+}
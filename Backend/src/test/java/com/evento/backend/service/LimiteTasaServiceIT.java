@@ -0,0 +1,65 @@
+package com.evento.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.evento.backend.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Token buckets de los límites de compra contra un Redis en contenedor. Requiere Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class LimiteTasaServiceIT {
+
+    private static GenericContainer<?> redis;
+    private static RedissonClient redissonClient;
+    private static LimiteTasaService service;
+
+    @BeforeAll
+    static void iniciarRedis() {
+        redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+        redis.start();
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://" + redis.getHost() + ":" + redis.getMappedPort(6379));
+        redissonClient = Redisson.create(config);
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Limite limite = new ApplicationProperties.Limite(2L, 3L);
+        limite.setIntervaloSegundos(2L);
+        applicationProperties.getLimiteTasa().setEndpoints(Map.of("confirmar", limite));
+        service = new LimiteTasaService(redissonClient, applicationProperties, new SimpleMeterRegistry());
+    }
+
+    @AfterAll
+    static void detenerRedis() {
+        redissonClient.shutdown();
+        redis.stop();
+    }
+
+    @Test
+    void limitaPorUsuarioYPorEvento() throws InterruptedException {
+        // Ráfaga del usuario: 2 solicitudes, luego espera ~1 s (2 tokens cada 2 s)
+        assertThat(service.consumir("confirmar", 1L, 10L)).isZero();
+        assertThat(service.consumir("confirmar", 1L, 10L)).isZero();
+        assertThat(service.consumir("confirmar", 1L, 10L)).isBetween(900L, 1000L);
+
+        // El rechazo del usuario no consumió del evento: queda 1 de 3
+        assertThat(service.consumir("confirmar", 2L, 10L)).isZero();
+        assertThat(service.consumir("confirmar", 3L, 10L)).isPositive();
+        // Otro evento tiene su propio bucket
+        assertThat(service.consumir("confirmar", 3L, 11L)).isZero();
+
+        Thread.sleep(1000);
+        assertThat(service.consumir("confirmar", 1L, 10L)).isZero();
+    }
+}
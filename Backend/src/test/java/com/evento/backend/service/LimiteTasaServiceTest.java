@@ -0,0 +1,92 @@
+package com.evento.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.web.rest.errors.LimiteTasaExcedidoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+import org.redisson.client.codec.Codec;
+import org.springframework.http.HttpHeaders;
+
+class LimiteTasaServiceTest {
+
+    private RScript script;
+    private SimpleMeterRegistry meterRegistry;
+    private LimiteTasaService service;
+
+    @BeforeEach
+    void setup() {
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        script = mock(RScript.class);
+        when(redissonClient.getScript(any(Codec.class))).thenReturn(script);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new LimiteTasaService(redissonClient, new ApplicationProperties(), meterRegistry);
+    }
+
+    @Test
+    void elBucketDelUsuarioEsElMismoEnTodosLosEventos() {
+        when(script.evalSha(any(), anyString(), eq(RScript.ReturnType.INTEGER), anyList(), any(Object[].class))).thenReturn(0L);
+
+        assertThat(service.consumir("confirmar", 7L, 40L)).isZero();
+        assertThat(service.consumir("confirmar", 7L, 41L)).isZero();
+
+        verify(script, times(2)).evalSha(any(), anyString(), eq(RScript.ReturnType.INTEGER), eq(List.of("limite:{usuario-7}:confirmar")), any(Object[].class));
+        verify(script).evalSha(any(), anyString(), eq(RScript.ReturnType.INTEGER), eq(List.of("limite:{40}:confirmar:evento")), any(Object[].class));
+        verify(script).evalSha(any(), anyString(), eq(RScript.ReturnType.INTEGER), eq(List.of("limite:{41}:confirmar:evento")), any(Object[].class));
+    }
+
+    @Test
+    void usuarioLimitadoNoConsumeDelEvento() {
+        when(script.evalSha(any(), anyString(), any(), eq(List.of("limite:{usuario-7}:confirmar")), any(Object[].class))).thenReturn(800L);
+
+        assertThat(service.consumir("confirmar", 7L, 40L)).isEqualTo(800L);
+
+        verify(script, never()).evalSha(any(), anyString(), any(), eq(List.of("limite:{40}:confirmar:evento")), any(Object[].class));
+        assertThat(meterRegistry.get(LimiteTasaService.METER_NAME).tag("endpoint", "confirmar").tag("resultado", "usuario").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void solicitudLimitadaDevuelveLaEsperaYCuentaElAmbito() {
+        when(script.evalSha(any(), anyString(), any(), anyList(), any(Object[].class))).thenReturn(0L);
+        when(script.evalSha(any(), anyString(), any(), eq(List.of("limite:{40}:seleccionar-asientos:evento")), any(Object[].class))).thenReturn(1500L);
+
+        long esperaMs = service.consumir("seleccionar-asientos", 7L, 40L);
+
+        assertThat(esperaMs).isEqualTo(1500L);
+        assertThat(meterRegistry.get(LimiteTasaService.METER_NAME).tag("endpoint", "seleccionar-asientos").tag("resultado", "evento").counter().count())
+            .isEqualTo(1.0);
+        assertThat(new LimiteTasaExcedidoException("seleccionar-asientos", esperaMs).getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+    }
+
+    @Test
+    void sinRedisLaSolicitudSigue() {
+        when(script.evalSha(any(), anyString(), any(), anyList(), any(Object[].class))).thenThrow(new RedisConnectionException("caído"));
+
+        assertThat(service.consumir("iniciar", 7L, null)).isZero();
+        assertThat(meterRegistry.get(LimiteTasaService.METER_NAME).tag("resultado", "error").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void endpointSinLimiteNoConsultaRedis() {
+        assertThat(service.consumir("asignar-nombres", 7L, 40L)).isZero();
+
+        verifyNoInteractions(script);
+    }
+}
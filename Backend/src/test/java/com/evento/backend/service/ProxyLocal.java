@@ -0,0 +1,91 @@
+package com.evento.backend.service;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.security.AuthoritiesConstants;
+import com.evento.backend.security.SecurityUtils;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Proxy local para tests: como el real, exige un JWT firmado con ROLE_SERVICE en /api/proxy/**
+ * y responde los asientos de un evento con un JSON fijo.
+ */
+final class ProxyLocal implements AutoCloseable {
+
+    private final SecretKey clave = new SecretKeySpec(new byte[64], SecurityUtils.JWT_ALGORITHM.getName());
+    private final NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(clave).macAlgorithm(SecurityUtils.JWT_ALGORITHM).build();
+    private final AtomicInteger rechazadas = new AtomicInteger();
+    private final HttpServer servidor;
+
+    /**
+     * @param eventoIdCatedra Evento cuyos asientos se responden
+     * @param asientosJson Cuerpo de la respuesta (RedisResponseDTO)
+     */
+    ProxyLocal(Long eventoIdCatedra, String asientosJson) throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/api/proxy/asientos/" + eventoIdCatedra, exchange -> responder(exchange, asientosJson));
+        servidor.start();
+    }
+
+    /**
+     * ProxyClientService real apuntando a este Proxy, con la credencial de servicio firmada con su clave.
+     */
+    ProxyClientService cliente(ApplicationProperties applicationProperties) {
+        applicationProperties.getProxy().setBaseUrl("http://127.0.0.1:" + servidor.getAddress().getPort());
+        return new ProxyClientService(
+            applicationProperties,
+            new ResilienciaService(applicationProperties, new SimpleMeterRegistry()),
+            new RestTemplate(),
+            new CredencialProxyService(new NimbusJwtEncoder(new ImmutableSecret<>(clave)))
+        );
+    }
+
+    int getRechazadas() {
+        return rechazadas.get();
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+    }
+
+    private void responder(HttpExchange exchange, String asientosJson) throws IOException {
+        byte[] body = autorizado(exchange.getRequestHeaders().getFirst("Authorization"))
+            ? asientosJson.getBytes(StandardCharsets.UTF_8)
+            : new byte[0];
+        if (body.length == 0) {
+            rechazadas.incrementAndGet();
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(body.length == 0 ? 401 : 200, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private boolean autorizado(String autorizacion) {
+        if (autorizacion == null || !autorizacion.startsWith("Bearer ")) {
+            return false;
+        }
+        try {
+            Jwt jwt = decoder.decode(autorizacion.substring("Bearer ".length()));
+            return AuthoritiesConstants.SERVICE.equals(jwt.getClaimAsString(SecurityUtils.AUTHORITIES_CLAIM));
+        } catch (JwtException e) {
+            return false;
+        }
+    }
+}
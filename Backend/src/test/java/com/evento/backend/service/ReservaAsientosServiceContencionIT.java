@@ -0,0 +1,239 @@
+package com.evento.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.config.RedisTestContainer;
+import com.evento.backend.domain.Evento;
+import com.evento.backend.domain.Sesion;
+import com.evento.backend.domain.enumeration.EstadoSesion;
+import com.evento.backend.repository.AsientoSeleccionadoRepository;
+import com.evento.backend.repository.AsientoVendidoRepository;
+import com.evento.backend.repository.EventoRepository;
+import com.evento.backend.repository.SesionRepository;
+import com.evento.backend.repository.UserRepository;
+import com.evento.backend.repository.VentaRepository;
+import com.evento.backend.service.dto.AsientoBloqueoResponseDTO;
+import com.evento.backend.service.dto.AsientoSimpleDTO;
+import com.evento.backend.service.dto.BloquearAsientosResponseDTO;
+import com.evento.backend.service.dto.RedisResponseDTO;
+import com.evento.backend.service.dto.SesionDTO;
+import com.evento.backend.service.dto.SesionRedisDTO;
+import com.evento.backend.service.helper.MatrizEstadoAsientos;
+import com.evento.backend.service.helper.VentaCreationHelper;
+import com.evento.backend.service.mapper.SesionMapper;
+import com.evento.backend.service.mapper.SesionRedisMapper;
+import com.evento.backend.service.mapper.VentaCatedraMapper;
+import com.evento.backend.service.mapper.VentaMapper;
+import com.evento.backend.web.rest.errors.BadRequestAlertException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Contención por los mismos asientos en {@link SesionBusinessService#seleccionarAsientos} con la
+ * reserva local contra el Redis de test: solo el usuario que gana la reserva de un asiento llega a
+ * bloquear en cátedra; los demás se rechazan sin llamarla. Requiere Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReservaAsientosServiceContencionIT {
+
+    private static final int USUARIOS = 50;
+    private static final Long ID_CATEDRA = 4L;
+
+    private static RedisTestContainer redisTestContainer;
+    private static RedissonClient redissonClient;
+
+    private ReservaAsientosService reservaAsientosService;
+    private CatedraClientService catedraClientService;
+    private SesionBusinessService service;
+    private Evento evento;
+
+    @BeforeAll
+    static void iniciarRedis() {
+        redisTestContainer = new RedisTestContainer();
+        redisTestContainer.afterPropertiesSet();
+        Config config = new Config();
+        config
+            .useSingleServer()
+            .setAddress(
+                "redis://" + redisTestContainer.getRedisContainer().getHost() + ":" + redisTestContainer.getRedisContainer().getMappedPort(6379)
+            );
+        redissonClient = Redisson.create(config);
+    }
+
+    @AfterAll
+    static void detenerRedis() {
+        redissonClient.shutdown();
+        redisTestContainer.destroy();
+    }
+
+    @BeforeEach
+    void setup() {
+        // El contenedor se reutiliza entre ejecuciones: sin reservas de una corrida anterior
+        redissonClient.getKeys().flushdb();
+        reservaAsientosService = new ReservaAsientosService(redissonClient, new ApplicationProperties(), new SimpleMeterRegistry());
+        catedraClientService = mock(CatedraClientService.class);
+        SesionRedisService sesionRedisService = mock(SesionRedisService.class);
+        SesionRepository sesionRepository = mock(SesionRepository.class);
+        AsientosDisponibilidadService asientosDisponibilidadService = mock(AsientosDisponibilidadService.class);
+        SesionMapper sesionMapper = mock(SesionMapper.class);
+
+        service = new SesionBusinessService(
+            sesionRedisService,
+            sesionRepository,
+            mock(EventoRepository.class),
+            mock(AsientoSeleccionadoRepository.class),
+            mock(UserRepository.class),
+            mock(VentaRepository.class),
+            mock(AsientoVendidoRepository.class),
+            asientosDisponibilidadService,
+            catedraClientService,
+            reservaAsientosService,
+            mock(SalaEsperaService.class),
+            mock(VentaReconciliacionService.class),
+            sesionMapper,
+            mock(VentaMapper.class),
+            mock(SesionRedisMapper.class),
+            mock(VentaCatedraMapper.class),
+            mock(VentaCreationHelper.class),
+            mock(PlatformTransactionManager.class)
+        );
+
+        // Una sesión por usuario (sesionId = userId), todas del mismo evento
+        when(sesionRedisService.obtenerSesion(anyString())).thenAnswer(invocation -> {
+            SesionRedisDTO sesionRedis = new SesionRedisDTO();
+            sesionRedis.setSesionId(Long.valueOf(invocation.<String>getArgument(0)));
+            return Optional.of(sesionRedis);
+        });
+        when(sesionRedisService.actualizarSeleccion(any(), any(), anyList())).thenReturn(true);
+        when(sesionRepository.findById(anyLong())).thenAnswer(invocation ->
+            Optional.of(new Sesion().id(invocation.getArgument(0)).estado(EstadoSesion.SELECCION_ASIENTOS).evento(evento))
+        );
+        when(sesionRepository.save(any(Sesion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sesionMapper.toDto(any(Sesion.class))).thenReturn(new SesionDTO());
+
+        // Todos ven los asientos libres en cátedra: la contención se resuelve en la reserva
+        when(asientosDisponibilidadService.obtenerMatrizEstado(anyLong())).thenAnswer(invocation -> {
+            RedisResponseDTO redis = new RedisResponseDTO();
+            redis.setAsientos(new ArrayList<>());
+            return MatrizEstadoAsientos.desde(10, 10, redis, Instant.now());
+        });
+        when(catedraClientService.bloquearAsientos(anyLong(), anyList())).thenAnswer(invocation -> {
+            List<AsientoBloqueoResponseDTO> bloqueados = new ArrayList<>();
+            for (AsientoSimpleDTO asiento : invocation.<List<AsientoSimpleDTO>>getArgument(1)) {
+                bloqueados.add(new AsientoBloqueoResponseDTO(asiento.getFila(), asiento.getColumna(), "Bloqueo exitoso"));
+            }
+            BloquearAsientosResponseDTO response = new BloquearAsientosResponseDTO();
+            response.setResultado(true);
+            response.setAsientos(bloqueados);
+            return response;
+        });
+    }
+
+    @Test
+    void soloUnUsuarioPorAsientoLlegaACatedra() throws Exception {
+        evento = evento(1L);
+        List<AsientoSimpleDTO> asientos = List.of(new AsientoSimpleDTO(5, 10), new AsientoSimpleDTO(5, 11));
+
+        List<Long> ganadores = competir(userId -> asientos);
+
+        assertThat(ganadores).hasSize(1);
+        verify(catedraClientService, times(1)).bloquearAsientos(eq(ID_CATEDRA), anyList());
+
+        // Al liberar (cátedra rechazó, cancelación o venta) otro usuario puede reservarlos
+        reservaAsientosService.liberar(1L, ganadores.get(0));
+        assertThat(reservaAsientosService.reservar(1L, ganadores.get(0) + 1, asientos)).isEmpty();
+    }
+
+    @Test
+    void seleccionesSuperpuestasSeReservanCompletasONada() throws Exception {
+        evento = evento(2L);
+
+        // Cada usuario pide 2 asientos contiguos de una fila de 10: las selecciones se superponen de a pares
+        List<Long> ganadores = competir(userId -> {
+            int columna = (int) (userId % 9) + 1;
+            return List.of(new AsientoSimpleDTO(1, columna), new AsientoSimpleDTO(1, columna + 1));
+        });
+
+        // Ningún asiento quedó seleccionado por dos usuarios y solo los ganadores bloquearon en cátedra
+        Set<Integer> columnas = new HashSet<>();
+        for (Long userId : ganadores) {
+            int columna = (int) (userId % 9) + 1;
+            assertThat(columnas.add(columna)).isTrue();
+            assertThat(columnas.add(columna + 1)).isTrue();
+        }
+        assertThat(ganadores.size()).isBetween(1, 5);
+        verify(catedraClientService, times(ganadores.size())).bloquearAsientos(eq(ID_CATEDRA), anyList());
+    }
+
+    /**
+     * Lanza la selección de todos los usuarios a la vez.
+     *
+     * @return Usuarios cuya selección se bloqueó en cátedra; el resto debe haberse rechazado por la reserva
+     */
+    private List<Long> competir(Function<Long, List<AsientoSimpleDTO>> seleccion) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(USUARIOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Optional<Long>>> resultados = new ArrayList<>();
+        try {
+            for (long userId = 1; userId <= USUARIOS; userId++) {
+                long usuario = userId;
+                resultados.add(
+                    executor.submit(() -> {
+                        largada.await();
+                        try {
+                            service.seleccionarAsientos(usuario, seleccion.apply(usuario));
+                            return Optional.of(usuario);
+                        } catch (BadRequestAlertException e) {
+                            assertThat(e.getErrorKey()).isEqualTo("asientoreservado");
+                            return Optional.empty();
+                        }
+                    })
+                );
+            }
+            largada.countDown();
+            List<Long> ganadores = new ArrayList<>();
+            for (Future<Optional<Long>> resultado : resultados) {
+                resultado.get(10, TimeUnit.SECONDS).ifPresent(ganadores::add);
+            }
+            return ganadores;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Evento evento(Long id) {
+        Evento evento = new Evento().idCatedra(ID_CATEDRA).filaAsientos(10).columnaAsientos(10);
+        evento.setId(id);
+        return evento;
+    }
+}
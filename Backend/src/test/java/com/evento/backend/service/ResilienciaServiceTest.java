@@ -0,0 +1,147 @@
+package com.evento.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.evento.backend.config.ApplicationProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Circuit breaker y bulkhead por operación remota, sin red: las llamadas son lambdas.
+ */
+class ResilienciaServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ResilienciaService service;
+
+    @BeforeEach
+    void setup() {
+        ApplicationProperties.Operacion operacion = new ApplicationProperties.Operacion();
+        operacion.setVentanaLlamadas(4);
+        operacion.setMinimoLlamadas(4);
+        operacion.setMaxConcurrentes(1);
+        operacion.setEsperaBulkheadMs(10L);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Operacion semiAbierta = new ApplicationProperties.Operacion();
+        semiAbierta.setVentanaLlamadas(2);
+        semiAbierta.setMinimoLlamadas(2);
+        semiAbierta.setAbiertoSegundos(1);
+        semiAbierta.setLlamadasSemiAbierto(1);
+        applicationProperties
+            .getResiliencia()
+            .setOperaciones(Map.of(ResilienciaService.BLOQUEAR, operacion, ResilienciaService.VENDER, semiAbierta));
+        meterRegistry = new SimpleMeterRegistry();
+        service = new ResilienciaService(applicationProperties, meterRegistry);
+    }
+
+    @Test
+    void timeoutsAbrenElCircuitoYLasLlamadasSeRechazanSinEjecutarse() {
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> service.ejecutar(ResilienciaService.BLOQUEAR, this::timeout)).isInstanceOf(
+                ResourceAccessException.class
+            );
+        }
+        assertThat(service.estado(ResilienciaService.BLOQUEAR)).isEqualTo(CircuitBreaker.State.OPEN);
+
+        AtomicInteger ejecutadas = new AtomicInteger();
+        assertThatThrownBy(() -> service.ejecutar(ResilienciaService.BLOQUEAR, ejecutadas::incrementAndGet)).isInstanceOf(
+            DependenciaNoDisponibleException.class
+        );
+
+        assertThat(ejecutadas).hasValue(0);
+        assertThat(contador("circuito")).isEqualTo(1.0);
+        assertThat(
+            meterRegistry
+                .get("resilience4j.circuitbreaker.state")
+                .tag("name", ResilienciaService.BLOQUEAR)
+                .tag("state", "open")
+                .gauge()
+                .value()
+        ).isEqualTo(1.0);
+    }
+
+    @Test
+    void errores4xxNoAbrenElCircuito() {
+        for (int i = 0; i < 8; i++) {
+            assertThatThrownBy(() ->
+                service.ejecutar(ResilienciaService.BLOQUEAR, () -> {
+                    throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+                })
+            ).isInstanceOf(HttpClientErrorException.class);
+        }
+
+        assertThat(service.estado(ResilienciaService.BLOQUEAR)).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void unErrorEnLaPruebaSemiAbiertaLiberaElPermiso() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> service.ejecutar(ResilienciaService.VENDER, this::timeout)).isInstanceOf(
+                ResourceAccessException.class
+            );
+        }
+        assertThat(service.estado(ResilienciaService.VENDER)).isEqualTo(CircuitBreaker.State.OPEN);
+        Thread.sleep(1100);
+
+        assertThatThrownBy(() ->
+            service.ejecutar(ResilienciaService.VENDER, () -> {
+                throw new StackOverflowError();
+            })
+        ).isInstanceOf(StackOverflowError.class);
+
+        // La única llamada de prueba quedó libre para el siguiente intento
+        assertThat(service.ejecutar(ResilienciaService.VENDER, () -> "ok")).isEqualTo("ok");
+        assertThat(service.estado(ResilienciaService.VENDER)).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void bulkheadLlenoRechazaLaLlamada() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<Boolean> ocupada = CompletableFuture.supplyAsync(() ->
+            service.ejecutar(ResilienciaService.BLOQUEAR, () -> {
+                enCurso.countDown();
+                try {
+                    return liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            })
+        );
+        assertThat(enCurso.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> service.ejecutar(ResilienciaService.BLOQUEAR, () -> true))
+            .isInstanceOf(DependenciaNoDisponibleException.class)
+            .hasMessageContaining("bulkhead");
+
+        liberar.countDown();
+        assertThat(ocupada.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.ejecutar(ResilienciaService.BLOQUEAR, () -> true)).isTrue();
+        assertThat(contador("bulkhead")).isEqualTo(1.0);
+    }
+
+    private Object timeout() {
+        throw new ResourceAccessException("Read timed out");
+    }
+
+    private double contador(String motivo) {
+        return meterRegistry
+            .get(ResilienciaService.METER_RECHAZOS)
+            .tag("operacion", ResilienciaService.BLOQUEAR)
+            .tag("motivo", motivo)
+            .counter()
+            .count();
+    }
+}
@@ -0,0 +1,92 @@
+package com.evento.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.domain.enumeration.EstadoAdmision;
+import com.evento.backend.service.dto.SalaEsperaDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Sala de espera contra un Redis en contenedor: orden de admisión, ritmo, tokens y abandono.
+ * Requiere Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SalaEsperaServiceIT {
+
+    private static GenericContainer<?> redis;
+    private static RedissonClient redissonClient;
+    private static SalaEsperaService service;
+
+    @BeforeAll
+    static void iniciarRedis() {
+        redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+        redis.start();
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://" + redis.getHost() + ":" + redis.getMappedPort(6379));
+        redissonClient = Redisson.create(config);
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.SalaEspera salaEspera = applicationProperties.getSalaEspera();
+        salaEspera.setEventos(List.of(1L, 2L));
+        salaEspera.setAdmisionesPorSegundo(1.0);
+        salaEspera.setRafaga(2);
+        salaEspera.setAbandonoSegundos(1);
+        service = new SalaEsperaService(redissonClient, applicationProperties, new SimpleMeterRegistry());
+    }
+
+    @AfterAll
+    static void detenerRedis() {
+        redissonClient.shutdown();
+        redis.stop();
+    }
+
+    @Test
+    void admiteEnOrdenDeLlegadaAlRitmoConfigurado() throws InterruptedException {
+        // La ráfaga admite a los dos primeros; el resto espera en orden
+        assertThat(service.consultar(1L, 1L).getEstado()).isEqualTo(EstadoAdmision.ADMITIDO);
+        assertThat(service.consultar(1L, 2L).getEstado()).isEqualTo(EstadoAdmision.ADMITIDO);
+        SalaEsperaDTO tercero = service.consultar(1L, 3L);
+        SalaEsperaDTO cuarto = service.consultar(1L, 4L);
+        assertThat(tercero.getEstado()).isEqualTo(EstadoAdmision.ESPERANDO);
+        assertThat(tercero.getPosicion()).isEqualTo(1L);
+        assertThat(cuarto.getPosicion()).isEqualTo(2L);
+        assertThat(cuarto.getEnCola()).isEqualTo(2L);
+
+        // Un segundo después se admite uno más
+        Thread.sleep(1100);
+        SalaEsperaDTO admitido = service.consultar(1L, 3L);
+        assertThat(admitido.getEstado()).isEqualTo(EstadoAdmision.ADMITIDO);
+        assertThat(service.consultar(1L, 4L).getPosicion()).isEqualTo(1L);
+
+        // El token es del usuario y del evento
+        assertThat(service.validarAdmision(1L, 3L, admitido.getToken())).isTrue();
+        assertThat(service.consultar(1L, 3L).getToken()).isEqualTo(admitido.getToken());
+        assertThat(service.validarAdmision(1L, 4L, admitido.getToken())).isFalse();
+        assertThat(service.validarAdmision(1L, 3L, null)).isFalse();
+        assertThat(service.validarAdmision(3L, 4L, null)).isTrue();
+        assertThat(service.consultar(3L, 4L).getEstado()).isEqualTo(EstadoAdmision.NO_REQUERIDA);
+    }
+
+    @Test
+    void quienDejaDeConsultarPierdeElLugar() throws InterruptedException {
+        service.consultar(2L, 1L);
+        service.consultar(2L, 2L);
+        service.consultar(2L, 3L); // deja de consultar
+        service.consultar(2L, 4L);
+
+        Thread.sleep(1100);
+        assertThat(service.consultar(2L, 4L).getEstado()).isEqualTo(EstadoAdmision.ADMITIDO);
+        assertThat(service.consultar(2L, 3L).getPosicion()).isEqualTo(1L); // vuelve a entrar al final
+    }
+}
@@ -0,0 +1,439 @@
+package com.evento.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.domain.AsientoSeleccionado;
+import com.evento.backend.domain.Evento;
+import com.evento.backend.domain.Sesion;
+import com.evento.backend.domain.User;
+import com.evento.backend.domain.Venta;
+import com.evento.backend.domain.enumeration.EstadoSesion;
+import com.evento.backend.domain.enumeration.EstadoSincronizacion;
+import com.evento.backend.repository.AsientoSeleccionadoRepository;
+import com.evento.backend.repository.AsientoVendidoRepository;
+import com.evento.backend.repository.EventoRepository;
+import com.evento.backend.repository.SesionRepository;
+import com.evento.backend.repository.UserRepository;
+import com.evento.backend.repository.VentaRepository;
+import com.evento.backend.service.dto.AsientoBloqueoResponseDTO;
+import com.evento.backend.service.dto.AsientoSimpleDTO;
+import com.evento.backend.service.dto.AsientoVentaDTO;
+import com.evento.backend.service.dto.AsientoVentaResponseDTO;
+import com.evento.backend.service.dto.BloquearAsientosResponseDTO;
+import com.evento.backend.service.dto.RealizarVentaRequestDTO;
+import com.evento.backend.service.dto.RealizarVentaResponseDTO;
+import com.evento.backend.service.dto.RedisResponseDTO;
+import com.evento.backend.service.dto.SesionDTO;
+import com.evento.backend.service.dto.SesionRedisDTO;
+import com.evento.backend.service.dto.VentaDTO;
+import com.evento.backend.service.helper.MatrizEstadoAsientos;
+import com.evento.backend.service.helper.VentaCreationHelper;
+import com.evento.backend.service.mapper.SesionMapper;
+import com.evento.backend.service.mapper.SesionRedisMapper;
+import com.evento.backend.service.mapper.VentaCatedraMapper;
+import com.evento.backend.service.mapper.VentaMapper;
+import com.evento.backend.web.rest.errors.BadRequestAlertException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class SesionBusinessServiceTest {
+
+    private static final Long USER_ID = 7L;
+    private static final Long SESION_ID = 70L;
+
+    private PoolConexionesTransactionManager transactionManager;
+    private SesionRedisService sesionRedisService;
+    private SesionRepository sesionRepository;
+    private AsientoSeleccionadoRepository asientoSeleccionadoRepository;
+    private VentaRepository ventaRepository;
+    private AsientosDisponibilidadService asientosDisponibilidadService;
+    private CatedraClientService catedraClientService;
+    private ReservaAsientosService reservaAsientosService;
+    private SalaEsperaService salaEsperaService;
+    private VentaReconciliacionService ventaReconciliacionService;
+    private VentaCreationHelper ventaCreationHelper;
+    private UserRepository userRepository;
+    private SesionMapper sesionMapper;
+    private VentaCatedraMapper ventaCatedraMapper;
+    private SesionBusinessService service;
+
+    private Sesion sesion;
+    // Estados con que se guardó la venta, en orden
+    private final List<EstadoSincronizacion> estadosVenta = new ArrayList<>();
+    // Conexiones en uso observadas durante cada llamada remota
+    private final List<Integer> conexionesDuranteLlamadasRemotas = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        transactionManager = new PoolConexionesTransactionManager();
+        sesionRedisService = mock(SesionRedisService.class);
+        sesionRepository = mock(SesionRepository.class);
+        asientoSeleccionadoRepository = mock(AsientoSeleccionadoRepository.class);
+        ventaRepository = mock(VentaRepository.class);
+        asientosDisponibilidadService = mock(AsientosDisponibilidadService.class);
+        catedraClientService = mock(CatedraClientService.class);
+        reservaAsientosService = mock(ReservaAsientosService.class);
+        salaEsperaService = mock(SalaEsperaService.class);
+        ventaReconciliacionService = mock(VentaReconciliacionService.class);
+        ventaCreationHelper = new VentaCreationHelper(new ObjectMapper().findAndRegisterModules(), new ApplicationProperties());
+        userRepository = mock(UserRepository.class);
+        sesionMapper = mock(SesionMapper.class);
+        ventaCatedraMapper = mock(VentaCatedraMapper.class);
+        VentaMapper ventaMapper = mock(VentaMapper.class);
+
+        service = new SesionBusinessService(
+            sesionRedisService,
+            sesionRepository,
+            mock(EventoRepository.class),
+            asientoSeleccionadoRepository,
+            userRepository,
+            ventaRepository,
+            mock(AsientoVendidoRepository.class),
+            asientosDisponibilidadService,
+            catedraClientService,
+            reservaAsientosService,
+            salaEsperaService,
+            ventaReconciliacionService,
+            sesionMapper,
+            ventaMapper,
+            mock(SesionRedisMapper.class),
+            ventaCatedraMapper,
+            ventaCreationHelper,
+            transactionManager
+        );
+
+        User usuario = new User();
+        usuario.setId(USER_ID);
+        Evento evento = new Evento().idCatedra(4L).filaAsientos(5).columnaAsientos(5).precioEntrada(new BigDecimal("100.00"));
+        evento.setId(40L);
+        sesion = new Sesion().id(SESION_ID).estado(EstadoSesion.CARGA_DATOS).usuario(usuario).evento(evento);
+
+        SesionRedisDTO sesionRedis = new SesionRedisDTO();
+        sesionRedis.setSesionId(SESION_ID);
+        when(sesionRedisService.obtenerSesion(USER_ID.toString())).thenReturn(Optional.of(sesionRedis));
+        when(sesionRedisService.actualizarSeleccion(any(), any(), anyList())).thenReturn(true);
+        when(sesionRepository.findById(SESION_ID)).thenReturn(Optional.of(sesion));
+        when(sesionRepository.save(any(Sesion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sesionMapper.toDto(any(Sesion.class))).thenReturn(new SesionDTO());
+        when(ventaCatedraMapper.toRealizarVentaRequest(any(), any(), anyList())).thenReturn(new RealizarVentaRequestDTO());
+
+        AtomicLong ids = new AtomicLong(100);
+        when(ventaRepository.save(any(Venta.class))).thenAnswer(invocation -> {
+            Venta venta = invocation.getArgument(0);
+            if (venta.getId() == null) {
+                venta.setId(ids.incrementAndGet());
+            }
+            estadosVenta.add(venta.getEstadoSincronizacion());
+            return venta;
+        });
+        when(ventaMapper.toDto(any(Venta.class))).thenAnswer(invocation -> {
+            VentaDTO dto = new VentaDTO();
+            dto.setId(invocation.<Venta>getArgument(0).getId());
+            return dto;
+        });
+
+        // Proxy y cátedra lentos: registran las conexiones en uso mientras "esperan"
+        when(asientosDisponibilidadService.obtenerMatrizEstado(anyLong())).thenAnswer(invocation -> {
+            registrarLlamadaRemota();
+            RedisResponseDTO redis = new RedisResponseDTO();
+            redis.setAsientos(new ArrayList<>());
+            return MatrizEstadoAsientos.desde(5, 5, redis, Instant.now());
+        });
+        when(catedraClientService.bloquearAsientos(anyLong(), anyList())).thenAnswer(invocation -> {
+            registrarLlamadaRemota();
+            List<AsientoBloqueoResponseDTO> bloqueados = new ArrayList<>();
+            for (AsientoSimpleDTO asiento : invocation.<List<AsientoSimpleDTO>>getArgument(1)) {
+                bloqueados.add(new AsientoBloqueoResponseDTO(asiento.getFila(), asiento.getColumna(), "Bloqueo exitoso"));
+            }
+            BloquearAsientosResponseDTO response = new BloquearAsientosResponseDTO();
+            response.setResultado(true);
+            response.setAsientos(bloqueados);
+            return response;
+        });
+    }
+
+    private void registrarLlamadaRemota() throws InterruptedException {
+        assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+        conexionesDuranteLlamadasRemotas.add(transactionManager.conexionesEnUso.get());
+        Thread.sleep(200);
+    }
+
+    @Test
+    void eventoConSalaDeEsperaRequiereAdmision() {
+        when(salaEsperaService.validarAdmision(40L, USER_ID, "token-vencido")).thenReturn(false);
+
+        assertThatThrownBy(() -> service.iniciarSesion(USER_ID, 40L, "token-vencido")).isInstanceOfSatisfying(
+            BadRequestAlertException.class,
+            e -> assertThat(e.getErrorKey()).isEqualTo("sinadmision")
+        );
+
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void seleccionNoRetieneConexionesDuranteLlamadasRemotas() {
+        sesion.setEstado(EstadoSesion.SELECCION_ASIENTOS);
+
+        service.seleccionarAsientos(USER_ID, List.of(new AsientoSimpleDTO(1, 1), new AsientoSimpleDTO(1, 2)));
+
+        assertThat(conexionesDuranteLlamadasRemotas).hasSize(2).containsOnly(0);
+        assertThat(sesion.getEstado()).isEqualTo(EstadoSesion.CARGA_DATOS);
+        assertThat(transactionManager.transacciones.get()).isEqualTo(2);
+        assertThat(transactionManager.conexionesEnUso.get()).isZero();
+    }
+
+    @Test
+    void asientoReservadoPorOtroUsuarioNoLlegaACatedra() {
+        sesion.setEstado(EstadoSesion.SELECCION_ASIENTOS);
+        when(reservaAsientosService.reservar(anyLong(), anyLong(), anyList())).thenReturn(Optional.of(new AsientoSimpleDTO(1, 2)));
+
+        assertThatThrownBy(() -> service.seleccionarAsientos(USER_ID, List.of(new AsientoSimpleDTO(1, 1), new AsientoSimpleDTO(1, 2))))
+            .isInstanceOfSatisfying(BadRequestAlertException.class, e -> assertThat(e.getErrorKey()).isEqualTo("asientoreservado"));
+
+        verify(catedraClientService, never()).bloquearAsientos(anyLong(), anyList());
+        assertThat(sesion.getEstado()).isEqualTo(EstadoSesion.SELECCION_ASIENTOS);
+    }
+
+    @Test
+    void bloqueoRechazadoPorCatedraLiberaLaReserva() {
+        sesion.setEstado(EstadoSesion.SELECCION_ASIENTOS);
+        BloquearAsientosResponseDTO rechazo = new BloquearAsientosResponseDTO();
+        rechazo.setResultado(false);
+        rechazo.setDescripcion("Asientos ocupados");
+        when(catedraClientService.bloquearAsientos(anyLong(), anyList())).thenReturn(rechazo);
+
+        assertThatThrownBy(() -> service.seleccionarAsientos(USER_ID, List.of(new AsientoSimpleDTO(1, 1)))).isInstanceOf(
+            BadRequestAlertException.class
+        );
+
+        verify(reservaAsientosService).liberar(40L, USER_ID);
+        assertThat(sesion.getEstado()).isEqualTo(EstadoSesion.SELECCION_ASIENTOS);
+    }
+
+    @Test
+    void confirmacionNoRetieneConexionesMientrasCatedraVende() {
+        when(asientoSeleccionadoRepository.findBySesionId(SESION_ID)).thenReturn(List.of(asiento(1, 1, "Ana Pérez")));
+        when(catedraClientService.realizarVenta(any())).thenAnswer(invocation -> {
+            registrarLlamadaRemota();
+            // La venta ya quedó registrada como PENDIENTE antes de llamar a cátedra
+            assertThat(estadosVenta).containsExactly(EstadoSincronizacion.PENDIENTE);
+            return respuestaVenta(true);
+        });
+
+        VentaDTO venta = service.confirmarVenta(USER_ID);
+
+        // Proxy, re-bloqueo (el asiento figura disponible) y venta
+        assertThat(conexionesDuranteLlamadasRemotas).hasSize(3).containsOnly(0);
+        assertThat(estadosVenta).containsExactly(EstadoSincronizacion.PENDIENTE, EstadoSincronizacion.SINCRONIZADA);
+        assertThat(venta.getId()).isNotNull();
+        assertThat(sesion.getEstado()).isEqualTo(EstadoSesion.COMPLETADO);
+        assertThat(transactionManager.conexionesEnUso.get()).isZero();
+    }
+
+    @Test
+    void reBloqueoEnLaConfirmacionRenuevaLaReservaLocal() {
+        when(asientoSeleccionadoRepository.findBySesionId(SESION_ID)).thenReturn(List.of(asiento(1, 1, "Ana Pérez"), asiento(1, 2, "Beto Gómez")));
+        when(catedraClientService.realizarVenta(any())).thenReturn(respuestaVenta(true));
+
+        service.confirmarVenta(USER_ID);
+
+        verify(reservaAsientosService).reservar(40L, USER_ID, List.of(new AsientoSimpleDTO(1, 1), new AsientoSimpleDTO(1, 2)));
+        verify(reservaAsientosService).liberar(40L, USER_ID);
+    }
+
+    @Test
+    void ventaRechazadaCompensaLaVentaPendiente() {
+        when(asientoSeleccionadoRepository.findBySesionId(SESION_ID)).thenReturn(List.of(asiento(1, 1, "Ana Pérez")));
+        when(catedraClientService.realizarVenta(any())).thenReturn(respuestaVenta(false));
+
+        assertThatThrownBy(() -> service.confirmarVenta(USER_ID)).isInstanceOf(BadRequestAlertException.class);
+
+        assertThat(estadosVenta).containsExactly(EstadoSincronizacion.PENDIENTE, EstadoSincronizacion.ERROR);
+        assertThat(sesion.getEstado()).isEqualTo(EstadoSesion.CARGA_DATOS);
+        assertThat(transactionManager.conexionesEnUso.get()).isZero();
+    }
+
+    @Test
+    void catedraNoDisponibleDejaLaVentaPendiente() {
+        when(asientoSeleccionadoRepository.findBySesionId(SESION_ID)).thenReturn(List.of(asiento(1, 1, "Ana Pérez")));
+        when(catedraClientService.realizarVenta(any())).thenThrow(new RuntimeException("timeout"));
+
+        assertThatThrownBy(() -> service.confirmarVenta(USER_ID)).isInstanceOf(BadRequestAlertException.class);
+
+        assertThat(estadosVenta).containsExactly(EstadoSincronizacion.PENDIENTE);
+        assertThat(transactionManager.rollbacks.get()).isZero();
+    }
+
+    @Test
+    void circuitoAbiertoEnElReBloqueoDejaLaVentaPendienteSinVender() {
+        when(asientoSeleccionadoRepository.findBySesionId(SESION_ID)).thenReturn(List.of(asiento(1, 1, "Ana Pérez")));
+        when(catedraClientService.bloquearAsientos(anyLong(), anyList())).thenThrow(
+            new DependenciaNoDisponibleException(ResilienciaService.BLOQUEAR, "circuito OPEN")
+        );
+
+        assertThatThrownBy(() -> service.confirmarVenta(USER_ID))
+            .isInstanceOf(BadRequestAlertException.class)
+            .hasMessageContaining("cátedra no disponible");
+
+        assertThat(estadosVenta).containsExactly(EstadoSincronizacion.PENDIENTE);
+        verify(catedraClientService, never()).realizarVenta(any());
+    }
+
+    @Test
+    void ventaAnteriorRegistradaEnCatedraSeConfirmaSinReenviar() {
+        Venta anterior = ventaPendienteAnterior();
+        when(ventaReconciliacionService.buscarEnCatedra(eq(anterior.getFechaVenta()), any())).thenReturn(Optional.of(respuestaVenta(true)));
+
+        VentaDTO venta = service.confirmarVenta(USER_ID);
+
+        assertThat(venta.getId()).isEqualTo(anterior.getId());
+        assertThat(anterior.getIdVentaCatedra()).isEqualTo(1234L);
+        assertThat(estadosVenta).containsExactly(EstadoSincronizacion.SINCRONIZADA);
+        assertThat(sesion.getEstado()).isEqualTo(EstadoSesion.COMPLETADO);
+        verify(catedraClientService, never()).realizarVenta(any());
+    }
+
+    @Test
+    void ventaAnteriorQueNoLlegoACatedraSeReemplaza() {
+        Venta anterior = ventaPendienteAnterior();
+        when(ventaReconciliacionService.buscarEnCatedra(any(), any())).thenReturn(Optional.empty());
+        when(catedraClientService.realizarVenta(any())).thenReturn(respuestaVenta(true));
+
+        VentaDTO venta = service.confirmarVenta(USER_ID);
+
+        assertThat(venta.getId()).isNotEqualTo(anterior.getId());
+        assertThat(anterior.getEstadoSincronizacion()).isEqualTo(EstadoSincronizacion.ERROR);
+        assertThat(estadosVenta).containsExactly(
+            EstadoSincronizacion.ERROR,
+            EstadoSincronizacion.PENDIENTE,
+            EstadoSincronizacion.SINCRONIZADA
+        );
+    }
+
+    @Test
+    void sinPoderVerificarLaVentaAnteriorNoSeRegistraOtra() {
+        Venta anterior = ventaPendienteAnterior();
+        when(ventaReconciliacionService.buscarEnCatedra(any(), any())).thenThrow(new RuntimeException("timeout"));
+
+        assertThatThrownBy(() -> service.confirmarVenta(USER_ID)).isInstanceOfSatisfying(
+            BadRequestAlertException.class,
+            e -> assertThat(e.getErrorKey()).isEqualTo("catedradown")
+        );
+
+        assertThat(anterior.getEstadoSincronizacion()).isEqualTo(EstadoSincronizacion.PENDIENTE);
+        assertThat(estadosVenta).isEmpty();
+        verify(ventaReconciliacionService).liberar(anterior.getId());
+    }
+
+    @Test
+    void ventaAnteriorEnManosDeLaReconciliacionRechazaLaConfirmacion() {
+        ventaPendienteAnterior();
+        when(ventaReconciliacionService.reclamarParaConfirmacion(anyLong())).thenReturn(false);
+
+        assertThatThrownBy(() -> service.confirmarVenta(USER_ID)).isInstanceOfSatisfying(
+            BadRequestAlertException.class,
+            e -> assertThat(e.getErrorKey()).isEqualTo("ventapendiente")
+        );
+
+        assertThat(estadosVenta).isEmpty();
+        verify(ventaReconciliacionService, never()).buscarEnCatedra(any(), any());
+    }
+
+    /**
+     * Venta PENDIENTE de un intento anterior en que cátedra no respondió
+     */
+    private Venta ventaPendienteAnterior() {
+        when(asientoSeleccionadoRepository.findBySesionId(SESION_ID)).thenReturn(List.of(asiento(1, 1, "Ana Pérez")));
+        RealizarVentaRequestDTO solicitud = new RealizarVentaRequestDTO();
+        solicitud.setEventoId(4L);
+        solicitud.setAsientos(List.of(new AsientoVentaDTO(1, 1, "Ana Pérez")));
+        Venta anterior = ventaCreationHelper.crearVentaPendiente(sesion.getUsuario(), sesion.getEvento(), new BigDecimal("100.00"), solicitud);
+        anterior.setId(90L);
+        when(ventaRepository.findByUsuarioIdAndEventoIdAndEstadoSincronizacion(USER_ID, 40L, EstadoSincronizacion.PENDIENTE)).thenReturn(
+            List.of(anterior)
+        );
+        when(ventaReconciliacionService.reclamarParaConfirmacion(90L)).thenReturn(true);
+        return anterior;
+    }
+
+    private AsientoSeleccionado asiento(int fila, int columna, String nombre) {
+        AsientoSeleccionado asiento = new AsientoSeleccionado();
+        asiento.setSesion(sesion);
+        asiento.setFila(fila);
+        asiento.setColumna(columna);
+        asiento.setNombrePersona(nombre);
+        return asiento;
+    }
+
+    private static RealizarVentaResponseDTO respuestaVenta(boolean resultado) {
+        RealizarVentaResponseDTO response = new RealizarVentaResponseDTO();
+        response.setResultado(resultado);
+        if (resultado) {
+            response.setVentaId(1234L);
+            AsientoVentaResponseDTO asiento = new AsientoVentaResponseDTO();
+            asiento.setFila(1);
+            asiento.setColumna(1);
+            asiento.setPersona("Ana Pérez");
+            response.setAsientos(List.of(asiento));
+        } else {
+            response.setDescripcion("Asientos ya vendidos");
+        }
+        return response;
+    }
+
+    /**
+     * Transaction manager que simula el pool: cada transacción toma una conexión hasta terminar
+     */
+    private static class PoolConexionesTransactionManager extends AbstractPlatformTransactionManager {
+
+        private final AtomicInteger conexionesEnUso = new AtomicInteger();
+        private final AtomicInteger transacciones = new AtomicInteger();
+        private final AtomicInteger rollbacks = new AtomicInteger();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            conexionesEnUso.incrementAndGet();
+            transacciones.incrementAndGet();
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {}
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks.incrementAndGet();
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            conexionesEnUso.decrementAndGet();
+        }
+    }
+}
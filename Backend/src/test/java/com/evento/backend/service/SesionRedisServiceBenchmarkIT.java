@@ -0,0 +1,189 @@
+package com.evento.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.domain.enumeration.EstadoSesion;
+import com.evento.backend.service.dto.AsientoSimpleDTO;
+import com.evento.backend.service.dto.SesionRedisDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.redisnode.RedisNode;
+import org.redisson.api.redisnode.RedisNodes;
+import org.redisson.codec.JsonJacksonCodec;
+import org.redisson.config.Config;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Benchmark de bytes y round trips por paso de la compra contra un Redis en contenedor:
+ * sesión como objeto completo en un bucket (formato anterior) contra sesión como hash con
+ * actualización por campo. Mide con INFO stats (bytes recibidos/enviados por Redis y comandos
+ * procesados; cada comando es un round trip porque ninguno de los dos modos usa pipelining).
+ *
+ * También verifica la migración de una sesión guardada con el formato anterior. Requiere Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SesionRedisServiceBenchmarkIT {
+
+    private static final String USER_ID = "7";
+    private static final String KEY = "sesion:usuario:" + USER_ID;
+
+    private static GenericContainer<?> redis;
+    private static RedissonClient redissonClient;
+    private static SesionRedisService service;
+
+    @BeforeAll
+    static void iniciarRedis() {
+        redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+        redis.start();
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://" + redis.getHost() + ":" + redis.getMappedPort(6379));
+        config.setCodec(new JsonJacksonCodec(objectMapper));
+        redissonClient = Redisson.create(config);
+        service = new SesionRedisService(redissonClient, objectMapper, new ApplicationProperties());
+    }
+
+    @AfterAll
+    static void detenerRedis() {
+        redissonClient.shutdown();
+        redis.stop();
+    }
+
+    @Test
+    void comparaObjetoCompletoContraHashPorPaso() {
+        List<AsientoSimpleDTO> asientos = List.of(new AsientoSimpleDTO(5, 10), new AsientoSimpleDTO(5, 11), new AsientoSimpleDTO(5, 12));
+        Map<String, String> nombres = new HashMap<>();
+        nombres.put("5-10", "María Fernanda Rodríguez");
+        nombres.put("5-11", "Juan Carlos Pérez");
+        nombres.put("5-12", "Ana Lucía Gómez");
+
+        // Calentar el cache de scripts de Redis y las conexiones
+        service.guardarSesion(USER_ID, sesion());
+        service.obtenerSesion(USER_ID);
+        service.actualizarSeleccion(USER_ID, EstadoSesion.CARGA_DATOS, asientos);
+        service.actualizarNombres(USER_ID, nombres);
+        RBucket<SesionRedisDTO> bucket = redissonClient.getBucket(KEY + ":anterior");
+        bucket.set(sesion(), 1800, TimeUnit.SECONDS);
+        bucket.get();
+
+        System.out.println("paso                  anterior (cmds / bytes)   hash (cmds / bytes)");
+        imprimir("iniciar", medir(() -> bucket.set(sesion(), 1800, TimeUnit.SECONDS)), medir(() -> service.guardarSesion(USER_ID, sesion())));
+        imprimir(
+            "seleccionar-asientos",
+            medir(() -> {
+                SesionRedisDTO sesion = bucket.get();
+                sesion.setEstado(EstadoSesion.CARGA_DATOS);
+                sesion.setAsientosSeleccionados(asientos);
+                bucket.set(sesion, 1800, TimeUnit.SECONDS);
+            }),
+            medir(() -> {
+                service.obtenerSesion(USER_ID);
+                service.actualizarSeleccion(USER_ID, EstadoSesion.CARGA_DATOS, asientos);
+            })
+        );
+        imprimir(
+            "asignar-nombres",
+            medir(() -> {
+                SesionRedisDTO sesion = bucket.get();
+                sesion.setNombresAsignados(nombres);
+                bucket.set(sesion, 1800, TimeUnit.SECONDS);
+            }),
+            medir(() -> {
+                service.obtenerSesion(USER_ID);
+                service.actualizarNombres(USER_ID, nombres);
+            })
+        );
+        Medicion keepAliveAnterior = medir(() -> {
+            if (bucket.isExists()) {
+                bucket.set(bucket.get(), 1800, TimeUnit.SECONDS);
+            }
+        });
+        Medicion keepAlive = medir(() -> service.actualizarActividad(USER_ID));
+        imprimir("keep-alive", keepAliveAnterior, keepAlive);
+
+        assertThat(keepAlive.comandos).isEqualTo(1);
+        assertThat(keepAlive.bytes).isLessThan(keepAliveAnterior.bytes);
+        SesionRedisDTO leida = service.obtenerSesion(USER_ID).orElseThrow();
+        assertThat(leida.getEstado()).isEqualTo(EstadoSesion.CARGA_DATOS);
+        assertThat(leida.getAsientosSeleccionados()).hasSize(3);
+        assertThat(leida.getNombresAsignados()).isEqualTo(nombres);
+    }
+
+    @Test
+    void sesionConFormatoAnteriorSeMigraAlLeerla() {
+        String userId = "8";
+        RBucket<SesionRedisDTO> bucket = redissonClient.getBucket("sesion:usuario:" + userId);
+        SesionRedisDTO anterior = sesion();
+        anterior.setUserId(userId);
+        bucket.set(anterior, 600, TimeUnit.SECONDS);
+
+        SesionRedisDTO migrada = service.obtenerSesion(userId).orElseThrow();
+
+        assertThat(migrada.getSesionId()).isEqualTo(70L);
+        assertThat(redissonClient.getKeys().getType("sesion:usuario:" + userId).name()).isEqualTo("MAP");
+        assertThat(service.obtenerTiempoRestante(userId)).isBetween(590L, 600L);
+        assertThat(service.actualizarNombres(userId, Map.of("5-10", "Ana Gómez"))).isTrue();
+    }
+
+    private static SesionRedisDTO sesion() {
+        SesionRedisDTO sesion = new SesionRedisDTO();
+        sesion.setSesionId(70L);
+        sesion.setEventoId(40L);
+        sesion.setUserId(USER_ID);
+        sesion.setEstado(EstadoSesion.SELECCION_ASIENTOS);
+        sesion.setUltimaActividad(Instant.now());
+        sesion.setExpiracion(Instant.now().plusSeconds(1800));
+        return sesion;
+    }
+
+    private static Medicion medir(Runnable paso) {
+        Map<String, String> antes = info();
+        Map<String, String> base = info(); // costo de la propia consulta INFO
+        paso.run();
+        Map<String, String> despues = info();
+        long costoInfoComandos = diferencia(antes, base, "total_commands_processed");
+        long costoInfoBytes = diferencia(antes, base, "total_net_input_bytes") + diferencia(antes, base, "total_net_output_bytes");
+        long comandos = diferencia(base, despues, "total_commands_processed") - costoInfoComandos;
+        long bytes =
+            diferencia(base, despues, "total_net_input_bytes") + diferencia(base, despues, "total_net_output_bytes") - costoInfoBytes;
+        return new Medicion(comandos, bytes);
+    }
+
+    private static Map<String, String> info() {
+        return redissonClient.getRedisNodes(RedisNodes.SINGLE).getInstance().info(RedisNode.InfoSection.STATS);
+    }
+
+    private static long diferencia(Map<String, String> antes, Map<String, String> despues, String metrica) {
+        return Long.parseLong(despues.get(metrica)) - Long.parseLong(antes.get(metrica));
+    }
+
+    private static void imprimir(String paso, Medicion anterior, Medicion hash) {
+        System.out.printf("%-21s %4d / %6d              %4d / %6d%n", paso, anterior.comandos, anterior.bytes, hash.comandos, hash.bytes);
+    }
+
+    private static final class Medicion {
+
+        private final long comandos;
+        private final long bytes;
+
+        private Medicion(long comandos, long bytes) {
+            this.comandos = comandos;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.evento.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.domain.enumeration.EstadoSesion;
+import com.evento.backend.service.dto.AsientoSimpleDTO;
+import com.evento.backend.service.dto.SesionRedisDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.Codec;
+
+class SesionRedisServiceTest {
+
+    private RScript script;
+    private SesionRedisService service;
+
+    @BeforeEach
+    void setup() {
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        script = mock(RScript.class);
+        when(redissonClient.getScript(any(Codec.class))).thenReturn(script);
+        service = new SesionRedisService(redissonClient, new ObjectMapper().findAndRegisterModules(), new ApplicationProperties());
+    }
+
+    @Test
+    void camposDelHashConservanLaSesion() {
+        SesionRedisDTO sesion = new SesionRedisDTO();
+        sesion.setSesionId(70L);
+        sesion.setEventoId(40L);
+        sesion.setUserId("7");
+        sesion.setEstado(EstadoSesion.CARGA_DATOS);
+        sesion.setAsientosSeleccionados(List.of(new AsientoSimpleDTO(2, 3), new AsientoSimpleDTO(2, 4)));
+        sesion.setNombresAsignados(Map.of("2-3", "Ana Pérez", "2-4", "Juan \"Toto\" Gómez"));
+
+        Map<String, String> campos = service.aCampos(sesion);
+        SesionRedisDTO leida = service.desdeCampos(campos, 60_000);
+
+        assertThat(campos).containsEntry(SesionRedisService.CAMPO_ESTADO, "CARGA_DATOS").containsEntry(SesionRedisService.CAMPO_SESION_ID, "70");
+        assertThat(leida.getSesionId()).isEqualTo(70L);
+        assertThat(leida.getEventoId()).isEqualTo(40L);
+        assertThat(leida.getUserId()).isEqualTo("7");
+        assertThat(leida.getEstado()).isEqualTo(EstadoSesion.CARGA_DATOS);
+        assertThat(leida.getAsientosSeleccionados()).extracting(AsientoSimpleDTO::getColumna).containsExactly(3, 4);
+        assertThat(leida.getNombresAsignados()).isEqualTo(sesion.getNombresAsignados());
+        // Expiración y última actividad se derivan del TTL de la key
+        assertThat(leida.getExpiracion()).isBetween(Instant.now().plusSeconds(59), Instant.now().plusSeconds(60));
+        assertThat(leida.getUltimaActividad()).isBefore(Instant.now().minusSeconds(29 * 60));
+    }
+
+    @Test
+    void leeLaSesionDelHashEnUnaSolaLlamada() {
+        when(script.evalSha(any(), anyString(), eq(RScript.ReturnType.MULTI), anyList(), any(Object[].class))).thenReturn(
+            List.of("1800000", "sesionId", "70", "eventoId", "40", "userId", "7", "estado", "SELECCION_ASIENTOS")
+        );
+
+        SesionRedisDTO sesion = service.obtenerSesion("7").orElseThrow();
+
+        assertThat(sesion.getSesionId()).isEqualTo(70L);
+        assertThat(sesion.getEstado()).isEqualTo(EstadoSesion.SELECCION_ASIENTOS);
+        assertThat(sesion.getAsientosSeleccionados()).isEmpty();
+    }
+
+    @Test
+    void scriptFueraDeLaCacheDeRedisSeEnviaCompleto() {
+        when(script.evalSha(any(), anyString(), any(), anyList(), any(Object[].class))).thenThrow(
+            new RedisException("NOSCRIPT No matching script. Please use EVAL.")
+        );
+        when(script.eval(any(), anyString(), any(), anyList(), any(Object[].class))).thenReturn(1L);
+
+        assertThat(service.actualizarNombres("7", Map.of("2-3", "Ana Pérez"))).isTrue();
+
+        verify(script).eval(eq(RScript.Mode.READ_WRITE), anyString(), eq(RScript.ReturnType.MULTI), eq(List.of("sesion:usuario:7")), any(Object[].class));
+    }
+}
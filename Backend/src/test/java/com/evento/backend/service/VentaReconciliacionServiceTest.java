@@ -0,0 +1,221 @@
+package com.evento.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.evento.backend.config.ApplicationProperties;
+import com.evento.backend.domain.Evento;
+import com.evento.backend.domain.Venta;
+import com.evento.backend.domain.enumeration.EstadoAsiento;
+import com.evento.backend.domain.enumeration.EstadoSincronizacion;
+import com.evento.backend.repository.AsientoVendidoRepository;
+import com.evento.backend.repository.EventoRepository;
+import com.evento.backend.repository.VentaRepository;
+import com.evento.backend.service.dto.AsientoVentaDTO;
+import com.evento.backend.service.dto.AsientoVentaResponseDTO;
+import com.evento.backend.service.dto.RealizarVentaRequestDTO;
+import com.evento.backend.service.dto.RealizarVentaResponseDTO;
+import com.evento.backend.service.dto.VentaResumenCatedraDTO;
+import com.evento.backend.service.helper.MatrizEstadoAsientos;
+import com.evento.backend.service.helper.VentaCreationHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class VentaReconciliacionServiceTest {
+
+    private static final Long VENTA_ID = 100L;
+    private static final Long EVENTO_ID_CATEDRA = 4L;
+
+    private VentaRepository ventaRepository;
+    private AsientoVendidoRepository asientoVendidoRepository;
+    private CatedraClientService catedraClientService;
+    private MatrizEstadoAsientos matriz;
+    private ApplicationProperties applicationProperties;
+    private VentaCreationHelper helper;
+    private SimpleMeterRegistry meterRegistry;
+    private VentaReconciliacionService service;
+    private Venta venta;
+
+    @BeforeEach
+    void setup() {
+        ventaRepository = mock(VentaRepository.class);
+        asientoVendidoRepository = mock(AsientoVendidoRepository.class);
+        catedraClientService = mock(CatedraClientService.class);
+        AsientosDisponibilidadService asientosDisponibilidadService = mock(AsientosDisponibilidadService.class);
+        matriz = mock(MatrizEstadoAsientos.class);
+        when(asientosDisponibilidadService.obtenerMatrizEstado(40L)).thenReturn(matriz);
+        when(matriz.enRango(any(), any())).thenReturn(true);
+        when(matriz.getEstado(anyInt(), anyInt())).thenReturn(EstadoAsiento.BLOQUEADO);
+
+        applicationProperties = new ApplicationProperties();
+        helper = new VentaCreationHelper(new ObjectMapper().findAndRegisterModules(), applicationProperties);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new VentaReconciliacionService(
+            ventaRepository,
+            asientoVendidoRepository,
+            catedraClientService,
+            asientosDisponibilidadService,
+            helper,
+            mock(PlatformTransactionManager.class),
+            applicationProperties,
+            meterRegistry
+        );
+
+        Evento evento = new Evento();
+        evento.setId(40L);
+        RealizarVentaRequestDTO solicitud = new RealizarVentaRequestDTO();
+        solicitud.setEventoId(EVENTO_ID_CATEDRA);
+        solicitud.setAsientos(List.of(new AsientoVentaDTO(2, 3, "Ana Pérez")));
+        venta = helper.crearVentaPendiente(null, evento, BigDecimal.TEN, solicitud);
+        venta.setId(VENTA_ID);
+        when(ventaRepository.findIdsReconciliables(eq(EstadoSincronizacion.PENDIENTE), any(), any())).thenReturn(List.of(VENTA_ID));
+        when(ventaRepository.reclamar(eq(VENTA_ID), eq(EstadoSincronizacion.PENDIENTE), any(), any())).thenReturn(1);
+        when(ventaRepository.findById(VENTA_ID)).thenReturn(Optional.of(venta));
+        when(ventaRepository.save(any(Venta.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(catedraClientService.listarVentas()).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void cerrar() {
+        service.cerrar();
+    }
+
+    @Test
+    void reenviaLaVentaYLaSincroniza() {
+        when(catedraClientService.realizarVenta(any())).thenReturn(respuesta(900L));
+
+        assertThat(service.ejecutarRonda()).isEqualTo(1);
+
+        assertThat(venta.getEstadoSincronizacion()).isEqualTo(EstadoSincronizacion.SINCRONIZADA);
+        assertThat(venta.getIdVentaCatedra()).isEqualTo(900L);
+        assertThat(venta.getReclamadaHasta()).isNull();
+        verify(asientoVendidoRepository).saveAll(anyList());
+        verify(catedraClientService, never()).bloquearAsientos(anyLong(), anyList());
+        assertThat(meterRegistry.counter(VentaReconciliacionService.RECONCILIACION_METER_NAME, "resultado", "sincronizada").count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void catedraCaidaProgramaOtroIntentoConBackoffHastaAgotarlos() {
+        applicationProperties.getReconciliacion().setMaxIntentos(3);
+        when(catedraClientService.realizarVenta(any())).thenThrow(new RuntimeException("Servidor cátedra no disponible"));
+
+        Instant antes = Instant.now();
+        service.ejecutarRonda();
+        assertThat(venta.getEstadoSincronizacion()).isEqualTo(EstadoSincronizacion.PENDIENTE);
+        assertThat(venta.getIntentos()).isEqualTo(1);
+        // Primer re-intento: entre base/2 y base
+        assertThat(venta.getProximoIntento()).isBetween(antes.plus(Duration.ofSeconds(15)), Instant.now().plus(Duration.ofSeconds(30)));
+
+        service.ejecutarRonda();
+        assertThat(venta.getIntentos()).isEqualTo(2);
+        assertThat(venta.getProximoIntento()).isAfter(antes.plus(Duration.ofSeconds(30)));
+
+        service.ejecutarRonda();
+        assertThat(venta.getEstadoSincronizacion()).isEqualTo(EstadoSincronizacion.ERROR);
+        assertThat(venta.getDescripcion()).startsWith("Re-intentos agotados");
+    }
+
+    @Test
+    void ventaYaRegistradaEnCatedraSeSincronizaSinReenviar() {
+        VentaResumenCatedraDTO resumen = new VentaResumenCatedraDTO();
+        resumen.setVentaId(900L);
+        resumen.setEventoId(EVENTO_ID_CATEDRA);
+        resumen.setResultado(true);
+        resumen.setCantidadAsientos(1);
+        resumen.setFechaVenta(venta.getFechaVenta().plusSeconds(1));
+        when(catedraClientService.listarVentas()).thenReturn(List.of(resumen));
+        when(catedraClientService.obtenerVenta(900L)).thenReturn(respuesta(900L));
+
+        service.ejecutarRonda();
+
+        assertThat(venta.getEstadoSincronizacion()).isEqualTo(EstadoSincronizacion.SINCRONIZADA);
+        assertThat(venta.getIdVentaCatedra()).isEqualTo(900L);
+        verify(catedraClientService, never()).realizarVenta(any());
+    }
+
+    @Test
+    void ventaReclamadaPorOtroNodoNoSeProcesa() {
+        when(ventaRepository.reclamar(eq(VENTA_ID), eq(EstadoSincronizacion.PENDIENTE), any(), any())).thenReturn(0);
+
+        assertThat(service.ejecutarRonda()).isZero();
+
+        verify(catedraClientService, never()).realizarVenta(any());
+        verify(asientoVendidoRepository, never()).saveAll(anyList());
+        assertThat(venta.getEstadoSincronizacion()).isEqualTo(EstadoSincronizacion.PENDIENTE);
+    }
+
+    @Test
+    void asientoVendidoAOtroCompradorPasaAError() {
+        when(matriz.getEstado(2, 3)).thenReturn(EstadoAsiento.VENDIDO);
+
+        service.ejecutarRonda();
+
+        assertThat(venta.getEstadoSincronizacion()).isEqualTo(EstadoSincronizacion.ERROR);
+        verify(catedraClientService, never()).realizarVenta(any());
+    }
+
+    @Test
+    void laRondaConsultaAlProxyConElTokenDeServicio() throws Exception {
+        String vendido = "{\"eventoId\":4,\"asientos\":[{\"fila\":2,\"columna\":3,\"estado\":\"Vendido\"}]}";
+        try (ProxyLocal proxy = new ProxyLocal(EVENTO_ID_CATEDRA, vendido)) {
+            EventoRepository eventoRepository = mock(EventoRepository.class);
+            when(eventoRepository.findById(40L)).thenReturn(
+                Optional.of(new Evento().id(40L).idCatedra(EVENTO_ID_CATEDRA).filaAsientos(5).columnaAsientos(5).activo(true))
+            );
+            AsientosDisponibilidadService disponibilidad = new AsientosDisponibilidadService(
+                eventoRepository,
+                proxy.cliente(applicationProperties),
+                new DisponibilidadCacheService(applicationProperties, meterRegistry),
+                new DisponibilidadVersionService(applicationProperties)
+            );
+            VentaReconciliacionService conProxy = new VentaReconciliacionService(
+                ventaRepository,
+                asientoVendidoRepository,
+                catedraClientService,
+                disponibilidad,
+                helper,
+                mock(PlatformTransactionManager.class),
+                applicationProperties,
+                meterRegistry
+            );
+            try {
+                // Los re-intentos corren en el pool de reconciliación, sin usuario autenticado
+                conProxy.ejecutarRonda();
+            } finally {
+                conProxy.cerrar();
+            }
+
+            assertThat(proxy.getRechazadas()).isZero();
+            assertThat(venta.getEstadoSincronizacion()).isEqualTo(EstadoSincronizacion.ERROR);
+            assertThat(venta.getDescripcion()).startsWith("Asiento ya vendido");
+            verify(catedraClientService, never()).realizarVenta(any());
+        }
+    }
+
+    private static RealizarVentaResponseDTO respuesta(Long ventaId) {
+        RealizarVentaResponseDTO respuesta = new RealizarVentaResponseDTO();
+        respuesta.setVentaId(ventaId);
+        respuesta.setEventoId(EVENTO_ID_CATEDRA);
+        respuesta.setResultado(true);
+        respuesta.setAsientos(List.of(new AsientoVentaResponseDTO(2, 3, "Ana Pérez", "Vendido")));
+        return respuesta;
+    }
+}
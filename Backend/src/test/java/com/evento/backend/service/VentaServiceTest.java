@@ -0,0 +1,50 @@
+package com.evento.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.evento.backend.domain.Venta;
+import com.evento.backend.domain.enumeration.EstadoSincronizacion;
+import com.evento.backend.repository.VentaRepository;
+import com.evento.backend.service.dto.VentaDTO;
+import com.evento.backend.service.mapper.VentaMapperImpl;
+import java.time.Instant;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class VentaServiceTest {
+
+    @Test
+    void updateConservaLasColumnasDeReconciliacion() {
+        VentaRepository ventaRepository = mock(VentaRepository.class);
+        VentaService ventaService = new VentaService(ventaRepository, new VentaMapperImpl());
+        Instant proximoIntento = Instant.parse("2025-12-01T10:05:00Z");
+        Venta guardada = new Venta()
+            .solicitudCatedra("{\"eventoId\":7}")
+            .intentos(3)
+            .proximoIntento(proximoIntento)
+            .reclamadaHasta(proximoIntento.plusSeconds(60));
+        guardada.setId(1L);
+        when(ventaRepository.findById(1L)).thenReturn(Optional.of(guardada));
+        when(ventaRepository.save(any(Venta.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        VentaDTO dto = new VentaDTO();
+        dto.setId(1L);
+        dto.setDescripcion("Editada");
+        dto.setEstadoSincronizacion(EstadoSincronizacion.PENDIENTE);
+
+        ventaService.update(dto);
+
+        ArgumentCaptor<Venta> guardadaCaptor = ArgumentCaptor.forClass(Venta.class);
+        verify(ventaRepository).save(guardadaCaptor.capture());
+        Venta actualizada = guardadaCaptor.getValue();
+        assertThat(actualizada.getDescripcion()).isEqualTo("Editada");
+        assertThat(actualizada.getSolicitudCatedra()).isEqualTo("{\"eventoId\":7}");
+        assertThat(actualizada.getIntentos()).isEqualTo(3);
+        assertThat(actualizada.getProximoIntento()).isEqualTo(proximoIntento);
+        assertThat(actualizada.getReclamadaHasta()).isEqualTo(proximoIntento.plusSeconds(60));
+    }
+}
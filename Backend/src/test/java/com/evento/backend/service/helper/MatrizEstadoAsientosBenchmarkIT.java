@@ -0,0 +1,49 @@
+package com.evento.backend.service.helper;
+
+import static com.evento.backend.service.helper.MatrizEstadoAsientosTest.AHORA;
+import static com.evento.backend.service.helper.MatrizEstadoAsientosTest.construirListaAnterior;
+import static com.evento.backend.service.helper.MatrizEstadoAsientosTest.ocupacionAleatoria;
+
+import com.evento.backend.service.dto.RedisResponseDTO;
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Benchmark de asignación de memoria para un evento de 100x100 con 10% de ocupación:
+ * compara la construcción anterior (DTO por asiento + HashMap con keys String)
+ * contra la matriz compacta sin materializar la lista.
+ *
+ * Solo imprime los resultados. Se ejecuta a pedido: {@code ./mvnw verify -Dbenchmarks=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class MatrizEstadoAsientosBenchmarkIT {
+
+    private static final int ITERACIONES = 50;
+
+    @Test
+    void asignacionContraImplementacionAnterior() {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        RedisResponseDTO redis = ocupacionAleatoria(100, 100, 1000);
+
+        // Warm-up
+        for (int i = 0; i < ITERACIONES; i++) {
+            construirListaAnterior(100, 100, redis, AHORA);
+            MatrizEstadoAsientos.desde(100, 100, redis, AHORA);
+        }
+
+        long inicio = threadMXBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERACIONES; i++) {
+            construirListaAnterior(100, 100, redis, AHORA);
+        }
+        long bytesAnterior = (threadMXBean.getCurrentThreadAllocatedBytes() - inicio) / ITERACIONES;
+
+        inicio = threadMXBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERACIONES; i++) {
+            MatrizEstadoAsientos.desde(100, 100, redis, AHORA);
+        }
+        long bytesCompacta = (threadMXBean.getCurrentThreadAllocatedBytes() - inicio) / ITERACIONES;
+
+        System.out.printf("Asignación por consulta (100x100): anterior=%d bytes, compacta=%d bytes%n", bytesAnterior, bytesCompacta);
+    }
+}
@@ -0,0 +1,148 @@
+package com.evento.backend.service.helper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.evento.backend.domain.enumeration.EstadoAsiento;
+import com.evento.backend.service.dto.AsientoDisponibilidadDTO;
+import com.evento.backend.service.dto.RedisAsientoDTO;
+import com.evento.backend.service.dto.RedisResponseDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class MatrizEstadoAsientosTest {
+
+    static final Instant AHORA = Instant.parse("2025-12-01T10:00:00Z");
+
+    @Test
+    void aplicaEstadosDesdeRedis() {
+        RedisResponseDTO redis = respuesta(
+            asiento(1, 1, "Vendido", null, "Ana Pérez"),
+            asiento(2, 3, "Bloqueado", AHORA.plusSeconds(120), null),
+            asiento(3, 3, "Bloqueado", AHORA.minusSeconds(1), null),
+            asiento(4, 4, "Bloqueado", null, null),
+            asiento(9, 9, "Vendido", null, "Fuera de rango")
+        );
+
+        MatrizEstadoAsientos matriz = MatrizEstadoAsientos.desde(5, 5, redis, AHORA);
+
+        assertThat(matriz.getEstado(1, 1)).isEqualTo(EstadoAsiento.VENDIDO);
+        assertThat(matriz.getNombrePersona(1, 1)).isEqualTo("Ana Pérez");
+        assertThat(matriz.getEstado(2, 3)).isEqualTo(EstadoAsiento.BLOQUEADO);
+        assertThat(matriz.getExpira(2, 3)).isEqualTo(AHORA.plusSeconds(120));
+        assertThat(matriz.getEstado(3, 3)).isEqualTo(EstadoAsiento.DISPONIBLE);
+        assertThat(matriz.getEstado(4, 4)).isEqualTo(EstadoAsiento.DISPONIBLE);
+        assertThat(matriz.getTotalAsientos()).isEqualTo(25);
+        assertThat(matriz.getVendidos()).isEqualTo(1);
+        assertThat(matriz.getBloqueados()).isEqualTo(1);
+        assertThat(matriz.getDisponibles()).isEqualTo(23);
+    }
+
+    @Test
+    void asientoRepetidoNoSeCuentaDosVeces() {
+        RedisResponseDTO redis = respuesta(
+            asiento(1, 2, "Bloqueado", AHORA.plusSeconds(60), null),
+            asiento(1, 2, "Vendido", null, "Juan"),
+            asiento(1, 2, "Vendido", null, "Juan")
+        );
+
+        MatrizEstadoAsientos matriz = MatrizEstadoAsientos.desde(2, 2, redis, AHORA);
+
+        assertThat(matriz.getEstado(1, 2)).isEqualTo(EstadoAsiento.VENDIDO);
+        assertThat(matriz.getExpira(1, 2)).isNull();
+        assertThat(matriz.getBloqueados()).isZero();
+        assertThat(matriz.getVendidos()).isEqualTo(1);
+        assertThat(matriz.getDisponibles()).isEqualTo(3);
+    }
+
+    @Test
+    void formaExpandidaCoincideConImplementacionAnterior() {
+        RedisResponseDTO redis = ocupacionAleatoria(37, 41, 500);
+
+        List<AsientoDisponibilidadDTO> esperados = construirListaAnterior(37, 41, redis, AHORA);
+        List<AsientoDisponibilidadDTO> obtenidos = MatrizEstadoAsientos.desde(37, 41, redis, AHORA).toAsientosDTO();
+
+        assertThat(obtenidos).hasSameSizeAs(esperados);
+        for (int i = 0; i < esperados.size(); i++) {
+            assertThat(obtenidos.get(i)).usingRecursiveComparison().isEqualTo(esperados.get(i));
+        }
+    }
+
+    @Test
+    void coordenadasFueraDeRango() {
+        MatrizEstadoAsientos matriz = new MatrizEstadoAsientos(3, 3);
+
+        assertThat(matriz.enRango(0, 1)).isFalse();
+        assertThat(matriz.enRango(3, 4)).isFalse();
+        assertThat(matriz.enRango(null, 1)).isFalse();
+        assertThatThrownBy(() -> matriz.getEstado(4, 1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    static RedisResponseDTO ocupacionAleatoria(int filas, int columnas, int ocupados) {
+        java.util.Random random = new java.util.Random(42);
+        RedisAsientoDTO[] asientos = new RedisAsientoDTO[ocupados];
+        for (int i = 0; i < ocupados; i++) {
+            int fila = random.nextInt(filas) + 1;
+            int columna = random.nextInt(columnas) + 1;
+            asientos[i] = random.nextBoolean()
+                ? asiento(fila, columna, "Vendido", null, "Persona " + i)
+                : asiento(fila, columna, "Bloqueado", AHORA.plusSeconds(random.nextInt(600) - 300), null);
+        }
+        return respuesta(asientos);
+    }
+
+    private static RedisResponseDTO respuesta(RedisAsientoDTO... asientos) {
+        RedisResponseDTO response = new RedisResponseDTO();
+        response.setEventoId(1L);
+        response.setAsientos(new ArrayList<>(List.of(asientos)));
+        return response;
+    }
+
+    private static RedisAsientoDTO asiento(int fila, int columna, String estado, Instant expira, String nombre) {
+        RedisAsientoDTO asiento = new RedisAsientoDTO();
+        asiento.setFila(fila);
+        asiento.setColumna(columna);
+        asiento.setEstado(estado);
+        asiento.setExpira(expira);
+        asiento.setNombrePersona(nombre);
+        return asiento;
+    }
+
+    /**
+     * Construcción de la lista tal como la hacía AsientosDisponibilidadService antes de la matriz compacta.
+     */
+    static List<AsientoDisponibilidadDTO> construirListaAnterior(int filas, int columnas, RedisResponseDTO redis, Instant ahora) {
+        List<AsientoDisponibilidadDTO> asientos = new ArrayList<>(filas * columnas);
+        for (int fila = 1; fila <= filas; fila++) {
+            for (int columna = 1; columna <= columnas; columna++) {
+                asientos.add(new AsientoDisponibilidadDTO(fila, columna, EstadoAsiento.DISPONIBLE));
+            }
+        }
+        Map<String, AsientoDisponibilidadDTO> mapaAsientos = new HashMap<>();
+        for (AsientoDisponibilidadDTO asiento : asientos) {
+            mapaAsientos.put(asiento.getFila() + "-" + asiento.getColumna(), asiento);
+        }
+        for (RedisAsientoDTO redisAsiento : redis.getAsientos()) {
+            AsientoDisponibilidadDTO asiento = mapaAsientos.get(redisAsiento.getFila() + "-" + redisAsiento.getColumna());
+            if (asiento == null) {
+                continue;
+            }
+            if ("Bloqueado".equalsIgnoreCase(redisAsiento.getEstado())) {
+                if (redisAsiento.getExpira() != null && redisAsiento.getExpira().isAfter(ahora)) {
+                    asiento.setEstado(EstadoAsiento.BLOQUEADO);
+                    asiento.setExpira(redisAsiento.getExpira());
+                    asiento.setNombrePersona(null);
+                }
+            } else if ("Vendido".equalsIgnoreCase(redisAsiento.getEstado())) {
+                asiento.setEstado(EstadoAsiento.VENDIDO);
+                asiento.setExpira(null);
+                asiento.setNombrePersona(redisAsiento.getNombrePersona());
+            }
+        }
+        return asientos;
+    }
+}
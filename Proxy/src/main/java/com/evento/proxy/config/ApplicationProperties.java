@@ -17,6 +17,8 @@ public class ApplicationProperties {
 
     private final Backend backend = new Backend();
 
+    private final Kafka kafka = new Kafka();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
@@ -31,6 +33,10 @@ public class ApplicationProperties {
         return backend;
     }
 
+    public Kafka getKafka() {
+        return kafka;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -83,6 +89,80 @@ public class ApplicationProperties {
             public void setTimeout(int timeout) {
                 this.timeout = timeout;
             }
+
+            /**
+             * Cliente de Redis: "jedis" (pool bloqueante) o "lettuce" (una conexión multiplexada, asíncrona).
+             */
+            private String cliente = "jedis";
+            /**
+             * Máximo de conexiones del pool de Jedis.
+             */
+            private int poolMaxTotal = 10;
+            /**
+             * Validar (PING) cada conexión de Jedis al tomarla del pool. Si es false se validan las ociosas en segundo plano.
+             */
+            private boolean testOnBorrow = false;
+
+            public String getCliente() {
+                return cliente;
+            }
+
+            public void setCliente(String cliente) {
+                this.cliente = cliente;
+            }
+
+            public int getPoolMaxTotal() {
+                return poolMaxTotal;
+            }
+
+            public void setPoolMaxTotal(int poolMaxTotal) {
+                this.poolMaxTotal = poolMaxTotal;
+            }
+
+            public boolean isTestOnBorrow() {
+                return testOnBorrow;
+            }
+
+            public void setTestOnBorrow(boolean testOnBorrow) {
+                this.testOnBorrow = testOnBorrow;
+            }
+
+            /**
+             * Suscribirse a keyspace notifications de {@code evento_*} para invalidar la cache de snapshots.
+             */
+            private boolean notificaciones = true;
+            /**
+             * TTL (ms) de los snapshots en memoria cuando las notificaciones no están disponibles. 0 desactiva la cache.
+             */
+            private long snapshotTtlMs = 1000;
+            /**
+             * TTL (ms) de los snapshots mientras las notificaciones están activas (resguardo ante notificaciones perdidas).
+             */
+            private long snapshotTtlNotificacionesMs = 60000;
+
+            public boolean isNotificaciones() {
+                return notificaciones;
+            }
+
+            public void setNotificaciones(boolean notificaciones) {
+                this.notificaciones = notificaciones;
+            }
+
+            public long getSnapshotTtlMs() {
+                return snapshotTtlMs;
+            }
+
+            public void setSnapshotTtlMs(long snapshotTtlMs) {
+                this.snapshotTtlMs = snapshotTtlMs;
+            }
+
+            public long getSnapshotTtlNotificacionesMs() {
+                return snapshotTtlNotificacionesMs;
+            }
+
+            public void setSnapshotTtlNotificacionesMs(long snapshotTtlNotificacionesMs) {
+                this.snapshotTtlNotificacionesMs = snapshotTtlNotificacionesMs;
+            }
         }
     }
 
@@ -116,5 +196,69 @@ public class ApplicationProperties {
             this.servicePassword = servicePassword;
         }
     }
+
+    public static class Kafka {
+
+        /**
+         * Ventana de silencio (ms): los mensajes recibidos dentro de ella se agrupan en una sola sincronización.
+         */
+        private long ventanaMs = 2000;
+        /**
+         * Espera máxima (ms) desde el primer mensaje pendiente, para que un flujo continuo no posponga la sincronización indefinidamente.
+         */
+        private long maxEsperaMs = 30000;
+        /**
+         * Máximo de mensajes por poll del listener batch.
+         */
+        private int maxPollRecords = 500;
+        /**
+         * Máximo de eventos para una sincronización dirigida; con más se pide la sincronización completa.
+         */
+        private int maxEventosDirigidos = 20;
+        /**
+         * Espera (ms) antes de reintentar una sincronización que el Backend no aceptó.
+         */
+        private long reintentoMs = 5000;
+
+        public long getVentanaMs() {
+            return ventanaMs;
+        }
+
+        public void setVentanaMs(long ventanaMs) {
+            this.ventanaMs = ventanaMs;
+        }
+
+        public long getMaxEsperaMs() {
+            return maxEsperaMs;
+        }
+
+        public void setMaxEsperaMs(long maxEsperaMs) {
+            this.maxEsperaMs = maxEsperaMs;
+        }
+
+        public int getMaxPollRecords() {
+            return maxPollRecords;
+        }
+
+        public void setMaxPollRecords(int maxPollRecords) {
+            this.maxPollRecords = maxPollRecords;
+        }
+
+        public int getMaxEventosDirigidos() {
+            return maxEventosDirigidos;
+        }
+
+        public void setMaxEventosDirigidos(int maxEventosDirigidos) {
+            this.maxEventosDirigidos = maxEventosDirigidos;
+        }
+
+        public long getReintentoMs() {
+            return reintentoMs;
+        }
+
+        public void setReintentoMs(long reintentoMs) {
+            this.reintentoMs = reintentoMs;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -1,7 +1,14 @@
 package com.evento.proxy.config;
 
+import com.evento.proxy.service.JedisAsientosClient;
+import com.evento.proxy.service.LettuceAsientosClient;
+import com.evento.proxy.service.RedisAsientosClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import java.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import redis.clients.jedis.JedisPool;
@@ -9,6 +16,10 @@ import redis.clients.jedis.JedisPoolConfig;
 
 /**
  * Configuración de conexión a Redis Cátedra.
+ *
+ * {@code application.redis.catedra.cliente} elige el acceso:
+ * - jedis (default): pool de conexiones bloqueantes
+ * - lettuce: una conexión multiplexada con comandos asíncronos
  */
 @Configuration
 public class RedisConfig {
@@ -22,17 +33,21 @@ public class RedisConfig {
     }
 
     @Bean
+    @ConditionalOnProperty(name = "application.redis.catedra.cliente", havingValue = "jedis", matchIfMissing = true)
     public JedisPool jedisPool() {
         ApplicationProperties.Redis.Catedra catedraConfig = applicationProperties.getRedis().getCatedra();
 
         JedisPoolConfig poolConfig = new JedisPoolConfig();
-        poolConfig.setMaxTotal(10);
-        poolConfig.setMaxIdle(5);
+        poolConfig.setMaxTotal(catedraConfig.getPoolMaxTotal());
+        poolConfig.setMaxIdle(Math.max(1, catedraConfig.getPoolMaxTotal() / 2));
         poolConfig.setMinIdle(1);
-        poolConfig.setTestOnBorrow(true);
+        poolConfig.setTestOnBorrow(catedraConfig.isTestOnBorrow());
+        // Sin PING en cada préstamo: las conexiones ociosas se validan en segundo plano
+        poolConfig.setTestWhileIdle(true);
+        poolConfig.setTimeBetweenEvictionRuns(Duration.ofSeconds(30));
 
-        log.info("Configuring Redis connection to Cátedra: {}:{}",
-            catedraConfig.getHost(), catedraConfig.getPort());
+        log.info("Configuring Redis connection to Cátedra (Jedis, pool {}): {}:{}",
+            catedraConfig.getPoolMaxTotal(), catedraConfig.getHost(), catedraConfig.getPort());
 
         return new JedisPool(
             poolConfig,
@@ -41,4 +56,26 @@ public class RedisConfig {
             catedraConfig.getTimeout()
         );
     }
+
+    @Bean
+    @ConditionalOnProperty(name = "application.redis.catedra.cliente", havingValue = "jedis", matchIfMissing = true)
+    public RedisAsientosClient jedisAsientosClient(JedisPool jedisPool) {
+        return new JedisAsientosClient(jedisPool);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "application.redis.catedra.cliente", havingValue = "lettuce")
+    public RedisAsientosClient lettuceAsientosClient() {
+        ApplicationProperties.Redis.Catedra catedraConfig = applicationProperties.getRedis().getCatedra();
+
+        log.info("Configuring Redis connection to Cátedra (Lettuce, multiplexed): {}:{}",
+            catedraConfig.getHost(), catedraConfig.getPort());
+
+        RedisURI uri = RedisURI.builder()
+            .withHost(catedraConfig.getHost())
+            .withPort(catedraConfig.getPort())
+            .withTimeout(Duration.ofMillis(catedraConfig.getTimeout()))
+            .build();
+        return new LettuceAsientosClient(RedisClient.create(uri));
+    }
 }
@@ -0,0 +1,66 @@
+package com.evento.proxy.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Contenido JSON de una key {@code evento_{id}} leído de Redis cátedra, con su ETag y el momento de lectura.
+ */
+public class AsientosSnapshot {
+
+    private final String data;
+    private final String etag;
+    private final long leidoEnNanos;
+
+    private AsientosSnapshot(String data, String etag, long leidoEnNanos) {
+        this.data = data;
+        this.etag = etag;
+        this.leidoEnNanos = leidoEnNanos;
+    }
+
+    /**
+     * @param data valor de la key (null si no existe)
+     * @return snapshot leído ahora, con ETag fuerte calculado sobre el contenido
+     */
+    public static AsientosSnapshot de(String data) {
+        return new AsientosSnapshot(data, data != null ? calcularEtag(data) : null, System.nanoTime());
+    }
+
+    /**
+     * @return JSON de Redis, o null si la key no existe
+     */
+    public String getData() {
+        return data;
+    }
+
+    /**
+     * @return ETag entre comillas, listo para el header (null si la key no existe)
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * @return tiempo transcurrido desde que se leyó de Redis
+     */
+    public Duration getEdad() {
+        return Duration.ofNanos(System.nanoTime() - leidoEnNanos);
+    }
+
+    long getLeidoEnNanos() {
+        return leidoEnNanos;
+    }
+
+    private static String calcularEtag(String data) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data.getBytes(StandardCharsets.UTF_8));
+            // 128 bits alcanzan para distinguir versiones de una misma key
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
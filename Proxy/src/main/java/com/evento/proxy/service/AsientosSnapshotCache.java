@@ -0,0 +1,188 @@
+package com.evento.proxy.service;
+
+import com.evento.proxy.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Snapshots en memoria de las keys {@code evento_{id}} de Redis cátedra.
+ *
+ * - Con keyspace notifications activas (ver KeyspaceNotificacionesListener) cada cambio de una
+ *   key invalida su snapshot y el TTL solo es un resguardo ({@code snapshot-ttl-notificaciones-ms}).
+ * - Sin notificaciones se usa un TTL corto ({@code snapshot-ttl-ms}).
+ * - Las lecturas concurrentes de una key sin snapshot vigente comparten una única consulta a Redis.
+ * - Métricas: {@code proxy.asientos.snapshot} con tag {@code resultado} = hit | miss,
+ *   {@code proxy.asientos.snapshot.invalidaciones} y {@code proxy.asientos.snapshot.notificaciones} (1/0).
+ */
+@Service
+public class AsientosSnapshotCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AsientosSnapshotCache.class);
+
+    public static final String CACHE_METER_NAME = "proxy.asientos.snapshot";
+
+    private final ApplicationProperties.Redis.Catedra catedraConfig;
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    // Se incrementa en cada invalidación; protege a las cargas batch de guardar datos viejos
+    private final AtomicLong invalidaciones = new AtomicLong();
+    private volatile boolean notificacionesActivas;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter invalidacionesCounter;
+
+    public AsientosSnapshotCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.catedraConfig = applicationProperties.getRedis().getCatedra();
+        this.hitCounter = contador("hit", meterRegistry);
+        this.missCounter = contador("miss", meterRegistry);
+        this.invalidacionesCounter = Counter.builder(CACHE_METER_NAME + ".invalidaciones")
+            .description("Snapshots de asientos invalidados por keyspace notifications")
+            .register(meterRegistry);
+        Gauge.builder(CACHE_METER_NAME + ".notificaciones", this, cache -> cache.notificacionesActivas ? 1 : 0)
+            .description("1 si la invalidación por keyspace notifications está activa")
+            .register(meterRegistry);
+    }
+
+    private Counter contador(String resultado, MeterRegistry meterRegistry) {
+        return Counter.builder(CACHE_METER_NAME)
+            .description("Consultas de asientos resueltas con snapshots en memoria")
+            .tag("resultado", resultado)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve el snapshot vigente de la key o lo carga con {@code cargador}.
+     *
+     * @param key key de Redis
+     * @param cargador lectura real de Redis (solo la ejecuta un request por key)
+     * @return snapshot (con data null si la key no existe)
+     */
+    public CompletableFuture<AsientosSnapshot> obtener(String key, Function<String, CompletableFuture<String>> cargador) {
+        long ttlNanos = getTtlNanos();
+        if (ttlNanos <= 0) {
+            missCounter.increment();
+            return cargador.apply(key).thenApply(AsientosSnapshot::de);
+        }
+
+        Entrada nueva = new Entrada();
+        Entrada actual = entradas.compute(key, (k, existente) ->
+            existente != null && existente.vigente(System.nanoTime(), ttlNanos) ? existente : nueva
+        );
+        if (actual != nueva) {
+            hitCounter.increment();
+            return actual.snapshot;
+        }
+
+        missCounter.increment();
+        cargador.apply(key).whenComplete((data, error) -> {
+            if (error != null) {
+                // No cachear errores
+                entradas.remove(key, nueva);
+                nueva.snapshot.completeExceptionally(error);
+            } else {
+                nueva.snapshot.complete(AsientosSnapshot.de(data));
+            }
+        });
+        return nueva.snapshot;
+    }
+
+    /**
+     * Snapshots vigentes (ya cargados) de las keys pedidas; las que no están se omiten.
+     */
+    public Map<String, AsientosSnapshot> vigentes(Collection<String> keys) {
+        long ttlNanos = getTtlNanos();
+        long ahora = System.nanoTime();
+        Map<String, AsientosSnapshot> resultado = new HashMap<>();
+        for (String key : keys) {
+            Entrada entrada = entradas.get(key);
+            if (entrada != null && entrada.snapshot.isDone() && ttlNanos > 0 && entrada.vigente(ahora, ttlNanos)) {
+                resultado.put(key, entrada.snapshot.join());
+                hitCounter.increment();
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Marca de invalidaciones para usar con {@link #guardar}: tomarla antes de leer de Redis.
+     */
+    public long getMarcaInvalidaciones() {
+        return invalidaciones.get();
+    }
+
+    /**
+     * Guarda un valor leído por fuera de {@link #obtener} (consultas batch), salvo que haya
+     * habido invalidaciones desde {@code marca} (el valor podría ser anterior al cambio).
+     */
+    public void guardar(String key, String data, long marca) {
+        if (getTtlNanos() <= 0 || invalidaciones.get() != marca) {
+            return;
+        }
+        missCounter.increment();
+        Entrada entrada = new Entrada();
+        entrada.snapshot.complete(AsientosSnapshot.de(data));
+        entradas.put(key, entrada);
+    }
+
+    /**
+     * Descarta el snapshot de una key (llamado al recibir una keyspace notification).
+     */
+    public void invalidar(String key) {
+        invalidaciones.incrementAndGet();
+        if (entradas.remove(key) != null) {
+            invalidacionesCounter.increment();
+            log.debug("Snapshot de {} invalidado", key);
+        }
+    }
+
+    /**
+     * Descarta todos los snapshots (p. ej. tras una reconexión, en la que pudieron perderse notificaciones).
+     */
+    public void invalidarTodo() {
+        invalidaciones.incrementAndGet();
+        entradas.clear();
+    }
+
+    public void setNotificacionesActivas(boolean activas) {
+        if (this.notificacionesActivas != activas) {
+            log.info("Invalidación por keyspace notifications {}", activas ? "ACTIVA" : "INACTIVA - se usa TTL corto");
+        }
+        this.notificacionesActivas = activas;
+    }
+
+    public boolean isNotificacionesActivas() {
+        return notificacionesActivas;
+    }
+
+    private long getTtlNanos() {
+        long ttlMs = notificacionesActivas ? catedraConfig.getSnapshotTtlNotificacionesMs() : catedraConfig.getSnapshotTtlMs();
+        return TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    /**
+     * Snapshot (en carga o cargado) de una key
+     */
+    private static final class Entrada {
+
+        private final CompletableFuture<AsientosSnapshot> snapshot = new CompletableFuture<>();
+
+        private boolean vigente(long ahora, long ttlNanos) {
+            if (!snapshot.isDone()) {
+                return true;
+            }
+            return !snapshot.isCompletedExceptionally() && ahora - snapshot.join().getLeidoEnNanos() < ttlNanos;
+        }
+    }
+}
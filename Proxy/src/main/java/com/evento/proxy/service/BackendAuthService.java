@@ -1,67 +1,149 @@
 package com.evento.proxy.service;
 
+import com.evento.proxy.config.ApplicationProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.nimbusds.jwt.JWTParser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
-import java.time.Instant;
 
 /**
- * Servicio para autenticarse con el Backend y obtener JWT.
+ * Credenciales de servicio del Proxy frente al Backend (usuario proxy-service).
  *
  * Responsabilidades:
- * - Login con credenciales de servicio (proxy-service)
- * - Cachear token mientras sea válido
- * - Renovar token automáticamente cuando expire
+ * - Login con credenciales de servicio (application.backend.service-username/password)
+ * - Cachear el token hasta poco antes de su vencimiento (claim {@code exp} del JWT)
+ * - Renovarlo ante un 401 y re-intentar la llamada una vez ({@link #conToken})
+ *
+ * Es el único bean que guarda el token: todas las llamadas Proxy→Backend lo comparten. El token
+ * se publica en un campo volatile y los logins se serializan con un lock, así los threads que lo
+ * encuentran vencido (o reciben 401 con el mismo token) provocan un único login.
+ *
+ * Métricas: {@code proxy.backend.token} con tag resultado = cache | login | error.
  */
 @Service
 public class BackendAuthService {
     private static final Logger log = LoggerFactory.getLogger(BackendAuthService.class);
-    @Value("${application.backend.base-url}")
-    private String backendBaseUrl;
-    @Value("${application.backend.service-username}")
-    private String serviceUsername;
-    @Value("${application.backend.service-password}")
-    private String servicePassword;
+
+    public static final String TOKEN_METER_NAME = "proxy.backend.token";
+
+    /**
+     * Un token que vence dentro de este margen se renueva antes de usarlo.
+     */
+    private static final long MARGEN_VENCIMIENTO_SEGUNDOS = 60;
+
+    private final ApplicationProperties.Backend backendConfig;
     private final RestTemplate restTemplate;
+    private final ReentrantLock renovacion = new ReentrantLock();
+
+    private final Counter cacheCounter;
+    private final Counter loginCounter;
+    private final Counter errorCounter;
+
+    private volatile TokenServicio token;
+
+    public BackendAuthService(ApplicationProperties applicationProperties, RestTemplate restTemplate, MeterRegistry meterRegistry) {
+        this.backendConfig = applicationProperties.getBackend();
+        this.restTemplate = restTemplate;
+        this.cacheCounter = contador("cache", meterRegistry);
+        this.loginCounter = contador("login", meterRegistry);
+        this.errorCounter = contador("error", meterRegistry);
+    }
 
-    // Cache del token
-    private String cachedToken;
-    private Instant tokenExpiration;
-    public BackendAuthService() {
-        this.restTemplate = new RestTemplate();
+    private Counter contador(String resultado, MeterRegistry meterRegistry) {
+        return Counter.builder(TOKEN_METER_NAME)
+            .description("Tokens de servicio entregados desde cache o con un login al Backend")
+            .tag("resultado", resultado)
+            .register(meterRegistry);
     }
+
     /**
      * Obtiene un token JWT válido.
      * Si el token en cache es válido, lo retorna.
-     * Si expiró o no existe, hace login y obtiene uno nuevo.
+     * Si expiró o no existe, hace login (uno solo aunque varios threads lo pidan a la vez).
      */
     public String getValidToken() {
-        // Si tenemos token en cache y no ha expirado, usarlo
-        if (cachedToken != null && tokenExpiration != null) {
-            if (Instant.now().isBefore(tokenExpiration.minusSeconds(60))) {
-                log.debug("Usando token en cache (expira en {})", tokenExpiration);
-                return cachedToken;
-            } else {
-                log.debug("Token en cache expirado, renovando...");
+        TokenServicio actual = token;
+        if (actual != null && !actual.vencePara(Instant.now().plusSeconds(MARGEN_VENCIMIENTO_SEGUNDOS))) {
+            cacheCounter.increment();
+            return actual.valor;
+        }
+        if (actual != null) {
+            log.debug("Token en cache expirado, renovando...");
+        }
+        return renovar(actual).valor;
+    }
+
+    /**
+     * Ejecuta una llamada autenticada al Backend. Si responde 401, renueva el token y re-intenta una vez.
+     *
+     * @param llamada Llamada que recibe el token a enviar como Bearer
+     * @return Resultado de la llamada
+     * @throws HttpClientErrorException.Unauthorized si el token renovado también es rechazado
+     */
+    public <T> T conToken(Function<String, T> llamada) {
+        String valor = getValidToken();
+        try {
+            return llamada.apply(valor);
+        } catch (HttpClientErrorException.Unauthorized e) {
+            log.warn("Token de servicio rechazado por el Backend (401), renovando y re-intentando...");
+            invalidar(valor);
+            return llamada.apply(getValidToken());
+        }
+    }
+
+    /**
+     * Renueva el token rechazado por el Backend. Si otro thread ya lo reemplazó no hace login.
+     *
+     * @param tokenRechazado Token con el que se recibió el 401
+     */
+    public void invalidar(String tokenRechazado) {
+        TokenServicio actual = token;
+        if (actual != null && !actual.valor.equals(tokenRechazado)) {
+            return;
+        }
+        renovar(actual);
+    }
+
+    /**
+     * Login bajo lock. Si al tomar el lock el token ya no es el que se vio, otro thread lo renovó.
+     */
+    private TokenServicio renovar(TokenServicio visto) {
+        renovacion.lock();
+        try {
+            TokenServicio actual = token;
+            if (actual != null && actual != visto) {
+                cacheCounter.increment();
+                return actual;
             }
+            TokenServicio nuevo = login();
+            token = nuevo;
+            return nuevo;
+        } finally {
+            renovacion.unlock();
         }
-        // Obtener nuevo token
-        return login();
     }
+
     /**
      * Hace login en el Backend y obtiene JWT.
      */
-    private String login() {
-        String url = backendBaseUrl + "/api/authenticate";
+    private TokenServicio login() {
+        String url = backendConfig.getBaseUrl() + "/api/authenticate";
 
         try {
             log.info("Autenticando con Backend como servicio...");
             // Crear request body
-            LoginRequest loginRequest = new LoginRequest(serviceUsername, servicePassword);
+            LoginRequest loginRequest = new LoginRequest(backendConfig.getServiceUsername(), backendConfig.getServicePassword());
             // Headers
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -73,26 +155,51 @@ public class BackendAuthService {
                 entity,
                 LoginResponse.class
             );
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                String token = response.getBody().getIdToken();
-
-                // Cachear token (expira en 24h, configurar en cache por 23h para estar seguros)
-                cachedToken = token;
-                tokenExpiration = Instant.now().plusSeconds(23 * 60 * 60); // 23 horas
-
-                log.info("Autenticación exitosa - Token obtenido");
-                log.debug("Token expirará en cache: {}", tokenExpiration);
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null && response.getBody().getIdToken() != null) {
+                String valor = response.getBody().getIdToken();
+                TokenServicio nuevo = new TokenServicio(valor, leerVencimiento(valor));
+                loginCounter.increment();
 
-                return token;
+                log.info("Autenticación exitosa - Token obtenido (vence: {})", nuevo.vence != null ? nuevo.vence : "desconocido");
+                return nuevo;
             } else {
                 log.error("Backend respondió sin token: {}", response.getStatusCode());
                 throw new RuntimeException("No se pudo obtener token del Backend");
             }
         } catch (Exception e) {
-            log.error("Error al autenticarse con Backend: {}", e.getMessage(), e);
+            errorCounter.increment();
+            log.error("Error al autenticarse con Backend: {}", e.getMessage());
             throw new RuntimeException("Fallo al autenticarse con Backend", e);
         }
     }
+
+    /**
+     * Claim {@code exp} del JWT (sin validar la firma: solo se usa para saber cuándo renovar).
+     *
+     * @return Vencimiento, o null si no es legible (el token se usa hasta que el Backend responda 401)
+     */
+    static Instant leerVencimiento(String jwt) {
+        try {
+            Date exp = JWTParser.parse(jwt).getJWTClaimsSet().getExpirationTime();
+            return exp != null ? exp.toInstant() : null;
+        } catch (ParseException e) {
+            log.warn("Token del Backend sin claim exp legible: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static final class TokenServicio {
+        private final String valor;
+        private final Instant vence;
+        private TokenServicio(String valor, Instant vence) {
+            this.valor = valor;
+            this.vence = vence;
+        }
+        private boolean vencePara(Instant instante) {
+            return vence != null && !vence.isAfter(instante);
+        }
+    }
+
     /**
      * DTO para request de login
      */
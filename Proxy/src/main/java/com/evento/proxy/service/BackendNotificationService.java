@@ -1,8 +1,8 @@
 package com.evento.proxy.service;
 
+import com.evento.proxy.config.ApplicationProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
@@ -10,69 +10,83 @@ import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Servicio para notificar al Backend cuando hay cambios en eventos (vía Kafka).
  *
  * Responsabilidades:
  * - Recibir señal de EventoKafkaConsumer
- * - Hacer POST al Backend para trigger sincronización
+ * - Hacer POST al Backend para trigger sincronización (completa o de eventos puntuales)
  * - Manejo de errores de comunicación
+ *
+ * La autenticación usa el token de servicio compartido de BackendAuthService (re-intento con
+ * token renovado ante 401).
  */
 @Service
 public class BackendNotificationService {
 
     private static final Logger log = LoggerFactory.getLogger(BackendNotificationService.class);
 
-    @Value("${application.backend.base-url}")
-    private String backendBaseUrl;
-
+    private final String backendBaseUrl;
     private final RestTemplate restTemplate;
     private final BackendAuthService backendAuthService;
 
-    public BackendNotificationService() {
-        this.restTemplate = new RestTemplate();
-        this.backendAuthService = new BackendAuthService();
+    public BackendNotificationService(
+        ApplicationProperties applicationProperties,
+        RestTemplate restTemplate,
+        BackendAuthService backendAuthService
+    ) {
+        this.backendBaseUrl = applicationProperties.getBackend().getBaseUrl();
+        this.restTemplate = restTemplate;
+        this.backendAuthService = backendAuthService;
     }
 
     /**
      * Notifica al Backend que debe sincronizar todos los eventos.
-     * Llamado cuando Kafka consumer recibe mensaje de actualización.
+     * Llamado por SincronizacionAgrupadaService cuando los mensajes de Kafka no identifican eventos.
+     *
+     * @return true si el Backend respondió 2xx
      */
-    public void notificarSincronizacionCompleta() {
-        log.info("INICIANDO NOTIFICACIÓN AL BACKEND");
+    public boolean notificarSincronizacionCompleta() {
+        log.info("INICIANDO NOTIFICACIÓN AL BACKEND (sincronización completa)");
+        return enviar(backendBaseUrl + "/api/eventos/sincronizar-todo", null);
+    }
 
-        String url = backendBaseUrl + "/api/eventos/sincronizar-todo";
+    /**
+     * Notifica al Backend que debe sincronizar solo los eventos indicados.
+     *
+     * @param idsCatedra IDs de eventos en cátedra extraídos de los mensajes de Kafka
+     * @return true si el Backend respondió 2xx
+     */
+    public boolean notificarSincronizacionEventos(Collection<Long> idsCatedra) {
+        log.info("INICIANDO NOTIFICACIÓN AL BACKEND (eventos {})", idsCatedra);
+        return enviar(backendBaseUrl + "/api/eventos/sincronizar", List.copyOf(idsCatedra));
+    }
 
+    private boolean enviar(String url, Object body) {
         try {
             log.debug("URL destino: {}", url);
 
-            // Obtener token JWT de servicio
-            String token = backendAuthService.getValidToken();
-            log.debug("Token obtenido para autenticación con Backend");
-
-            // Configurar headers con autenticación
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(token);
-
-            // Crear request vacío (endpoint no requiere body)
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            // Hacer POST al Backend
+            // Hacer POST al Backend con el token JWT de servicio
             log.info("Enviando POST a Backend con autenticación: {}", url);
 
-            ResponseEntity<String> response = restTemplate.exchange(
-                url,
-                HttpMethod.POST,
-                entity,
-                String.class
-            );
+            ResponseEntity<String> response = backendAuthService.conToken(token -> {
+                // Configurar headers con autenticación
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(MediaType.APPLICATION_JSON);
+                headers.setBearerAuth(token);
+                return restTemplate.exchange(url, HttpMethod.POST, new HttpEntity<>(body, headers), String.class);
+            });
 
             // Log resultado
             if (response.getStatusCode().is2xxSuccessful()) {
                 log.info("Backend notificado exitosamente");
                 log.info("  Status: {}", response.getStatusCode());
                 log.debug("  Response: {}", response.getBody());
+                log.info("NOTIFICACIÓN COMPLETADA");
+                return true;
             } else {
                 log.warn("Backend respondió con status no exitoso: {}", response.getStatusCode());
             }
@@ -96,8 +110,6 @@ public class BackendNotificationService {
             log.error("Error inesperado al notificar Backend: {}", e.getMessage(), e);
         }
 
-
-        log.info("NOTIFICACIÓN COMPLETADA");
-
+        return false;
     }
 }
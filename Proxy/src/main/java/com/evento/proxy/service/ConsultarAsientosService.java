@@ -1,14 +1,22 @@
 package com.evento.proxy.service;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import redis.clients.jedis.Jedis;
-import redis.clients.jedis.JedisPool;
-import redis.clients.jedis.exceptions.JedisException;
 
 /**
  * Service para cosultar los asientos libres de la catesra.
+ *
+ * Las consultas devuelven {@link CompletableFuture}: con el cliente Lettuce no ocupan
+ * ningún hilo mientras esperan a Redis; con Jedis el futuro ya viene completo.
+ * Las lecturas de eventos se sirven de {@link AsientosSnapshotCache} mientras el snapshot esté vigente.
  */
 @Service
 public class ConsultarAsientosService {
@@ -16,30 +24,98 @@ public class ConsultarAsientosService {
     private static final Logger log = LoggerFactory.getLogger(ConsultarAsientosService.class);
     private static final String REDIS_KEY_PREFIX = "evento_";
 
-    private final JedisPool jedisPool;
+    private final RedisAsientosClient redisClient;
+    private final AsientosSnapshotCache snapshotCache;
 
-    public ConsultarAsientosService(JedisPool jedisPool) {
-        this.jedisPool = jedisPool;
+    public ConsultarAsientosService(RedisAsientosClient redisClient, AsientosSnapshotCache snapshotCache) {
+        this.redisClient = redisClient;
+        this.snapshotCache = snapshotCache;
     }
 
 
-    public String obtenerAsientos(Long eventoId) {
-        String key = REDIS_KEY_PREFIX + eventoId;
-
-        try (Jedis jedis = jedisPool.getResource()) {
-            log.debug("Consulting Redis for key: {}", key);
-            String data = jedis.get(key);
+    public CompletableFuture<String> obtenerAsientos(Long eventoId) {
+        String key = key(eventoId);
+        log.debug("Consulting Redis for key: {}", key);
 
+        return conErrorRedis(redisClient.get(key), "event " + eventoId).thenApply(data -> {
             if (data != null) {
                 log.debug("Found seat data for event {}", eventoId);
             } else {
                 log.debug("No seat data found for event {}", eventoId);
             }
-
             return data;
-        } catch (JedisException e) {
-            log.error("Error connecting to Redis for event {}: {}", eventoId, e.getMessage());
-            throw new RuntimeException("Error accessing Redis server", e);
+        });
+    }
+
+    /**
+     * Obtiene los asientos de varios eventos: los que tienen snapshot vigente se sirven de
+     * memoria y el resto se lee con un único MGET.
+     *
+     * @param eventoIds IDs de eventos en cátedra
+     * @return JSON de Redis por ID de evento, en el orden pedido; los eventos sin key no se incluyen
+     */
+    public CompletableFuture<Map<Long, String>> obtenerAsientos(Collection<Long> eventoIds) {
+        List<Long> ids = eventoIds.stream().distinct().toList();
+        if (ids.isEmpty()) {
+            return CompletableFuture.completedFuture(new LinkedHashMap<>());
+        }
+        Map<String, String> vigentes = new HashMap<>();
+        snapshotCache.vigentes(ids.stream().map(ConsultarAsientosService::key).toList())
+            .forEach((key, snapshot) -> vigentes.put(key, snapshot.getData()));
+        List<Long> faltantes = ids.stream().filter(id -> !vigentes.containsKey(key(id))).toList();
+        if (faltantes.isEmpty()) {
+            return CompletableFuture.completedFuture(armarResultado(ids, vigentes));
         }
+
+        String[] keys = faltantes.stream().map(ConsultarAsientosService::key).toArray(String[]::new);
+        log.debug("Consulting Redis for {} keys with MGET ({} served from snapshots)", keys.length, vigentes.size());
+        long marca = snapshotCache.getMarcaInvalidaciones();
+
+        return conErrorRedis(redisClient.mget(keys), "events " + faltantes).thenApply(valores -> {
+            Map<String, String> datos = new HashMap<>(vigentes);
+            for (int i = 0; i < keys.length; i++) {
+                snapshotCache.guardar(keys[i], valores.get(i), marca);
+                datos.put(keys[i], valores.get(i));
+            }
+            Map<Long, String> resultado = armarResultado(ids, datos);
+            log.debug("Found seat data for {} of {} events", resultado.size(), ids.size());
+            return resultado;
+        });
+    }
+
+    /**
+     * Obtiene el snapshot de asientos del evento, con su ETag fuerte y su antigüedad.
+     * Se sirve de memoria mientras esté vigente (ver {@link AsientosSnapshotCache}).
+     *
+     * @param eventoId ID del evento en cátedra
+     * @return snapshot del evento, o null si la key no existe
+     */
+    public CompletableFuture<AsientosSnapshot> obtenerSnapshot(Long eventoId) {
+        return snapshotCache
+            .obtener(key(eventoId), key -> obtenerAsientos(eventoId))
+            .thenApply(snapshot -> snapshot.getData() != null ? snapshot : null);
+    }
+
+    private static Map<Long, String> armarResultado(List<Long> ids, Map<String, String> datos) {
+        Map<Long, String> resultado = new LinkedHashMap<>();
+        for (Long id : ids) {
+            String data = datos.get(key(id));
+            if (data != null) {
+                resultado.put(id, data);
+            }
+        }
+        return resultado;
+    }
+
+    private static String key(Long eventoId) {
+        return REDIS_KEY_PREFIX + eventoId;
+    }
+
+    private <T> CompletableFuture<T> conErrorRedis(CompletableFuture<T> consulta, String descripcion) {
+        return consulta.exceptionallyCompose(e -> {
+            Throwable causa = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Error connecting to Redis for {}: {}", descripcion, causa.getMessage());
+            return CompletableFuture.failedFuture(new RuntimeException("Error accessing Redis server", causa));
+        });
     }
 }
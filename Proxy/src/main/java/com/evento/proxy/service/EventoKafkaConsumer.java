@@ -1,28 +1,33 @@
 package com.evento.proxy.service;
 
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+/**
+ * Consume los mensajes de actualización de eventos de cátedra.
+ *
+ * El listener es batch: cada poll (incluido el backlog al arrancar con un grupo nuevo) llega
+ * como una lista y se delega a {@link SincronizacionAgrupadaService}, que agrupa todos los
+ * mensajes de la ventana en una sola sincronización (de los eventos mencionados, o completa).
+ */
 @Service
 public class EventoKafkaConsumer {
     private static final Logger log = LoggerFactory.getLogger(EventoKafkaConsumer.class);
-    private final BackendNotificationService backendNotificationService;
+    private final SincronizacionAgrupadaService sincronizacionAgrupadaService;
 
-    public EventoKafkaConsumer(BackendNotificationService backendNotificationService) {
-        this.backendNotificationService = backendNotificationService;
+    public EventoKafkaConsumer(SincronizacionAgrupadaService sincronizacionAgrupadaService) {
+        this.sincronizacionAgrupadaService = sincronizacionAgrupadaService;
     }
 
     @KafkaListener(topics = "eventos-actualizacion", groupId = "${spring.kafka.consumer.group-id}")
-    public void consumirEventoActualizacion(String mensaje) {
-        log.info("==================================================");
-        log.info("MENSAJE RECIBIDO DE KAFKA");
-        log.info("Tópico: eventos-actualizacion");
-        log.info("Contenido: {}", mensaje);
-        log.info("==================================================");
-        log.info("Mensaje genérico detectado: Requiere sincronización completa");
-        backendNotificationService.notificarSincronizacionCompleta();
-        log.info("Solicitud de sincronización procesada");
+    public void consumirEventosActualizacion(List<String> mensajes) {
+        log.info("Recibidos {} mensaje(s) de Kafka (tópico eventos-actualizacion)", mensajes.size());
+        if (log.isDebugEnabled()) {
+            mensajes.forEach(mensaje -> log.debug("Contenido: {}", mensaje));
         }
+        sincronizacionAgrupadaService.registrar(mensajes);
     }
+}
@@ -0,0 +1,38 @@
+package com.evento.proxy.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * Cliente bloqueante sobre {@link JedisPool}: el comando se ejecuta en el hilo que llama
+ * (ocupando una conexión del pool) y el resultado se devuelve ya completo.
+ */
+public class JedisAsientosClient implements RedisAsientosClient {
+
+    private final JedisPool jedisPool;
+
+    public JedisAsientosClient(JedisPool jedisPool) {
+        this.jedisPool = jedisPool;
+    }
+
+    @Override
+    public CompletableFuture<String> get(String key) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return CompletableFuture.completedFuture(jedis.get(key));
+        } catch (JedisException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<String>> mget(String... keys) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return CompletableFuture.completedFuture(jedis.mget(keys));
+        } catch (JedisException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.evento.proxy.service;
+
+import com.evento.proxy.config.ApplicationProperties;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateAdapter;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Suscripción a las keyspace notifications de Redis cátedra ({@code __keyspace@*__:evento_*})
+ * para invalidar los snapshots de {@link AsientosSnapshotCache}.
+ *
+ * Las notificaciones solo se consideran activas si la suscripción está conectada y Redis tiene
+ * habilitado {@code notify-keyspace-events} para keys y comandos de string, genéricos y de
+ * expiración ({@code K$gx} o {@code KA}); si no, la cache trabaja con el TTL corto. El estado se
+ * verifica periódicamente y tras una reconexión se descartan todos los snapshots (pudieron
+ * perderse notificaciones).
+ */
+@Component
+public class KeyspaceNotificacionesListener {
+
+    private static final Logger log = LoggerFactory.getLogger(KeyspaceNotificacionesListener.class);
+
+    static final String PATRON = "__keyspace@*__:evento_*";
+    private static final long VERIFICACION_SEGUNDOS = 30;
+
+    private final AsientosSnapshotCache snapshotCache;
+    private final ApplicationProperties.Redis.Catedra catedraConfig;
+    private final ScheduledExecutorService verificador = Executors.newSingleThreadScheduledExecutor(
+        new CustomizableThreadFactory("keyspace-notificaciones-")
+    );
+
+    private RedisClient redisClient;
+    private StatefulRedisPubSubConnection<String, String> suscripcion;
+    private StatefulRedisConnection<String, String> conexion;
+
+    public KeyspaceNotificacionesListener(AsientosSnapshotCache snapshotCache, ApplicationProperties applicationProperties) {
+        this.snapshotCache = snapshotCache;
+        this.catedraConfig = applicationProperties.getRedis().getCatedra();
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (!catedraConfig.isNotificaciones()) {
+            log.info("Keyspace notifications deshabilitadas - snapshots de asientos con TTL de {} ms", catedraConfig.getSnapshotTtlMs());
+            return;
+        }
+        redisClient = RedisClient.create(
+            RedisURI.builder()
+                .withHost(catedraConfig.getHost())
+                .withPort(catedraConfig.getPort())
+                .withTimeout(Duration.ofMillis(catedraConfig.getTimeout()))
+                .build()
+        );
+        redisClient.addListener(
+            new RedisConnectionStateAdapter() {
+                @Override
+                public void onRedisDisconnected(RedisChannelHandler<?, ?> connection) {
+                    snapshotCache.setNotificacionesActivas(false);
+                }
+
+                @Override
+                public void onRedisConnected(RedisChannelHandler<?, ?> connection, SocketAddress socketAddress) {
+                    snapshotCache.invalidarTodo();
+                    verificador.execute(KeyspaceNotificacionesListener.this::verificar);
+                }
+            }
+        );
+        // Conectar en segundo plano: el Proxy arranca aunque Redis cátedra no esté disponible
+        verificador.scheduleWithFixedDelay(this::verificar, 0, VERIFICACION_SEGUNDOS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Se suscribe si hace falta y actualiza el estado de las notificaciones en la cache
+     */
+    void verificar() {
+        try {
+            if (suscripcion == null) {
+                suscripcion = suscribir();
+                log.info("Suscripto a keyspace notifications {}", PATRON);
+            }
+            if (conexion == null) {
+                conexion = redisClient.connect();
+            }
+            boolean activas = suscripcion.isOpen() && notificacionesHabilitadas(conexion.sync().configGet("notify-keyspace-events"));
+            snapshotCache.setNotificacionesActivas(activas);
+        } catch (RuntimeException e) {
+            log.warn("Keyspace notifications no disponibles: {}", e.getMessage());
+            snapshotCache.setNotificacionesActivas(false);
+        }
+    }
+
+    /**
+     * Abre la conexión pub/sub y se suscribe al patrón. Si el psubscribe falla la conexión se
+     * cierra: queda sin asignar y la próxima verificación vuelve a intentarlo.
+     */
+    private StatefulRedisPubSubConnection<String, String> suscribir() {
+        StatefulRedisPubSubConnection<String, String> nueva = redisClient.connectPubSub();
+        try {
+            nueva.addListener(
+                new RedisPubSubAdapter<>() {
+                    @Override
+                    public void message(String pattern, String channel, String message) {
+                        procesarNotificacion(channel);
+                    }
+                }
+            );
+            nueva.sync().psubscribe(PATRON);
+            return nueva;
+        } catch (RuntimeException e) {
+            nueva.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Invalida el snapshot de la key del canal {@code __keyspace@<db>__:<key>}
+     */
+    void procesarNotificacion(String channel) {
+        int separador = channel.indexOf("__:");
+        if (separador >= 0) {
+            snapshotCache.invalidar(channel.substring(separador + 3));
+        }
+    }
+
+    /**
+     * Redis publica los eventos de keyspace ('K') de comandos de string ('$'), genéricos ('g') y
+     * expiración ('x') si están en {@code notify-keyspace-events}; 'A' equivale a todas las clases.
+     * Hacen falta las tres: sin 'g' ni 'x' un DEL o un vencimiento de {@code evento_*} no se
+     * notifica y el snapshot quedaría vigente hasta el TTL largo.
+     */
+    static boolean notificacionesHabilitadas(Map<String, String> config) {
+        String valor = config.getOrDefault("notify-keyspace-events", "");
+        return valor.contains("K") && (valor.contains("A") || (valor.contains("$") && valor.contains("g") && valor.contains("x")));
+    }
+
+    @PreDestroy
+    public void detener() {
+        verificador.shutdownNow();
+        if (suscripcion != null) {
+            suscripcion.close();
+        }
+        if (conexion != null) {
+            conexion.close();
+        }
+        if (redisClient != null) {
+            redisClient.shutdown();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.evento.proxy.service;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisException;
+import io.lettuce.core.api.StatefulRedisConnection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Cliente asíncrono sobre una única conexión Lettuce multiplexada: los comandos de todos los
+ * requests se encolan en la misma conexión y ningún hilo queda esperando la respuesta.
+ *
+ * La conexión se abre en el primer uso, así el Proxy arranca aunque Redis cátedra no esté disponible.
+ */
+public class LettuceAsientosClient implements RedisAsientosClient, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(LettuceAsientosClient.class);
+
+    private final RedisClient redisClient;
+    private volatile StatefulRedisConnection<String, String> conexion;
+
+    public LettuceAsientosClient(RedisClient redisClient) {
+        this.redisClient = redisClient;
+    }
+
+    @Override
+    public CompletableFuture<String> get(String key) {
+        try {
+            return conexion().async().get(key).toCompletableFuture();
+        } catch (RedisException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<String>> mget(String... keys) {
+        try {
+            return conexion()
+                .async()
+                .mget(keys)
+                .thenApply(valores -> valores.stream().map(valor -> valor.getValueOrElse(null)).toList())
+                .toCompletableFuture();
+        } catch (RedisException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private StatefulRedisConnection<String, String> conexion() {
+        StatefulRedisConnection<String, String> actual = conexion;
+        if (actual == null) {
+            synchronized (this) {
+                actual = conexion;
+                if (actual == null) {
+                    log.info("Opening Lettuce connection to Redis Cátedra");
+                    actual = redisClient.connect();
+                    conexion = actual;
+                }
+            }
+        }
+        return actual;
+    }
+
+    @Override
+    public void destroy() {
+        if (conexion != null) {
+            conexion.close();
+        }
+        redisClient.shutdown();
+    }
+}
@@ -0,0 +1,91 @@
+package com.evento.proxy.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Extrae los IDs de eventos de cátedra de un mensaje del tópico {@code eventos-actualizacion}.
+ *
+ * Formatos reconocidos:
+ * - un número: {@code 5}
+ * - un objeto con {@code id}, {@code eventoId}, {@code idEvento} o {@code idCatedra}
+ * - un objeto con {@code ids} o {@code eventos}, o directamente un array, de números u objetos como los anteriores
+ *
+ * Cualquier otro mensaje (texto genérico, JSON sin IDs, JSON inválido) no identifica eventos
+ * y debe tratarse como pedido de sincronización completa.
+ */
+final class MensajeEventoParser {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String[] CAMPOS_ID = { "id", "eventoId", "idEvento", "idCatedra" };
+    private static final String[] CAMPOS_LISTA = { "ids", "eventos" };
+
+    private MensajeEventoParser() {}
+
+    /**
+     * @param mensaje contenido del mensaje de Kafka
+     * @return IDs de eventos mencionados, o vacío si el mensaje no los identifica
+     */
+    static Optional<Set<Long>> extraerIds(String mensaje) {
+        if (mensaje == null || mensaje.isBlank()) {
+            return Optional.empty();
+        }
+        JsonNode raiz;
+        try {
+            raiz = objectMapper.readTree(mensaje);
+        } catch (JsonProcessingException e) {
+            return Optional.empty();
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        if (raiz != null && raiz.isObject()) {
+            for (String campo : CAMPOS_LISTA) {
+                if (raiz.path(campo).isArray()) {
+                    return agregarTodos(raiz.get(campo), ids) ? Optional.of(ids) : Optional.empty();
+                }
+            }
+        }
+        if (raiz != null && raiz.isArray()) {
+            return agregarTodos(raiz, ids) ? Optional.of(ids) : Optional.empty();
+        }
+        return agregar(raiz, ids) ? Optional.of(ids) : Optional.empty();
+    }
+
+    private static boolean agregarTodos(JsonNode array, Set<Long> ids) {
+        if (array.isEmpty()) {
+            return false;
+        }
+        for (JsonNode elemento : array) {
+            if (!agregar(elemento, ids)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean agregar(JsonNode nodo, Set<Long> ids) {
+        if (nodo == null) {
+            return false;
+        }
+        if (nodo.canConvertToLong() && nodo.isIntegralNumber()) {
+            ids.add(nodo.asLong());
+            return true;
+        }
+        if (nodo.isTextual() && nodo.asText().matches("\\d{1,18}")) {
+            ids.add(Long.parseLong(nodo.asText()));
+            return true;
+        }
+        if (nodo.isObject()) {
+            for (String campo : CAMPOS_ID) {
+                JsonNode id = nodo.get(campo);
+                if (id != null && !id.isObject() && !id.isArray() && agregar(id, ids)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
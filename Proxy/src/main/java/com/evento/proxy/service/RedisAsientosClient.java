@@ -0,0 +1,22 @@
+package com.evento.proxy.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Acceso de solo lectura a Redis cátedra.
+ * La implementación se elige con {@code application.redis.catedra.cliente} (ver RedisConfig).
+ */
+public interface RedisAsientosClient {
+    /**
+     * @param key key de Redis
+     * @return valor de la key, o null si no existe
+     */
+    CompletableFuture<String> get(String key);
+
+    /**
+     * @param keys keys de Redis
+     * @return valores en el mismo orden que las keys (null para las que no existen)
+     */
+    CompletableFuture<List<String>> mget(String... keys);
+}
@@ -0,0 +1,169 @@
+package com.evento.proxy.service;
+
+import com.evento.proxy.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Agrupa los mensajes de actualización de Kafka en una sola sincronización con el Backend.
+ *
+ * - Cada mensaje (o lote) reinicia una ventana de silencio ({@code application.kafka.ventana-ms});
+ *   al vencer se dispara una única sincronización por todos los mensajes pendientes.
+ * - Si todos los mensajes identifican eventos (ver {@link MensajeEventoParser}) se sincronizan solo
+ *   esos eventos; si alguno es genérico, o son más de {@code max-eventos-dirigidos}, se pide la
+ *   sincronización completa.
+ * - {@code max-espera-ms} acota la demora si los mensajes no dejan de llegar.
+ * - Las sincronizaciones se ejecutan de a una; lo recibido durante una sincronización se agrupa
+ *   en la siguiente.
+ * - Si el Backend no acepta la sincronización, sus eventos (o el pedido de sincronización
+ *   completa) vuelven a la ventana y se reintenta a los {@code reintento-ms}.
+ * - Métricas: {@code proxy.kafka.mensajes.recibidos} y {@code proxy.kafka.sincronizaciones}
+ *   (tags tipo = completa | dirigida, resultado = ok | error).
+ */
+@Service
+public class SincronizacionAgrupadaService {
+
+    private static final Logger log = LoggerFactory.getLogger(SincronizacionAgrupadaService.class);
+
+    private final BackendNotificationService backendNotificationService;
+    private final ApplicationProperties.Kafka kafkaProperties;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+        new CustomizableThreadFactory("sincronizacion-agrupada-")
+    );
+
+    private final MeterRegistry meterRegistry;
+    private final Counter mensajesCounter;
+
+    // Estado de la ventana actual (protegido por this)
+    private long mensajesPendientes;
+    private final Set<Long> eventosPendientes = new LinkedHashSet<>();
+    private boolean completaPendiente;
+    private long primerPendienteNanos;
+    private ScheduledFuture<?> programada;
+
+    public SincronizacionAgrupadaService(
+        BackendNotificationService backendNotificationService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.backendNotificationService = backendNotificationService;
+        this.kafkaProperties = applicationProperties.getKafka();
+        this.meterRegistry = meterRegistry;
+        this.mensajesCounter = Counter.builder("proxy.kafka.mensajes.recibidos")
+            .description("Mensajes de actualización de eventos recibidos de Kafka")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Registra mensajes recibidos y reprograma la sincronización al final de la ventana.
+     *
+     * @param mensajes contenido de los mensajes del lote
+     */
+    public synchronized void registrar(List<String> mensajes) {
+        if (mensajes.isEmpty()) {
+            return;
+        }
+        mensajesCounter.increment(mensajes.size());
+        long ahora = System.nanoTime();
+        if (mensajesPendientes == 0) {
+            primerPendienteNanos = ahora;
+        }
+        mensajesPendientes += mensajes.size();
+        for (String mensaje : mensajes) {
+            Optional<Set<Long>> ids = MensajeEventoParser.extraerIds(mensaje);
+            if (ids.isPresent()) {
+                eventosPendientes.addAll(ids.get());
+            } else {
+                completaPendiente = true;
+            }
+        }
+
+        long esperadoMs = TimeUnit.NANOSECONDS.toMillis(ahora - primerPendienteNanos);
+        long demoraMs = Math.max(0, Math.min(kafkaProperties.getVentanaMs(), kafkaProperties.getMaxEsperaMs() - esperadoMs));
+        if (programada != null) {
+            programada.cancel(false);
+        }
+        programada = executor.schedule(this::sincronizar, demoraMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Dispara una sincronización por todos los mensajes pendientes (si hay)
+     */
+    void sincronizar() {
+        long mensajes;
+        Set<Long> eventos;
+        boolean completa;
+        synchronized (this) {
+            mensajes = mensajesPendientes;
+            eventos = new LinkedHashSet<>(eventosPendientes);
+            completa = completaPendiente || eventosPendientes.size() > kafkaProperties.getMaxEventosDirigidos();
+            mensajesPendientes = 0;
+            eventosPendientes.clear();
+            completaPendiente = false;
+            programada = null;
+        }
+        if (mensajes == 0) {
+            return;
+        }
+        boolean ok;
+        if (completa) {
+            log.info("Sincronización agrupada: {} mensaje(s) de Kafka -> 1 sincronización completa", mensajes);
+            ok = backendNotificationService.notificarSincronizacionCompleta();
+        } else {
+            log.info("Sincronización agrupada: {} mensaje(s) de Kafka -> sincronización de eventos {}", mensajes, eventos);
+            ok = backendNotificationService.notificarSincronizacionEventos(eventos);
+        }
+        Counter.builder("proxy.kafka.sincronizaciones")
+            .description("Sincronizaciones solicitadas al Backend por mensajes de Kafka")
+            .tag("tipo", completa ? "completa" : "dirigida")
+            .tag("resultado", ok ? "ok" : "error")
+            .register(meterRegistry)
+            .increment();
+        if (!ok) {
+            reencolar(mensajes, eventos, completa);
+        }
+    }
+
+    /**
+     * Devuelve a la ventana una sincronización que el Backend no aceptó y la reprograma.
+     */
+    private synchronized void reencolar(long mensajes, Set<Long> eventos, boolean completa) {
+        if (executor.isShutdown()) {
+            log.warn("El Backend no aceptó la sincronización de {} mensaje(s) durante el apagado; se descarta", mensajes);
+            return;
+        }
+        if (mensajesPendientes == 0) {
+            primerPendienteNanos = System.nanoTime();
+        }
+        mensajesPendientes += mensajes;
+        eventosPendientes.addAll(eventos);
+        completaPendiente = completaPendiente || completa;
+        if (programada != null) {
+            programada.cancel(false);
+        }
+        log.warn("El Backend no aceptó la sincronización de {} mensaje(s); se reintenta en {} ms", mensajes, kafkaProperties.getReintentoMs());
+        programada = executor.schedule(this::sincronizar, kafkaProperties.getReintentoMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Al detenerse, sincroniza lo que haya quedado pendiente en la ventana
+     */
+    @PreDestroy
+    public void detener() {
+        executor.shutdownNow();
+        sincronizar();
+    }
+}
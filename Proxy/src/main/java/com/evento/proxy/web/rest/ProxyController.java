@@ -5,13 +5,19 @@ import com.evento.proxy.security.SecurityUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for proxying requests to Cátedra services.
+ *
+ * Seat lookups return a {@link CompletableFuture}: the servlet thread is released while
+ * Redis answers (when the Lettuce client is configured).
  */
 @RestController
 @RequestMapping("/api/proxy")
@@ -19,6 +25,16 @@ public class ProxyController {
 
     private static final Logger log = LoggerFactory.getLogger(ProxyController.class);
 
+    /**
+     * Máximo de eventos por consulta batch (el Backend parte los pedidos con este mismo tamaño).
+     */
+    public static final int MAX_EVENTOS_BATCH = 100;
+
+    /**
+     * Antigüedad en milisegundos del snapshot servido.
+     */
+    public static final String HEADER_SNAPSHOT_AGE = "X-Snapshot-Age-Ms";
+
     private final ConsultarAsientosService consultarAsientosService;
 
     public ProxyController(ConsultarAsientosService consultarAsientosService) {
@@ -28,38 +44,121 @@ public class ProxyController {
     /**
      * GET /api/proxy/asientos/:eventoId : Get seat availability for an event.
      *
+     * The response carries a strong ETag computed from the Redis content; a request with a
+     * matching If-None-Match gets 304 (Not Modified) without body. Data may be served from the
+     * in-memory snapshot: {@code Age} (seconds) and {@code X-Snapshot-Age-Ms} tell how old it is.
+     *
      * @param eventoId the ID of the event to query
      * @return the ResponseEntity with status 200 (OK) and seat data in body,
+     *         status 304 (Not Modified) if the client's ETag is current,
      *         or status 404 (Not Found) if the event doesn't exist
      */
     @GetMapping(value = "/asientos/{eventoId}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> obtenerAsientos(
+    public CompletableFuture<ResponseEntity<String>> obtenerAsientos(
         @PathVariable Long eventoId,
         HttpServletRequest request
     ) {
         // Obtener usuario autenticado
         String username = SecurityUtils.getCurrentUserLogin().orElse("anonymous");
         String ipAddress = request.getRemoteAddr();
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
 
         log.debug("REST request to get seats for event: {}", eventoId);
         log.info("AUDIT: Consulta asientos - Evento: {}, Usuario: {}, IP: {}",
             eventoId, username, ipAddress);
 
-        try {
-            String asientos = consultarAsientosService.obtenerAsientos(eventoId);
+        return consultarAsientosService.obtenerSnapshot(eventoId)
+            .thenApply(asientos -> {
+                if (asientos == null) {
+                    log.debug("Event {} not found in Redis", eventoId);
+                    return ResponseEntity.notFound().<String>build();
+                }
 
-            if (asientos == null) {
-                log.debug("Event {} not found in Redis", eventoId);
-                return ResponseEntity.notFound().build();
-            }
+                long edadMs = asientos.getEdad().toMillis();
+                if (coincideEtag(ifNoneMatch, asientos.getEtag())) {
+                    log.debug("Seats for event {} not modified (ETag {})", eventoId, asientos.getEtag());
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(asientos.getEtag())
+                        .header(HttpHeaders.AGE, String.valueOf(edadMs / 1000))
+                        .header(HEADER_SNAPSHOT_AGE, String.valueOf(edadMs))
+                        .<String>build();
+                }
 
-            return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(asientos);
+                return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(asientos.getEtag())
+                    .header(HttpHeaders.AGE, String.valueOf(edadMs / 1000))
+                    .header(HEADER_SNAPSHOT_AGE, String.valueOf(edadMs))
+                    .body(asientos.getData());
+            })
+            .exceptionally(e -> {
+                log.error("Error retrieving seats for event {}: {}", eventoId, e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            });
+    }
 
-        } catch (Exception e) {
-            log.error("Error retrieving seats for event {}: {}", eventoId, e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    /**
+     * GET /api/proxy/asientos?ids=1,2,3 : Get seat data for several events in one call.
+     *
+     * Keys are read with a single Redis MGET. The body is a JSON object keyed by event ID
+     * whose values are the raw Redis documents; events without data are omitted.
+     *
+     * @param ids the IDs of the events to query (at most {@value #MAX_EVENTOS_BATCH})
+     * @return the ResponseEntity with status 200 (OK) and the seat data per event,
+     *         or status 400 (Bad Request) if too many IDs are requested
+     */
+    @GetMapping(value = "/asientos", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<String>> obtenerAsientosMultiples(
+        @RequestParam List<Long> ids,
+        HttpServletRequest request
+    ) {
+        String username = SecurityUtils.getCurrentUserLogin().orElse("anonymous");
+        log.info("AUDIT: Consulta asientos batch - Eventos: {}, Usuario: {}, IP: {}",
+            ids.size(), username, request.getRemoteAddr());
+
+        if (ids.size() > MAX_EVENTOS_BATCH) {
+            log.warn("Batch request with {} events exceeds the limit of {}", ids.size(), MAX_EVENTOS_BATCH);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+
+        return consultarAsientosService.obtenerAsientos(ids)
+            .thenApply(asientos -> {
+                // Los valores de Redis ya son JSON: se concatenan sin volver a parsearlos
+                StringBuilder body = new StringBuilder("{");
+                asientos.forEach((eventoId, data) -> {
+                    if (body.length() > 1) {
+                        body.append(',');
+                    }
+                    body.append('"').append(eventoId).append("\":").append(data);
+                });
+                body.append('}');
+
+                return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body.toString());
+            })
+            .exceptionally(e -> {
+                log.error("Error retrieving seats for events {}: {}", ids, e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            });
+    }
+
+    /**
+     * Weak comparison of If-None-Match against the current ETag (RFC 9110).
+     */
+    private static boolean coincideEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
         }
+        return false;
     }
 }
@@ -0,0 +1,125 @@
+package com.evento.proxy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.evento.proxy.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AsientosSnapshotCacheTest {
+
+    private ApplicationProperties applicationProperties;
+    private AsientosSnapshotCache cache;
+    private KeyspaceNotificacionesListener listener;
+
+    // Redis cátedra simulado: cada escritura publica la keyspace notification de la key
+    private final Map<String, String> redis = new ConcurrentHashMap<>();
+    private final AtomicInteger lecturas = new AtomicInteger();
+    private final Function<String, CompletableFuture<String>> cargador = key -> {
+        lecturas.incrementAndGet();
+        return CompletableFuture.completedFuture(redis.get(key));
+    };
+
+    @BeforeEach
+    void setup() {
+        applicationProperties = new ApplicationProperties();
+        cache = new AsientosSnapshotCache(applicationProperties, new SimpleMeterRegistry());
+        listener = new KeyspaceNotificacionesListener(cache, applicationProperties);
+        cache.setNotificacionesActivas(true);
+    }
+
+    private void escribir(String key, String valor) {
+        redis.put(key, valor);
+        listener.procesarNotificacion("__keyspace@0__:" + key);
+    }
+
+    @Test
+    void lecturasRepetidasSeSirvenDeMemoria() {
+        escribir("evento_1", "{\"v\":1}");
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(cache.obtener("evento_1", cargador).join().getData()).isEqualTo("{\"v\":1}");
+        }
+
+        assertThat(lecturas).hasValue(1);
+    }
+
+    @Test
+    void notificacionInvalidaElSnapshot() {
+        escribir("evento_1", "{\"v\":1}");
+        String etag = cache.obtener("evento_1", cargador).join().getEtag();
+
+        escribir("evento_1", "{\"v\":2}");
+        AsientosSnapshot snapshot = cache.obtener("evento_1", cargador).join();
+
+        assertThat(snapshot.getData()).isEqualTo("{\"v\":2}");
+        assertThat(snapshot.getEtag()).isNotEqualTo(etag);
+        assertThat(lecturas).hasValue(2);
+    }
+
+    @Test
+    void sinNotificacionesSeUsaElTtlCorto() throws Exception {
+        applicationProperties.getRedis().getCatedra().setSnapshotTtlMs(50);
+        cache.setNotificacionesActivas(false);
+        redis.put("evento_1", "{\"v\":1}");
+
+        cache.obtener("evento_1", cargador).join();
+        cache.obtener("evento_1", cargador).join();
+        assertThat(lecturas).hasValue(1);
+
+        // Cambio sin notificación: se ve recién al vencer el TTL
+        redis.put("evento_1", "{\"v\":2}");
+        Thread.sleep(80);
+        AsientosSnapshot snapshot = cache.obtener("evento_1", cargador).join();
+
+        assertThat(snapshot.getData()).isEqualTo("{\"v\":2}");
+        assertThat(snapshot.getEdad().toMillis()).isLessThan(50);
+        assertThat(lecturas).hasValue(2);
+    }
+
+    @Test
+    void lecturasConcurrentesCompartenUnaConsulta() {
+        CompletableFuture<String> pendiente = new CompletableFuture<>();
+        Function<String, CompletableFuture<String>> lento = key -> {
+            lecturas.incrementAndGet();
+            return pendiente;
+        };
+
+        CompletableFuture<AsientosSnapshot> primera = cache.obtener("evento_1", lento);
+        CompletableFuture<AsientosSnapshot> segunda = cache.obtener("evento_1", lento);
+        pendiente.complete("{\"v\":1}");
+
+        assertThat(primera.join()).isSameAs(segunda.join());
+        assertThat(lecturas).hasValue(1);
+    }
+
+    @Test
+    void guardadoBatchSeDescartaSiHuboInvalidaciones() {
+        long marca = cache.getMarcaInvalidaciones();
+        escribir("evento_1", "{\"v\":2}");
+
+        // El MGET leyó el valor anterior a la notificación
+        cache.guardar("evento_1", "{\"v\":1}", marca);
+        assertThat(cache.vigentes(List.of("evento_1"))).isEmpty();
+
+        cache.guardar("evento_1", "{\"v\":2}", cache.getMarcaInvalidaciones());
+        assertThat(cache.vigentes(List.of("evento_1"))).containsKey("evento_1");
+    }
+
+    @Test
+    void detectaConfiguracionDeNotificaciones() {
+        assertThat(KeyspaceNotificacionesListener.notificacionesHabilitadas(Map.of("notify-keyspace-events", "KA"))).isTrue();
+        assertThat(KeyspaceNotificacionesListener.notificacionesHabilitadas(Map.of("notify-keyspace-events", "K$gx"))).isTrue();
+        assertThat(KeyspaceNotificacionesListener.notificacionesHabilitadas(Map.of("notify-keyspace-events", "K$"))).isFalse();
+        assertThat(KeyspaceNotificacionesListener.notificacionesHabilitadas(Map.of("notify-keyspace-events", "K$g"))).isFalse();
+        assertThat(KeyspaceNotificacionesListener.notificacionesHabilitadas(Map.of("notify-keyspace-events", "Ex"))).isFalse();
+        assertThat(KeyspaceNotificacionesListener.notificacionesHabilitadas(Map.of("notify-keyspace-events", ""))).isFalse();
+    }
+}
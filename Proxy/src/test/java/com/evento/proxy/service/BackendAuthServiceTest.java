@@ -0,0 +1,161 @@
+package com.evento.proxy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.evento.proxy.config.ApplicationProperties;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Token de servicio Proxy→Backend contra un Backend local: login único, vencimiento del JWT y 401.
+ */
+class BackendAuthServiceTest {
+
+    private static final int THREADS = 32;
+
+    private final AtomicInteger logins = new AtomicInteger();
+    private final Set<String> aceptados = ConcurrentHashMap.newKeySet();
+    private volatile long vigenciaSegundos = 86400;
+
+    private HttpServer servidor;
+    private SimpleMeterRegistry meterRegistry;
+    private BackendAuthService service;
+    private BackendNotificationService notificacion;
+
+    @BeforeEach
+    void setup() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.setExecutor(Executors.newFixedThreadPool(THREADS));
+        servidor.createContext("/api/authenticate", this::autenticar);
+        servidor.createContext("/api/eventos/sincronizar-todo", this::sincronizar);
+        servidor.start();
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getBackend().setBaseUrl("http://127.0.0.1:" + servidor.getAddress().getPort());
+        RestTemplate restTemplate = new RestTemplate();
+        meterRegistry = new SimpleMeterRegistry();
+        service = new BackendAuthService(applicationProperties, restTemplate, meterRegistry);
+        notificacion = new BackendNotificationService(applicationProperties, restTemplate, service);
+    }
+
+    @AfterEach
+    void cerrar() {
+        servidor.stop(0);
+    }
+
+    @Test
+    void threadsConcurrentesHacenUnSoloLogin() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<String>> futuros = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futuros.add(
+                    executor.submit(() -> {
+                        largada.await();
+                        return service.getValidToken();
+                    })
+                );
+            }
+            largada.countDown();
+            Set<String> tokens = ConcurrentHashMap.newKeySet();
+            for (Future<String> futuro : futuros) {
+                tokens.add(futuro.get(10, TimeUnit.SECONDS));
+            }
+
+            assertThat(tokens).hasSize(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(logins).hasValue(1);
+        assertThat(contador("login")).isEqualTo(1.0);
+        assertThat(contador("cache")).isEqualTo(THREADS - 1.0);
+    }
+
+    @Test
+    void elVencimientoSaleDelJwt() {
+        // Vence dentro del margen de renovación: no se reutiliza
+        vigenciaSegundos = 30;
+        String porVencer = service.getValidToken();
+        vigenciaSegundos = 86400;
+
+        String nuevo = service.getValidToken();
+        service.getValidToken();
+
+        assertThat(nuevo).isNotEqualTo(porVencer);
+        assertThat(logins).hasValue(2);
+        assertThat(BackendAuthService.leerVencimiento(nuevo)).isAfter(Instant.now().plusSeconds(86000));
+    }
+
+    @Test
+    void notificacionRechazadaCon401RenuevaElTokenYReintenta() {
+        service.getValidToken();
+        // El Backend reinició con otra clave: el token en cache deja de ser válido
+        aceptados.clear();
+
+        assertThat(notificacion.notificarSincronizacionCompleta()).isTrue();
+        assertThat(logins).hasValue(2);
+    }
+
+    private double contador(String resultado) {
+        return meterRegistry.get(BackendAuthService.TOKEN_METER_NAME).tag("resultado", resultado).counter().count();
+    }
+
+    private void autenticar(HttpExchange exchange) throws IOException {
+        int numero = logins.incrementAndGet();
+        try {
+            // Login lento: da tiempo a que los demás threads lleguen sin token
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String jwt = new PlainJWT(
+            new JWTClaimsSet.Builder()
+                .subject("proxy-service")
+                .claim("login", numero)
+                .expirationTime(Date.from(Instant.now().plusSeconds(vigenciaSegundos)))
+                .build()
+        ).serialize();
+        aceptados.clear();
+        aceptados.add(jwt);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        responder(exchange, 200, "{\"id_token\":\"" + jwt + "\"}");
+    }
+
+    private void sincronizar(HttpExchange exchange) throws IOException {
+        String autorizacion = exchange.getRequestHeaders().getFirst("Authorization");
+        boolean valido = autorizacion != null && aceptados.contains(autorizacion.substring("Bearer ".length()));
+        responder(exchange, valido ? 200 : 401, valido ? "ok" : "");
+    }
+
+    private static void responder(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
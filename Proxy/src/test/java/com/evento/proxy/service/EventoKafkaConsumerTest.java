@@ -0,0 +1,139 @@
+package com.evento.proxy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.evento.proxy.config.ApplicationProperties;
+import com.evento.proxy.config.KafkaConsumerConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+@SpringJUnitConfig(EventoKafkaConsumerTest.Config.class)
+@EmbeddedKafka(partitions = 1, topics = "eventos-actualizacion")
+@TestPropertySource(
+    properties = { "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}", "spring.kafka.consumer.group-id=proxy-test" }
+)
+class EventoKafkaConsumerTest {
+
+    private static final int MENSAJES = 50;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private BackendNotificationServiceFake backendNotificationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void rafagaDeMensajesDisparaUnaSolaSincronizacion() throws Exception {
+        // Publicados mientras el consumidor se une al grupo: se leen como backlog (auto.offset.reset=earliest)
+        enviar(MENSAJES, null);
+        esperarSincronizaciones(1);
+        assertThat(backendNotificationService.eventos).containsExactly(Set.of(1L, 2L, 3L));
+
+        // Pasada la ventana, una nueva ráfaga con un mensaje genérico dispara una sincronización completa
+        enviar(MENSAJES, "actualizacion de eventos");
+        esperarSincronizaciones(2);
+
+        Thread.sleep(500);
+        assertThat(backendNotificationService.sincronizaciones).hasValue(2);
+        assertThat(backendNotificationService.completas).hasValue(1);
+        assertThat(meterRegistry.get("proxy.kafka.mensajes.recibidos").counter().count()).isEqualTo(2 * MENSAJES + 1);
+        assertThat(meterRegistry.get("proxy.kafka.sincronizaciones").tag("tipo", "dirigida").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("proxy.kafka.sincronizaciones").tag("tipo", "completa").counter().count()).isEqualTo(1);
+    }
+
+    private void enviar(int cantidad, String mensajeGenerico) {
+        try (
+            KafkaProducer<String, String> producer = new KafkaProducer<>(
+                KafkaTestUtils.producerProps(broker),
+                new StringSerializer(),
+                new StringSerializer()
+            )
+        ) {
+            for (int i = 0; i < cantidad; i++) {
+                producer.send(new ProducerRecord<>("eventos-actualizacion", "{\"eventoId\":" + (i % 3 + 1) + "}"));
+            }
+            if (mensajeGenerico != null) {
+                producer.send(new ProducerRecord<>("eventos-actualizacion", mensajeGenerico));
+            }
+        }
+    }
+
+    private void esperarSincronizaciones(int cantidad) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10000;
+        while (backendNotificationService.sincronizaciones.get() < cantidad && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+        assertThat(backendNotificationService.sincronizaciones).hasValue(cantidad);
+    }
+
+    /**
+     * Reemplaza el POST al Backend por un contador
+     */
+    static class BackendNotificationServiceFake extends BackendNotificationService {
+
+        private final AtomicInteger sincronizaciones = new AtomicInteger();
+        private final AtomicInteger completas = new AtomicInteger();
+        private final List<Set<Long>> eventos = new CopyOnWriteArrayList<>();
+
+        BackendNotificationServiceFake(ApplicationProperties applicationProperties) {
+            super(applicationProperties, null, null);
+        }
+
+        @Override
+        public boolean notificarSincronizacionCompleta() {
+            completas.incrementAndGet();
+            sincronizaciones.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public boolean notificarSincronizacionEventos(Collection<Long> idsCatedra) {
+            eventos.add(Set.copyOf(idsCatedra));
+            sincronizaciones.incrementAndGet();
+            return true;
+        }
+    }
+
+    @Configuration
+    @Import({ KafkaConsumerConfig.class, EventoKafkaConsumer.class, SincronizacionAgrupadaService.class })
+    static class Config {
+
+        @Bean
+        ApplicationProperties applicationProperties() {
+            ApplicationProperties applicationProperties = new ApplicationProperties();
+            applicationProperties.getKafka().setVentanaMs(300);
+            return applicationProperties;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        BackendNotificationServiceFake backendNotificationService(ApplicationProperties applicationProperties) {
+            return new BackendNotificationServiceFake(applicationProperties);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.evento.proxy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class MensajeEventoParserTest {
+
+    @Test
+    void extraeIdsDeLosFormatosConocidos() {
+        assertThat(MensajeEventoParser.extraerIds("5")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(5L));
+        assertThat(MensajeEventoParser.extraerIds("{\"eventoId\":7,\"accion\":\"modificado\"}")).hasValueSatisfying(ids ->
+            assertThat(ids).containsExactly(7L)
+        );
+        assertThat(MensajeEventoParser.extraerIds("{\"ids\":[1,\"2\",3]}")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(1L, 2L, 3L));
+        assertThat(MensajeEventoParser.extraerIds("{\"eventos\":[{\"id\":4},{\"idEvento\":9}]}")).hasValueSatisfying(ids ->
+            assertThat(ids).containsExactly(4L, 9L)
+        );
+        assertThat(MensajeEventoParser.extraerIds("[10,11]")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(10L, 11L));
+    }
+
+    @Test
+    void mensajesGenericosOInvalidosPidenSincronizacionCompleta() {
+        assertThat(MensajeEventoParser.extraerIds("Cambios en eventos")).isEmpty();
+        assertThat(MensajeEventoParser.extraerIds("{\"mensaje\":\"actualizar\"}")).isEmpty();
+        assertThat(MensajeEventoParser.extraerIds("{\"ids\":[]}")).isEmpty();
+        assertThat(MensajeEventoParser.extraerIds("{\"ids\":[1,\"x\"]}")).isEmpty();
+        assertThat(MensajeEventoParser.extraerIds("{\"id\":1.5}")).isEmpty();
+        assertThat(MensajeEventoParser.extraerIds("")).isEmpty();
+    }
+}
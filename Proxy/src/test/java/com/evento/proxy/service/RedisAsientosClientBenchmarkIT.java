@@ -0,0 +1,176 @@
+package com.evento.proxy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+
+/**
+ * Benchmark de carga de los dos modos de acceso a Redis cátedra contra un Redis en contenedor.
+ *
+ * - jedis: 200 hilos bloqueantes compartiendo un pool de 10 conexiones con PING en cada préstamo
+ *   (la configuración anterior del Proxy).
+ * - lettuce: 8 hilos que emiten los comandos sin esperar, sobre una única conexión multiplexada
+ *   (como el controller asíncrono).
+ *
+ * Imprime throughput y latencias p50/p99 de cada modo. Requiere Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RedisAsientosClientBenchmarkIT {
+
+    private static final int EVENTOS = 100;
+    private static final int CONSULTAS = 20_000;
+
+    private static GenericContainer<?> redis;
+
+    @BeforeAll
+    static void iniciarRedis() {
+        redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+        redis.start();
+        try (Jedis jedis = new Jedis(redis.getHost(), redis.getMappedPort(6379))) {
+            for (int i = 0; i < EVENTOS; i++) {
+                jedis.set("evento_" + i, documento(i));
+            }
+        }
+    }
+
+    @AfterAll
+    static void detenerRedis() {
+        redis.stop();
+    }
+
+    @Test
+    void comparaJedisBloqueanteContraLettuceMultiplexado() throws Exception {
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(10);
+        poolConfig.setTestOnBorrow(true);
+        try (JedisPool pool = new JedisPool(poolConfig, redis.getHost(), redis.getMappedPort(6379), 2000)) {
+            Resultado jedis = medirBloqueante(new JedisAsientosClient(pool), 200);
+            System.out.println("jedis   (200 hilos, pool 10): " + jedis);
+        }
+
+        RedisURI uri = RedisURI.builder().withHost(redis.getHost()).withPort(redis.getMappedPort(6379)).withTimeout(Duration.ofSeconds(2)).build();
+        LettuceAsientosClient lettuceClient = new LettuceAsientosClient(RedisClient.create(uri));
+        try {
+            Resultado lettuce = medirAsincrono(lettuceClient, 8);
+            System.out.println("lettuce (8 hilos, 1 conexión): " + lettuce);
+        } finally {
+            lettuceClient.destroy();
+        }
+    }
+
+    private Resultado medirBloqueante(RedisAsientosClient cliente, int hilos) throws Exception {
+        AtomicLongArray latencias = new AtomicLongArray(CONSULTAS);
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        long inicio = System.nanoTime();
+        List<CompletableFuture<Void>> tareas = new ArrayList<>();
+        for (int i = 0; i < CONSULTAS; i++) {
+            int consulta = i;
+            tareas.add(
+                CompletableFuture.runAsync(
+                    () -> {
+                        long t0 = System.nanoTime();
+                        assertThat(cliente.get("evento_" + (consulta % EVENTOS)).join()).isNotNull();
+                        latencias.set(consulta, System.nanoTime() - t0);
+                    },
+                    executor
+                )
+            );
+        }
+        CompletableFuture.allOf(tareas.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+        long total = System.nanoTime() - inicio;
+        executor.shutdown();
+        return new Resultado(total, latencias);
+    }
+
+    private Resultado medirAsincrono(RedisAsientosClient cliente, int hilos) throws Exception {
+        AtomicLongArray latencias = new AtomicLongArray(CONSULTAS);
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        List<CompletableFuture<Void>> respuestas = Collections.synchronizedList(new ArrayList<>());
+        long inicio = System.nanoTime();
+        List<CompletableFuture<Void>> emisores = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            int hilo = h;
+            emisores.add(
+                CompletableFuture.runAsync(
+                    () -> {
+                        for (int consulta = hilo; consulta < CONSULTAS; consulta += hilos) {
+                            int indice = consulta;
+                            long t0 = System.nanoTime();
+                            respuestas.add(
+                                cliente
+                                    .get("evento_" + (consulta % EVENTOS))
+                                    .thenAccept(valor -> {
+                                        assertThat(valor).isNotNull();
+                                        latencias.set(indice, System.nanoTime() - t0);
+                                    })
+                            );
+                        }
+                    },
+                    executor
+                )
+            );
+        }
+        CompletableFuture.allOf(emisores.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+        CompletableFuture.allOf(respuestas.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+        long total = System.nanoTime() - inicio;
+        executor.shutdown();
+        return new Resultado(total, latencias);
+    }
+
+    private static String documento(int eventoId) {
+        StringBuilder asientos = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            if (i > 0) {
+                asientos.append(',');
+            }
+            asientos.append("{\"fila\":").append(i / 10 + 1).append(",\"columna\":").append(i % 10 + 1).append(",\"estado\":\"Vendido\"}");
+        }
+        return "{\"eventoId\":" + eventoId + ",\"asientos\":[" + asientos + "]}";
+    }
+
+    private static final class Resultado {
+
+        private final long totalNanos;
+        private final long[] latencias;
+
+        private Resultado(long totalNanos, AtomicLongArray latencias) {
+            this.totalNanos = totalNanos;
+            this.latencias = new long[latencias.length()];
+            for (int i = 0; i < latencias.length(); i++) {
+                this.latencias[i] = latencias.get(i);
+            }
+            Arrays.sort(this.latencias);
+        }
+
+        @Override
+        public String toString() {
+            double segundos = totalNanos / 1e9;
+            return String.format(
+                "%.0f consultas/s, p50=%.2f ms, p99=%.2f ms",
+                CONSULTAS / segundos,
+                latencias[latencias.length / 2] / 1e6,
+                latencias[(int) (latencias.length * 0.99)] / 1e6
+            );
+        }
+    }
+}
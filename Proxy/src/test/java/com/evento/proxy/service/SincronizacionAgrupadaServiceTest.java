@@ -0,0 +1,56 @@
+package com.evento.proxy.service;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.evento.proxy.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SincronizacionAgrupadaServiceTest {
+
+    private BackendNotificationService backendNotificationService;
+    private SincronizacionAgrupadaService service;
+
+    @BeforeEach
+    void setup() {
+        backendNotificationService = mock(BackendNotificationService.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getKafka().setVentanaMs(10);
+        applicationProperties.getKafka().setReintentoMs(300);
+        service = new SincronizacionAgrupadaService(backendNotificationService, applicationProperties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void detener() {
+        service.detener();
+    }
+
+    @Test
+    void sincronizacionRechazadaVuelveALaVentanaConLoRecibidoMientras() {
+        when(backendNotificationService.notificarSincronizacionEventos(Set.of(1L))).thenReturn(false);
+        when(backendNotificationService.notificarSincronizacionEventos(Set.of(1L, 2L))).thenReturn(true);
+
+        service.registrar(List.of("{\"eventoId\":1}"));
+        verify(backendNotificationService, timeout(2000)).notificarSincronizacionEventos(Set.of(1L));
+
+        // Llega otro mensaje antes del reintento: se agrupa con el evento que falló
+        service.registrar(List.of("{\"eventoId\":2}"));
+        verify(backendNotificationService, timeout(2000)).notificarSincronizacionEventos(Set.of(1L, 2L));
+    }
+
+    @Test
+    void sincronizacionCompletaRechazadaSeReintenta() {
+        when(backendNotificationService.notificarSincronizacionCompleta()).thenReturn(false, true);
+
+        service.registrar(List.of("actualizacion de eventos"));
+
+        verify(backendNotificationService, timeout(2000).times(2)).notificarSincronizacionCompleta();
+    }
+}
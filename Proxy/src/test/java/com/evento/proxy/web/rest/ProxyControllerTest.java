@@ -0,0 +1,133 @@
+package com.evento.proxy.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.evento.proxy.config.ApplicationProperties;
+import com.evento.proxy.service.AsientosSnapshotCache;
+import com.evento.proxy.service.ConsultarAsientosService;
+import com.evento.proxy.service.RedisAsientosClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class ProxyControllerTest {
+
+    private static final String ASIENTOS = "{\"eventoId\":1,\"asientos\":[{\"fila\":1,\"columna\":2,\"estado\":\"Vendido\"}]}";
+
+    // Contenido de Redis cátedra simulado por key
+    private final Map<String, String> redis = new HashMap<>();
+    private AsientosSnapshotCache snapshotCache;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        RedisAsientosClient redisClient = new RedisAsientosClient() {
+            @Override
+            public CompletableFuture<String> get(String key) {
+                return CompletableFuture.supplyAsync(() -> redis.get(key));
+            }
+
+            @Override
+            public CompletableFuture<List<String>> mget(String... keys) {
+                return CompletableFuture.supplyAsync(() -> Arrays.stream(keys).map(redis::get).toList());
+            }
+        };
+        snapshotCache = new AsientosSnapshotCache(new ApplicationProperties(), new SimpleMeterRegistry());
+        snapshotCache.setNotificacionesActivas(true);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ProxyController(new ConsultarAsientosService(redisClient, snapshotCache))).build();
+    }
+
+    /**
+     * Escribe en el Redis simulado y entrega la keyspace notification correspondiente
+     */
+    private void escribir(String key, String valor) {
+        redis.put(key, valor);
+        snapshotCache.invalidar(key);
+    }
+
+    /**
+     * Ejecuta un request asíncrono del controller y despacha su resultado
+     */
+    private ResultActions ejecutar(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult resultado = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(resultado));
+    }
+
+    @Test
+    void respondeNotModifiedSiElEtagCoincide() throws Exception {
+        escribir("evento_1", ASIENTOS);
+
+        String etag = ejecutar(get("/api/proxy/asientos/1"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(ASIENTOS))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"").endsWith("\"");
+
+        ejecutar(get("/api/proxy/asientos/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag))
+            .andExpect(header().exists(HttpHeaders.AGE))
+            .andExpect(header().exists(ProxyController.HEADER_SNAPSHOT_AGE))
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    void etagCambiaCuandoCambiaElContenido() throws Exception {
+        escribir("evento_1", ASIENTOS);
+        String etag = ejecutar(get("/api/proxy/asientos/1")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        escribir("evento_1", ASIENTOS.replace("Vendido", "Bloqueado"));
+
+        ejecutar(get("/api/proxy/asientos/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(content().string(ASIENTOS.replace("Vendido", "Bloqueado")));
+    }
+
+    @Test
+    void eventoSinDatosDevuelveNotFound() throws Exception {
+        ejecutar(get("/api/proxy/asientos/2")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void consultaBatchDevuelveSoloEventosConDatos() throws Exception {
+        escribir("evento_1", ASIENTOS);
+        escribir("evento_3", "{\"eventoId\":3,\"asientos\":[]}");
+
+        ejecutar(get("/api/proxy/asientos").param("ids", "1,2,3"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$['1'].asientos[0].estado").value("Vendido"))
+            .andExpect(jsonPath("$['2']").doesNotExist())
+            .andExpect(jsonPath("$['3'].eventoId").value(3));
+    }
+
+    @Test
+    void consultaBatchRechazaDemasiadosEventos() throws Exception {
+        String ids = LongStream.rangeClosed(1, ProxyController.MAX_EVENTOS_BATCH + 1)
+            .mapToObj(String::valueOf)
+            .collect(Collectors.joining(","));
+
+        ejecutar(get("/api/proxy/asientos").param("ids", ids)).andExpect(status().isBadRequest());
+    }
+}